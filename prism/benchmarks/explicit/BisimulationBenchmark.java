@@ -0,0 +1,87 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package explicit;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import prism.BenchmarkModels;
+import prism.Prism;
+import prism.PrismException;
+
+/**
+ * Benchmarks for bisimulation minimisation ({@link Bisimulation#minimise}),
+ * with respect to all labels of a (DTMC) model.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BisimulationBenchmark
+{
+	@Param({ "dtmcs/herman/herman11.pm", "dtmcs/herman/herman13.pm", "dtmcs/leader_sync/leader5_4.pm", "dtmcs/leader_sync/leader6_6.pm" })
+	public String model;
+
+	private Prism prism;
+	private Model<Double> builtModel;
+	private List<String> propNames;
+	private List<BitSet> propBSs;
+
+	@Setup
+	public void setup() throws Exception
+	{
+		prism = BenchmarkModels.createPrism();
+		builtModel = BenchmarkModels.buildModel(prism, model);
+		propNames = new ArrayList<>(builtModel.getLabels());
+		propBSs = new ArrayList<>();
+		for (String propName : propNames) {
+			propBSs.add(builtModel.getLabelStates(propName));
+		}
+	}
+
+	@Benchmark
+	public Model<Double> minimise() throws PrismException
+	{
+		return new Bisimulation<Double>(prism).minimise(builtModel, propNames, propBSs);
+	}
+}
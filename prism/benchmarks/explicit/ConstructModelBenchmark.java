@@ -0,0 +1,91 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package explicit;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import prism.BenchmarkModels;
+import prism.Prism;
+import prism.PrismException;
+import simulator.ModulesFileModelGenerator;
+
+/**
+ * Benchmarks for explicit-state model construction ({@link ConstructModel}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ConstructModelBenchmark
+{
+	@Param({ "dtmcs/brp/brp.pm:N=64:MAX=4", "dtmcs/brp/brp.pm:N=1024:MAX=4", "mdps/consensus/coin4.nm:K=2", "mdps/consensus/coin4.nm:K=8" })
+	public String model;
+
+	@Param({ "1", "4" })
+	public int threads;
+
+	private Prism prism;
+	private ModulesFileModelGenerator<Double> modelGen;
+
+	@Setup
+	public void setup() throws Exception
+	{
+		prism = BenchmarkModels.createPrism();
+		modelGen = BenchmarkModels.createModelGenerator(prism, model);
+	}
+
+	@Benchmark
+	public Model<Double> constructModel() throws PrismException
+	{
+		ConstructModel constructModel = new ConstructModel(prism);
+		constructModel.setSortStates(true);
+		constructModel.setNumThreads(threads);
+		return constructModel.constructModel(modelGen);
+	}
+
+	@Benchmark
+	public Object computeReachableStates() throws PrismException
+	{
+		ConstructModel constructModel = new ConstructModel(prism);
+		constructModel.setNumThreads(threads);
+		return constructModel.computeReachableStates(modelGen);
+	}
+}
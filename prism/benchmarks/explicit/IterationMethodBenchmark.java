@@ -0,0 +1,170 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package explicit;
+
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import common.IntSet;
+import prism.BenchmarkModels;
+import prism.Prism;
+import prism.PrismException;
+
+/**
+ * Benchmarks for the {@link IterationMethod} variants (power, Jacobi, Gauss-Seidel),
+ * performing a fixed number of matrix-vector multiplications (with min/max for MDPs)
+ * over all states of a {@link DTMCSparse} or {@link MDPSparse}.
+ * The models and methods are parameters of the (DTMC/MDP) subclasses below,
+ * since Jacobi is not supported for MDPs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public abstract class IterationMethodBenchmark
+{
+	/** Number of iterations per benchmark invocation */
+	public static final int ITERATIONS = 100;
+
+	public static class DTMCs extends IterationMethodBenchmark
+	{
+		@Param({ "dtmcs/brp/brp.pm:N=1024:MAX=4", "dtmcs/herman/herman13.pm" })
+		public String model;
+
+		@Param({ "Power", "Jacobi", "GaussSeidel" })
+		public String method;
+
+		@Override
+		protected String getModel()
+		{
+			return model;
+		}
+
+		@Override
+		protected String getMethod()
+		{
+			return method;
+		}
+	}
+
+	public static class MDPs extends IterationMethodBenchmark
+	{
+		@Param({ "mdps/consensus/coin4.nm:K=4", "mdps/consensus/coin4.nm:K=8" })
+		public String model;
+
+		@Param({ "Power", "GaussSeidel" })
+		public String method;
+
+		@Override
+		protected String getModel()
+		{
+			return model;
+		}
+
+		@Override
+		protected String getMethod()
+		{
+			return method;
+		}
+	}
+
+	@Param({ "1", "4" })
+	public int threads;
+
+	private Model<Double> builtModel;
+	private IterationMethod iterationMethod;
+	private IntSet allStates;
+	private double[] init;
+
+	/** Get the model to benchmark (as for {@link BenchmarkModels}) */
+	protected abstract String getModel();
+
+	/** Get the iteration method to benchmark (Power, Jacobi or GaussSeidel) */
+	protected abstract String getMethod();
+
+	@Setup
+	public void setup() throws Exception
+	{
+		Prism prism = BenchmarkModels.createPrism();
+		builtModel = BenchmarkModels.buildModel(prism, getModel());
+		switch (getMethod()) {
+		case "Power":
+			iterationMethod = new IterationMethodPower(true, 1e-6);
+			break;
+		case "Jacobi":
+			iterationMethod = new IterationMethodJacobi(true, 1e-6);
+			break;
+		case "GaussSeidel":
+			iterationMethod = new IterationMethodGS(true, 1e-6, false);
+			break;
+		default:
+			throw new PrismException("Unknown iteration method " + getMethod());
+		}
+		ProbModelChecker mc = builtModel.getModelType().nondeterministic() ? new MDPModelChecker(prism) : new DTMCModelChecker(prism);
+		mc.setNumThreads(threads);
+		iterationMethod.startParallel(mc);
+		int numStates = builtModel.getNumStates();
+		BitSet all = new BitSet();
+		all.set(0, numStates);
+		allStates = IntSet.asIntSet(all);
+		// Use an arbitrary (but fixed) initial vector
+		init = new double[numStates];
+		for (int s = 0; s < numStates; s++) {
+			init[s] = (s % 7) / 7.0;
+		}
+	}
+
+	@Benchmark
+	public double[] iterate() throws PrismException
+	{
+		IterationMethod.IterationValIter iteration;
+		if (builtModel.getModelType().nondeterministic()) {
+			iteration = iterationMethod.forMvMultMinMax((MDP<Double>) builtModel, false, null);
+		} else {
+			iteration = iterationMethod.forMvMult((DTMC<Double>) builtModel);
+		}
+		iteration.init(init.clone());
+		for (int i = 0; i < ITERATIONS; i++) {
+			iteration.iterateAndCheckConvergence(allStates);
+		}
+		return iteration.getSolnVector();
+	}
+}
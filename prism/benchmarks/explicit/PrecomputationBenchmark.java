@@ -0,0 +1,101 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package explicit;
+
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import prism.BenchmarkModels;
+import prism.Prism;
+
+/**
+ * Benchmarks for the (predecessor relation based) precomputation algorithms
+ * Prob0 and Prob1 for MDPs, for the states satisfying a label, in their min and max variants.
+ * With more than one thread, these use parallel backwards searches
+ * (see {@link PredecessorRelation#calculateBackwardsFixpoint}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PrecomputationBenchmark
+{
+	@Param({ "mdps/consensus/coin4.nm:K=8", "mdps/consensus/coin6.nm:K=4" })
+	public String model;
+
+	@Param({ "finished" })
+	public String label;
+
+	@Param({ "true", "false" })
+	public boolean min;
+
+	@Param({ "1", "4" })
+	public int threads;
+
+	private NondetModel<Double> builtModel;
+	private BitSet target;
+	private MDPModelChecker mc;
+
+	@Setup
+	public void setup() throws Exception
+	{
+		Prism prism = BenchmarkModels.createPrism();
+		builtModel = (NondetModel<Double>) BenchmarkModels.buildModel(prism, model);
+		target = builtModel.getLabelStates(label);
+		mc = new MDPModelChecker(prism);
+		mc.setSilentPrecomputations(true);
+		mc.setNumThreads(threads);
+		// Compute (and store) the predecessor relation up front
+		builtModel.getPredecessorRelation(mc, true);
+	}
+
+	@Benchmark
+	public BitSet prob0()
+	{
+		return mc.prob0(builtModel, null, target, min, null);
+	}
+
+	@Benchmark
+	public BitSet prob1()
+	{
+		return mc.prob1(builtModel, null, target, min, null);
+	}
+}
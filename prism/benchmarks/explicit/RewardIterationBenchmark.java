@@ -0,0 +1,114 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package explicit;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import explicit.rewards.ConstructRewards;
+import explicit.rewards.MDPRewards;
+import explicit.rewards.Rewards;
+import explicit.rewards.RewardsArray;
+import explicit.rewards.RewardsSimple;
+import prism.BenchmarkModels;
+import prism.Evaluator;
+import prism.Prism;
+import simulator.ModulesFileModelGenerator;
+
+/**
+ * Benchmarks for reward-based value iteration over an {@link MDPSparse},
+ * performing a fixed number of matrix-vector multiplications with min/max,
+ * with the rewards stored either as primitive arrays ({@link RewardsArray}, as built
+ * for sparse models by {@link ConstructRewards}) or as boxed values ({@link RewardsSimple}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RewardIterationBenchmark
+{
+	/** Number of iterations per benchmark invocation */
+	public static final int ITERATIONS = 100;
+
+	@Param({ "mdps/csma/csma2_4.nm", "mdps/consensus/coin4.nm:K=4" })
+	public String model;
+
+	@Param({ "array", "simple" })
+	public String storage;
+
+	private MDP<Double> mdp;
+	private MDPRewards<Double> rewards;
+	private double[] init;
+
+	@Setup
+	public void setup() throws Exception
+	{
+		Prism prism = BenchmarkModels.createPrism();
+		ModulesFileModelGenerator<Double> modelGen = BenchmarkModels.createModelGenerator(prism, model);
+		ConstructModel constructModel = new ConstructModel(prism);
+		constructModel.setSortStates(true);
+		mdp = (MDP<Double>) constructModel.constructModel(modelGen);
+		Rewards<Double> rews = new ConstructRewards(prism).buildRewardStructure(mdp, modelGen, 0);
+		if ("simple".equals(storage)) {
+			rews = new RewardsSimple<>(rews, mdp, r -> r, Evaluator.forDouble());
+		}
+		rewards = (MDPRewards<Double>) rews;
+		// Use an arbitrary (but fixed) initial vector
+		int numStates = mdp.getNumStates();
+		init = new double[numStates];
+		for (int s = 0; s < numStates; s++) {
+			init[s] = (s % 7) / 7.0;
+		}
+	}
+
+	@Benchmark
+	public double[] iterate()
+	{
+		double soln[] = init.clone();
+		double soln2[] = new double[soln.length];
+		for (int i = 0; i < ITERATIONS; i++) {
+			mdp.mvMultRewMinMax(soln, rewards, true, soln2, null, false, null);
+			double tmp[] = soln;
+			soln = soln2;
+			soln2 = tmp;
+		}
+		return soln;
+	}
+}
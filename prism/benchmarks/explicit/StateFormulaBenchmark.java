@@ -0,0 +1,98 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package explicit;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import parser.ColumnarExpressionEvaluator;
+import parser.ast.Expression;
+import parser.ast.ModulesFile;
+import parser.ast.PropertiesFile;
+import prism.BenchmarkModels;
+import prism.Prism;
+
+/**
+ * Benchmarks for the evaluation of non-probabilistic state formulas (over variables and labels)
+ * for all states of a model, either column by column (see {@link ColumnarExpressionEvaluator},
+ * with one or more threads) or state by state.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StateFormulaBenchmark
+{
+	@Param({ "mdps/consensus/coin6.nm:K=4" })
+	public String model;
+
+	@Param({ "counter>left & counter<right & (pc1=3 | coin1=coin2)", "\"agree\" & !\"finished\"", "max(counter-left, 0)/(right-left)" })
+	public String formula;
+
+	@Param({ "true", "false" })
+	public boolean columnar;
+
+	@Param({ "1", "4" })
+	public int threads;
+
+	private Model<Double> builtModel;
+	private Expression expr;
+	private MDPModelChecker mc;
+
+	@Setup
+	public void setup() throws Exception
+	{
+		Prism prism = BenchmarkModels.createPrism();
+		ModulesFile modulesFile = BenchmarkModels.parseModel(prism, model);
+		builtModel = BenchmarkModels.buildModel(prism, model);
+		PropertiesFile propertiesFile = prism.parsePropertiesString(modulesFile, formula);
+		expr = propertiesFile.getProperty(0);
+		mc = new MDPModelChecker(prism);
+		mc.setModelCheckingInfo(modulesFile, propertiesFile, null);
+		mc.setColumnarEval(columnar);
+		mc.setNumThreads(threads);
+	}
+
+	@Benchmark
+	public StateValues evaluate() throws Exception
+	{
+		return mc.checkExpression(builtModel, expr, null);
+	}
+}
@@ -0,0 +1,109 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import explicit.Model;
+import prism.BenchmarkModels;
+import prism.Prism;
+import prism.PrismException;
+import prism.PrismPrintStreamLog;
+
+/**
+ * Benchmarks for explicit model export, in PRISM explicit and DRN formats,
+ * to a stream that discards its output (so that formatting, not I/O, is measured).
+ * With more than one thread, blocks of states are formatted in parallel
+ * (see {@link ModelExporter#exportPerState}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ModelExportBenchmark
+{
+	@Param({ "dtmcs/brp/brp.pm:N=1024:MAX=4", "mdps/consensus/coin4.nm:K=8" })
+	public String model;
+
+	@Param({ "1", "4" })
+	public int threads;
+
+	private Model<Double> builtModel;
+	private PrismPrintStreamLog out;
+
+	@Setup
+	public void setup() throws Exception
+	{
+		Prism prism = BenchmarkModels.createPrism();
+		builtModel = BenchmarkModels.buildModel(prism, model);
+		out = new PrismPrintStreamLog(new PrintStream(new OutputStream()
+		{
+			@Override
+			public void write(int b) throws IOException
+			{
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException
+			{
+			}
+		}));
+	}
+
+	@Benchmark
+	public void exportPrismExplicit() throws PrismException
+	{
+		PrismExplicitExporter<Double> exporter = new PrismExplicitExporter<>();
+		exporter.setNumThreads(threads);
+		exporter.exportTransitions(builtModel, out);
+	}
+
+	@Benchmark
+	public void exportDRN() throws PrismException
+	{
+		DRNExporter<Double> exporter = new DRNExporter<>();
+		exporter.setNumThreads(threads);
+		exporter.exportModel(builtModel, out);
+	}
+}
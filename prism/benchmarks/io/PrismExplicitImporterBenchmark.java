@@ -0,0 +1,121 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import explicit.ExplicitFiles2Model;
+import explicit.Model;
+import prism.BenchmarkModels;
+import prism.Prism;
+import prism.PrismException;
+import prism.PrismFileLog;
+import prism.PrismLog;
+
+/**
+ * Benchmarks for model import from PRISM explicit files ({@link PrismExplicitImporter}).
+ * The files are exported to a temporary directory during set-up.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PrismExplicitImporterBenchmark
+{
+	@Param({ "dtmcs/brp/brp.pm:N=1024:MAX=4", "dtmcs/herman/herman13.pm", "mdps/consensus/coin4.nm:K=8" })
+	public String model;
+
+	private Prism prism;
+	private Model<Double> builtModel;
+	private File tmpDir;
+	private File traFile;
+	private File labFile;
+
+	@Setup
+	public void setup() throws Exception
+	{
+		prism = BenchmarkModels.createPrism();
+		builtModel = BenchmarkModels.buildModel(prism, model);
+		tmpDir = Files.createTempDirectory("prism-bench").toFile();
+		// Transitions and labels (including "init")
+		traFile = new File(tmpDir, "model.tra");
+		labFile = new File(tmpDir, "model.lab");
+		builtModel.exportToPrismExplicitTra(traFile.getPath());
+		List<String> labelNames = new ArrayList<>();
+		List<BitSet> labelStates = new ArrayList<>();
+		labelNames.add("init");
+		BitSet init = new BitSet();
+		for (int s : builtModel.getInitialStates()) {
+			init.set(s);
+		}
+		labelStates.add(init);
+		for (String label : builtModel.getLabels()) {
+			labelNames.add(label);
+			labelStates.add(builtModel.getLabelStates(label));
+		}
+		try (PrismLog out = new PrismFileLog(labFile.getPath())) {
+			new PrismExplicitExporter<Double>().exportLabels(builtModel, labelNames, labelStates, out);
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws IOException
+	{
+		for (File file : new File[] { traFile, labFile }) {
+			Files.deleteIfExists(file.toPath());
+		}
+		Files.deleteIfExists(tmpDir.toPath());
+	}
+
+	@Benchmark
+	public Model<Double> importPrismExplicit() throws PrismException
+	{
+		PrismExplicitImporter importer = new PrismExplicitImporter(null, traFile, labFile, null, null, builtModel.getModelType());
+		return new ExplicitFiles2Model(prism).build(importer);
+	}
+}
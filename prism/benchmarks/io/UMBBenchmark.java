@@ -0,0 +1,108 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import explicit.ExplicitFiles2Model;
+import explicit.Model;
+import prism.BenchmarkModels;
+import prism.Prism;
+import prism.PrismException;
+
+/**
+ * Benchmarks for export to and import from UMB files ({@link UMBExporter}, {@link UMBImporter}),
+ * with and without compression. The file is exported to a temporary directory during set-up.
+ * With more than one thread, compressed files are written (and read) as chunks compressed independently in parallel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class UMBBenchmark
+{
+	@Param({ "dtmcs/brp/brp.pm:N=1024:MAX=4", "dtmcs/herman/herman13.pm", "mdps/consensus/coin4.nm:K=8" })
+	public String model;
+
+	@Param({ "false", "true" })
+	public boolean zipped;
+
+	@Param({ "1", "4" })
+	public int threads;
+
+	private Prism prism;
+	private Model<Double> builtModel;
+	private File umbFile;
+
+	@Setup
+	public void setup() throws Exception
+	{
+		prism = BenchmarkModels.createPrism();
+		builtModel = BenchmarkModels.buildModel(prism, model);
+		umbFile = File.createTempFile("prism-bench", ".umb");
+		exportUMB();
+	}
+
+	@TearDown
+	public void tearDown() throws IOException
+	{
+		Files.deleteIfExists(umbFile.toPath());
+	}
+
+	@Benchmark
+	public File exportUMB() throws PrismException
+	{
+		UMBExporter<Double> exporter = new UMBExporter<>(new ModelExportOptions().setZipped(zipped));
+		exporter.setNumThreads(threads);
+		exporter.exportModel(builtModel, umbFile);
+		return umbFile;
+	}
+
+	@Benchmark
+	public Model<Double> importUMB() throws PrismException
+	{
+		return new ExplicitFiles2Model(prism).build(new UMBImporter(umbFile, threads));
+	}
+}
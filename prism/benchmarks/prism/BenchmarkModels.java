@@ -0,0 +1,94 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package prism;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+
+import explicit.ConstructModel;
+import explicit.Model;
+import parser.ast.ModulesFile;
+import simulator.ModulesFileModelGenerator;
+
+/**
+ * Shared set-up for the JMH benchmarks: loading and building models from {@code prism-examples}.
+ * <br><br>
+ * Models are specified as a path relative to the examples directory, optionally followed
+ * by constant definitions, each preceded by a colon, e.g. {@code "dtmcs/brp/brp.pm:N=64:MAX=4"}.
+ * (Colons are used rather than commas, as in the -const switch, since JMH splits
+ * parameter values at commas.) This is the format used for the {@code model}
+ * parameter of each benchmark, which can be overridden from the JMH command line (-p model=...).
+ * The location of the examples directory can be set with -Dprism.examples=...
+ */
+public class BenchmarkModels
+{
+	/** Location of the examples directory */
+	public static final String EXAMPLES_DIR = System.getProperty("prism.examples", "../prism-examples");
+
+	/**
+	 * Create a PRISM instance with default settings and no log output.
+	 */
+	public static Prism createPrism()
+	{
+		return new Prism(new PrismDevNullLog());
+	}
+
+	/**
+	 * Parse a model, specified as described above, and define its constants.
+	 */
+	public static ModulesFile parseModel(Prism prism, String modelSpec) throws FileNotFoundException, PrismException
+	{
+		int i = modelSpec.indexOf(':');
+		String filename = i == -1 ? modelSpec : modelSpec.substring(0, i);
+		ModulesFile modulesFile = prism.parseModelFile(new File(EXAMPLES_DIR, filename));
+		UndefinedConstants undefinedConstants = new UndefinedConstants(modulesFile, null);
+		if (i != -1) {
+			undefinedConstants.defineUsingConstSwitch(modelSpec.substring(i + 1).replace(':', ','));
+		}
+		modulesFile.setSomeUndefinedConstants(undefinedConstants.getMFConstantValues());
+		return modulesFile;
+	}
+
+	/**
+	 * Parse a model, specified as described above, and create a (double-valued) model generator for it.
+	 */
+	public static ModulesFileModelGenerator<Double> createModelGenerator(Prism prism, String modelSpec) throws FileNotFoundException, PrismException
+	{
+		return ModulesFileModelGenerator.createForDoubles(parseModel(prism, modelSpec), prism);
+	}
+
+	/**
+	 * Parse a model, specified as described above, and build it with the explicit engine
+	 * (with states sorted, as for normal model checking).
+	 */
+	public static Model<Double> buildModel(Prism prism, String modelSpec) throws FileNotFoundException, PrismException
+	{
+		ConstructModel constructModel = new ConstructModel(prism);
+		constructModel.setSortStates(true);
+		return constructModel.constructModel(createModelGenerator(prism, modelSpec));
+	}
+}
@@ -0,0 +1,98 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package simulator;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import explicit.ConstructModel;
+import parser.ast.ModulesFile;
+import prism.BenchmarkModels;
+import prism.Evaluator;
+import prism.Prism;
+import prism.PrismException;
+import prism.PrismSettings;
+
+/**
+ * Benchmarks for transition generation ({@link Updater#calculateTransitions}),
+ * computing the transitions of every reachable state of a model,
+ * with and without compilation of expressions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class UpdaterBenchmark
+{
+	@Param({ "dtmcs/brp/brp.pm:N=64:MAX=4", "dtmcs/herman/herman13.pm", "mdps/consensus/coin4.nm:K=2" })
+	public String model;
+
+	@Param({ "true", "false" })
+	public boolean compile;
+
+	private Updater<Double> updater;
+	private TransitionList<Double> transitionList;
+	private List<parser.State> states;
+
+	@Setup
+	public void setup() throws Exception
+	{
+		Prism prism = BenchmarkModels.createPrism();
+		prism.getSettings().set(PrismSettings.PRISM_COMPILE_EXPRESSIONS, compile);
+		ModulesFile modulesFile = BenchmarkModels.parseModel(prism, model);
+		states = new ConstructModel(prism).computeReachableStates(ModulesFileModelGenerator.createForDoubles(modulesFile, prism));
+		// Replace constants, as done by ModulesFileModelGenerator
+		modulesFile = (ModulesFile) modulesFile.deepCopy().replaceConstants(modulesFile.getConstantValues()).simplify();
+		updater = new Updater<>(modulesFile, modulesFile.createVarList(), Evaluator.forDouble(), prism);
+		transitionList = new TransitionList<>(Evaluator.forDouble());
+	}
+
+	@Benchmark
+	public long calculateTransitions() throws PrismException
+	{
+		long numTransitions = 0;
+		for (parser.State state : states) {
+			updater.calculateTransitions(state, transitionList);
+			numTransitions += transitionList.getNumTransitions();
+		}
+		return numTransitions;
+	}
+}
@@ -0,0 +1,57 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package common;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Thread pool shared by parallel computations (e.g. iterative solution methods,
+ * precomputation or the evaluation of expressions over the states of a model),
+ * so that threads are not started (and shut down again) for each computation.
+ * <br>
+ * There is one pool at a time, with the number of threads most recently requested.
+ * Its threads are daemon threads that terminate when idle, so the pool never needs shutting down.
+ */
+public class SharedThreadPool
+{
+	/** The pool (null if not yet needed) */
+	private static ForkJoinPool pool;
+
+	/**
+	 * Get the shared thread pool, with {@code numThreads} threads,
+	 * creating it if needed (or if the number of threads has changed).
+	 * A pool that is replaced is not shut down, since it may still be in use,
+	 * but its threads terminate once it is idle.
+	 */
+	public static synchronized ForkJoinPool get(int numThreads)
+	{
+		if (pool == null || pool.getParallelism() != numThreads) {
+			pool = new ForkJoinPool(numThreads);
+		}
+		return pool;
+	}
+}
@@ -27,18 +27,41 @@
 package explicit;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import parser.State;
+import prism.Evaluator;
 import prism.PrismComponent;
 import prism.PrismException;
 import prism.PrismNotSupportedException;
+import prism.PrismSettings;
 
 /**
  * Class to perform bisimulation minimisation for explicit-state models.
+ * <br><br>
+ * This uses signature-based partition refinement: the signature of a state is its outgoing
+ * distribution(s), lifted to the current partition, and blocks are split according to signatures
+ * until the partition is stable. Only blocks containing a predecessor of a state that has moved
+ * to a new block need to be re-split, so a worklist of such blocks is maintained. When splitting,
+ * the largest part keeps the index of the original block, so only states in the other parts
+ * count as moved. Signatures (and their hash codes) are computed in parallel if more than one thread is used.
+ * <br><br>
+ * For DTMCs, this computes probabilistic bisimulation, for CTMCs (ordinary) lumpability
+ * and for MDPs, (strong) probabilistic bisimulation, respecting action labels.
  */
 public class Bisimulation<Value> extends PrismComponent
 {
@@ -46,7 +69,18 @@ public class Bisimulation<Value> extends PrismComponent
 	protected int numStates;
 	protected int[] partition;
 	protected int numBlocks;
-	protected MDPSimple<Value> mdp;
+
+	// States, grouped by block: the states of block b are
+	// blockStates[blockStart[b]], ..., blockStates[blockEnd[b]-1]
+	protected int[] blockStates;
+	protected int[] blockStart;
+	protected int[] blockEnd;
+
+	// Number of threads to use for computing signatures
+	protected int numThreads = 1;
+
+	/** Minimum number of states for which signatures are computed in a single parallel task */
+	private static final int PARALLEL_MIN_TASK_SIZE = 4096;
 
 	/**
 	 * Construct a new Bisimulation object.
@@ -54,6 +88,17 @@ public class Bisimulation<Value> extends PrismComponent
 	public Bisimulation(PrismComponent parent) throws PrismException
 	{
 		super(parent);
+		if (settings != null) {
+			numThreads = settings.getInteger(PrismSettings.PRISM_NUM_THREADS);
+		}
+	}
+
+	/**
+	 * Set the number of threads to use for computing state signatures.
+	 */
+	public void setNumThreads(int numThreads)
+	{
+		this.numThreads = numThreads;
 	}
 
 	/**
@@ -69,6 +114,8 @@ public class Bisimulation<Value> extends PrismComponent
 			return minimiseDTMC((DTMC<Value>) model, propNames, propBSs);
 		case CTMC:
 			return minimiseCTMC((CTMC<Value>) model, propNames, propBSs);
+		case MDP:
+			return minimiseMDP((MDP<Value>) model, propNames, propBSs);
 		default:
 			throw new PrismNotSupportedException("Bisimulation minimisation not yet supported for " + model.getModelType() + "s");
 		}
@@ -80,24 +127,20 @@ public class Bisimulation<Value> extends PrismComponent
 	 * @param propNames Names of the propositions in {@code propBSs}
 	 * @param propBSs Propositions (satisfying sets of states) to be preserved by bisimulation.
 	 */
-	private DTMC<Value> minimiseDTMC(DTMC<Value> dtmc, List<String> propNames, List<BitSet> propBSs)
+	private DTMC<Value> minimiseDTMC(DTMC<Value> dtmc, List<String> propNames, List<BitSet> propBSs) throws PrismException
 	{
-		// Create initial partition based on propositions
+		// Create initial partition based on propositions, then refine
 		initialisePartitionInfo(dtmc, propBSs);
-		//printPartition(dtmc);
-
-		// Iterative splitting
-		boolean changed = true;
-		while (changed)
-			changed = splitDTMC(dtmc);
+		refinePartition(dtmc);
 		mainLog.println("Minimisation: " + numStates + " to " + numBlocks + " States");
 		//printPartition(dtmc);
 
 		// Build reduced model
 		DTMCSimple<Value> dtmcNew = new DTMCSimple<>(numBlocks);
-		for (int i = 0; i < numBlocks; i++) {
-			for (Map.Entry<Integer, Value> e : mdp.getChoice(i, 0)) {
-				dtmcNew.setProbability(i, e.getKey(), e.getValue());
+		for (int b = 0; b < numBlocks; b++) {
+			DistributionSignature sig = liftDistribution(null, dtmc.getTransitionsIterator(blockStates[blockStart[b]]), dtmc.getEvaluator());
+			for (int k = 0; k < sig.blocks.length; k++) {
+				dtmcNew.setProbability(b, sig.blocks[k], sig.getValue(k));
 			}
 		}
 		attachStatesAndLabels(dtmc, dtmcNew, propNames, propBSs);
@@ -111,24 +154,20 @@ public class Bisimulation<Value> extends PrismComponent
 	 * @param propNames Names of the propositions in {@code propBSs}
 	 * @param propBSs Propositions (satisfying sets of states) to be preserved by bisimulation.
 	 */
-	private CTMC<Value> minimiseCTMC(CTMC<Value> ctmc, List<String> propNames, List<BitSet> propBSs)
+	private CTMC<Value> minimiseCTMC(CTMC<Value> ctmc, List<String> propNames, List<BitSet> propBSs) throws PrismException
 	{
-		// Create initial partition based on propositions
+		// Create initial partition based on propositions, then refine
 		initialisePartitionInfo(ctmc, propBSs);
-		//printPartition(ctmc);
-
-		// Iterative splitting
-		boolean changed = true;
-		while (changed)
-			changed = splitDTMC(ctmc);
+		refinePartition(ctmc);
 		mainLog.println("Minimisation: " + numStates + " to " + numBlocks + " States");
 		//printPartition(ctmc);
 
 		// Build reduced model
 		CTMCSimple<Value> ctmcNew = new CTMCSimple<>(numBlocks);
-		for (int i = 0; i < numBlocks; i++) {
-			for (Map.Entry<Integer, Value> e : mdp.getChoice(i, 0)) {
-				ctmcNew.setProbability(i, e.getKey(), e.getValue());
+		for (int b = 0; b < numBlocks; b++) {
+			DistributionSignature sig = liftDistribution(null, ctmc.getTransitionsIterator(blockStates[blockStart[b]]), ctmc.getEvaluator());
+			for (int k = 0; k < sig.blocks.length; k++) {
+				ctmcNew.setProbability(b, sig.blocks[k], sig.getValue(k));
 			}
 		}
 		attachStatesAndLabels(ctmc, ctmcNew, propNames, propBSs);
@@ -136,9 +175,43 @@ public class Bisimulation<Value> extends PrismComponent
 		return ctmcNew;
 	}
 
+	/**
+	 * Perform bisimulation minimisation on an MDP.
+	 * @param mdp The MDP
+	 * @param propNames Names of the propositions in {@code propBSs}
+	 * @param propBSs Propositions (satisfying sets of states) to be preserved by bisimulation.
+	 */
+	private MDP<Value> minimiseMDP(MDP<Value> mdp, List<String> propNames, List<BitSet> propBSs) throws PrismException
+	{
+		// Create initial partition based on propositions, then refine
+		initialisePartitionInfo(mdp, propBSs);
+		refinePartition(mdp);
+		mainLog.println("Minimisation: " + numStates + " to " + numBlocks + " States");
+		//printPartition(mdp);
+
+		// Build reduced model (duplicate choices are not added)
+		MDPSimple<Value> mdpNew = new MDPSimple<>(numBlocks);
+		for (int b = 0; b < numBlocks; b++) {
+			int s = blockStates[blockStart[b]];
+			int numChoices = mdp.getNumChoices(s);
+			for (int i = 0; i < numChoices; i++) {
+				DistributionSignature sig = liftDistribution(mdp.getAction(s, i), mdp.getTransitionsIterator(s, i), mdp.getEvaluator());
+				Distribution<Value> distr = new Distribution<>(mdp.getEvaluator());
+				for (int k = 0; k < sig.blocks.length; k++) {
+					distr.set(sig.blocks[k], sig.getValue(k));
+				}
+				mdpNew.addActionLabelledChoice(b, distr, sig.action);
+			}
+		}
+		attachStatesAndLabels(mdp, mdpNew, propNames, propBSs);
+
+		return mdpNew;
+	}
+
 	/**
 	 * Construct the initial partition based on a set of proposition bitsets.
-	 * Store info in {@code numStates}, {@code numBlocks} and {@code partition}.
+	 * Store info in {@code numStates}, {@code numBlocks} and {@code partition}
+	 * (and {@code blockStates}, {@code blockStart} and {@code blockEnd}).
 	 */
 	private void initialisePartitionInfo(Model<Value> model, List<BitSet> propBSs)
 	{
@@ -148,11 +221,17 @@ public class Bisimulation<Value> extends PrismComponent
 
 		// Compute all non-empty combinations of propositions
 		List<BitSet> all = new ArrayList<BitSet>();
-		bs1 = (BitSet) propBSs.get(0).clone();
-		bs0 = (BitSet) bs1.clone();
-		bs0.flip(0, numStates);
-		all.add(bs1);
-		all.add(bs0);
+		if (propBSs.isEmpty()) {
+			bs1 = new BitSet();
+			bs1.set(0, numStates);
+			all.add(bs1);
+		} else {
+			bs1 = (BitSet) propBSs.get(0).clone();
+			bs0 = (BitSet) bs1.clone();
+			bs0.flip(0, numStates);
+			all.add(bs1);
+			all.add(bs0);
+		}
 		int n = propBSs.size();
 		for (int i = 1; i < n; i++) {
 			BitSet bs = propBSs.get(i);
@@ -170,64 +249,343 @@ public class Bisimulation<Value> extends PrismComponent
 				}
 			}
 		}
+		all.removeIf(BitSet::isEmpty);
 
 		// Construct initial partition
 		numBlocks = all.size();
+		blockStates = new int[numStates];
+		blockStart = new int[numStates];
+		blockEnd = new int[numStates];
+		int count = 0;
 		for (int j = 0; j < numBlocks; j++) {
 			BitSet bs = all.get(j);
+			blockStart[j] = count;
 			for (int i = bs.nextSetBit(0); i >= 0; i = bs.nextSetBit(i + 1)) {
 				partition[i] = j;
+				blockStates[count++] = i;
+			}
+			blockEnd[j] = count;
+		}
+	}
+
+	/**
+	 * Refine the current partition until it is stable, i.e., a bisimulation,
+	 * updating {@code numBlocks}, {@code partition}, {@code blockStates}, {@code blockStart} and {@code blockEnd}.
+	 */
+	private void refinePartition(Model<Value> model) throws PrismException
+	{
+		long timer = System.currentTimeMillis();
+
+		// Compute predecessor relation (as compact arrays):
+		// the predecessors of s are preStates[preStart[s]], ..., preStates[preStart[s+1]-1]
+		int preStart[] = new int[numStates + 1];
+		for (int s = 0; s < numStates; s++) {
+			for (Iterator<Integer> it = model.getSuccessorsIterator(s); it.hasNext();) {
+				preStart[it.next() + 1]++;
+			}
+		}
+		for (int s = 0; s < numStates; s++) {
+			preStart[s + 1] += preStart[s];
+		}
+		int preStates[] = new int[preStart[numStates]];
+		int preCount[] = Arrays.copyOf(preStart, numStates);
+		for (int s = 0; s < numStates; s++) {
+			for (Iterator<Integer> it = model.getSuccessorsIterator(s); it.hasNext();) {
+				preStates[preCount[it.next()]++] = s;
+			}
+		}
+		preCount = null;
+
+		// Worklist of blocks to be (re-)split: initially all of them
+		int worklist[] = new int[numStates];
+		BitSet inWorklist = new BitSet();
+		int worklistSize = numBlocks;
+		for (int b = 0; b < numBlocks; b++) {
+			worklist[b] = b;
+		}
+		inWorklist.set(0, numBlocks);
+
+		// Storage for signatures, indexed as for blockStates
+		Object sigs[] = new Object[numStates];
+		int rounds = 0;
+		ExecutorService executor = numThreads > 1 ? Executors.newFixedThreadPool(numThreads) : null;
+		try {
+			while (worklistSize > 0) {
+				rounds++;
+				// Take the current worklist
+				int todo[] = Arrays.copyOf(worklist, worklistSize);
+				worklistSize = 0;
+				inWorklist.clear();
+				// Compute signatures for all states in these blocks (w.r.t. the current partition)
+				computeSignatures(model, todo, sigs, executor);
+				// Split blocks according to signatures
+				// (other blocks may be split in the meantime, but signatures of the states
+				// affected by this are recomputed, since their blocks are added to the worklist)
+				for (int b : todo) {
+					int numBlocksOld = numBlocks;
+					splitBlock(b, sigs);
+					// For states that moved to new blocks, add blocks of their predecessors to the worklist
+					for (int b2 = numBlocksOld; b2 < numBlocks; b2++) {
+						for (int j = blockStart[b2]; j < blockEnd[b2]; j++) {
+							int s = blockStates[j];
+							for (int k = preStart[s]; k < preStart[s + 1]; k++) {
+								int bPre = partition[preStates[k]];
+								if (!inWorklist.get(bPre)) {
+									inWorklist.set(bPre);
+									worklist[worklistSize++] = bPre;
+								}
+							}
+						}
+					}
+					// If b was already in the worklist, so should all the blocks split off from it be
+					if (inWorklist.get(b)) {
+						for (int b2 = numBlocksOld; b2 < numBlocks; b2++) {
+							if (!inWorklist.get(b2)) {
+								inWorklist.set(b2);
+								worklist[worklistSize++] = b2;
+							}
+						}
+					}
+				}
+				for (int b : todo) {
+					Arrays.fill(sigs, blockStart[b], blockEnd[b], null);
+				}
+			}
+		} finally {
+			if (executor != null) {
+				executor.shutdownNow();
+			}
+		}
+
+		timer = System.currentTimeMillis() - timer;
+		mainLog.println("Partition refinement: " + rounds + " rounds, " + timer / 1000.0 + " seconds" + (numThreads > 1 ? " (using " + numThreads + " threads)" : ""));
+	}
+
+	/**
+	 * Compute the signatures of all states in some blocks (w.r.t. the current partition),
+	 * storing them in {@code sigs} (indexed as for {@code blockStates}),
+	 * using multiple threads if {@code executor} is non-null.
+	 */
+	private void computeSignatures(Model<Value> model, int blocks[], Object sigs[], ExecutorService executor) throws PrismException
+	{
+		// Divide the states of the blocks into tasks of roughly equal size
+		List<int[]> ranges = new ArrayList<>();
+		int total = 0;
+		for (int b : blocks) {
+			// (singleton blocks cannot be split)
+			if (blockEnd[b] - blockStart[b] > 1) {
+				ranges.add(new int[] { blockStart[b], blockEnd[b] });
+				total += blockEnd[b] - blockStart[b];
+			}
+		}
+		if (executor == null || total < 2 * PARALLEL_MIN_TASK_SIZE) {
+			for (int[] range : ranges) {
+				for (int j = range[0]; j < range[1]; j++) {
+					sigs[j] = computeSignature(model, blockStates[j]);
+				}
+			}
+			return;
+		}
+		int taskSize = Math.max(PARALLEL_MIN_TASK_SIZE, total / (4 * numThreads));
+		List<int[]> tasks = new ArrayList<>();
+		for (int[] range : ranges) {
+			for (int lo = range[0]; lo < range[1]; lo += taskSize) {
+				tasks.add(new int[] { lo, Math.min(range[1], lo + taskSize) });
+			}
+		}
+		AtomicInteger nextTask = new AtomicInteger();
+		List<Callable<Void>> workers = new ArrayList<>(numThreads);
+		for (int t = 0; t < numThreads; t++) {
+			workers.add(() -> {
+				for (int i = nextTask.getAndIncrement(); i < tasks.size(); i = nextTask.getAndIncrement()) {
+					int[] task = tasks.get(i);
+					for (int j = task[0]; j < task[1]; j++) {
+						sigs[j] = computeSignature(model, blockStates[j]);
+					}
+				}
+				return null;
+			});
+		}
+		try {
+			for (Future<Void> future : executor.invokeAll(workers)) {
+				future.get();
+			}
+		} catch (ExecutionException e) {
+			throw new PrismException("Error during bisimulation minimisation: " + e.getCause());
+		} catch (InterruptedException e) {
+			throw new PrismException("Bisimulation minimisation was interrupted");
+		}
+	}
+
+	/**
+	 * Split block {@code b} according to the (already computed) signatures of its states.
+	 * The largest part keeps index {@code b}; the others become new blocks
+	 * {@code numBlocks}, {@code numBlocks+1}, ...
+	 */
+	private void splitBlock(int b, Object sigs[])
+	{
+		int lo = blockStart[b];
+		int hi = blockEnd[b];
+		if (hi - lo <= 1) {
+			return;
+		}
+		// Group states by signature
+		Map<Object, Integer> sigIndex = new HashMap<>();
+		int group[] = new int[hi - lo];
+		for (int j = lo; j < hi; j++) {
+			Integer g = sigIndex.putIfAbsent(sigs[j], sigIndex.size());
+			group[j - lo] = g == null ? sigIndex.size() - 1 : g;
+		}
+		int numGroups = sigIndex.size();
+		if (numGroups == 1) {
+			return;
+		}
+		// Find the size of each group, and the largest
+		int groupSize[] = new int[numGroups];
+		for (int g : group) {
+			groupSize[g]++;
+		}
+		int largest = 0;
+		for (int g = 1; g < numGroups; g++) {
+			if (groupSize[g] > groupSize[largest]) {
+				largest = g;
+			}
+		}
+		// Assign block indices (largest group keeps index b) and positions in blockStates
+		int groupBlock[] = new int[numGroups];
+		int groupPos[] = new int[numGroups];
+		int pos = lo;
+		for (int g = 0; g < numGroups; g++) {
+			groupBlock[g] = g == largest ? b : numBlocks++;
+			groupPos[g] = pos;
+			blockStart[groupBlock[g]] = pos;
+			pos += groupSize[g];
+			blockEnd[groupBlock[g]] = pos;
+		}
+		// Reorder states (and signatures) in blockStates
+		int statesOld[] = Arrays.copyOfRange(blockStates, lo, hi);
+		Object sigsOld[] = Arrays.copyOfRange(sigs, lo, hi);
+		for (int j = 0; j < hi - lo; j++) {
+			int g = group[j];
+			int s = statesOld[j];
+			sigs[groupPos[g]] = sigsOld[j];
+			blockStates[groupPos[g]++] = s;
+			partition[s] = groupBlock[g];
+		}
+	}
+
+	/**
+	 * Compute the signature of state {@code s} w.r.t. the current partition:
+	 * for a DTMC or CTMC, its outgoing distribution lifted to the partition ({@link DistributionSignature});
+	 * for an MDP, the set of lifted (action-labelled) distributions for all its choices.
+	 */
+	private Object computeSignature(Model<Value> model, int s)
+	{
+		if (model instanceof MDP) {
+			MDP<Value> mdp = (MDP<Value>) model;
+			int numChoices = mdp.getNumChoices(s);
+			Set<DistributionSignature> sig = new HashSet<>(numChoices * 2);
+			for (int i = 0; i < numChoices; i++) {
+				sig.add(liftDistribution(mdp.getAction(s, i), mdp.getTransitionsIterator(s, i), mdp.getEvaluator()));
+			}
+			return sig;
+		} else {
+			DTMC<Value> dtmc = (DTMC<Value>) model;
+			return liftDistribution(null, dtmc.getTransitionsIterator(s), dtmc.getEvaluator());
+		}
+	}
+
+	/**
+	 * Lift a distribution (or rates) to the current partition,
+	 * i.e., sum the values for the states in each block.
+	 * @param action Action label for the distribution (optional, can be null)
+	 * @param iter Iterator over the distribution
+	 * @param eval Evaluator for values
+	 */
+	private DistributionSignature liftDistribution(Object action, Iterator<Map.Entry<Integer, Value>> iter, Evaluator<Value> eval)
+	{
+		// Keep blocks sorted (distributions are typically small, so just use insertion)
+		int size = 0;
+		int blocks[] = new int[4];
+		Object values[] = new Object[4];
+		while (iter.hasNext()) {
+			Map.Entry<Integer, Value> e = iter.next();
+			if (eval.isZero(e.getValue())) {
+				continue;
+			}
+			int b = partition[e.getKey()];
+			int k = Arrays.binarySearch(blocks, 0, size, b);
+			if (k >= 0) {
+				@SuppressWarnings("unchecked")
+				Value v = (Value) values[k];
+				values[k] = eval.add(v, e.getValue());
+			} else {
+				k = -k - 1;
+				if (size == blocks.length) {
+					blocks = Arrays.copyOf(blocks, 2 * size);
+					values = Arrays.copyOf(values, 2 * size);
+				}
+				System.arraycopy(blocks, k, blocks, k + 1, size - k);
+				System.arraycopy(values, k, values, k + 1, size - k);
+				blocks[k] = b;
+				values[k] = e.getValue();
+				size++;
 			}
 		}
+		return new DistributionSignature(action, Arrays.copyOf(blocks, size), Arrays.copyOf(values, size), eval);
 	}
 
 	/**
-	 * Perform a split of the current partition, if possible, updating {@code numBlocks} and {@code partition}.
-	 * @return whether or not the partition was split 
+	 * A distribution (or rates) lifted to a partition: block indices (sorted) and the corresponding values,
+	 * plus an (optional) action label. The hash code is computed on construction (so, possibly, in parallel).
+	 * Values are compared using the evaluator's equality check (which, for doubles, allows for round-off),
+	 * as for {@link Distribution#equals(Object)}, so they are not included in the hash code.
 	 */
-	private boolean splitDTMC(DTMC<Value> dtmc)
+	protected static final class DistributionSignature
 	{
-		int s, a, i, numBlocksNew, numChoicesOld;
-		Distribution<Value> distrNew;
-		int partitionNew[];
-
-		partitionNew = new int[numStates];
-		numBlocksNew = 0;
-		// Compute the signature for each state (i.e. the distribution for outgoing
-		// transitions, lifted to the current partition)
-		// For convenience, we just store them as an MDP, with action label equal to the index of the block
-		mdp = new MDPSimple<>(numBlocks);
-		for (s = 0; s < numStates; s++) {
-			// Build lifted distribution
-			Iterator<Map.Entry<Integer, Value>> iter = dtmc.getTransitionsIterator(s);
-			distrNew = new Distribution<>(dtmc.getEvaluator());
-			while (iter.hasNext()) {
-				Map.Entry<Integer, Value> e = iter.next();
-				distrNew.add(partition[e.getKey()], e.getValue());
+		private final Object action;
+		private final int blocks[];
+		private final Object values[];
+		private final Evaluator<?> eval;
+		private final int hash;
+
+		public DistributionSignature(Object action, int blocks[], Object values[], Evaluator<?> eval)
+		{
+			this.action = action;
+			this.blocks = blocks;
+			this.values = values;
+			this.eval = eval;
+			hash = 31 * Objects.hashCode(action) + Arrays.hashCode(blocks);
+		}
+
+		@SuppressWarnings("unchecked")
+		public <Value> Value getValue(int k)
+		{
+			return (Value) values[k];
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object o)
+		{
+			if (!(o instanceof DistributionSignature))
+				return false;
+			DistributionSignature other = (DistributionSignature) o;
+			if (hash != other.hash || !Objects.equals(action, other.action) || !Arrays.equals(blocks, other.blocks))
+				return false;
+			@SuppressWarnings("unchecked")
+			Evaluator<Object> evalObj = (Evaluator<Object>) eval;
+			for (int k = 0; k < values.length; k++) {
+				if (!evalObj.equals(values[k], other.values[k]))
+					return false;
 			}
-			// Store in MDP, update new partition
-			a = partition[s];
-			numChoicesOld = mdp.getNumChoices(a);
-			i = mdp.addChoice(a, distrNew);
-			if (i == numChoicesOld)
-				mdp.setAction(a, i, numBlocksNew++);
-			partitionNew[s] = (Integer) mdp.getAction(a, i);
-		}
-		// Debug info
-		//mainLog.println("New partition: " + java.util.Arrays.toString(partitionNew));
-		//mainLog.println("Signatures MDP: " + mdp.infoString());
-		//mainLog.println("Signatures MDP: " + mdp);
-		//try { mdp.exportToDotFile("mdp.dot"); } catch (PrismException e) {}
-		// Update info
-		boolean changed = numBlocks != numBlocksNew;
-		if (changed) {
-			// Note, once converged, we keep the partition from the previous iter
-			// because the transition info in the MDP is in terms of this
-			partition = partitionNew;
-			numBlocks = numBlocksNew;
-		}
-
-		return changed;
+			return true;
+		}
 	}
 
 	/**
@@ -250,7 +608,7 @@ public class Bisimulation<Value> extends PrismComponent
 
 	/**
 	 * Attach a list of states to the minimised model by adding a representative state
-	 * from the original model.
+	 * from the original model, and mark the blocks containing initial states as initial.
 	 * Also attach information about the propositions (used for bisimulation minimisation)
 	 * to the minimised model, in the form of labels (stored as BitSets).
 	 * @param model The original model
@@ -274,6 +632,12 @@ public class Bisimulation<Value> extends PrismComponent
 			modelNew.setStatesList(statesListNew);
 		}
 
+		// Initial states
+		for (int s : model.getInitialStates()) {
+			if (!modelNew.isInitialState(partition[s]))
+				modelNew.addInitialState(partition[s]);
+		}
+
 		// Build/attach new labels
 		int numProps = propBSs.size();
 		for (int i = 0; i < numProps; i++) {
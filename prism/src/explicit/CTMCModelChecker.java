@@ -28,6 +28,8 @@ package explicit;
 
 import java.io.File;
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.stream.IntStream;
 
 import common.IterableBitSet;
 import explicit.StateValues;
@@ -42,14 +44,61 @@ import prism.*;
  */
 public class CTMCModelChecker extends ProbModelChecker
 {
+	/**
+	 * Consumer for the results of a transient computation done for several time points at once.
+	 */
+	@FunctionalInterface
+	public interface TransientResultConsumer
+	{
+		/**
+		 * Receive the solution vector for the {@code i}th time point.
+		 */
+		void accept(int i, double soln[]) throws PrismException;
+	}
+
+	// Sweep over property constants (e.g. an experiment), in which time bounds are shared (null if none)
+	protected TimeBoundSweep timeBoundSweep = null;
+
+	// Use steady-state detection during uniformisation?
+	protected boolean doSSDetect = true;
+
 	/**
 	 * Create a new CTMCModelChecker, inherit basic state from parent (unless null).
 	 */
 	public CTMCModelChecker(PrismComponent parent) throws PrismException
 	{
 		super(parent);
+
+		// If present, initialise settings from PrismSettings
+		if (settings != null) {
+			setDoSSDetect(settings.getBoolean(PrismSettings.PRISM_DO_SS_DETECTION));
+		}
 	}
-	
+
+	/**
+	 * Set whether or not to use steady-state detection during uniformisation,
+	 * i.e., stop iterating once the solution vector has (provably) converged closely enough.
+	 */
+	public void setDoSSDetect(boolean doSSDetect)
+	{
+		this.doSSDetect = doSSDetect;
+	}
+
+	public boolean getDoSSDetect()
+	{
+		return doSSDetect;
+	}
+
+	/**
+	 * Specify a sweep over property constants that is in progress (e.g. an experiment),
+	 * allowing time-bounded until probabilities to be computed for all the time bounds
+	 * needed by the sweep at once (null means none).
+	 */
+	public void setTimeBoundSweep(TimeBoundSweep timeBoundSweep)
+	{
+		this.timeBoundSweep = timeBoundSweep;
+	}
+
 	// Model checking functions
 
 	@SuppressWarnings("unchecked")
@@ -198,8 +247,12 @@ public class CTMCModelChecker extends ProbModelChecker
 			else if (lTime == 0) {
 				// nb: uTime != 0 since would be caught above (trivial case)
 				b1.andNot(b2);
-				res = computeTransientBackwardsProbs((CTMC<Double>) model, b2, b1, uTime, null);
-				probs = StateValues.createFromDoubleArray(res.soln, model);
+				if (timeBoundSweep != null) {
+					res = computeTransientBackwardsProbsForSweep((CTMC<Double>) model, b2, b1, uTime, expr.getUpperBound());
+				} else {
+					res = computeTransientBackwardsProbs((CTMC<Double>) model, b2, b1, uTime, null);
+				}
+				probs = StateValues.createFromDoubleArrayResult(res, model);
 				// set values to exactly 1 for target (b2) states
 				// (these are computed inexactly during uniformisation)
 				int n = model.getNumStates();
@@ -214,7 +267,11 @@ public class CTMCModelChecker extends ProbModelChecker
 				tmp.andNot(b2);
 				tmpRes = computeTransientBackwardsProbs((CTMC<Double>) model, b2, tmp, uTime - lTime, null);
 				res = computeTransientBackwardsProbs((CTMC<Double>) model, b1, b1, lTime, tmpRes.soln);
-				probs = StateValues.createFromDoubleArray(res.soln, model);
+				// (errors in the first computation carry over to the second one)
+				if (tmpRes.accuracy != null && res.accuracy != null) {
+					res.accuracy = AccuracyFactory.guaranteedNumericalIterative(tmpRes.accuracy.getErrorBound() + res.accuracy.getErrorBound(), true);
+				}
+				probs = StateValues.createFromDoubleArrayResult(res, model);
 			}
 		}
 
@@ -296,7 +353,7 @@ public class CTMCModelChecker extends ProbModelChecker
 	{
 		StateValues initDistNew = (initDist == null) ? buildInitialDistribution(ctmc) : initDist;
 		ModelCheckerResult res = computeTransientProbs(ctmc, t, initDistNew.getDoubleArray());
-		return StateValues.createFromDoubleArray(res.soln, ctmc);
+		return StateValues.createFromDoubleArrayResult(res, ctmc);
 	}
 
 	// Numerical computation functions
@@ -403,6 +460,36 @@ public class CTMCModelChecker extends ProbModelChecker
 		return res;
 	}
 
+	/**
+	 * Compute time-bounded until probabilities for several time bounds at once,
+	 * i.e. compute the probability of reaching a state in {@code target},
+	 * within time {@code ts[j]}, and while remaining in states in {@code remain}, for each j.
+	 * A single sequence of matrix-vector multiplications (for the largest time bound) is used.
+	 * @param ctmc The CTMC
+	 * @param remain Remain in these states (optional: null means "all")
+	 * @param target Target states
+	 * @param ts Time bounds
+	 */
+	public ModelCheckerResult[] computeTimeBoundedUntilProbs(CTMC<Double> ctmc, BitSet remain, BitSet target, double ts[]) throws PrismException
+	{
+		BitSet nonAbs = null;
+		if (remain != null) {
+			nonAbs = (BitSet) remain.clone();
+			nonAbs.andNot(target);
+		}
+		ModelCheckerResult[] res = computeTransientBackwardsProbs(ctmc, target, nonAbs, ts, null);
+		// Set values to exactly 1 for target states
+		// (these are computed inexactly during uniformisation)
+		int n = ctmc.getNumStates();
+		for (ModelCheckerResult resT : res) {
+			for (int i = 0; i < n; i++) {
+				if (target.get(i))
+					resT.soln[i] = 1.0;
+			}
+		}
+		return res;
+	}
+
 	/**
 	 * Perform transient probability computation, as required for (e.g. CSL) model checking.
 	 * Compute, for each state, the sum over {@code target} states
@@ -418,21 +505,42 @@ public class CTMCModelChecker extends ProbModelChecker
 	 */
 	public ModelCheckerResult computeTransientBackwardsProbs(CTMC<Double> ctmc, BitSet target, BitSet nonAbs, double t, double multProbs[]) throws PrismException
 	{
-		ModelCheckerResult res = null;
+		return computeTransientBackwardsProbs(ctmc, target, nonAbs, new double[] { t }, multProbs)[0];
+	}
+
+	/**
+	 * Perform transient probability computation, as required for (e.g. CSL) model checking,
+	 * for several time points at once, i.e., as for {@link #computeTransientBackwardsProbs(CTMC, BitSet, BitSet, double, double[])}
+	 * for each time {@code ts[j]}, but using a single sequence of matrix-vector multiplications.
+	 * @param ctmc The CTMC
+	 * @param target Target states
+	 * @param nonAbs States *not* to be made absorbing (optional: null means "all")
+	 * @param ts Time bounds
+	 * @param multProbs Multiplication vector (optional: null means all 1s)
+	 */
+	public ModelCheckerResult[] computeTransientBackwardsProbs(CTMC<Double> ctmc, BitSet target, BitSet nonAbs, double ts[], double multProbs[]) throws PrismException
+	{
+		ModelCheckerResult res[] = new ModelCheckerResult[ts.length];
 		int i, n, iters;
-		double soln[], soln2[], tmpsoln[], sum[];
+		double soln[];
 		DTMC<Double> dtmc;
 		long timer;
-		// Fox-Glynn stuff
-		FoxGlynn fg;
-		int left, right;
-		double q, qt, acc, weights[], totalWeight;
+		double q;
 
 		// Optimisations: If (nonAbs is empty or t = 0) and multProbs is null, this is easy.
-		if (((nonAbs != null && nonAbs.isEmpty()) || (t == 0)) && multProbs == null) {
-			res = new ModelCheckerResult();
-			res.soln = Utils.bitsetToDoubleArray(target, ctmc.getNumStates());
-			return res;
+		if (multProbs == null) {
+			boolean allDone = true;
+			for (int j = 0; j < ts.length; j++) {
+				if ((nonAbs != null && nonAbs.isEmpty()) || (ts[j] == 0)) {
+					res[j] = new ModelCheckerResult();
+					res[j].soln = Utils.bitsetToDoubleArray(target, ctmc.getNumStates());
+				} else {
+					allDone = false;
+				}
+			}
+			if (allDone) {
+				return res;
+			}
 		}
 
 		// Start backwards transient computation
@@ -442,63 +550,36 @@ public class CTMCModelChecker extends ProbModelChecker
 		// Store num states
 		n = ctmc.getNumStates();
 
-		// Get uniformisation rate; do Fox-Glynn
+		// Get uniformisation rate and build (implicit) uniformised DTMC
 		q = ctmc.getDefaultUniformisationRate(nonAbs);
-		qt = q * t;
-		mainLog.println("\nUniformisation: q.t = " + q + " x " + t + " = " + qt);
-		acc = termCritParam / 8.0;
-		fg = new FoxGlynn(qt, 1e-300, 1e+300, acc);
-		left = fg.getLeftTruncationPoint();
-		right = fg.getRightTruncationPoint();
-		if (right < 0) {
-			throw new PrismException("Overflow in Fox-Glynn computation (time bound too big?)");
-		}
-		weights = fg.getWeights();
-		totalWeight = fg.getTotalWeight();
-		for (i = left; i <= right; i++) {
-			weights[i - left] /= totalWeight;
-		}
-		mainLog.println("Fox-Glynn (" + acc + "): left = " + left + ", right = " + right);
-
-		// Build (implicit) uniformised DTMC
 		dtmc = ctmc.buildImplicitUniformisedDTMC(q);
 
-		// Create solution vector(s)
+		// Create solution vector
 		soln = new double[n];
-		soln2 = new double[n];
-		sum = new double[n];
 
-		// Initialise solution vectors.
-		// Vectors soln/soln2 are 1 for target states, or multProbs[i] if supplied.
-		// Vector sum is all zeros (done by array creation).
+		// Initialise solution vector.
+		// Vector soln is 1 for target states, or multProbs[i] if supplied.
 		if (multProbs != null) {
 			for (i = 0; i < n; i++)
-				soln[i] = soln2[i] = target.get(i) ? multProbs[i] : 0.0;
+				soln[i] = target.get(i) ? multProbs[i] : 0.0;
 		} else {
 			for (i = 0; i < n; i++)
-				soln[i] = soln2[i] = target.get(i) ? 1.0 : 0.0;
+				soln[i] = target.get(i) ? 1.0 : 0.0;
 		}
 
-		// If necessary, do 0th element of summation (doesn't require any matrix powers)
-		if (left == 0)
-			for (i = 0; i < n; i++)
-				sum[i] += weights[0] * soln[i];
-
-		// Start iterations
-		iters = 1;
-		while (iters <= right) {
-			// Matrix-vector multiply
-			dtmc.mvMult(soln, soln2, nonAbs, false);
-			// Swap vectors for next iter
-			tmpsoln = soln;
-			soln = soln2;
-			soln2 = tmpsoln;
-			// Add to sum
-			if (iters >= left) {
-				for (i = 0; i < n; i++)
-					sum[i] += weights[iters - left] * soln[i];
+		// Do uniformisation for all time points not already done
+		int todo[] = IntStream.range(0, ts.length).filter(j -> res[j] == null).toArray();
+		double tsTodo[] = Arrays.stream(todo).mapToDouble(j -> ts[j]).toArray();
+		double errorBounds[] = new double[todo.length];
+		iters = doUniformisation(q, tsTodo, soln, (v1, v2) -> dtmc.mvMult(v1, v2, nonAbs, false), true, (j, sum) -> {
+			res[todo[j]] = new ModelCheckerResult();
+			res[todo[j]].soln = sum;
+		}, errorBounds);
+		// (error bounds only hold for probabilities, i.e., if multProbs is in [0,1])
+		if (multProbs == null || Arrays.stream(multProbs).allMatch(d -> d >= 0.0 && d <= 1.0)) {
+			for (int j = 0; j < todo.length; j++) {
+				res[todo[j]].accuracy = AccuracyFactory.guaranteedNumericalIterative(errorBounds[j], true);
 			}
-			iters++;
 		}
 
 		// Finished backwards transient computation
@@ -507,15 +588,297 @@ public class CTMCModelChecker extends ProbModelChecker
 		mainLog.println(" took " + iters + " iters and " + timer / 1000.0 + " seconds.");
 
 		// Return results
-		res = new ModelCheckerResult();
-		res.soln = sum;
-		res.lastSoln = soln2;
-		res.numIters = iters;
-		res.timeTaken = timer / 1000.0;
-		res.timePre = 0.0;
+		for (ModelCheckerResult resT : res) {
+			resT.numIters = iters;
+			resT.timeTaken = timer / 1000.0;
+			resT.timePre = 0.0;
+		}
 		return res;
 	}
 
+	/**
+	 * Compute time-bounded until probabilities (as for {@link #computeTransientBackwardsProbs(CTMC, BitSet, BitSet, double, double[])},
+	 * with no multiplication vector), during a sweep over property constants (see {@link #setTimeBoundSweep(TimeBoundSweep)}).
+	 * If not already computed, they are computed at once for all upcoming values of the time bound in the sweep,
+	 * and stored for later re-use.
+	 * @param ctmc The CTMC
+	 * @param target Target states
+	 * @param nonAbs States *not* to be made absorbing (optional: null means "all")
+	 * @param t Time bound
+	 * @param timeExpr Expression for the time bound
+	 */
+	protected ModelCheckerResult computeTransientBackwardsProbsForSweep(CTMC<Double> ctmc, BitSet target, BitSet nonAbs, double t, Expression timeExpr) throws PrismException
+	{
+		TimeBoundSweep.Key key = new TimeBoundSweep.Key(ctmc, target, nonAbs);
+		ModelCheckerResult resPrev = timeBoundSweep.removeResult(key, t);
+		if (resPrev != null) {
+			mainLog.println("\nRe-using backwards transient probabilities computed previously for time " + t);
+			return resPrev;
+		}
+		int maxNum = (int) Math.max(1, TimeBoundSweep.MAX_BATCH_SIZE / Math.max(1, ctmc.getNumStates()));
+		double ts[] = timeBoundSweep.getTimes(timeExpr, constantValues, t, maxNum);
+		if (ts.length > 1) {
+			mainLog.println("\nComputing backwards transient probabilities for " + ts.length + " time points at once: " + ts[0] + ",...," + ts[ts.length - 1]);
+		}
+		ModelCheckerResult res[] = computeTransientBackwardsProbs(ctmc, target, nonAbs, ts, null);
+		// Store all but the first (current) one
+		for (int j = 1; j < ts.length; j++) {
+			timeBoundSweep.storeResult(key, ts[j], res[j]);
+		}
+		return res[0];
+	}
+
+	/**
+	 * Compute, for each of several time points, the weighted sum of the vectors {@code soln},
+	 * {@code mult(soln)}, {@code mult(mult(soln))}, ... given by uniformisation, i.e., using
+	 * (Fox-Glynn-computed) Poisson probabilities for rate {@code q} and each time point,
+	 * sharing a single sequence of matrix-vector multiplications (for the largest time point).
+	 * Each result is passed to {@code consumer} as soon as it is complete,
+	 * in ascending order of time, after which it is no longer stored.
+	 * <br><br>
+	 * If steady-state detection is enabled, iterations stop once the vector has converged closely enough
+	 * that using it in place of all later ones is guaranteed not to change any result by more than
+	 * the Fox-Glynn accuracy (see {@link UniformisationTail}). This requires {@code mult} to be
+	 * a multiplication by a stochastic matrix, with (for the norm used to measure convergence)
+	 * matrix-vector multiplication for backwards computations and vector-matrix for forwards ones.
+	 * @param q Uniformisation rate
+	 * @param ts Time points
+	 * @param soln Initial vector (will be overwritten)
+	 * @param mult Matrix-vector multiplication (of the first vector, into the second; elements not written are left unchanged)
+	 * @param backwards Whether {@code mult} is a matrix-vector (rather than vector-matrix) multiplication
+	 * @param consumer Consumer for the results (with indices into {@code ts})
+	 * @param errorBounds Optionally, an array in which to store an (absolute) error bound for each result,
+	 * assuming that elements of {@code soln} are in [0,1] (ignored if null)
+	 * @return The number of iterations (vectors summed over), i.e., the number of multiplications plus one
+	 */
+	protected int doUniformisation(double q, double ts[], double soln[], BiConsumer<double[], double[]> mult, boolean backwards, TransientResultConsumer consumer, double errorBounds[]) throws PrismException
+	{
+		int i, j, n, iters, numTimes;
+		double soln2[], tmpsoln[];
+		// Fox-Glynn stuff
+		int left[], right[];
+		double acc, weights[][];
+		UniformisationTail tails[];
+
+		n = soln.length;
+		numTimes = ts.length;
+
+		// Process time points in ascending order
+		Integer order[] = new Integer[numTimes];
+		for (j = 0; j < numTimes; j++) {
+			order[j] = j;
+		}
+		Arrays.sort(order, (j1, j2) -> Double.compare(ts[j1], ts[j2]));
+
+		// Do Fox-Glynn for each time point
+		left = new int[numTimes];
+		right = new int[numTimes];
+		weights = new double[numTimes][];
+		tails = new UniformisationTail[numTimes];
+		acc = termCritParam / 8.0;
+		for (j = 0; j < numTimes; j++) {
+			double t = ts[order[j]];
+			double qt = q * t;
+			mainLog.println("\nUniformisation: q.t = " + q + " x " + t + " = " + qt);
+			// For time 0, just the initial vector is needed
+			if (qt == 0) {
+				left[j] = right[j] = 0;
+				weights[j] = new double[] { 1.0 };
+				continue;
+			}
+			FoxGlynn fg = new FoxGlynn(qt, 1e-300, 1e+300, acc);
+			left[j] = fg.getLeftTruncationPoint();
+			right[j] = fg.getRightTruncationPoint();
+			if (right[j] < 0) {
+				throw new PrismException("Overflow in Fox-Glynn computation (time bound too big?)");
+			}
+			weights[j] = fg.getWeights();
+			double totalWeight = fg.getTotalWeight();
+			for (i = left[j]; i <= right[j]; i++) {
+				weights[j][i - left[j]] /= totalWeight;
+			}
+			mainLog.println("Fox-Glynn (" + acc + "): left = " + left[j] + ", right = " + right[j]);
+			if (doSSDetect) {
+				tails[j] = new UniformisationTail(left[j], right[j], weights[j], 0.0);
+			}
+		}
+		if (errorBounds != null) {
+			for (j = 0; j < numTimes; j++) {
+				errorBounds[order[j]] = right[j] == 0 ? 0.0 : acc;
+			}
+		}
+
+		// Create vectors (sums are created once needed)
+		// (soln2 starts as a copy of soln, in case mult only overwrites some elements)
+		soln2 = soln.clone();
+		double sums[][] = new double[numTimes][];
+
+		// Start iterations
+		// (first is the first time point, in sorted order, whose result is still needed)
+		int first = 0;
+		iters = 0;
+		while (first < numTimes) {
+			double diff = 0.0;
+			if (iters > 0) {
+				// Matrix-vector multiply
+				mult.accept(soln, soln2);
+				// Swap vectors for next iter
+				tmpsoln = soln;
+				soln = soln2;
+				soln2 = tmpsoln;
+				// Measure change, for steady-state detection (only as far as needed, see below)
+				if (doSSDetect && first < numTimes) {
+					double maxSteps = 0.0;
+					for (j = first; j < numTimes; j++) {
+						maxSteps = Math.max(maxSteps, tails[j].getExpectedRemainingSteps(iters));
+					}
+					diff = measureDiff(soln, soln2, backwards, acc / maxSteps);
+				}
+			}
+			// Add to sums
+			for (j = first; j < numTimes; j++) {
+				if (iters >= left[j] && iters <= right[j]) {
+					if (sums[j] == null) {
+						sums[j] = new double[n];
+					}
+					double sum[] = sums[j];
+					double weight = weights[j][iters - left[j]];
+					for (i = 0; i < n; i++)
+						sum[i] += weight * soln[i];
+				}
+			}
+			// Pass on any completed results
+			while (first < numTimes && right[first] <= iters) {
+				consumer.accept(order[first], sums[first]);
+				sums[first] = null;
+				first++;
+			}
+			// Check for steady state: if, for all remaining time points,
+			// the error from using the current vector for all remaining iterations is small enough,
+			// add the remaining weight for the current vector and finish
+			if (doSSDetect && iters > 0 && first < numTimes) {
+				boolean done = true;
+				for (j = first; j < numTimes && done; j++) {
+					done = diff * tails[j].getExpectedRemainingSteps(iters) <= acc;
+				}
+				if (done) {
+					mainLog.println("\nSteady state detected at iteration " + iters);
+					for (j = first; j < numTimes; j++) {
+						if (sums[j] == null) {
+							sums[j] = new double[n];
+						}
+						double sum[] = sums[j];
+						double weight = tails[j].getRemainingWeight(iters);
+						for (i = 0; i < n; i++)
+							sum[i] += weight * soln[i];
+						if (errorBounds != null) {
+							errorBounds[order[j]] += diff * tails[j].getExpectedRemainingSteps(iters);
+						}
+						consumer.accept(order[j], sums[j]);
+						sums[j] = null;
+					}
+					first = numTimes;
+				}
+			}
+			iters++;
+		}
+
+		return iters;
+	}
+
+	/**
+	 * Measure the difference between two vectors, using either the supremum norm or the L1 norm.
+	 * Since only whether it is at most {@code bound} is of interest, this stops early
+	 * (returning a value greater than {@code bound}) once this is known not to be the case.
+	 */
+	private static double measureDiff(double soln1[], double soln2[], boolean supNorm, double bound)
+	{
+		double diff = 0.0;
+		int n = soln1.length;
+		for (int i = 0; i < n; i++) {
+			double d = Math.abs(soln1[i] - soln2[i]);
+			diff = supNorm ? Math.max(diff, d) : diff + d;
+			if (diff > bound) {
+				return diff;
+			}
+		}
+		return diff;
+	}
+
+	/**
+	 * Tail sums of the (Fox-Glynn-computed) weights w(i), for 0 <= i <= right, used in uniformisation,
+	 * as needed for steady-state detection.
+	 * <br><br>
+	 * If the vectors v(0), v(1), ... being summed are of the form v(i+1) = P.v(i) (or v(i).P)
+	 * for a stochastic matrix P, then, for a suitable norm (the supremum norm, or the L1 norm, respectively),
+	 * the differences between successive vectors do not increase, so ||v(i) - v(k)|| <= (i-k).||v(k) - v(k-1)||.
+	 * So, replacing all vectors after the kth with v(k), i.e., adding v(k) weighted by the remaining weight
+	 * R(k) = sum_{i>k} w(i), introduces an error of at most ||v(k) - v(k-1)|| times
+	 * the (weighted) expected number of remaining steps E(k) = sum_{i>k} w(i).(i-k).
+	 */
+	protected static class UniformisationTail
+	{
+		// Truncation points
+		private int left, right;
+		// Weight w(i) for each i < left
+		private double weightBelow;
+		// R(k) and E(k), for left-1 <= k <= right (indexed by k-left+1)
+		private double remaining[], expectedRemaining[];
+
+		/**
+		 * Compute tail sums of weights.
+		 * @param left Left truncation point
+		 * @param right Right truncation point
+		 * @param weights Weights w(i) for left <= i <= right (indexed by i-left)
+		 * @param weightBelow Weight w(i) for each i < left
+		 */
+		public UniformisationTail(int left, int right, double weights[], double weightBelow)
+		{
+			this.left = left;
+			this.right = right;
+			this.weightBelow = weightBelow;
+			int num = right - left + 2;
+			remaining = new double[num];
+			expectedRemaining = new double[num];
+			// Uses: R(k) = R(k+1) + w(k+1) and E(k) = E(k+1) + R(k),
+			// which only add up non-negative values, to avoid cancellation
+			for (int k = right - 1; k >= left - 1; k--) {
+				int ki = k - left + 1;
+				remaining[ki] = remaining[ki + 1] + weights[ki];
+				expectedRemaining[ki] = expectedRemaining[ki + 1] + remaining[ki];
+			}
+		}
+
+		/**
+		 * Get the remaining weight R(k) = sum_{i>k} w(i), for k >= 0.
+		 */
+		public double getRemainingWeight(int k)
+		{
+			if (k >= right) {
+				return 0.0;
+			} else if (k >= left - 1) {
+				return remaining[k - left + 1];
+			} else {
+				return remaining[0] + (left - 1 - k) * weightBelow;
+			}
+		}
+
+		/**
+		 * Get the (weighted) expected number of remaining steps E(k) = sum_{i>k} w(i).(i-k), for k >= 0.
+		 */
+		public double getExpectedRemainingSteps(int k)
+		{
+			if (k >= right) {
+				return 0.0;
+			} else if (k >= left - 1) {
+				return expectedRemaining[k - left + 1];
+			} else {
+				double m = left - 1 - k;
+				return expectedRemaining[0] + m * remaining[0] + m * (m + 1) / 2 * weightBelow;
+			}
+		}
+	}
+
 	/**
 	 * Perform cumulative reward computation.
 	 * Compute, for each state of {@ctmc}, the expected rewards accumulated until {@code t}
@@ -598,6 +961,13 @@ public class CTMCModelChecker extends ProbModelChecker
 				sum[i] += soln[i] / q;
 		}
 
+		// For steady-state detection, we need tail sums of weights,
+		// and we scale the accuracy by the maximum reward (since all vectors are bounded by this)
+		UniformisationTail tail = doSSDetect ? new UniformisationTail(left, right, weights, 1.0 / q) : null;
+		double maxRew = 0.0;
+		for (i = 0; i < n; i++)
+			maxRew = Math.max(maxRew, Math.abs(soln[i]));
+
 		// Start iterations
 		iters = 1;
 		while (iters <= right) {
@@ -615,6 +985,18 @@ public class CTMCModelChecker extends ProbModelChecker
 				for (i = 0; i < n; i++)
 					sum[i] += soln[i] / q;
 			}
+			// Check for steady state (see doUniformisation)
+			if (doSSDetect) {
+				double diff = measureDiff(soln, soln2, true, acc * maxRew / tail.getExpectedRemainingSteps(iters));
+				if (diff * tail.getExpectedRemainingSteps(iters) <= acc * maxRew) {
+					mainLog.println("\nSteady state detected at iteration " + iters);
+					double weight = tail.getRemainingWeight(iters);
+					for (i = 0; i < n; i++)
+						sum[i] += weight * soln[i];
+					iters++;
+					break;
+				}
+			}
 			iters++;
 		}
 
@@ -909,90 +1291,68 @@ public class CTMCModelChecker extends ProbModelChecker
 	 */
 	public ModelCheckerResult computeTransientProbs(CTMC<Double> ctmc, double t, double initDist[]) throws PrismException
 	{
-		ModelCheckerResult res = null;
-		int i, n, iters;
-		double soln[], soln2[], tmpsoln[], sum[];
+		ModelCheckerResult res = new ModelCheckerResult();
+		computeTransientProbs(ctmc, new double[] { t }, initDist, (j, soln) -> res.soln = soln, res);
+		return res;
+	}
+
+	/**
+	 * Compute transient probabilities for several time points at once,
+	 * i.e. compute the probability of being in each state at each time {@code ts[j]},
+	 * assuming the initial distribution {@code initDist}, using a single sequence
+	 * of matrix-vector multiplications (for the largest time point).
+	 * Each result is passed to {@code consumer} as soon as it is complete, in ascending order of time,
+	 * so that only the ones currently being computed need to be stored.
+	 * For space efficiency, the initial distribution vector will be modified and values over-written,  
+	 * so if you wanted it, take a copy. 
+	 * @param ctmc The CTMC
+	 * @param ts Time points
+	 * @param initDist Initial distribution (will be overwritten)
+	 * @param consumer Consumer for the results (with indices into {@code ts})
+	 */
+	public void computeTransientProbs(CTMC<Double> ctmc, double ts[], double initDist[], TransientResultConsumer consumer) throws PrismException
+	{
+		computeTransientProbs(ctmc, ts, initDist, consumer, null);
+	}
+
+	/**
+	 * Compute transient probabilities for several time points at once (see above),
+	 * optionally storing statistics (iterations, time) in {@code res}.
+	 */
+	private void computeTransientProbs(CTMC<Double> ctmc, double ts[], double initDist[], TransientResultConsumer consumer, ModelCheckerResult res) throws PrismException
+	{
+		int iters;
 		DTMC<Double> dtmc;
 		long timer;
-		// Fox-Glynn stuff
-		FoxGlynn fg;
-		int left, right;
-		double q, qt, acc, weights[], totalWeight;
+		double q;
 
-		// Start bounded probabilistic reachability
+		// Start transient probability computation
 		timer = System.currentTimeMillis();
 		mainLog.println("\nStarting transient probability computation...");
 
-		// Store num states
-		n = ctmc.getNumStates();
-
-		// Get uniformisation rate; do Fox-Glynn
+		// Get uniformisation rate and build (implicit) uniformised DTMC
 		q = ctmc.getDefaultUniformisationRate();
-		qt = q * t;
-		mainLog.println("\nUniformisation: q.t = " + q + " x " + t + " = " + qt);
-		acc = termCritParam / 8.0;
-		fg = new FoxGlynn(qt, 1e-300, 1e+300, acc);
-		left = fg.getLeftTruncationPoint();
-		right = fg.getRightTruncationPoint();
-		if (right < 0) {
-			throw new PrismException("Overflow in Fox-Glynn computation (time bound too big?)");
-		}
-		weights = fg.getWeights();
-		totalWeight = fg.getTotalWeight();
-		for (i = left; i <= right; i++) {
-			weights[i - left] /= totalWeight;
-		}
-		mainLog.println("Fox-Glynn (" + acc + "): left = " + left + ", right = " + right);
-
-		// Build (implicit) uniformised DTMC
 		dtmc = ctmc.buildImplicitUniformisedDTMC(q);
 
-		// Create solution vector(s)
-		// For soln, we just use init (since we are free to modify this vector)
-		soln = initDist;
-		soln2 = new double[n];
-		sum = new double[n];
-
-		// Initialise solution vectors
-		// (don't need to do soln2 since will be immediately overwritten)
-		for (i = 0; i < n; i++)
-			sum[i] = 0.0;
+		// Do uniformisation, for all time points
+		// (for the solution vector, we just use init, since we are free to modify this vector)
+		double errorBounds[] = new double[ts.length];
+		iters = doUniformisation(q, ts, initDist, dtmc::vmMult, false, consumer, errorBounds);
 
-		// If necessary, do 0th element of summation (doesn't require any matrix powers)
-		if (left == 0)
-			for (i = 0; i < n; i++)
-				sum[i] += weights[0] * soln[i];
-
-		// Start iterations
-		iters = 1;
-		while (iters <= right) {
-			// Matrix-vector multiply
-			dtmc.vmMult(soln, soln2);
-			// Swap vectors for next iter
-			tmpsoln = soln;
-			soln = soln2;
-			soln2 = tmpsoln;
-			// Add to sum
-			if (iters >= left) {
-				for (i = 0; i < n; i++)
-					sum[i] += weights[iters - left] * soln[i];
-			}
-			iters++;
-		}
-
-		// Finished bounded probabilistic reachability
+		// Finished transient probability computation
 		timer = System.currentTimeMillis() - timer;
 		mainLog.print("Transient probability computation");
 		mainLog.println(" took " + iters + " iters and " + timer / 1000.0 + " seconds.");
 
-		// Return results
-		res = new ModelCheckerResult();
-		res.soln = sum;
-		res.lastSoln = soln2;
-		res.numIters = iters;
-		res.timeTaken = timer / 1000.0;
-		res.timePre = 0.0;
-		return res;
+		// Store statistics (and accuracy, for a single time point)
+		if (res != null) {
+			if (ts.length == 1) {
+				res.accuracy = AccuracyFactory.guaranteedNumericalIterative(errorBounds[0], true);
+			}
+			res.numIters = iters;
+			res.timeTaken = timer / 1000.0;
+			res.timePre = 0.0;
+		}
 	}
 
 	// Utility methods
@@ -0,0 +1,223 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package explicit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Class storing an indexed set of objects of type T, which can be added to
+ * concurrently from multiple threads (see {@link #add(Object, IntConsumer)}).
+ * Indices are allocated in the order that objects are first added,
+ * which, in a multi-threaded setting, is not deterministic.
+ * A deterministic ordering can be obtained via {@link #buildSortingPermutation()},
+ * which sorts according to the natural ordering of T, or a provided comparator.
+ */
+public class ConcurrentIndexedSet<T> implements StateStorage<T>
+{
+	protected ConcurrentHashMap<T, Integer> set;
+	protected AtomicInteger nextIndex;
+	protected Comparator<? super T> comparator;
+	protected int indexOfLastAdd;
+
+	/**
+	 * Create an empty set, sorted (for {@link #buildSortingPermutation()})
+	 * according to the natural ordering of T (which must be {@link Comparable}).
+	 */
+	public ConcurrentIndexedSet()
+	{
+		this(null);
+	}
+
+	/**
+	 * Create an empty set, sorted (for {@link #buildSortingPermutation()})
+	 * according to {@code comparator} (or the natural ordering of T, if null).
+	 */
+	public ConcurrentIndexedSet(Comparator<? super T> comparator)
+	{
+		set = new ConcurrentHashMap<T, Integer>();
+		nextIndex = new AtomicInteger();
+		this.comparator = comparator;
+		indexOfLastAdd = -1;
+	}
+
+	/**
+	 * Add an object to the set, if not already present, and return its index.
+	 * This is safe to call concurrently from multiple threads.
+	 * If the object was not already present, {@code onAdd} is called with
+	 * its (new) index, from the calling thread, before this method returns.
+	 * @param t The object to add
+	 * @param onAdd Callback for newly added objects (ignored if null)
+	 */
+	public int add(T t, IntConsumer onAdd)
+	{
+		Integer i = set.get(t);
+		if (i != null) {
+			return i;
+		}
+		return set.computeIfAbsent(t, k -> {
+			int iNew = nextIndex.getAndIncrement();
+			if (onAdd != null) {
+				onAdd.accept(iNew);
+			}
+			return iNew;
+		});
+	}
+
+	/**
+	 * Add an object to the set, if not already present.
+	 * Note: the index obtained afterwards via {@link #getIndexOfLastAdd()}
+	 * is only meaningful if the set is being used from a single thread;
+	 * otherwise, use {@link #add(Object, IntConsumer)}.
+	 */
+	@Override
+	public boolean add(T state)
+	{
+		boolean isNew[] = { false };
+		indexOfLastAdd = add(state, i -> isNew[0] = true);
+		return isNew[0];
+	}
+
+	@Override
+	public void clear()
+	{
+		set.clear();
+		nextIndex.set(0);
+	}
+
+	@Override
+	public boolean contains(T state)
+	{
+		return set.containsKey(state);
+	}
+
+	@Override
+	public int getIndexOfLastAdd()
+	{
+		return indexOfLastAdd;
+	}
+
+	@Override
+	public boolean isEmpty()
+	{
+		return set.isEmpty();
+	}
+
+	@Override
+	public int size()
+	{
+		return set.size();
+	}
+
+	@Override
+	public Set<Map.Entry<T, Integer>> getEntrySet()
+	{
+		return set.entrySet();
+	}
+
+	@Override
+	public ArrayList<T> toArrayList()
+	{
+		ArrayList<T> list = new ArrayList<T>(set.size());
+		toArrayList(list);
+		return list;
+	}
+
+	@Override
+	public void toArrayList(ArrayList<T> list)
+	{
+		list.addAll(Arrays.asList(toArray()));
+	}
+
+	@Override
+	public ArrayList<T> toPermutedArrayList(int permut[])
+	{
+		ArrayList<T> list = new ArrayList<T>(set.size());
+		toPermutedArrayList(permut, list);
+		return list;
+	}
+
+	@Override
+	public void toPermutedArrayList(int permut[], ArrayList<T> list)
+	{
+		int n = set.size();
+		for (int i = 0; i < n; i++)
+			list.add(null);
+		for (Map.Entry<T, Integer> e : set.entrySet()) {
+			list.set(permut[e.getValue()], e.getKey());
+		}
+	}
+
+	/**
+	 * Build sort permutation, i.e., a permutation (integer array) mapping current
+	 * indices to new indices under the sorting order (natural ordering or comparator).
+	 * The sort is performed in parallel, where possible.
+	 */
+	@Override
+	public int[] buildSortingPermutation()
+	{
+		T sorted[] = toArray();
+		Arrays.parallelSort(sorted, comparator);
+		int n = sorted.length;
+		int perm[] = new int[n];
+		for (int i = 0; i < n; i++) {
+			perm[set.get(sorted[i])] = i;
+		}
+		return perm;
+	}
+
+	/**
+	 * Get an array of the objects in the set, ordered by index.
+	 */
+	@SuppressWarnings("unchecked")
+	private T[] toArray()
+	{
+		Object arr[] = new Object[set.size()];
+		for (Map.Entry<T, Integer> e : set.entrySet()) {
+			arr[e.getValue()] = e.getKey();
+		}
+		return (T[]) arr;
+	}
+
+	@Override
+	public String toString()
+	{
+		return set.toString();
+	}
+
+	@Override
+	public int get(T t)
+	{
+		return set.get(t);
+	}
+}
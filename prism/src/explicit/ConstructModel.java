@@ -29,14 +29,24 @@ package explicit;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import common.Interval;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import parser.PackedStateList;
 import parser.State;
 import parser.Values;
 import parser.VarList;
+import prism.Evaluator;
 import prism.ModelGenerator;
 import prism.ModelType;
 import prism.Prism;
@@ -45,6 +55,7 @@ import prism.PrismException;
 import prism.PrismLog;
 import prism.PrismNotSupportedException;
 import prism.PrismPrintStreamLog;
+import prism.PrismSettings;
 import prism.ProgressDisplay;
 import prism.UndefinedConstants;
 
@@ -70,6 +81,8 @@ public class ConstructModel extends PrismComponent
 	protected boolean distinguishActions = true;
 	/** Should labels be processed and attached to the model? */
 	protected boolean attachLabels = true;
+	/** Number of threads to use for state space exploration (1 means sequential) */
+	protected int numThreads = 1;
 
 	// Details of built model:
 
@@ -79,6 +92,9 @@ public class ConstructModel extends PrismComponent
 	public ConstructModel(PrismComponent parent) throws PrismException
 	{
 		super(parent);
+		if (settings != null) {
+			numThreads = settings.getInteger(PrismSettings.PRISM_NUM_THREADS);
+		}
 	}
 
 	/**
@@ -131,6 +147,17 @@ public class ConstructModel extends PrismComponent
 		this.attachLabels = attachLabels;
 	}
 
+	/**
+	 * Set the number of threads to use for state space exploration.
+	 * If more than 1, and the model type/generator support it, states are explored
+	 * in parallel; the resulting model is the same as for sequential exploration
+	 * as long as states are sorted (see {@link #setSortStates(boolean)}).
+	 */
+	public void setNumThreads(int numThreads)
+	{
+		this.numThreads = numThreads;
+	}
+
 	/**
 	 * Build the set of reachable states for a model and return it.
 	 * @param modelGen The ModelGenerator interface providing the model 
@@ -164,9 +191,13 @@ public class ConstructModel extends PrismComponent
 		ModelType modelType;
 		// State storage
 		StateStorage<State> states;
+		PackedStateStorage packedStates = null;
 		LinkedList<State> explore;
 		State state, stateNew;
 		// Explicit model storage
+		// (double-valued DTMCs/MDPs are, if building sparse models, stored directly in sparse form;
+		// otherwise, a simple, mutable model is built and then converted)
+		SparseModelBuilder sparseBuilder = null;
 		ModelSimple<?> modelSimple = null;
 		DTMCSimple<Value> dtmc = null;
 		CTMCSimple<Value> ctmc = null;
@@ -199,7 +230,13 @@ public class ConstructModel extends PrismComponent
 		timer = System.currentTimeMillis();
 
 		// Create model storage
-		if (!justReach) {
+		if (!justReach && buildSparse && (modelType == ModelType.DTMC || modelType == ModelType.MDP) && modelGen.getEvaluator().one() instanceof Double) {
+			sparseBuilder = new SparseModelBuilder(modelType == ModelType.MDP);
+			List<Object> actions = modelGen.getActions();
+			if (actions != null) {
+				sparseBuilder.setActions(actions);
+			}
+		} else if (!justReach) {
 			// Create a (simple, mutable) model of the appropriate type
 			switch (modelType) {
 			case DTMC:
@@ -248,27 +285,51 @@ public class ConstructModel extends PrismComponent
 			}
 		}
 
-		// Initialise states storage
-		states = new IndexedSet<State>(true);
-		explore = new LinkedList<State>();
-		// Add initial state(s) to 'explore', 'states' and to the model
-		for (State initState : modelGen.getInitialStates()) {
-			explore.add(initState);
-			states.add(initState);
-			if (!justReach) {
-				modelSimple.addState();
-				modelSimple.addInitialState(modelSimple.getNumStates() - 1);
+		// Check whether we can explore the model in parallel
+		List<ModelGenerator<Value>> modelGens = numThreads > 1 ? createModelGeneratorCopies(modelGen) : null;
+		if (modelGens != null) {
+			// Explore in parallel (this also adds all states/transitions to the model),
+			// leaving nothing for the sequential exploration loop below
+			states = exploreParallel(modelGens, modelSimple, sparseBuilder, justReach, progress);
+			explore = new LinkedList<State>();
+			src = states.size() - 1;
+		} else {
+			// Initialise states storage
+			// (compactly, if possible, in which case states are explored in index order,
+			// rather than stored in 'explore', and decoded from the storage when needed)
+			packedStates = PackedStateStorage.create(varList, modelGen.getEvaluator().evalMode());
+			states = packedStates != null ? packedStates : new IndexedSet<State>(true);
+			explore = new LinkedList<State>();
+			// Add initial state(s) to 'explore', 'states' and to the model
+			for (State initState : modelGen.getInitialStates()) {
+				if (packedStates == null) {
+					explore.add(initState);
+				}
+				if (packedStates != null) {
+					packedStates.addState(initState);
+				} else {
+					states.add(initState);
+				}
+				if (sparseBuilder != null) {
+					sparseBuilder.addInitialState(states.getIndexOfLastAdd());
+				} else if (!justReach) {
+					modelSimple.addState();
+					modelSimple.addInitialState(modelSimple.getNumStates() - 1);
+				}
 			}
+			src = -1;
 		}
 		// Explore...
-		src = -1;
-		while (!explore.isEmpty()) {
+		while (packedStates != null ? src + 1 < states.size() : !explore.isEmpty()) {
 			// Pick next state to explore
 			// (they are stored in order found so know index is src+1)
-			state = explore.removeFirst();
+			state = packedStates != null ? packedStates.getState(src + 1) : explore.removeFirst();
 			src++;
 			// Explore all choices/transitions from this state
 			modelGen.exploreState(state);
+			if (sparseBuilder != null) {
+				sparseBuilder.startState(src);
+			}
 			// Look at each outgoing choice in turn
 			nc = modelGen.getNumChoices();
 			for (i = 0; i < nc; i++) {
@@ -282,7 +343,7 @@ public class ConstructModel extends PrismComponent
 					}
 				}
 				// For nondet models, collect transitions in a Distribution
-				if (!justReach && modelType.nondeterministic()) {
+				if (modelSimple != null && modelType.nondeterministic()) {
 					if (!modelType.uncertain()) {
 						distr = new Distribution<>(modelGen.getEvaluator());
 					} else {
@@ -294,11 +355,13 @@ public class ConstructModel extends PrismComponent
 				for (j = 0; j < nt; j++) {
 					stateNew = modelGen.computeTransitionTarget(i, j);
 					// Is this a new state?
-					if (states.add(stateNew)) {
-						// If so, add to the explore list
-						explore.add(stateNew);
+					if (packedStates != null ? packedStates.addState(stateNew) : states.add(stateNew)) {
+						// If so, add to the explore list (unless explored by index)
+						if (packedStates == null) {
+							explore.add(stateNew);
+						}
 						// And to model
-						if (!justReach) {
+						if (modelSimple != null) {
 							modelSimple.addState();
 						}
 					}
@@ -313,7 +376,11 @@ public class ConstructModel extends PrismComponent
 					if (!justReach) {
 						switch (modelType) {
 						case DTMC:
-							dtmc.addToProbability(src, dest, modelGen.getTransitionProbability(i, j), action);
+							if (sparseBuilder != null) {
+								sparseBuilder.addTransition(dest, (Double) modelGen.getTransitionProbability(i, j), action);
+							} else {
+								dtmc.addToProbability(src, dest, modelGen.getTransitionProbability(i, j), action);
+							}
 							break;
 						case CTMC:
 							ctmc.addToProbability(src, dest, modelGen.getTransitionProbability(i, j), action);
@@ -324,7 +391,11 @@ public class ConstructModel extends PrismComponent
 						case MDP:
 						case POMDP:
 						case CTMDP:
-							distr.add(dest, modelGen.getTransitionProbability(i, j));
+							if (sparseBuilder != null) {
+								sparseBuilder.addToChoice(dest, (Double) modelGen.getTransitionProbability(i, j));
+							} else {
+								distr.add(dest, modelGen.getTransitionProbability(i, j));
+							}
 							break;
 						case IMDP:
 						case IPOMDP:
@@ -347,7 +418,9 @@ public class ConstructModel extends PrismComponent
 				}
 				// For nondet models, add collated transition to model
 				int ch = -1;
-				if (!justReach) {
+				if (sparseBuilder != null && modelType == ModelType.MDP) {
+					sparseBuilder.finishChoice(distinguishActions ? modelGen.getChoiceAction(i) : null);
+				} else if (!justReach) {
 					if (modelType == ModelType.MDP) {
 						if (distinguishActions) {
 							mdp.addActionLabelledChoice(src, distr, modelGen.getChoiceAction(i));
@@ -408,7 +481,10 @@ public class ConstructModel extends PrismComponent
 		//mainLog.println(states);
 
 		// Find/fix deadlocks (if required)
-		if (!justReach && findDeadlocks) {
+		int numStates = states.size();
+		if (sparseBuilder != null && findDeadlocks) {
+			sparseBuilder.findDeadlocks(numStates, fixDeadlocks);
+		} else if (!justReach && findDeadlocks) {
 			modelSimple.findDeadlocks(fixDeadlocks);
 		}
 
@@ -418,10 +494,10 @@ public class ConstructModel extends PrismComponent
 			// Sort states and convert set to list
 			mainLog.println("Sorting reachable states list...");
 			permut = states.buildSortingPermutation();
-			statesList = states.toPermutedArrayList(permut);
+			statesList = packedStates != null ? packedStates.toPermutedList(permut) : states.toPermutedArrayList(permut);
 			//mainLog.println(permut);
 		} else {
-			statesList = states.toArrayList();
+			statesList = packedStates != null ? packedStates.toList() : states.toArrayList();
 		}
 		states.clear();
 		states = null;
@@ -430,11 +506,10 @@ public class ConstructModel extends PrismComponent
 		// Construct new explicit-state model (with correct state ordering, if desired)
 		ModelExplicit<Value> model = null;
 		if (!justReach) {
-			boolean isDbl = modelSimple.getEvaluator().one() instanceof Double; 
 			switch (modelType) {
 			case DTMC:
-				if (buildSparse && isDbl) {
-					model = (ModelExplicit<Value>) (sortStates ? new DTMCSparse((DTMC<Double>) dtmc, permut) : new DTMCSparse((DTMC<Double>) dtmc));
+				if (sparseBuilder != null) {
+					model = (ModelExplicit<Value>) sparseBuilder.buildDTMC(numStates, permut);
 				} else {
 					model = sortStates ? new DTMCSimple<>(dtmc, permut) : (DTMCSimple<Value>) dtmc;
 				}
@@ -443,8 +518,8 @@ public class ConstructModel extends PrismComponent
 				model = sortStates ? new CTMCSimple<>(ctmc, permut) : (CTMCSimple<Value>) ctmc;
 				break;
 			case MDP:
-				if (buildSparse && isDbl) {
-					model = (ModelExplicit<Value>) (sortStates ? new MDPSparse((MDPSimple<Double>) mdp, true, permut) : new MDPSparse((MDP<Double>) mdp));
+				if (sparseBuilder != null) {
+					model = (ModelExplicit<Value>) sparseBuilder.buildMDP(numStates, permut);
 				} else {
 					model = sortStates ? new MDPSimple<>(mdp, permut) : mdp;
 				}
@@ -457,9 +532,15 @@ public class ConstructModel extends PrismComponent
 				break;
 			case IDTMC:
 				model = sortStates ? new IDTMCSimple<>(idtmc, permut) : idtmc;
+				if (buildSparse && modelGen.getEvaluator().one() instanceof Double) {
+					model = (ModelExplicit<Value>) (ModelExplicit<?>) new IDTMCSparse((IDTMCSimple<Double>) model);
+				}
 				break;
 			case IMDP:
 				model = sortStates ? new IMDPSimple<>(imdp, permut) : imdp;
+				if (buildSparse && modelGen.getEvaluator().one() instanceof Double) {
+					model = (ModelExplicit<Value>) (ModelExplicit<?>) new IMDPSparse((IMDPSimple<Double>) model);
+				}
 				break;
 			case IPOMDP:
 				model = sortStates ? new IPOMDPSimple<>(ipomdp, permut) : ipomdp;
@@ -473,6 +554,10 @@ public class ConstructModel extends PrismComponent
 			default:
 				throw new PrismNotSupportedException("Model construction not supported for " + modelType + "s");
 			}
+			if (sparseBuilder != null) {
+				model.setEvaluator(modelGen.getEvaluator());
+				model.setVarList(varList);
+			}
 			model.setStatesList(statesList);
 			model.setConstantValues(new Values(modelGen.getConstantValues()));
 			//mainLog.println("Model: " + model);
@@ -487,6 +572,256 @@ public class ConstructModel extends PrismComponent
 		return model;
 	}
 
+	/**
+	 * Create copies of a model generator, one for each of the {@code numThreads} threads
+	 * to be used for parallel state space exploration. Returns null (and, if needed, logs why)
+	 * if parallel exploration is not possible, in which case sequential exploration should be used.
+	 */
+	private <Value> List<ModelGenerator<Value>> createModelGeneratorCopies(ModelGenerator<Value> modelGen) throws PrismException
+	{
+		// Parallel exploration is only supported for (double-valued) DTMCs, CTMCs and MDPs
+		ModelType modelType = modelGen.getModelType();
+		if (!(modelType == ModelType.DTMC || modelType == ModelType.CTMC || modelType == ModelType.MDP)) {
+			mainLog.printWarning("Parallel model construction is not supported for " + modelType + "s; using a single thread");
+			return null;
+		}
+		if (!(modelGen.getEvaluator().one() instanceof Double)) {
+			mainLog.printWarning("Parallel model construction is only supported for floating-point models; using a single thread");
+			return null;
+		}
+		List<ModelGenerator<Value>> modelGens = new ArrayList<>(numThreads);
+		try {
+			for (int t = 0; t < numThreads; t++) {
+				modelGens.add(modelGen.createCopy());
+			}
+		} catch (PrismNotSupportedException e) {
+			mainLog.printWarning(e.getMessage() + "; using a single thread for model construction");
+			return null;
+		}
+		return modelGens;
+	}
+
+	/**
+	 * Explore the reachable states of a model using multiple threads, one per model generator
+	 * in {@code modelGens} (each of which is used only by a single thread).
+	 * The exploration proceeds breadth-first, level by level: the states of each level are
+	 * split into blocks, which are explored concurrently, storing states in a shared concurrent
+	 * state set; the transitions found are then added to the model (if required) sequentially.
+	 * State indices are assigned in a non-deterministic order, so the states should subsequently
+	 * be sorted if a deterministic result is required.
+	 * @param modelGens Model generators (one per thread)
+	 * @param modelSimple Model to add states/transitions to (ignored if {@code justReach} is true or {@code sparseBuilder} is non-null)
+	 * @param sparseBuilder If non-null, builder to add states/transitions to (instead of {@code modelSimple})
+	 * @param justReach If true, just build the reachable state set, not the model
+	 * @param progress Progress display to update
+	 */
+	@SuppressWarnings("unchecked")
+	private <Value> StateStorage<State> exploreParallel(List<ModelGenerator<Value>> modelGens, ModelSimple<?> modelSimple, SparseModelBuilder sparseBuilder, boolean justReach, ProgressDisplay progress) throws PrismException
+	{
+		ModelGenerator<Value> modelGen = modelGens.get(0);
+		ModelType modelType = modelGen.getModelType();
+		Evaluator<Value> eval = modelGen.getEvaluator();
+		int nThreads = modelGens.size();
+		mainLog.print(" (using " + nThreads + " threads)");
+		ConcurrentIndexedSet<State> states = new ConcurrentIndexedSet<>();
+		// Add initial state(s) to the first frontier, 'states' and to the model
+		ExploredBlock<Value> frontier = new ExploredBlock<>(0, 0);
+		for (State initState : modelGen.getInitialStates()) {
+			states.add(initState, i -> frontier.addNewState(initState, i));
+		}
+		if (sparseBuilder != null) {
+			for (int i = 0; i < states.size(); i++) {
+				sparseBuilder.addInitialState(i);
+			}
+		} else if (!justReach) {
+			modelSimple.addStates(states.size());
+			for (int i = 0; i < states.size(); i++) {
+				modelSimple.addInitialState(i);
+			}
+		}
+		List<State> frontierStates = frontier.newStates;
+		IntArrayList frontierIndices = frontier.newIndices;
+		int numExplored = 0;
+		ExecutorService executor = Executors.newFixedThreadPool(nThreads);
+		try {
+			while (!frontierStates.isEmpty()) {
+				// Split the current frontier into blocks
+				int n = frontierStates.size();
+				int blockSize = Math.max(1, Math.min(PARALLEL_EXPLORE_MAX_BLOCK_SIZE, (n + 4 * nThreads - 1) / (4 * nThreads)));
+				int numBlocks = (n + blockSize - 1) / blockSize;
+				List<ExploredBlock<Value>> blocks = new ArrayList<>(numBlocks);
+				for (int b = 0; b < numBlocks; b++) {
+					blocks.add(new ExploredBlock<>(b * blockSize, Math.min(n, (b + 1) * blockSize)));
+				}
+				// Explore blocks (in the current thread if there is only one)
+				final List<State> currentStates = frontierStates;
+				final IntArrayList currentIndices = frontierIndices;
+				if (numBlocks == 1) {
+					blocks.get(0).explore(modelGen, currentStates, currentIndices, states, justReach, distinguishActions);
+				} else {
+					AtomicInteger nextBlock = new AtomicInteger();
+					List<Callable<Void>> tasks = new ArrayList<>(nThreads);
+					for (ModelGenerator<Value> threadModelGen : modelGens) {
+						tasks.add(() -> {
+							for (int b = nextBlock.getAndIncrement(); b < numBlocks; b = nextBlock.getAndIncrement()) {
+								blocks.get(b).explore(threadModelGen, currentStates, currentIndices, states, justReach, distinguishActions);
+							}
+							return null;
+						});
+					}
+					for (Future<Void> future : executor.invokeAll(tasks)) {
+						future.get();
+					}
+				}
+				// Add new states and transitions to the model, and build the next frontier
+				if (modelSimple != null) {
+					modelSimple.addStates(states.size() - modelSimple.getNumStates());
+				}
+				frontierStates = new ArrayList<>();
+				frontierIndices = new IntArrayList();
+				for (ExploredBlock<Value> block : blocks) {
+					if (!justReach) {
+						block.addToModel(currentIndices, modelType, modelSimple, sparseBuilder, eval, distinguishActions);
+					}
+					frontierStates.addAll(block.newStates);
+					frontierIndices.addAll(block.newIndices);
+				}
+				numExplored += n;
+				progress.updateIfReady(numExplored);
+			}
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof PrismException) {
+				throw (PrismException) e.getCause();
+			}
+			throw new PrismException("Error during parallel model construction: " + e.getCause());
+		} catch (InterruptedException e) {
+			throw new PrismException("Parallel model construction was interrupted");
+		} finally {
+			executor.shutdownNow();
+		}
+		return states;
+	}
+
+	/** Maximum number of states in a block of work during parallel exploration */
+	private static final int PARALLEL_EXPLORE_MAX_BLOCK_SIZE = 1024;
+
+	/**
+	 * A block of states explored during parallel exploration: the results of exploring
+	 * states {@code from}...{@code to-1} of the current frontier, stored in compact form,
+	 * and the new states discovered by doing so (which form part of the next frontier).
+	 */
+	private static class ExploredBlock<Value>
+	{
+		// Range of frontier states explored
+		int from, to;
+		// For each choice: number of transitions and action (nondeterministic models)
+		IntArrayList numChoices = new IntArrayList();
+		IntArrayList numTransitions = new IntArrayList();
+		List<Object> choiceActions = new ArrayList<>();
+		// For each transition: target index, probability/rate and action (DTMCs/CTMCs)
+		IntArrayList targets = new IntArrayList();
+		List<Value> probs = new ArrayList<>();
+		List<Object> transitionActions = new ArrayList<>();
+		// New states found (and their indices)
+		List<State> newStates = new ArrayList<>();
+		IntArrayList newIndices = new IntArrayList();
+
+		ExploredBlock(int from, int to)
+		{
+			this.from = from;
+			this.to = to;
+		}
+
+		void addNewState(State state, int index)
+		{
+			newStates.add(state);
+			newIndices.add(index);
+		}
+
+		/**
+		 * Explore this block's states, using the model generator {@code modelGen}
+		 * (which must not be in use by any other thread).
+		 */
+		void explore(ModelGenerator<Value> modelGen, List<State> frontierStates, IntArrayList frontierIndices, ConcurrentIndexedSet<State> states, boolean justReach, boolean distinguishActions) throws PrismException
+		{
+			boolean nondet = modelGen.getModelType().nondeterministic();
+			for (int k = from; k < to; k++) {
+				modelGen.exploreState(frontierStates.get(k));
+				int nc = modelGen.getNumChoices();
+				numChoices.add(nc);
+				for (int i = 0; i < nc; i++) {
+					int nt = modelGen.getNumTransitions(i);
+					numTransitions.add(nt);
+					if (!justReach && nondet) {
+						choiceActions.add(modelGen.getChoiceAction(i));
+					}
+					for (int j = 0; j < nt; j++) {
+						State stateNew = modelGen.computeTransitionTarget(i, j);
+						targets.add(states.add(stateNew, index -> addNewState(stateNew, index)));
+						if (!justReach) {
+							probs.add(modelGen.getTransitionProbability(i, j));
+							if (distinguishActions && !nondet) {
+								transitionActions.add(modelGen.getTransitionAction(i, j));
+							}
+						}
+					}
+				}
+			}
+		}
+
+		/**
+		 * Add the transitions found by exploring this block to a model
+		 * (which should already contain all states), or to a sparse model builder, if non-null.
+		 */
+		@SuppressWarnings("unchecked")
+		void addToModel(IntArrayList frontierIndices, ModelType modelType, ModelSimple<?> modelSimple, SparseModelBuilder sparseBuilder, Evaluator<Value> eval, boolean distinguishActions) throws PrismException
+		{
+			int c = 0, t = 0;
+			for (int k = from; k < to; k++) {
+				int src = frontierIndices.getInt(k);
+				int nc = numChoices.getInt(k - from);
+				if (sparseBuilder != null) {
+					sparseBuilder.startState(src);
+				}
+				for (int i = 0; i < nc; i++, c++) {
+					int nt = numTransitions.getInt(c);
+					Distribution<Value> distr = modelType == ModelType.MDP && sparseBuilder == null ? new Distribution<>(eval) : null;
+					for (int j = 0; j < nt; j++, t++) {
+						switch (modelType) {
+						case DTMC:
+						case CTMC:
+							Object action = distinguishActions ? transitionActions.get(t) : null;
+							if (sparseBuilder != null) {
+								sparseBuilder.addTransition(targets.getInt(t), (Double) probs.get(t), action);
+							} else {
+								((DTMCSimple<Value>) modelSimple).addToProbability(src, targets.getInt(t), probs.get(t), action);
+							}
+							break;
+						case MDP:
+							if (sparseBuilder != null) {
+								sparseBuilder.addToChoice(targets.getInt(t), (Double) probs.get(t));
+							} else {
+								distr.add(targets.getInt(t), probs.get(t));
+							}
+							break;
+						default:
+							throw new PrismNotSupportedException("Parallel model construction not supported for " + modelType + "s");
+						}
+					}
+					if (sparseBuilder != null && modelType == ModelType.MDP) {
+						sparseBuilder.finishChoice(distinguishActions ? choiceActions.get(c) : null);
+					} else if (modelType == ModelType.MDP) {
+						if (distinguishActions) {
+							((MDPSimple<Value>) modelSimple).addActionLabelledChoice(src, distr, choiceActions.get(c));
+						} else {
+							((MDPSimple<Value>) modelSimple).addChoice(src, distr);
+						}
+					}
+				}
+			}
+		}
+	}
+
 	private <Value> void setStateObservation(ModelGenerator<Value> modelGen, PartiallyObservableModel<Value> pomdp, int s, State state) throws PrismException
 	{
 		// Get observation for the current state
@@ -522,8 +857,11 @@ public class ConstructModel extends PrismComponent
 			bitsets[j] = new BitSet();
 		}
 		// Construct bitsets for labels
+		// (for packed states, decode each into the same State object)
+		PackedStateList packedList = statesList instanceof PackedStateList ? (PackedStateList) statesList : null;
+		State state = packedList != null ? new State(packedList.getNumVars()) : null;
 		for (int i = 0; i < numStates; i++) {
-			State state = statesList.get(i);
+			state = packedList != null ? packedList.get(i, state) : statesList.get(i);
 			modelGen.exploreState(state);
 			for (int j = 0; j < numLabels; j++) {
 				if (modelGen.isLabelTrue(j)) {
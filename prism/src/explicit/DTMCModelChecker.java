@@ -606,13 +606,11 @@ public class DTMCModelChecker extends ProbModelChecker
 		}
 
 		// Precomputation
+		BitSet targetFinal = target;
+		PredecessorRelation preFinal = pre;
 		timerProb0 = System.currentTimeMillis();
 		if (precomp && prob0) {
-			if (preRel) {
-				no = prob0(dtmc, remain, target, pre);
-			} else {
-				no = prob0(dtmc, remain, target);
-			}
+			no = computeStatesCached("Prob0", dtmc, remain, target, () -> preRel ? prob0(dtmc, remain, targetFinal, preFinal) : prob0(dtmc, remain, targetFinal));
 		} else {
 			no = new BitSet();
 			if (remain != null) {
@@ -624,11 +622,7 @@ public class DTMCModelChecker extends ProbModelChecker
 		timerProb0 = System.currentTimeMillis() - timerProb0;
 		timerProb1 = System.currentTimeMillis();
 		if (precomp && prob1) {
-			if (preRel) {
-				yes = prob1(dtmc, remain, target, pre);
-			} else {
-				yes = prob1(dtmc, remain, target);
-			}
+			yes = computeStatesCached("Prob1", dtmc, remain, target, () -> preRel ? prob1(dtmc, remain, targetFinal, preFinal) : prob1(dtmc, remain, targetFinal));
 		} else {
 			yes = (BitSet) target.clone();
 		}
@@ -639,6 +633,17 @@ public class DTMCModelChecker extends ProbModelChecker
 		numNo = no.cardinality();
 		mainLog.println("target=" + target.cardinality() + ", yes=" + numYes + ", no=" + numNo + ", maybe=" + (n - (numYes + numNo)));
 
+		// If required, warm-start from a previous solution for the same states
+		// (only if Prob0 has been done, so that the solution is unique)
+		WarmStart.Key warmStartKey = null;
+		if (warmStart != null && init == null && known == null && precomp && prob0) {
+			warmStartKey = new WarmStart.Key("P", dtmc, remain, target);
+			init = warmStart.getSolution(warmStartKey);
+			if (init != null && numYes + numNo < n) {
+				mainLog.println("Warm-starting from previous solution");
+			}
+		}
+
 		// Compute probabilities (if needed)
 		if (numYes + numNo < n) {
 			boolean termCritAbsolute = termCrit == TermCrit.ABSOLUTE;
@@ -670,6 +675,11 @@ public class DTMCModelChecker extends ProbModelChecker
 			res.accuracy = AccuracyFactory.doublesFromQualitative();
 		}
 
+		// Store solution for future warm starts
+		if (warmStartKey != null) {
+			warmStart.storeSolution(warmStartKey, res.soln);
+		}
+
 		// Finished probabilistic reachability
 		timer = System.currentTimeMillis() - timer;
 		mainLog.println("Probabilistic reachability took " + timer / 1000.0 + " seconds.");
@@ -712,7 +722,7 @@ public class DTMCModelChecker extends ProbModelChecker
 		// calculate all states that can reach 'target'
 		// while remaining in 'remain' in the underlying graph,
 		// where all the 'target' states are made absorbing
-		canReachTarget = pre.calculatePreStar(remain, target, target);
+		canReachTarget = pre.calculatePreStar(remain, target, target, getNumPrecompThreads());
 
 		// prob0 = complement of 'canReachTarget'
 		result = new BitSet();
@@ -841,7 +851,7 @@ public class DTMCModelChecker extends ProbModelChecker
 
 		// the set of states that satisfy E [ F target ] in M'
 		// Pre*(target)
-		BitSet canReachTarget = pre.calculatePreStar(null, target, absorbing);
+		BitSet canReachTarget = pre.calculatePreStar(null, target, absorbing, getNumPrecompThreads());
 
 		// complement canReachTarget
 		// S\Pre*(target)
@@ -851,7 +861,7 @@ public class DTMCModelChecker extends ProbModelChecker
 
 		// the set of states that can reach a canNotReachTarget state in M'
 		// Pre*(S\Pre*(target))
-		BitSet probTargetNot1 = pre.calculatePreStar(null, canNotReachTarget, absorbing);
+		BitSet probTargetNot1 = pre.calculatePreStar(null, canNotReachTarget, absorbing, getNumPrecompThreads());
 
 		// complement probTargetNot1
 		// S\Pre*(S\Pre*(target))
@@ -1015,7 +1025,7 @@ public class DTMCModelChecker extends ProbModelChecker
 		if (topological) {
 			// Compute SCCInfo, including trivial SCCs in the subgraph obtained when only considering
 			// states in unknown
-			SCCInfo sccs = SCCComputer.computeTopologicalOrdering(this, dtmc, true, unknown::get);
+			SCCInfo sccs = computeTopologicalOrdering(dtmc, unknown);
 
 			IterationMethod.SingletonSCCSolver singletonSCCSolver = (int s, double[] soln) -> {
 				soln[s] = dtmc.mvMultJacSingle(s, soln);
@@ -1080,7 +1090,7 @@ public class DTMCModelChecker extends ProbModelChecker
 	 * @param dtmc The DTMC
 	 * @param no Probability 0 states
 	 * @param yes Probability 1 states
-	 * @param init Optionally, an initial solution vector (will be overwritten), will be ignored if known == null
+	 * @param init Optionally, an initial solution vector (will be overwritten), used as a starting point if it is a lower/upper bound
 	 * @param known Optionally, a set of states for which the exact answer is known
 	 * Note: if 'known' is specified (i.e. is non-null, 'init' must also be given and is used for the exact values.
 	 * @param topological do topological interval iteration?
@@ -1110,13 +1120,39 @@ public class DTMCModelChecker extends ProbModelChecker
 		initBelow = (init == null) ? new double[n] : init;
 		initAbove = new double[n];
 
+		// Determine set of states actually need to compute values for
+		unknown = new BitSet();
+		unknown.set(0, n);
+		unknown.andNot(yes);
+		unknown.andNot(no);
+		if (known != null)
+			unknown.andNot(known);
+
+		// If an initial solution vector was passed in for non-known states,
+		// check whether it is a lower/upper bound, in which case it can be used
+		// as the starting point for iteration from below/above
+		WarmStart.Bound initBound = WarmStart.Bound.NONE;
+		if (init != null) {
+			for (i = 0; i < n; i++) {
+				if (!(known != null && known.get(i)))
+					init[i] = yes.get(i) ? 1.0 : no.get(i) ? 0.0 : init[i];
+			}
+			double initFinal[] = init;
+			initBound = WarmStart.checkBound(init, unknown, s -> dtmc.mvMultSingle(s, initFinal));
+			if (initBound != WarmStart.Bound.NONE) {
+				mainLog.println("Initial solution vector is " + (initBound == WarmStart.Bound.FIXPOINT ? "a fixpoint" : initBound == WarmStart.Bound.LOWER ? "a lower bound" : "an upper bound"));
+			}
+		}
+		boolean initIsBelow = initBound == WarmStart.Bound.LOWER || initBound == WarmStart.Bound.FIXPOINT;
+		boolean initIsAbove = initBound == WarmStart.Bound.UPPER || initBound == WarmStart.Bound.FIXPOINT;
+
 		// Initialise solution vectors. Use (where available) the following in order of preference:
-		// (1) exact answer, if already known; (2) 1.0/0.0 if in yes/no; (3) initVal
-		// where initVal is 0.0 or 1.0, depending on whether we converge from below/above.
-		if (known != null && init != null) {
+		// (1) exact answer, if already known; (2) 1.0/0.0 if in yes/no; (3) passed in initial value, if a lower/upper bound;
+		// (4) initVal, where initVal is 0.0 or 1.0, depending on whether we converge from below/above.
+		if (init != null) {
 			for (i = 0; i < n; i++) {
-				initBelow[i] = known.get(i) ? init[i] : yes.get(i) ? 1.0 : no.get(i) ? 0.0 : 0.0;
-				initAbove[i] = known.get(i) ? init[i] : yes.get(i) ? 1.0 : no.get(i) ? 0.0 : 1.0;
+				initAbove[i] = initIsAbove ? init[i] : (known != null && known.get(i)) ? init[i] : yes.get(i) ? 1.0 : no.get(i) ? 0.0 : 1.0;
+				initBelow[i] = initIsBelow ? init[i] : (known != null && known.get(i)) ? init[i] : yes.get(i) ? 1.0 : no.get(i) ? 0.0 : 0.0;
 			}
 		} else {
 			for (i = 0; i < n; i++) {
@@ -1125,14 +1161,6 @@ public class DTMCModelChecker extends ProbModelChecker
 			}
 		}
 
-		// Determine set of states actually need to compute values for
-		unknown = new BitSet();
-		unknown.set(0, n);
-		unknown.andNot(yes);
-		unknown.andNot(no);
-		if (known != null)
-			unknown.andNot(known);
-
 		if (iterationsExport != null) {
 			iterationsExport.exportVector(initBelow, 0);
 			iterationsExport.exportVector(initAbove, 1);
@@ -1162,7 +1190,7 @@ public class DTMCModelChecker extends ProbModelChecker
 		if (topological) {
 			// Compute SCCInfo, including trivial SCCs in the subgraph obtained when only considering
 			// states in unknown
-			SCCInfo sccs = SCCComputer.computeTopologicalOrdering(this, dtmc, true, unknown::get);
+			SCCInfo sccs = computeTopologicalOrdering(dtmc, unknown);
 
 			IterationMethod.SingletonSCCSolver singletonSCCSolver = (int s, double[] soln) -> {
 				soln[s] = dtmc.mvMultJacSingle(s, soln);
@@ -1392,7 +1420,7 @@ public class DTMCModelChecker extends ProbModelChecker
 		StopWatch timer = new StopWatch(getLog());
 		timer.start("computing an upper bound for expected reward");
 
-		SCCInfo sccs = SCCComputer.computeTopologicalOrdering(this, dtmc, true, null);
+		SCCInfo sccs = computeTopologicalOrdering(dtmc, null);
 		BitSet trivial = new BitSet();
 
 		double q = 0;
@@ -1498,7 +1526,7 @@ public class DTMCModelChecker extends ProbModelChecker
 		StopWatch timer = new StopWatch(getLog());
 		timer.start("computing an upper bound for expected reward");
 
-		SCCInfo sccs = SCCComputer.computeTopologicalOrdering(this, dtmc, true, null);
+		SCCInfo sccs = computeTopologicalOrdering(dtmc, null);
 		BitSet trivial = new BitSet();
 
 		for (int scc = 0, numSCCs = sccs.getNumSCCs(); scc < numSCCs; scc++) {
@@ -1601,7 +1629,7 @@ public class DTMCModelChecker extends ProbModelChecker
 		StopWatch timer = new StopWatch(getLog());
 		timer.start("computing an upper bound for expected reward");
 
-		SCCInfo sccs = SCCComputer.computeTopologicalOrdering(this, dtmc, true, unknown::get);
+		SCCInfo sccs = computeTopologicalOrdering(dtmc, unknown);
 
 		BitSet T = (BitSet) target.clone();
 
@@ -2092,7 +2120,7 @@ public class DTMCModelChecker extends ProbModelChecker
 		if (topological) {
 			// Compute SCCInfo, including trivial SCCs in the subgraph obtained when only considering
 			// states in unknown
-			SCCInfo sccs = SCCComputer.computeTopologicalOrdering(this, dtmc, true, unknown::get);
+			SCCInfo sccs = computeTopologicalOrdering(dtmc, unknown);
 
 			IterationMethod.SingletonSCCSolver singletonSCCSolver = (int s, double[] soln) -> {
 				soln[s] = dtmc.mvMultRewJacSingle(s, soln, mcRewards);
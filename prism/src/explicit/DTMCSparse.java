@@ -44,6 +44,7 @@ import java.util.function.Function;
 import common.IterableStateSet;
 import common.iterable.PrimitiveIterable;
 import explicit.rewards.MCRewards;
+import explicit.rewards.RewardsArray;
 import io.ExplicitModelImporter;
 import io.IOUtils;
 import prism.ActionListOwner;
@@ -150,6 +151,24 @@ public class DTMCSparse extends DTMCExplicit<Double>
 		}
 	}
 
+	/**
+	 * Construct a DTMC directly from its sparse matrix storage (e.g. as created by {@link SparseModelBuilder}).
+	 * The arrays are stored, not copied. Other info (initial states, etc.) should be added separately.
+	 * @param numStates Number of states
+	 * @param rows Start of the transitions for each state (array of size numStates+1)
+	 * @param columns Destination of each transition
+	 * @param probabilities Probability of each transition
+	 * @param actions Action label of each transition (or null if there are none)
+	 */
+	public DTMCSparse(int numStates, int rows[], int columns[], double probabilities[], Object actions[])
+	{
+		initialise(numStates);
+		this.rows = rows;
+		this.columns = columns;
+		this.probabilities = probabilities;
+		this.actions = actions;
+	}
+
 	/**
 	 * Construct an empty DTMC (e.g. for subsequent explicit import)
 	 */
@@ -273,6 +292,10 @@ public class DTMCSparse extends DTMCExplicit<Double>
 		columns = new int[numTransitions];
 		probabilities = new double[numTransitions];
 		actions = new Object[numTransitions];
+		// Use direct sparse import, if supported
+		if (modelImporter.extractMCTransitionsSparse(rows, columns, probabilities, actions)) {
+			return;
+		}
 		IOUtils.MCTransitionConsumer<Double> cons = new IOUtils.MCTransitionConsumer<>() {
 			int sLast = -1;
 			int count = 0;
@@ -458,6 +481,9 @@ public class DTMCSparse extends DTMCExplicit<Double>
 	@Override
 	public double mvMultRewSingle(final int state, final double[] vect, final MCRewards<Double> mcRewards)
 	{
+		if (mcRewards instanceof RewardsArray && ((RewardsArray) mcRewards).isIndexedFor(this)) {
+			return mvMultRewSingle(state, vect, ((RewardsArray) mcRewards).getStateRewardsArray());
+		}
 		double d = mcRewards.getStateReward(state);
 		for (int i=rows[state], stop=rows[state+1]; i < stop; i++) {
 			final int target = columns[i];
@@ -468,6 +494,68 @@ public class DTMCSparse extends DTMCExplicit<Double>
 		return d;
 	}
 
+	@Override
+	public double mvMultRewJacSingle(final int state, final double[] vect, final MCRewards<Double> mcRewards)
+	{
+		if (mcRewards instanceof RewardsArray && ((RewardsArray) mcRewards).isIndexedFor(this)) {
+			return mvMultRewJacSingle(state, vect, ((RewardsArray) mcRewards).getStateRewardsArray());
+		}
+		return super.mvMultRewJacSingle(state, vect, mcRewards);
+	}
+
+	/**
+	 * Do a single row of matrix-vector multiplication and sum of state reward,
+	 * for state rewards given as an array (see {@link RewardsArray}).
+	 * @param state Row index
+	 * @param vect Vector to multiply by
+	 * @param stateRews State rewards
+	 */
+	public double mvMultRewSingle(final int state, final double[] vect, final double[] stateRews)
+	{
+		double d = stateRews[state];
+		for (int i=rows[state], stop=rows[state+1]; i < stop; i++) {
+			d += probabilities[i] * vect[columns[i]];
+		}
+		return d;
+	}
+
+	/**
+	 * Do a single row of matrix-vector multiplication and sum of state reward, Jacobi-style,
+	 * for state rewards given as an array (see {@link RewardsArray}),
+	 * i.e., return  ( rew(s) + sum_{t!=s} P(s,t)*vect[t] ) / (1 - P(s,s))
+	 * @param state Row index
+	 * @param vect Vector to multiply by
+	 * @param stateRews State rewards
+	 */
+	public double mvMultRewJacSingle(final int state, final double[] vect, final double[] stateRews)
+	{
+		double diag = 1.0;
+		double d = stateRews[state];
+		boolean onlySelfLoops = true;
+		for (int i=rows[state], stop=rows[state+1]; i < stop; i++) {
+			final int target = columns[i];
+			if (target != state) {
+				d += probabilities[i] * vect[target];
+				onlySelfLoops = false;
+			} else {
+				diag -= probabilities[i];
+			}
+		}
+		if (onlySelfLoops) {
+			if (d != 0) {
+				d = (d > 0 ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY);
+			} else {
+				// no reward & only self-loops: d remains 0
+				d = 0;
+			}
+		} else {
+			// not only self-loops, do Jacobi division
+			if (diag > 0)
+				d /= diag;
+		}
+		return d;
+	}
+
 	@Override
 	public void vmMult(final double[] vect, final double[] result)
 	{
@@ -35,6 +35,7 @@ import java.util.Map;
 
 import prism.PrismComponent;
 import prism.PrismException;
+import prism.PrismSettings;
 
 /**
  * Explicit maximal end component computer for a nondeterministic model such as an MDP.
@@ -49,6 +50,9 @@ public class ECComputerDefault extends ECComputer
 	/** Computed list of MECs **/
 	private List<BitSet> mecs = new ArrayList<BitSet>();
 
+	/** Use the predecessor relation of the model (if allowed by the settings)? **/
+	private boolean preRel;
+
 	/**
 	 * Build (M)EC computer for a given model.
 	 */
@@ -56,6 +60,7 @@ public class ECComputerDefault extends ECComputer
 	{
 		super(parent);
 		this.model = model;
+		preRel = settings == null || settings.getBoolean(PrismSettings.PRISM_PRE_REL);
 	}
 
 	// Methods for ECComputer interface
@@ -246,12 +251,61 @@ public class ECComputerDefault extends ECComputer
 		return false;
 	}
 
+	/**
+	 * Restrict {@code model} to the largest subset of {@code states} (which is modified)
+	 * in which every state has at least one choice whose successors all remain in the subset.
+	 * For the top-level model, if the predecessor relation may be used (see {@link PrismSettings#PRISM_PRE_REL}),
+	 * once a state has been removed, only its predecessors are re-checked,
+	 * using the (cached) predecessor relation of the model; otherwise, a fixed-point loop is used.
+	 */
 	private SubNondetModel<?> restrict(NondetModel<?> model, BitSet states)
 	{
 		Map<Integer, BitSet> actions = new HashMap<Integer, BitSet>();
 		BitSet initialStates = new BitSet();
 		initialStates.set(states.nextSetBit(0));
 
+		if (model == this.model && preRel) {
+			int todo[] = new int[model.getNumStates()];
+			int todoSize = 0;
+			for (int i = states.nextSetBit(0); i >= 0; i = states.nextSetBit(i + 1)) {
+				BitSet act = new BitSet();
+				for (int j = 0; j < model.getNumChoices(i); j++) {
+					if (model.allSuccessorsInSet(i, j, states)) {
+						act.set(j);
+					}
+				}
+				if (act.isEmpty()) {
+					states.clear(i);
+					todo[todoSize++] = i;
+				} else {
+					actions.put(i, act);
+				}
+			}
+			if (todoSize > 0) {
+				PredecessorRelation pre = model.getPredecessorRelation(this, true);
+				while (todoSize > 0) {
+					int t = todo[--todoSize];
+					for (int k = 0, numPre = pre.getNumPredecessors(t); k < numPre; k++) {
+						int i = pre.getPredecessor(t, k);
+						if (!states.get(i))
+							continue;
+						BitSet act = actions.get(i);
+						for (int j = act.nextSetBit(0); j >= 0; j = act.nextSetBit(j + 1)) {
+							if (!model.allSuccessorsInSet(i, j, states)) {
+								act.clear(j);
+							}
+						}
+						if (act.isEmpty()) {
+							states.clear(i);
+							actions.remove(i);
+							todo[todoSize++] = i;
+						}
+					}
+				}
+			}
+			return new SubNondetModel<>(model, states, actions, initialStates);
+		}
+
 		boolean changed = true;
 		while (changed) {
 			changed = false;
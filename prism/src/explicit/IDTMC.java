@@ -30,10 +30,7 @@ import common.Interval;
 import prism.ModelType;
 import prism.Pair;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -74,10 +71,37 @@ public interface IDTMC<Value> extends UDTMC<Value>, IntervalModel<Value>
 	 * @param minMax Min/max uncertainty (via isMinUnc/isMaxUnc)
 	 */
 	static double mvMultUncSingle(DoubleIntervalDistribution did, double vect[], MinMax minMax)
+	{
+		int order[] = new int[did.size];
+		for (int i = 0; i < did.size; i++) {
+			order[i] = i;
+		}
+		return mvMultUncSingle(did.index, did.lower, did.upper, order, 0, did.size, vect, minMax);
+	}
+
+	/**
+	 * Do a single row of matrix-vector multiplication followed by min/max,
+	 * i.e. return min/max_P { sum_j P(s,j)*vect[j] },
+	 * for the transitions {@code start}, ..., {@code end-1} of a sparse interval matrix
+	 * (successors {@code cols}, probability bounds {@code lower}/{@code upper}).
+	 * This needs the transitions sorted according to the successor values:
+	 * {@code order[start..end-1]} holds some permutation of {@code start..end-1},
+	 * which is updated (in place) to this order and can be passed back in the next call,
+	 * e.g. the next iteration of value iteration, when it will often still be sorted.
+	 * @param cols Successor states
+	 * @param lower Probability lower bounds
+	 * @param upper Probability upper bounds
+	 * @param order Ordering of the transitions (updated)
+	 * @param start Index of first transition
+	 * @param end Index of last transition, plus 1
+	 * @param vect Vector to multiply by
+	 * @param minMax Min/max uncertainty (via isMinUnc/isMaxUnc)
+	 */
+	static double mvMultUncSingle(int cols[], double lower[], double upper[], int order[], int start, int end, double vect[], MinMax minMax)
 	{
 		// Trivial case: singleton interval (which must be [1.0,1.0])
-		if (did.size == 1) {
-			return vect[did.index[0]];
+		if (end - start == 1) {
+			return vect[cols[start]];
 		}
 
 		// Avoid enumeration of all extreme distributions using optimisation from:
@@ -85,36 +109,79 @@ public interface IDTMC<Value> extends UDTMC<Value>, IntervalModel<Value>
 		// Joost-Pieter Katoen, Daniel Klink, Martin Leucker and Verena Wolf
 		// (Defn 17, p.372, and p.380)
 
-		// Get a list of indices for the transitions,
-		// sorted according to the successor values
-		List<Integer> indices = new ArrayList<>();
-		for (int i = 0; i < did.size; i++) {
-			indices.add(i);
-		}
-		if (minMax.isMaxUnc()) {
-			Collections.sort(indices, (o1, o2) -> -Double.compare(vect[did.index[o1]], vect[did.index[o2]]));
-		} else {
-			Collections.sort(indices, (o1, o2) -> Double.compare(vect[did.index[o1]], vect[did.index[o2]]));
-		}
+		// Sort the transitions according to the successor values
+		// (descending for max, ascending for min)
+		sortBySuccessorValue(cols, order, start, end, vect, minMax.isMaxUnc());
 		// First add products of probability lower bounds and successor values
 		double res = 0.0;
 		double totP = 1.0;
-		for (int i = 0; i < did.size; i++) {
-			res += vect[did.index[i]] * did.lower[i];
-			totP -= did.lower[i];
+		for (int i = start; i < end; i++) {
+			res += vect[cols[i]] * lower[i];
+			totP -= lower[i];
 		}
 		// Then add remaining ones in descending order
-		for (int i = 0; i < did.size; i++) {
-			int j = indices.get(i);
-			double delta = did.upper[j] - did.lower[j];
+		for (int i = start; i < end; i++) {
+			int j = order[i];
+			double delta = upper[j] - lower[j];
 			if (delta < totP) {
-				res += delta * vect[did.index[j]];
+				res += delta * vect[cols[j]];
 				totP -= delta;
 			} else {
-				res += totP * vect[did.index[j]];
+				res += totP * vect[cols[j]];
 				break;
 			}
 		}
 		return res;
 	}
+
+	/**
+	 * Sort {@code order[start..end-1]} (transition indices) in place according to the
+	 * successor values {@code vect[cols[.]]}, descending if {@code desc} is true, ascending otherwise,
+	 * with ties broken by transition index (i.e., as for a stable sort of {@code start..end-1}).
+	 * If already sorted, this only takes a single pass; otherwise, a (non-allocating) shell sort is used.
+	 */
+	private static void sortBySuccessorValue(int cols[], int order[], int start, int end, double vect[], boolean desc)
+	{
+		// Check if still sorted
+		boolean sorted = true;
+		for (int i = start + 1; i < end; i++) {
+			if (transitionBefore(order[i], order[i - 1], cols, vect, desc)) {
+				sorted = false;
+				break;
+			}
+		}
+		if (sorted) {
+			return;
+		}
+		// Shell sort (Knuth's gap sequence 1, 4, 13, 40, ..., ending in 1, i.e. insertion sort)
+		int n = end - start;
+		int gap = 1;
+		while (gap < n / 3) {
+			gap = 3 * gap + 1;
+		}
+		for (; gap >= 1; gap /= 3) {
+			for (int i = start + gap; i < end; i++) {
+				int t = order[i];
+				int j = i;
+				while (j - gap >= start && transitionBefore(t, order[j - gap], cols, vect, desc)) {
+					order[j] = order[j - gap];
+					j -= gap;
+				}
+				order[j] = t;
+			}
+		}
+	}
+
+	/**
+	 * Should transition {@code a} come strictly before transition {@code b}
+	 * in the ordering used by {@link #sortBySuccessorValue}?
+	 */
+	private static boolean transitionBefore(int a, int b, int cols[], double vect[], boolean desc)
+	{
+		int c = Double.compare(vect[cols[a]], vect[cols[b]]);
+		if (desc) {
+			c = -c;
+		}
+		return c < 0 || (c == 0 && a < b);
+	}
 }
@@ -0,0 +1,166 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+
+package explicit;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import common.Interval;
+import parser.State;
+import prism.Evaluator;
+import prism.Pair;
+import prism.PrismException;
+
+/**
+ * Sparse matrix (non-mutable) explicit-state representation of a (double-valued) IDTMC,
+ * for efficient numerical solution (value iteration).
+ * The probability intervals are stored in compressed (CSR) form, as arrays of lower and upper bounds,
+ * along with an ordering of the transitions of each state by successor value,
+ * which is cached between iterations (see {@link IDTMC#mvMultUncSingle(int[], double[], double[], int[], int, int, double[], MinMax)}).
+ * Since this cache is updated in place, numerical computations for the same model should not be run concurrently.
+ * The IDTMC (as a DTMC over intervals) is also retained, for access via {@link #getIntervalModel()}.
+ */
+public class IDTMCSparse extends ModelExplicitWrapper<Double> implements IntervalModelExplicit<Double>, IDTMC<Double>
+{
+	/**
+	 * The IDTMC, stored as a DTMCSimple over Intervals.
+	 * Also stored in {@link ModelExplicitWrapper#model} as a ModelExplicit.
+	 */
+	protected DTMCSimple<Interval<Double>> dtmc;
+
+	// Sparse matrix storing the probability intervals
+	/** Lower bounds of probabilities for each transition (array of size numTransitions) */
+	protected double lower[];
+	/** Upper bounds of probabilities for each transition (array of size numTransitions) */
+	protected double upper[];
+	/** Column (destination) indices for each transition (array of size numTransitions) */
+	protected int cols[];
+	/** Indices into lower/upper/cols giving the start of the transitions for each state;
+	 * array is of size numStates+1 and last entry is always equal to numTransitions */
+	protected int rowStarts[];
+	/** Cached ordering of the transitions of each state, by successor value (array of size numTransitions) */
+	protected int order[];
+
+	// Constructors
+
+	/**
+	 * Constructor: Build new IDTMCSparse from an IDTMCSimple.
+	 * The latter's underlying DTMC over intervals is retained (not copied).
+	 */
+	@SuppressWarnings("unchecked")
+	public IDTMCSparse(IDTMCSimple<Double> idtmc)
+	{
+		setEvaluator(idtmc.getEvaluator());
+		this.dtmc = idtmc.dtmc;
+		this.model = (ModelExplicit<Double>) (ModelExplicit<?>) dtmc;
+		int numStates = dtmc.getNumStates();
+		int numTransitions = 0;
+		for (int s = 0; s < numStates; s++) {
+			numTransitions += dtmc.getNumTransitions(s);
+		}
+		lower = new double[numTransitions];
+		upper = new double[numTransitions];
+		cols = new int[numTransitions];
+		order = new int[numTransitions];
+		rowStarts = new int[numStates + 1];
+		int k = 0;
+		for (int s = 0; s < numStates; s++) {
+			rowStarts[s] = k;
+			Iterator<Map.Entry<Integer, Interval<Double>>> iter = dtmc.getTransitionsIterator(s);
+			while (iter.hasNext()) {
+				Map.Entry<Integer, Interval<Double>> e = iter.next();
+				lower[k] = e.getValue().getLower();
+				upper[k] = e.getValue().getUpper();
+				cols[k] = e.getKey();
+				order[k] = k;
+				k++;
+			}
+		}
+		rowStarts[numStates] = numTransitions;
+	}
+
+	// Mutators (for IntervalModelExplicit)
+
+	@Override
+	public void setIntervalEvaluator(Evaluator<Interval<Double>> eval)
+	{
+		dtmc.setEvaluator(eval);
+	}
+
+	// Accessors (for UDTMC)
+
+	@Override
+	public void checkLowerBoundsArePositive() throws PrismException
+	{
+		int numStates = getNumStates();
+		for (int s = 0; s < numStates; s++) {
+			for (int k = rowStarts[s]; k < rowStarts[s + 1]; k++) {
+				if (!(lower[k] > 0.0)) {
+					List<State> sl = getStatesList();
+					String state = sl == null ? "" + s : sl.get(s).toString();
+					throw new PrismException("Transition probability has lower bound of 0 in state " + state);
+				}
+			}
+		}
+	}
+
+	@Override
+	public double mvMultUncSingle(int s, double vect[], MinMax minMax)
+	{
+		return IDTMC.mvMultUncSingle(cols, lower, upper, order, rowStarts[s], rowStarts[s + 1], vect, minMax);
+	}
+
+	// Accessors (for IntervalModel)
+
+	@Override
+	public Evaluator<Interval<Double>> getIntervalEvaluator()
+	{
+		return dtmc.getEvaluator();
+	}
+
+	@Override
+	public DTMC<Interval<Double>> getIntervalModel()
+	{
+		return dtmc;
+	}
+
+	// Accessors (for IDTMC)
+
+	@Override
+	public Iterator<Map.Entry<Integer, Interval<Double>>> getIntervalTransitionsIterator(int s)
+	{
+		return dtmc.getTransitionsIterator(s);
+	}
+
+	@Override
+	public Iterator<Map.Entry<Integer, Pair<Interval<Double>, Object>>> getIntervalTransitionsAndActionsIterator(int s)
+	{
+		return dtmc.getTransitionsAndActionsIterator(s);
+	}
+}
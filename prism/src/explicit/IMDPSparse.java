@@ -0,0 +1,259 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+
+package explicit;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import common.Interval;
+import parser.State;
+import prism.Evaluator;
+import prism.PrismException;
+import strat.MDStrategy;
+
+/**
+ * Sparse matrix (non-mutable) explicit-state representation of a (double-valued) IMDP,
+ * for efficient numerical solution (value iteration).
+ * The probability intervals are stored in compressed (CSR) form, as arrays of lower and upper bounds,
+ * along with an ordering of the transitions of each choice by successor value,
+ * which is cached between iterations (see {@link IDTMC#mvMultUncSingle(int[], double[], double[], int[], int, int, double[], MinMax)}).
+ * Since this cache is updated in place, numerical computations for the same model should not be run concurrently.
+ * The IMDP (as an MDP over intervals) is also retained, for access via {@link #getIntervalModel()}.
+ */
+public class IMDPSparse extends ModelExplicitWrapper<Double> implements IntervalModelExplicit<Double>, IMDP<Double>
+{
+	/**
+	 * The IMDP, stored as an MDPSimple over Intervals.
+	 * Also stored in {@link ModelExplicitWrapper#model} as a ModelExplicit.
+	 */
+	protected MDPSimple<Interval<Double>> mdp;
+
+	// Sparse matrix storing the probability intervals
+	/** Lower bounds of probabilities for each transition (array of size numTransitions) */
+	protected double lower[];
+	/** Upper bounds of probabilities for each transition (array of size numTransitions) */
+	protected double upper[];
+	/** Column (destination) indices for each transition (array of size numTransitions) */
+	protected int cols[];
+	/** Indices into lower/upper/cols giving the start of the transitions for each choice;
+	 * array is of size numDistrs+1 and last entry is always equal to numTransitions */
+	protected int choiceStarts[];
+	/** Indices into choiceStarts giving the start of the choices for each state;
+	 * array is of size numStates+1 and last entry is always equal to numDistrs */
+	protected int rowStarts[];
+	/** Cached ordering of the transitions of each choice, by successor value (array of size numTransitions) */
+	protected int order[];
+
+	// Constructors
+
+	/**
+	 * Constructor: Build new IMDPSparse from an IMDPSimple.
+	 * The latter's underlying MDP over intervals is retained (not copied).
+	 */
+	@SuppressWarnings("unchecked")
+	public IMDPSparse(IMDPSimple<Double> imdp)
+	{
+		setEvaluator(imdp.getEvaluator());
+		this.mdp = imdp.mdp;
+		this.model = (ModelExplicit<Double>) (ModelExplicit<?>) mdp;
+		int numStates = mdp.getNumStates();
+		int numDistrs = 0;
+		int numTransitions = 0;
+		for (int s = 0; s < numStates; s++) {
+			int numChoices = mdp.getNumChoices(s);
+			numDistrs += numChoices;
+			for (int i = 0; i < numChoices; i++) {
+				numTransitions += mdp.getNumTransitions(s, i);
+			}
+		}
+		lower = new double[numTransitions];
+		upper = new double[numTransitions];
+		cols = new int[numTransitions];
+		order = new int[numTransitions];
+		choiceStarts = new int[numDistrs + 1];
+		rowStarts = new int[numStates + 1];
+		int j = 0, k = 0;
+		for (int s = 0; s < numStates; s++) {
+			rowStarts[s] = j;
+			for (int i = 0, numChoices = mdp.getNumChoices(s); i < numChoices; i++) {
+				choiceStarts[j++] = k;
+				Iterator<Map.Entry<Integer, Interval<Double>>> iter = mdp.getTransitionsIterator(s, i);
+				while (iter.hasNext()) {
+					Map.Entry<Integer, Interval<Double>> e = iter.next();
+					lower[k] = e.getValue().getLower();
+					upper[k] = e.getValue().getUpper();
+					cols[k] = e.getKey();
+					order[k] = k;
+					k++;
+				}
+			}
+		}
+		choiceStarts[numDistrs] = numTransitions;
+		rowStarts[numStates] = numDistrs;
+	}
+
+	// Mutators (for IntervalModelExplicit)
+
+	@Override
+	public void setIntervalEvaluator(Evaluator<Interval<Double>> eval)
+	{
+		mdp.setEvaluator(eval);
+	}
+
+	// Accessors (for NondetModel)
+
+	@Override
+	public int getNumChoices(int s)
+	{
+		return rowStarts[s + 1] - rowStarts[s];
+	}
+
+	@Override
+	public Object getAction(int s, int i)
+	{
+		return mdp.getAction(s, i);
+	}
+
+	@Override
+	public Iterator<Integer> getSuccessorsIterator(final int s, final int i)
+	{
+		return getSuccessors(s, i);
+	}
+
+	@Override
+	public SuccessorsIterator getSuccessors(final int s, final int i)
+	{
+		int start = choiceStarts[rowStarts[s] + i];
+		int end = choiceStarts[rowStarts[s] + i + 1];
+		return new SuccessorsIterator()
+		{
+			int cur = start;
+
+			@Override
+			public boolean successorsAreDistinct()
+			{
+				return true;
+			}
+
+			@Override
+			public boolean hasNext()
+			{
+				return cur < end;
+			}
+
+			@Override
+			public int nextInt()
+			{
+				return cols[cur++];
+			}
+		};
+	}
+
+	@Override
+	public int getNumTransitions(int s, int i)
+	{
+		return choiceStarts[rowStarts[s] + i + 1] - choiceStarts[rowStarts[s] + i];
+	}
+
+	@Override
+	public Model<Double> constructInducedModel(MDStrategy<Double> strat)
+	{
+		// Build the induced IDTMC from the sparse storage (states with no choice defined get no transitions)
+		int numStates = getNumStates();
+		IDTMCSimple<Double> idtmc = new IDTMCSimple<>(numStates);
+		idtmc.setIntervalEvaluator(mdp.getEvaluator());
+		for (int s : getInitialStates()) {
+			idtmc.addInitialState(s);
+		}
+		idtmc.setStatesList(getStatesList());
+		idtmc.setConstantValues(getConstantValues());
+		idtmc.setVarList(getVarList());
+		for (String label : getLabels()) {
+			idtmc.addLabel(label, getLabelStates(label));
+		}
+		for (int s = 0; s < numStates; s++) {
+			if (!strat.isChoiceDefined(s)) {
+				continue;
+			}
+			int i = strat.getChoiceIndex(s);
+			int j = rowStarts[s] + i;
+			Object action = getAction(s, i);
+			for (int k = choiceStarts[j], end = choiceStarts[j + 1]; k < end; k++) {
+				idtmc.setProbability(s, cols[k], new Interval<>(lower[k], upper[k]), action);
+			}
+		}
+		return new IDTMCSparse(idtmc);
+	}
+
+	// Accessors (for UMDP)
+
+	@Override
+	public void checkLowerBoundsArePositive() throws PrismException
+	{
+		int numStates = getNumStates();
+		for (int s = 0; s < numStates; s++) {
+			for (int k = choiceStarts[rowStarts[s]], end = choiceStarts[rowStarts[s + 1]]; k < end; k++) {
+				if (!(lower[k] > 0.0)) {
+					List<State> sl = getStatesList();
+					String state = sl == null ? "" + s : sl.get(s).toString();
+					throw new PrismException("Transition probability has lower bound of 0 in state " + state);
+				}
+			}
+		}
+	}
+
+	@Override
+	public double mvMultUncSingle(int s, int k, double vect[], MinMax minMax)
+	{
+		int j = rowStarts[s] + k;
+		return IDTMC.mvMultUncSingle(cols, lower, upper, order, choiceStarts[j], choiceStarts[j + 1], vect, minMax);
+	}
+
+	// Accessors (for IntervalModel)
+
+	@Override
+	public Evaluator<Interval<Double>> getIntervalEvaluator()
+	{
+		return mdp.getEvaluator();
+	}
+
+	@Override
+	public MDP<Interval<Double>> getIntervalModel()
+	{
+		return mdp;
+	}
+
+	// Accessors (for IMDP)
+
+	@Override
+	public Iterator<Map.Entry<Integer, Interval<Double>>> getIntervalTransitionsIterator(int s, int i)
+	{
+		return mdp.getTransitionsIterator(s, i);
+	}
+}
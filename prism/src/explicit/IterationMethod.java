@@ -28,10 +28,18 @@
 
 package explicit;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.PrimitiveIterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import common.IntSet;
 import common.PeriodicTimer;
+import common.SharedThreadPool;
+import common.iterable.FunctionalPrimitiveIterator;
 import explicit.rewards.MCRewards;
 import explicit.rewards.MDPRewards;
 import prism.AccuracyFactory;
@@ -231,12 +239,8 @@ public abstract class IterationMethod {
 		@Override
 		public void iterate(IntSet states) throws PrismException
 		{
-			// do the iteration
-			doIterate(states);
-			// optionally, post processing
-			if (postProcessor != null) {
-				postProcessor.apply(soln, soln2, states);
-			}
+			// do the iteration (and optional post processing)
+			doIterateAndCheckConvergence(states, false);
 
 			// switch vectors
 			double[] tmp = soln;
@@ -247,14 +251,9 @@ public abstract class IterationMethod {
 		@Override
 		public boolean iterateAndCheckConvergence(IntSet states) throws PrismException
 		{
-			// do the iteration
-			doIterate(states);
-			// optionally, post processing
-			if (postProcessor != null) {
-				postProcessor.apply(soln, soln2, states);
-			}
-			// check convergence (on the set of states)
-			boolean done = PrismUtils.doublesAreClose(soln, soln2, states.iterator(), termCritParam, absolute);
+			// do the iteration (and optional post processing),
+			// then check convergence (on the set of states)
+			boolean done = doIterateAndCheckConvergence(states, true);
 
 			// switch vectors
 			double[] tmp = soln;
@@ -264,6 +263,48 @@ public abstract class IterationMethod {
 			return done;
 		}
 
+		/**
+		 * Can {@link #doIterate(IntSet)} be safely called concurrently for disjoint sets of states?
+		 * By default, this is the case for sparse DTMCs/MDPs, whose (Jacobi/power)
+		 * matrix-vector multiplications only read from {@code soln} and write to {@code soln2}.
+		 */
+		protected boolean canIterateInParallel()
+		{
+			return model instanceof DTMCSparse || model instanceof MDPSparse;
+		}
+
+		/**
+		 * Do one iteration, then the post processing, if present,
+		 * and, if {@code checkConvergence} is true, check convergence (returning the result).
+		 * If possible, the iteration and convergence check are done in parallel, over chunks of {@code states}.
+		 */
+		private boolean doIterateAndCheckConvergence(IntSet states, boolean checkConvergence) throws PrismException
+		{
+			List<IntSet> chunks = pool != null && canIterateInParallel() ? splitIntoChunks(states) : null;
+			// Sequential case
+			if (chunks == null) {
+				doIterate(states);
+				if (postProcessor != null) {
+					postProcessor.apply(soln, soln2, states);
+				}
+				return checkConvergence && PrismUtils.doublesAreClose(soln, soln2, states.iterator(), termCritParam, absolute);
+			}
+			// Parallel case: the post processing (which works on whole vectors) is sequential,
+			// so, if present, the convergence check is done in a separate parallel pass
+			if (postProcessor == null) {
+				return runInParallel(chunks, chunk -> {
+					doIterate(chunk);
+					return !checkConvergence || PrismUtils.doublesAreClose(soln, soln2, chunk.iterator(), termCritParam, absolute);
+				}) && checkConvergence;
+			}
+			runInParallel(chunks, chunk -> {
+				doIterate(chunk);
+				return true;
+			});
+			postProcessor.apply(soln, soln2, states);
+			return checkConvergence && runInParallel(chunks, chunk -> PrismUtils.doublesAreClose(soln, soln2, chunk.iterator(), termCritParam, absolute));
+		}
+
 		@Override
 		public double getError()
 		{
@@ -294,6 +335,15 @@ public abstract class IterationMethod {
 
 	}
 
+	/**
+	 * Functional interface for a task performed on a chunk of states during a parallel iteration,
+	 * returning a boolean (e.g., whether convergence was detected for the chunk).
+	 */
+	@FunctionalInterface
+	interface ChunkTask {
+		boolean apply(IntSet chunk) throws PrismException;
+	}
+
 	/**
 	 * Functional interface for a method that allows to
 	 * determine the value for a singleton SCC in the model,
@@ -315,6 +365,15 @@ public abstract class IterationMethod {
 	/** Convergence check: epsilon value */
 	protected final double termCritParam;
 
+	/** Minimum number of states in each chunk processed by a thread during a parallel iteration */
+	public static final int PARALLEL_CHUNK_SIZE = 2048;
+
+	/** Thread pool for parallel iterations (null if iterations are sequential) */
+	private ForkJoinPool pool;
+	/** The states most recently split into chunks, and the resulting chunks */
+	private IntSet chunkedStates;
+	private List<IntSet> chunks;
+
 	/**
 	 * Constructor.
 	 * @param absolute For convergence check, perform absolute comparison?
@@ -444,6 +503,158 @@ public abstract class IterationMethod {
 	public abstract String getDescriptionShort();
 
 
+	// ------------ Parallel iteration ----------------------------
+
+	/**
+	 * Set up (two-vector) iterations to use multiple threads, if requested by the model checker
+	 * (see {@link ProbModelChecker#getNumThreads()}), or to be sequential otherwise.
+	 * Called at the start of each solve; the thread pool is shared across solves
+	 * (see {@link SharedThreadPool}), so nothing needs to be shut down afterwards.
+	 */
+	protected void startParallel(ProbModelChecker mc)
+	{
+		pool = mc.getNumThreads() > 1 ? SharedThreadPool.get(mc.getNumThreads()) : null;
+		chunkedStates = null;
+		chunks = null;
+	}
+
+	/**
+	 * Split a set of states into chunks for a parallel iteration,
+	 * or return null if there are too few states for this to be worthwhile.
+	 * The chunks for the most recently used set are cached, since the same set
+	 * (e.g., the states of an SCC) is typically used for many iterations.
+	 */
+	private List<IntSet> splitIntoChunks(IntSet states)
+	{
+		if (states == chunkedStates) {
+			return chunks;
+		}
+		long n = states.cardinality();
+		if (n < 2 * PARALLEL_CHUNK_SIZE) {
+			return null;
+		}
+		int array[] = states.stream().toArray();
+		// Aim for a few chunks per thread, for load balancing
+		int numChunks = (int) Math.min(4 * pool.getParallelism(), n / PARALLEL_CHUNK_SIZE);
+		List<IntSet> newChunks = new ArrayList<>(numChunks);
+		for (int c = 0; c < numChunks; c++) {
+			newChunks.add(new IntSetFromArrayRange(array, (int) (c * n / numChunks), (int) ((c + 1) * n / numChunks)));
+		}
+		chunkedStates = states;
+		chunks = newChunks;
+		return chunks;
+	}
+
+	/**
+	 * Apply a task to each chunk of states, in parallel, and return the conjunction of the results.
+	 */
+	private boolean runInParallel(List<IntSet> chunks, ChunkTask task) throws PrismException
+	{
+		List<Callable<Boolean>> tasks = new ArrayList<>(chunks.size());
+		for (IntSet chunk : chunks) {
+			tasks.add(() -> task.apply(chunk));
+		}
+		boolean res = true;
+		try {
+			for (Future<Boolean> f : pool.invokeAll(tasks)) {
+				res &= f.get();
+			}
+		} catch (ExecutionException e) {
+			// The pool wraps checked exceptions (possibly more than once), so look for the original
+			for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+				if (cause instanceof PrismException) {
+					throw (PrismException) cause;
+				}
+			}
+			throw new PrismException("Error during parallel iteration: " + e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new PrismException("Parallel iteration was interrupted");
+		}
+		return res;
+	}
+
+	/**
+	 * An IntSet for a contiguous range of an array of (distinct) integers.
+	 * Intended for iteration; membership tests are linear-time.
+	 */
+	private static class IntSetFromArrayRange implements IntSet
+	{
+		private final int array[];
+		private final int from;
+		private final int to;
+
+		public IntSetFromArrayRange(int array[], int from, int to)
+		{
+			this.array = array;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public FunctionalPrimitiveIterator.OfInt iterator()
+		{
+			return new FunctionalPrimitiveIterator.OfInt() {
+				int cur = from;
+
+				@Override
+				public boolean hasNext()
+				{
+					return cur < to;
+				}
+
+				@Override
+				public int nextInt()
+				{
+					return array[cur++];
+				}
+			};
+		}
+
+		@Override
+		public FunctionalPrimitiveIterator.OfInt reversedIterator()
+		{
+			return new FunctionalPrimitiveIterator.OfInt() {
+				int cur = to - 1;
+
+				@Override
+				public boolean hasNext()
+				{
+					return cur >= from;
+				}
+
+				@Override
+				public int nextInt()
+				{
+					return array[cur--];
+				}
+			};
+		}
+
+		@Override
+		public long count()
+		{
+			return to - from;
+		}
+
+		@Override
+		public boolean contains(int index)
+		{
+			for (int i = from; i < to; i++) {
+				if (array[i] == index) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public String toString()
+		{
+			return asString();
+		}
+	}
+
 	// ------------ Value iteration implementations ----------------------------
 
 	/**
@@ -459,6 +670,7 @@ public abstract class IterationMethod {
 	 */
 	public ModelCheckerResult doValueIteration(ProbModelChecker mc, String description, IterationValIter iteration, IntSet unknownStates, long startTime, ExportIterations iterationsExport) throws PrismException
 	{
+		startParallel(mc);
 		int iters = 0;
 		final int maxIters = mc.maxIters;
 		boolean done = false;
@@ -522,6 +734,7 @@ public abstract class IterationMethod {
 	 */
 	public ModelCheckerResult doTopologicalValueIteration(ProbModelChecker mc, String description, SCCInfo sccs, IterationMethod.IterationValIter iterator, SingletonSCCSolver singletonSCCSolver, long startTime, ExportIterations iterationsExport) throws PrismException
 	{
+		startParallel(mc);
 		// Start iterations
 		int iters = 0;
 		long mvCount = 0;
@@ -634,6 +847,7 @@ public abstract class IterationMethod {
 	 * @throws PrismException on non-convergence (if mc.errorOnNonConverge is set)
 	 */
 	public ModelCheckerResult doIntervalIteration(ProbModelChecker mc, String description, IterationIntervalIter below, IterationIntervalIter above, IntSet unknownStates, long timer, ExportIterations iterationsExport) throws PrismException {
+		startParallel(mc);
 		try {
 			// Start iterations
 			int iters = 0;
@@ -728,6 +942,7 @@ public abstract class IterationMethod {
 	 * @throws PrismException on non-convergence (if mc.errorOnNonConverge is set)
 	 */
 	public ModelCheckerResult doTopologicalIntervalIteration(ProbModelChecker mc, String description, SCCInfo sccs, IterationIntervalIter below, IterationIntervalIter above, SingletonSCCSolver singletonSCCSolver, long timer, ExportIterations iterationsExport) throws PrismException {
+		startParallel(mc);
 		try {
 			// Start iterations
 			int iters = 0;
@@ -27,13 +27,10 @@
 
 package explicit;
 
-import java.awt.Point;
 import java.io.PrintStream;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Stack;
@@ -70,6 +67,8 @@ import automata.LTL2WDBA;
 import jltl2ba.SimpleLTL;
 import common.IterableStateSet;
 import common.StopWatch;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
 
 /**
  * LTL model checking functionality
@@ -424,7 +423,7 @@ public class LTLModelChecker extends PrismComponent
 		mainLog.println("Constructing " + model.getModelType() + "-" + da.getAutomataType() + " product...");
 		StopWatch timer = new StopWatch(getLog());
 		timer.start("product construction");
-		LTLProduct<M> product = constructProductModel(da, model, labelBS, statesOfInterest);
+		LTLProduct<M> product = constructProductModel(da, model, labelBS, statesOfInterest, canStopAtGoalStates(mc));
 		timer.stop("product has " + product.getProductModel().infoString());
 
 		return product;
@@ -453,7 +452,7 @@ public class LTLModelChecker extends PrismComponent
 		mainLog.println("Constructing " + model.getModelType() + "-" + da.getAutomataType() + " product...");
 		StopWatch timer = new StopWatch(getLog());
 		timer.start("product construction");
-		LTLProduct<M> product = constructProductModel(da, model, labelBS, statesOfInterest);
+		LTLProduct<M> product = constructProductModel(da, model, labelBS, statesOfInterest, canStopAtGoalStates(mc));
 		timer.stop("product has " + product.getProductModel().infoString());
 
 		return product;
@@ -483,12 +482,23 @@ public class LTLModelChecker extends PrismComponent
 		mainLog.println("Constructing " + model.getModelType() + "-" + da.getAutomataType() + " product...");
 		StopWatch timer = new StopWatch(getLog());
 		timer.start("product construction");
-		LTLProduct<M> product = constructProductModel(da, model, labelBS, statesOfInterest);
+		LTLProduct<M> product = constructProductModel(da, model, labelBS, statesOfInterest, canStopAtGoalStates(mc));
 		timer.stop("product has " + product.getProductModel().infoString());
 
 		return product;
 	}
 	
+	/**
+	 * Check whether exploration of a product built for model checker {@code mc} can stop at goal states
+	 * (see {@link #constructProductModel(DA, Model, Vector, BitSet, boolean)}), i.e., whether
+	 * only the values computed for the product are needed, not the full product itself
+	 * (as for strategy generation or exports of the product).
+	 */
+	protected boolean canStopAtGoalStates(ProbModelChecker mc)
+	{
+		return !(mc.getGenStrat() || mc.getExportProductTrans() || mc.getExportProductStates() || mc.getExportProductVector());
+	}
+
 	/**
 	 * Construct the product of a DA and a model.
 	 * @param da The DA
@@ -497,8 +507,27 @@ public class LTLModelChecker extends PrismComponent
 	 * @param statesOfInterest the set of states for which values should be calculated (null = all states)
 	 * @return The product model
 	 */
-	@SuppressWarnings("unchecked")
 	public <Value, M extends Model<Value>> LTLProduct<M> constructProductModel(DA<BitSet, ? extends AcceptanceOmega> da, M model, Vector<BitSet> labelBS, BitSet statesOfInterest) throws PrismException
+	{
+		return constructProductModel(da, model, labelBS, statesOfInterest, false);
+	}
+
+	/**
+	 * Construct the product of a DA and a model.
+	 * <br>
+	 * If {@code stopAtGoal} is true and the DA has reachability acceptance (e.g. a DFA for a co-safe formula),
+	 * exploration stops at product states whose DA state is a goal state: these are made absorbing,
+	 * since their successors do not affect the probability of (or reward up until) acceptance.
+	 * This is only done for DTMCs, MDPs and STPGs.
+	 * @param da The DA
+	 * @param model The model
+	 * @param labelBS BitSets giving the set of states for each AP in the DA
+	 * @param statesOfInterest the set of states for which values should be calculated (null = all states)
+	 * @param stopAtGoal Stop exploration at goal states?
+	 * @return The product model
+	 */
+	@SuppressWarnings("unchecked")
+	public <Value, M extends Model<Value>> LTLProduct<M> constructProductModel(DA<BitSet, ? extends AcceptanceOmega> da, M model, Vector<BitSet> labelBS, BitSet statesOfInterest, boolean stopAtGoal) throws PrismException
 	{
 		// If the model has a VarList, we will create a new one
 		VarList newVarList = null;
@@ -528,7 +557,7 @@ public class LTLModelChecker extends PrismComponent
 		((ModelExplicit<Value>) prodModel).setVarList(newVarList);
 
 		// Now do the actual product model construction
-		return doConstructProductModel(modelType, prodModel, da, model, labelBS, statesOfInterest);
+		return doConstructProductModel(modelType, prodModel, da, model, labelBS, statesOfInterest, stopAtGoal);
 	}
 	
 	/**
@@ -542,19 +571,36 @@ public class LTLModelChecker extends PrismComponent
 	 * @param statesOfInterest the set of states for which values should be calculated (null = all states)
 	 * @return The product model
 	 */
-	@SuppressWarnings("unchecked")
 	protected <Value, M extends Model<Value>> LTLProduct<M> doConstructProductModel(ModelType modelType, ModelSimple<?> prodModel, DA<BitSet, ? extends AcceptanceOmega> da, M model, Vector<BitSet> labelBS, BitSet statesOfInterest) throws PrismException
+	{
+		return doConstructProductModel(modelType, prodModel, da, model, labelBS, statesOfInterest, false);
+	}
+
+	/**
+	 * Do the main part of the construction of the product of a DA and a model,
+	 * inserting states and transitions into the provided ModelSimple object.
+	 * Only reachable product states are explored, and storage is proportional to their number.
+	 * @param modelType The type of the (original) model
+	 * @param prodModel The (empty) product model
+	 * @param da The DA
+	 * @param model The model
+	 * @param labelBS BitSets giving the set of states for each AP in the DA
+	 * @param statesOfInterest the set of states for which values should be calculated (null = all states)
+	 * @param stopAtGoal Stop exploration at goal states? (see {@link #constructProductModel(DA, Model, Vector, BitSet, boolean)})
+	 * @return The product model
+	 */
+	@SuppressWarnings("unchecked")
+	protected <Value, M extends Model<Value>> LTLProduct<M> doConstructProductModel(ModelType modelType, ModelSimple<?> prodModel, DA<BitSet, ? extends AcceptanceOmega> da, M model, Vector<BitSet> labelBS, BitSet statesOfInterest, boolean stopAtGoal) throws PrismException
 	{
 		int daSize = da.size();
 		int numAPs = da.getAPList().size();
 		int modelNumStates = model.getNumStates();
-		int prodNumStates = Math.multiplyExact(modelNumStates, daSize);
 		BitSet s_labels = new BitSet(numAPs);
 		List<State> prodStatesList, daStatesList;
 
 		// Check size limits for this product construction approach
 		try {
-			prodNumStates = Math.multiplyExact(modelNumStates, daSize);
+			Math.multiplyExact(modelNumStates, daSize);
 		} catch (ArithmeticException e) {
 			throw new PrismException("Size of product state space of model and automaton is too large for explicit engine");
 		}
@@ -564,11 +610,27 @@ public class LTLModelChecker extends PrismComponent
 		// s(s') = s' / daSize
 		// q(s') = s' % daSize
 
-		// Initialise state info storage
-		LinkedList<Point> queue = new LinkedList<Point>();
-		BitSet visited = new BitSet(prodNumStates);
-		int map[] = new int[prodNumStates];
-		Arrays.fill(map, -1);
+		// DA states at which to stop exploration, if any
+		BitSet daGoal = null;
+		if (stopAtGoal && da.getAcceptance() instanceof AcceptanceReach) {
+			switch (modelType) {
+			case DTMC:
+			case MDP:
+			case STPG:
+				daGoal = ((AcceptanceReach) da.getAcceptance()).getGoalStates();
+				break;
+			default:
+				break;
+			}
+		}
+		int numStopped = 0;
+
+		// Initialise state info storage:
+		// map from (encoded) product states to indices, and its inverse;
+		// since states are explored in the order they are added, the latter also serves as the queue
+		Int2IntOpenHashMap map = new Int2IntOpenHashMap();
+		map.defaultReturnValue(-1);
+		IntArrayList invMapList = new IntArrayList();
 		if (model.getStatesList() != null) {
 			prodStatesList = new ArrayList<State>();
 			daStatesList = new ArrayList<State>(da.size());
@@ -593,8 +655,9 @@ public class LTLModelChecker extends PrismComponent
 				throw new PrismException("The deterministic automaton is not complete (state " + q_1 + ")");
 			}
 			// Add state/transition to model
-			if (!visited.get(s_2 * daSize + q_2) && map[s_2 * daSize + q_2] == -1) {
-				queue.add(new Point(s_2, q_2));
+			int sq_2 = s_2 * daSize + q_2;
+			int map_2 = map.get(sq_2);
+			if (map_2 == -1) {
 				switch (modelType) {
 					case STPG:
 						((STPGSimple<Value>) prodModel).addState(((STPG<Value>) model).getPlayer(s_2));
@@ -603,13 +666,15 @@ public class LTLModelChecker extends PrismComponent
 						prodModel.addState();
 						break;
 				}
-				map[s_2 * daSize + q_2] = prodModel.getNumStates() - 1;
+				map_2 = prodModel.getNumStates() - 1;
+				map.put(sq_2, map_2);
+				invMapList.add(sq_2);
 				if (prodStatesList != null) {
 					// Store state information for the product
 					prodStatesList.add(new State(daStatesList.get(q_2), model.getStatesList().get(s_2)));
 				}
 			}
-			return map[s_2 * daSize + q_2];
+			return map_2;
 		};
 
 		// Get initial states
@@ -625,12 +690,29 @@ public class LTLModelChecker extends PrismComponent
 		}
 
 		// Explore product
-		while (!queue.isEmpty()) {
-			Point p = queue.pop();
-			int s_1 = p.x;
-			int q_1 = p.y;
-			visited.set(s_1 * daSize + q_1);
-			int map_1 = map[s_1 * daSize + q_1];
+		for (int map_1 = 0; map_1 < invMapList.size(); map_1++) {
+			int s_1 = invMapList.getInt(map_1) / daSize;
+			int q_1 = invMapList.getInt(map_1) % daSize;
+
+			// Stop at goal states, if required (just add a self-loop)
+			if (daGoal != null && daGoal.get(q_1)) {
+				numStopped++;
+				Value one = model.getEvaluator().one();
+				switch (modelType) {
+				case DTMC:
+					((DTMCSimple<Value>) prodModel).setProbability(map_1, map_1, one);
+					break;
+				case MDP:
+				case STPG:
+					Distribution<Value> loop = new Distribution<>(model.getEvaluator());
+					loop.set(map_1, one);
+					((MDPSimple<Value>) prodModel).addActionLabelledChoice(map_1, loop, null);
+					break;
+				default:
+					break;
+				}
+				continue;
+			}
 
 			// Go through transitions from state s_1 in original model
 			int numChoices = (model instanceof NondetModel) ? ((NondetModel<Value>) model).getNumChoices(s_1) : 1;
@@ -735,12 +817,10 @@ public class LTLModelChecker extends PrismComponent
 			}
 		}
 
-		// Build a mapping from state indices to states (s,q), encoded as (s * daSize + q) 
-		int invMap[] = new int[prodModel.getNumStates()];
-		for (int i = 0; i < map.length; i++) {
-			if (map[i] != -1) {
-				invMap[map[i]] = i;
-			}
+		// Mapping from state indices to states (s,q), encoded as (s * daSize + q) 
+		int invMap[] = invMapList.toIntArray();
+		if (numStopped > 0) {
+			mainLog.println("Product exploration stopped at " + numStopped + " goal states");
 		}
 
 		prodModel.findDeadlocks(false);
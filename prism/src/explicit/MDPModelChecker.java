@@ -338,8 +338,6 @@ public class MDPModelChecker extends ProbModelChecker
 			if (mdpSolnMethod != MDPSolnMethod.VALUE_ITERATION && mdpSolnMethod != MDPSolnMethod.GAUSS_SEIDEL) {
 				throw new PrismNotSupportedException("Currently, explicit engine only supports interval iteration with value iteration or Gauss-Seidel for MDPs");
 			}
-			if (init != null)
-				throw new PrismNotSupportedException("Interval iteration currently not supported with provided initial values");
 			if (!(precomp && prob0 && prob1)) {
 				throw new PrismNotSupportedException("Precomputations (Prob0 & Prob1) must be enabled for interval iteration");
 			}
@@ -403,9 +401,15 @@ public class MDPModelChecker extends ProbModelChecker
 		}
 
 		// Precomputation
+		BitSet targetFinal = target;
 		timerProb0 = System.currentTimeMillis();
 		if (precomp && prob0) {
-			no = prob0(mdp, remain, target, min, strat);
+			// (only re-use previous results if no strategy info is needed)
+			if (strat == null) {
+				no = computeStatesCached(min ? "Prob0E" : "Prob0A", mdp, remain, target, () -> prob0(mdp, remain, targetFinal, min, null));
+			} else {
+				no = prob0(mdp, remain, target, min, strat);
+			}
 		} else {
 			no = new BitSet();
 			if (remain != null) {
@@ -417,7 +421,11 @@ public class MDPModelChecker extends ProbModelChecker
 		timerProb0 = System.currentTimeMillis() - timerProb0;
 		timerProb1 = System.currentTimeMillis();
 		if (precomp && prob1) {
-			yes = prob1(mdp, remain, target, min, strat);
+			if (strat == null) {
+				yes = computeStatesCached(min ? "Prob1A" : "Prob1E", mdp, remain, target, () -> prob1(mdp, remain, targetFinal, min, null));
+			} else {
+				yes = prob1(mdp, remain, target, min, strat);
+			}
 		} else {
 			yes = (BitSet) target.clone();
 		}
@@ -428,6 +436,31 @@ public class MDPModelChecker extends ProbModelChecker
 		numNo = no.cardinality();
 		mainLog.println("target=" + target.cardinality() + ", yes=" + numYes + ", no=" + numNo + ", maybe=" + (n - (numYes + numNo)));
 
+		// If required, warm-start from a previous solution (or strategy, for policy iteration) for the same states.
+		// For value iteration, the solution must be unique, so Prob0 must have been done and, for Pmax,
+		// the MEC quotient is used (which is not yet supported in conjunction with strategy generation).
+		WarmStart.Key warmStartKey = null;
+		int initStrat[] = null;
+		boolean polIter = mdpSolnMethod == MDPSolnMethod.POLICY_ITERATION || mdpSolnMethod == MDPSolnMethod.MODIFIED_POLICY_ITERATION;
+		if (warmStart != null && init == null && known == null && precomp && prob0 && (polIter || min || !genStrat)) {
+			warmStartKey = new WarmStart.Key(min ? "Pmin" : "Pmax", mdp, remain, target);
+			if (polIter) {
+				initStrat = warmStart.getStrategy(warmStartKey);
+				// Make sure that the final strategy is available to store
+				if (strat == null) {
+					strat = new int[n];
+				}
+			} else {
+				init = warmStart.getSolution(warmStartKey);
+				if (init != null && !min) {
+					doPmaxQuotient = true;
+				}
+			}
+			if ((init != null || initStrat != null) && numYes + numNo < n) {
+				mainLog.println("Warm-starting from previous " + (polIter ? "strategy" : "solution"));
+			}
+		}
+
 		// If still required, store strategy for no/yes (0/1) states.
 		// This is just for the cases max=0 and min=1, where arbitrary choices suffice (denoted by -2)
 		if (genStrat) {
@@ -469,7 +502,8 @@ public class MDPModelChecker extends ProbModelChecker
 				                                                   min,
 				                                                   init,
 				                                                   known,
-				                                                   strat);
+				                                                   strat,
+				                                                   initStrat);
 
 				res = new ModelCheckerResult();
 				res.numIters = res1.numIters;
@@ -486,7 +520,7 @@ public class MDPModelChecker extends ProbModelChecker
 				}
 				res.accuracy = res1.accuracy;
 			} else {
-				res = computeReachProbsNumeric(mdp, mdpSolnMethod, no, yes, min, init, known, strat);
+				res = computeReachProbsNumeric(mdp, mdpSolnMethod, no, yes, min, init, known, strat, initStrat);
 			}
 		} else {
 			res = new ModelCheckerResult();
@@ -494,6 +528,15 @@ public class MDPModelChecker extends ProbModelChecker
 			res.accuracy = AccuracyFactory.doublesFromQualitative();
 		}
 
+		// Store solution/strategy for future warm starts
+		if (warmStartKey != null) {
+			if (polIter) {
+				warmStart.storeStrategy(warmStartKey, strat);
+			} else {
+				warmStart.storeSolution(warmStartKey, res.soln);
+			}
+		}
+
 		// Finished probabilistic reachability
 		timer = System.currentTimeMillis() - timer;
 		mainLog.println("Probabilistic reachability took " + timer / 1000.0 + " seconds.");
@@ -512,6 +555,15 @@ public class MDPModelChecker extends ProbModelChecker
 	}
 
 	protected ModelCheckerResult computeReachProbsNumeric(MDP<Double> mdp, MDPSolnMethod method, BitSet no, BitSet yes, boolean min, double init[], BitSet known, int strat[]) throws PrismException
+	{
+		return computeReachProbsNumeric(mdp, method, no, yes, min, init, known, strat, null);
+	}
+
+	/**
+	 * Compute reachability probabilities numerically, for states not in {@code no} or {@code yes}.
+	 * @param initStrat Optionally, an initial strategy for policy iteration methods (ignored by other methods)
+	 */
+	protected ModelCheckerResult computeReachProbsNumeric(MDP<Double> mdp, MDPSolnMethod method, BitSet no, BitSet yes, boolean min, double init[], BitSet known, int strat[], int initStrat[]) throws PrismException
 	{
 		ModelCheckerResult res = null;
 
@@ -527,13 +579,13 @@ public class MDPModelChecker extends ProbModelChecker
 			if (doIntervalIteration) {
 				throw new PrismNotSupportedException("Interval iteration currently not supported for policy iteration");
 			}
-			res = computeReachProbsPolIter(mdp, no, yes, min, strat);
+			res = computeReachProbsPolIter(mdp, no, yes, min, strat, initStrat);
 			break;
 		case MODIFIED_POLICY_ITERATION:
 			if (doIntervalIteration) {
 				throw new PrismNotSupportedException("Interval iteration currently not supported for policy iteration");
 			}
-			res = computeReachProbsModPolIter(mdp, no, yes, min, strat);
+			res = computeReachProbsModPolIter(mdp, no, yes, min, strat, initStrat);
 			break;
 		default:
 			throw new PrismException("Unknown MDP solution method " + mdpSolnMethod.fullName());
@@ -569,6 +621,12 @@ public class MDPModelChecker extends ProbModelChecker
 		boolean u_done;
 		long timer;
 
+		// Use predecessor relation, if enabled
+		if (preRel) {
+			PredecessorRelation pre = mdp.getPredecessorRelation(this, true);
+			return prob0(mdp, remain, target, min, strat, pre);
+		}
+
 		// Start precomputation
 		timer = System.currentTimeMillis();
 		if (!silentPrecomputations)
@@ -663,6 +721,12 @@ public class MDPModelChecker extends ProbModelChecker
 		boolean u_done, v_done;
 		long timer;
 
+		// Use predecessor relation, if enabled
+		if (preRel) {
+			PredecessorRelation pre = mdp.getPredecessorRelation(this, true);
+			return prob1(mdp, remain, target, min, strat, pre);
+		}
+
 		// Start precomputation
 		timer = System.currentTimeMillis();
 		if (!silentPrecomputations)
@@ -752,6 +816,233 @@ public class MDPModelChecker extends ProbModelChecker
 		return u;
 	}
 
+	/**
+	 * Prob0 precomputation algorithm (using predecessor relation),
+	 * i.e. determine the states of an MDP which, with min/max probability 0,
+	 * reach a state in {@code target}, while remaining in those in {@code remain}.
+	 * {@code min}=true gives Prob0E, {@code min}=false gives Prob0A. 
+	 * Optionally, for min only, store optimal (memoryless) strategy info for 0 states. 
+	 * @param mdp The MDP
+	 * @param remain Remain in these states (optional: null means "all")
+	 * @param target Target states
+	 * @param min Min or max probabilities (true=min, false=max)
+	 * @param strat Storage for (memoryless) strategy choice indices (ignored if null)
+	 * @param pre The predecessor relation of the MDP
+	 */
+	public BitSet prob0(NondetModel<?> mdp, BitSet remain, BitSet target, boolean min, int strat[], PredecessorRelation pre)
+	{
+		int n;
+		BitSet soln, result;
+		long timer;
+
+		// Start precomputation
+		timer = System.currentTimeMillis();
+		if (!silentPrecomputations)
+			mainLog.println("Starting Prob0 (" + (min ? "min" : "max") + ")...");
+
+		// Special case: no target states
+		n = mdp.getNumStates();
+		if (target.isEmpty()) {
+			soln = new BitSet(n);
+			soln.set(0, n);
+
+			// for min, generate strategy, any choice (-2) is fine
+			if (min && strat != null) {
+				Arrays.fill(strat, -2);
+			}
+			return soln;
+		}
+
+		if (!min) {
+			// Prob0A: states that can reach 'target' (while remaining in 'remain')
+			// in the underlying graph, where all the 'target' states are made absorbing
+			soln = pre.calculatePreStar(remain, target, target, getNumPrecompThreads());
+		} else {
+			// Prob0E: least fixed point of the states from which, for all choices,
+			// there is a transition to a state in the fixed point, computed backwards from 'target'
+			// (a state only needs to be (re)checked when one of its successors is added)
+			BitSet unknown = new BitSet();
+			unknown.set(0, n);
+			unknown.andNot(target);
+			if (remain != null)
+				unknown.and(remain);
+			// States with no choices trivially satisfy the condition
+			BitSet init = (BitSet) target.clone();
+			for (int s = unknown.nextSetBit(0); s >= 0; s = unknown.nextSetBit(s + 1)) {
+				if (mdp.getNumChoices(s) == 0) {
+					init.set(s);
+				}
+			}
+			soln = pre.calculateBackwardsFixpoint(init, unknown, (p, set) -> {
+				for (int k = 0, numChoices = mdp.getNumChoices(p); k < numChoices; k++) {
+					if (!mdp.someSuccessorsInSet(p, k, set)) {
+						return false;
+					}
+				}
+				return true;
+			}, getNumPrecompThreads());
+		}
+
+		// Negate
+		result = new BitSet();
+		result.set(0, n);
+		result.andNot(soln);
+
+		// Finished precomputation
+		timer = System.currentTimeMillis() - timer;
+		if (!silentPrecomputations) {
+			mainLog.print("Prob0 (" + (min ? "min" : "max") + ")");
+			mainLog.println(" took " + timer / 1000.0 + " seconds.");
+		}
+
+		// If required, generate strategy (see fixed-point version above)
+		if (strat != null) {
+			for (int i = result.nextSetBit(0); i >= 0; i = result.nextSetBit(i + 1)) {
+				int numChoices = mdp.getNumChoices(i);
+				for (int k = 0; k < numChoices; k++) {
+					if (mdp.allSuccessorsInSet(i, k, result)) {
+						strat[i] = k;
+					}
+				}
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Prob1 precomputation algorithm (using predecessor relation),
+	 * i.e. determine the states of an MDP which, with min/max probability 1,
+	 * reach a state in {@code target}, while remaining in those in {@code remain}.
+	 * {@code min}=true gives Prob1A, {@code min}=false gives Prob1E. 
+	 * Optionally, for max only, store optimal (memoryless) strategy info for 1 states. 
+	 * @param mdp The MDP
+	 * @param remain Remain in these states (optional: null means "all")
+	 * @param target Target states
+	 * @param min Min or max probabilities (true=min, false=max)
+	 * @param strat Storage for (memoryless) strategy choice indices (ignored if null)
+	 * @param pre The predecessor relation of the MDP
+	 */
+	public BitSet prob1(NondetModel<?> mdp, BitSet remain, BitSet target, boolean min, int strat[], PredecessorRelation pre)
+	{
+		int n, iters;
+		BitSet u, v, unknown;
+		boolean u_done;
+		long timer;
+
+		// Start precomputation
+		timer = System.currentTimeMillis();
+		if (!silentPrecomputations)
+			mainLog.println("Starting Prob1 (" + (min ? "min" : "max") + ")...");
+
+		// Special case: no target states
+		n = mdp.getNumStates();
+		if (target.isEmpty()) {
+			return new BitSet(n);
+		}
+
+		// Determine set of states actually need to perform computation for
+		unknown = new BitSet();
+		unknown.set(0, n);
+		unknown.andNot(target);
+		if (remain != null)
+			unknown.and(remain);
+
+		// Greatest fixed point, where each iteration computes
+		// the inner least fixed point by a single backwards search
+		iters = 0;
+		u = new BitSet(n);
+		u.set(0, n);
+		u_done = false;
+		try (PredecessorRelation.BackwardsSearch search = pre.createBackwardsSearch(getNumPrecompThreads())) {
+			while (!u_done) {
+				iters++;
+				v = prob1Backwards(mdp, unknown, u, target, min, search, pre);
+				u_done = v.equals(u);
+				u = v;
+			}
+		}
+
+		// If we need to generate a strategy, do another backwards search for this
+		// (as for the fixed-point version above, to avoid strategy info for non-1 states)
+		if (!min && strat != null) {
+			unknown.and(u);
+			prob1EBackwardsStrategy(mdp, unknown, u, target, strat, pre);
+		}
+
+		// Finished precomputation
+		timer = System.currentTimeMillis() - timer;
+		if (!silentPrecomputations) {
+			mainLog.print("Prob1 (" + (min ? "min" : "max") + ")");
+			mainLog.println(" took " + iters + " iterations and " + timer / 1000.0 + " seconds.");
+		}
+
+		return u;
+	}
+
+	/**
+	 * Inner (least) fixed point of the Prob1A/Prob1E precomputation algorithms,
+	 * computed backwards from {@code target} using the predecessor relation:
+	 * returns the states in {@code target}, plus those in {@code unknown} and {@code u}
+	 * for which, for all choices (min) or some choice (max), all transitions go to states in {@code u}
+	 * and there is a transition to a state in the result.
+	 * The search uses the thread pool and buffers of {@code search}.
+	 */
+	private BitSet prob1Backwards(NondetModel<?> mdp, BitSet unknown, BitSet u, BitSet target, boolean min, PredecessorRelation.BackwardsSearch search, PredecessorRelation pre)
+	{
+		BitSet init = (BitSet) target.clone();
+		BitSet candidates = (BitSet) unknown.clone();
+		candidates.and(u);
+		// For min, states with no choices trivially satisfy the condition
+		if (min) {
+			for (int s = candidates.nextSetBit(0); s >= 0; s = candidates.nextSetBit(s + 1)) {
+				if (mdp.getNumChoices(s) == 0) {
+					init.set(s);
+				}
+			}
+		}
+		return pre.calculateBackwardsFixpoint(init, candidates, (p, v) -> {
+			for (int k = 0, numChoices = mdp.getNumChoices(p); k < numChoices; k++) {
+				if (mdp.successorsSafeAndCanReach(p, k, u, v) != min) {
+					return !min;
+				}
+			}
+			return min;
+		}, search);
+	}
+
+	/**
+	 * Inner (least) fixed point of the Prob1E precomputation algorithm, as for
+	 * {@link #prob1Backwards}, computed by a sequential backwards search that also stores
+	 * (memoryless) strategy info for the added states in {@code strat}.
+	 */
+	private BitSet prob1EBackwardsStrategy(NondetModel<?> mdp, BitSet unknown, BitSet u, BitSet target, int strat[], PredecessorRelation pre)
+	{
+		BitSet v = (BitSet) target.clone();
+		int todo[] = new int[mdp.getNumStates()];
+		int todoSize = 0;
+		for (int s = target.nextSetBit(0); s >= 0; s = target.nextSetBit(s + 1)) {
+			todo[todoSize++] = s;
+		}
+		while (todoSize > 0) {
+			int t = todo[--todoSize];
+			for (int i = 0, numPre = pre.getNumPredecessors(t); i < numPre; i++) {
+				int p = pre.getPredecessor(t, i);
+				if (v.get(p) || !unknown.get(p) || !u.get(p))
+					continue;
+				for (int k = 0, numChoices = mdp.getNumChoices(p); k < numChoices; k++) {
+					if (mdp.successorsSafeAndCanReach(p, k, u, v)) {
+						v.set(p);
+						todo[todoSize++] = p;
+						strat[p] = k;
+						break;
+					}
+				}
+			}
+		}
+		return v;
+	}
+
 	/**
 	 * Compute reachability probabilities using value iteration.
 	 * Optionally, store optimal (memoryless) strategy info. 
@@ -847,7 +1138,7 @@ public class MDPModelChecker extends ProbModelChecker
 		if (topological) {
 			// Compute SCCInfo, including trivial SCCs in the subgraph obtained when only considering
 			// states in unknown
-			SCCInfo sccs = SCCComputer.computeTopologicalOrdering(this, mdp, true, unknown::get);
+			SCCInfo sccs = computeTopologicalOrdering(mdp, unknown);
 
 			IterationMethod.SingletonSCCSolver singletonSCCSolver = (int s, double[] soln) -> {
 				soln[s] = mdp.mvMultJacMinMaxSingle(s, soln, min, strat);
@@ -904,13 +1195,39 @@ public class MDPModelChecker extends ProbModelChecker
 		initBelow = (init == null) ? new double[n] : init;
 		initAbove = new double[n];
 
+		// Determine set of states actually need to compute values for
+		unknown = new BitSet();
+		unknown.set(0, n);
+		unknown.andNot(yes);
+		unknown.andNot(no);
+		if (known != null)
+			unknown.andNot(known);
+
+		// If an initial solution vector was passed in for non-known states,
+		// check whether it is a lower/upper bound, in which case it can be used
+		// as the starting point for iteration from below/above
+		WarmStart.Bound initBound = WarmStart.Bound.NONE;
+		if (init != null) {
+			for (i = 0; i < n; i++) {
+				if (!(known != null && known.get(i)))
+					init[i] = yes.get(i) ? 1.0 : no.get(i) ? 0.0 : init[i];
+			}
+			double initFinal[] = init;
+			initBound = WarmStart.checkBound(init, unknown, s -> mdp.mvMultMinMaxSingle(s, initFinal, min, null));
+			if (initBound != WarmStart.Bound.NONE) {
+				mainLog.println("Initial solution vector is " + (initBound == WarmStart.Bound.FIXPOINT ? "a fixpoint" : initBound == WarmStart.Bound.LOWER ? "a lower bound" : "an upper bound"));
+			}
+		}
+		boolean initIsBelow = initBound == WarmStart.Bound.LOWER || initBound == WarmStart.Bound.FIXPOINT;
+		boolean initIsAbove = initBound == WarmStart.Bound.UPPER || initBound == WarmStart.Bound.FIXPOINT;
+
 		// Initialise solution vectors. Use (where available) the following in order of preference:
-		// (1) exact answer, if already known; (2) 1.0/0.0 if in yes/no; (3) initVal
-		// where initVal is 0.0 or 1.0, depending on whether we converge from below/above.
-		if (known != null && init != null) {
+		// (1) exact answer, if already known; (2) 1.0/0.0 if in yes/no; (3) passed in initial value, if a lower/upper bound;
+		// (4) initVal, where initVal is 0.0 or 1.0, depending on whether we converge from below/above.
+		if (init != null) {
 			for (i = 0; i < n; i++) {
-				initBelow[i] = known.get(i) ? init[i] : yes.get(i) ? 1.0 : no.get(i) ? 0.0 : 0.0;
-				initAbove[i] = known.get(i) ? init[i] : yes.get(i) ? 1.0 : no.get(i) ? 0.0 : 1.0;
+				initAbove[i] = initIsAbove ? init[i] : (known != null && known.get(i)) ? init[i] : yes.get(i) ? 1.0 : no.get(i) ? 0.0 : 1.0;
+				initBelow[i] = initIsBelow ? init[i] : (known != null && known.get(i)) ? init[i] : yes.get(i) ? 1.0 : no.get(i) ? 0.0 : 0.0;
 			}
 		} else {
 			for (i = 0; i < n; i++) {
@@ -919,14 +1236,6 @@ public class MDPModelChecker extends ProbModelChecker
 			}
 		}
 
-		// Determine set of states actually need to compute values for
-		unknown = new BitSet();
-		unknown.set(0, n);
-		unknown.andNot(yes);
-		unknown.andNot(no);
-		if (known != null)
-			unknown.andNot(known);
-
 		if (iterationsExport != null) {
 			iterationsExport.exportVector(initBelow, 0);
 			iterationsExport.exportVector(initAbove, 1);
@@ -955,7 +1264,7 @@ public class MDPModelChecker extends ProbModelChecker
 		if (topological) {
 			// Compute SCCInfo, including trivial SCCs in the subgraph obtained when only considering
 			// states in unknown
-			SCCInfo sccs = SCCComputer.computeTopologicalOrdering(this, mdp, true, unknown::get);
+			SCCInfo sccs = computeTopologicalOrdering(mdp, unknown);
 
 			IterationMethod.SingletonSCCSolver singletonSCCSolver = (int s, double[] soln) -> {
 				soln[s] = mdp.mvMultJacMinMaxSingle(s, soln, min, strat);
@@ -997,6 +1306,16 @@ public class MDPModelChecker extends ProbModelChecker
 	 * @param strat Storage for (memoryless) strategy choice indices (ignored if null)
 	 */
 	protected ModelCheckerResult computeReachProbsPolIter(MDP<Double> mdp, BitSet no, BitSet yes, boolean min, int strat[]) throws PrismException
+	{
+		return computeReachProbsPolIter(mdp, no, yes, min, strat, null);
+	}
+
+	/**
+	 * Compute reachability probabilities using policy iteration,
+	 * optionally starting from a given strategy (choices that are not valid for the MDP are ignored).
+	 * @param initStrat Initial strategy (optional: null means pick the first choice everywhere)
+	 */
+	protected ModelCheckerResult computeReachProbsPolIter(MDP<Double> mdp, BitSet no, BitSet yes, boolean min, int strat[], int initStrat[]) throws PrismException
 	{
 		ModelCheckerResult res;
 		int i, n, iters, totalIters;
@@ -1030,18 +1349,18 @@ public class MDPModelChecker extends ProbModelChecker
 			soln[i] = soln2[i] = yes.get(i) ? 1.0 : 0.0;
 
 		// If not passed in, create new storage for strategy and initialise
-		// Initial strategy just picks first choice (0) everywhere
+		// Initial strategy just picks first choice (0) everywhere, unless an initial strategy is given
 		if (strat == null) {
 			strat = new int[n];
 			for (i = 0; i < n; i++)
-				strat[i] = 0;
+				strat[i] = initialChoice(mdp, i, initStrat);
 		}
 		// Otherwise, just initialise for states not in yes/no
 		// (Optimal choices for yes/no should already be known)
 		else {
 			for (i = 0; i < n; i++)
 				if (!(no.get(i) || yes.get(i)))
-					strat[i] = 0;
+					strat[i] = initialChoice(mdp, i, initStrat);
 		}
 
 		boolean backwardsGS = (linEqMethod == LinEqMethod.BACKWARDS_GAUSS_SEIDEL);
@@ -1098,6 +1417,16 @@ public class MDPModelChecker extends ProbModelChecker
 	 * @param strat Storage for (memoryless) strategy choice indices (ignored if null)
 	 */
 	protected ModelCheckerResult computeReachProbsModPolIter(MDP<Double> mdp, BitSet no, BitSet yes, boolean min, int strat[]) throws PrismException
+	{
+		return computeReachProbsModPolIter(mdp, no, yes, min, strat, null);
+	}
+
+	/**
+	 * Compute reachability probabilities using modified policy iteration,
+	 * optionally starting from a given strategy (choices that are not valid for the MDP are ignored).
+	 * @param initStrat Initial strategy (optional: null means pick the first choice everywhere)
+	 */
+	protected ModelCheckerResult computeReachProbsModPolIter(MDP<Double> mdp, BitSet no, BitSet yes, boolean min, int strat[], int initStrat[]) throws PrismException
 	{
 		ModelCheckerResult res;
 		int i, n, iters, totalIters;
@@ -1132,18 +1461,18 @@ public class MDPModelChecker extends ProbModelChecker
 			soln[i] = soln2[i] = yes.get(i) ? 1.0 : 0.0;
 
 		// If not passed in, create new storage for strategy and initialise
-		// Initial strategy just picks first choice (0) everywhere
+		// Initial strategy just picks first choice (0) everywhere, unless an initial strategy is given
 		if (strat == null) {
 			strat = new int[n];
 			for (i = 0; i < n; i++)
-				strat[i] = 0;
+				strat[i] = initialChoice(mdp, i, initStrat);
 		}
 		// Otherwise, just initialise for states not in yes/no
 		// (Optimal choices for yes/no should already be known)
 		else {
 			for (i = 0; i < n; i++)
 				if (!(no.get(i) || yes.get(i)))
-					strat[i] = 0;
+					strat[i] = initialChoice(mdp, i, initStrat);
 		}
 
 		boolean backwardsGS = (linEqMethod == LinEqMethod.BACKWARDS_GAUSS_SEIDEL);
@@ -1189,6 +1518,18 @@ public class MDPModelChecker extends ProbModelChecker
 		return res;
 	}
 
+	/**
+	 * Get the initial choice for state {@code s} in policy iteration, i.e.,
+	 * the one from {@code initStrat} if present and valid, or the first one (0) otherwise.
+	 */
+	private static int initialChoice(MDP<Double> mdp, int s, int initStrat[])
+	{
+		if (initStrat != null && initStrat[s] >= 0 && initStrat[s] < mdp.getNumChoices(s)) {
+			return initStrat[s];
+		}
+		return 0;
+	}
+
 	/**
 	 * Construct strategy information for min/max reachability probabilities.
 	 * (More precisely, list of indices of choices resulting in min/max.)
@@ -1529,7 +1870,7 @@ public class MDPModelChecker extends ProbModelChecker
 		StopWatch timer = new StopWatch(getLog());
 		timer.start("computing an upper bound for maximal expected reward");
 
-		SCCInfo sccs = SCCComputer.computeTopologicalOrdering(this, mdp, true, null);
+		SCCInfo sccs = computeTopologicalOrdering(mdp, null);
 		BitSet trivial = new BitSet();
 
 		double q = 0;
@@ -1639,7 +1980,7 @@ public class MDPModelChecker extends ProbModelChecker
 		StopWatch timer = new StopWatch(getLog());
 		timer.start("computing an upper bound for maximal expected reward");
 
-		SCCInfo sccs = SCCComputer.computeTopologicalOrdering(this, mdp, true, null);
+		SCCInfo sccs = computeTopologicalOrdering(mdp, null);
 		BitSet trivial = new BitSet();
 
 		for (int scc = 0, numSCCs = sccs.getNumSCCs(); scc < numSCCs; scc++) {
@@ -1752,7 +2093,7 @@ public class MDPModelChecker extends ProbModelChecker
 		StopWatch timer = new StopWatch(getLog());
 		timer.start("computing an upper bound for expected reward");
 
-		SCCInfo sccs = SCCComputer.computeTopologicalOrdering(this, mdp, true, unknown::get);
+		SCCInfo sccs = computeTopologicalOrdering(mdp, unknown);
 
 		BitSet T = (BitSet) target.clone();
 
@@ -2355,7 +2696,7 @@ public class MDPModelChecker extends ProbModelChecker
 		if (topological) {
 			// Compute SCCInfo, including trivial SCCs in the subgraph obtained when only considering
 			// states in unknown
-			SCCInfo sccs = SCCComputer.computeTopologicalOrdering(this, mdp, true, unknown::get);
+			SCCInfo sccs = computeTopologicalOrdering(mdp, unknown);
 
 			IterationMethod.SingletonSCCSolver singletonSCCSolver = (int s, double[] soln) -> {
 				soln[s] = mdp.mvMultRewJacMinMaxSingle(s, soln, mdpRewards, min, strat);
@@ -2514,7 +2855,7 @@ public class MDPModelChecker extends ProbModelChecker
 		if (topological) {
 			// Compute SCCInfo, including trivial SCCs in the subgraph obtained when only considering
 			// states in unknown
-			SCCInfo sccs = SCCComputer.computeTopologicalOrdering(this, mdp, true, unknown::get);
+			SCCInfo sccs = computeTopologicalOrdering(mdp, unknown);
 
 			IterationMethod.SingletonSCCSolver singletonSCCSolver = (int s, double[] soln) -> {
 				soln[s] = mdp.mvMultRewJacMinMaxSingle(s, soln, mdpRewards, min, strat);
@@ -2704,11 +3045,17 @@ public class MDPModelChecker extends ProbModelChecker
 		maybe.andNot(yes);
 		maybe.andNot(no);
 
-		ECComputer ec = ECComputer.createECComputer(this, mdp);
 		StopWatch mecTimer = new StopWatch(getLog());
 		mecTimer.start("MEC computation");
-		ec.computeMECStates(maybe);
-		List<BitSet> mecs = ec.getMECStates();
+		List<BitSet> mecs = analysisCache == null ? null : analysisCache.getMECs(mdp, maybe);
+		if (mecs == null) {
+			ECComputer ec = ECComputer.createECComputer(this, mdp);
+			ec.computeMECStates(maybe);
+			mecs = ec.getMECStates();
+			if (analysisCache != null) {
+				analysisCache.storeMECs(mdp, maybe, mecs);
+			}
+		}
 		mecTimer.stop("found " + mecs.size() + " MECs");
 		mecs.add(yes);
 		mecs.add(no);
@@ -41,6 +41,8 @@ import java.util.TreeMap;
 import common.IterableStateSet;
 import explicit.rewards.MCRewards;
 import explicit.rewards.MDPRewards;
+import explicit.rewards.Rewards;
+import explicit.rewards.RewardsArray;
 import io.ExplicitModelImporter;
 import io.IOUtils;
 import parser.State;
@@ -360,6 +362,31 @@ public class MDPSparse extends MDPExplicit<Double>
 		rowStarts[numStates] = numDistrs;
 	}
 
+	/**
+	 * Construct an MDP directly from its sparse matrix storage (e.g. as created by {@link SparseModelBuilder}).
+	 * The arrays are stored, not copied. Other info (initial states, etc.) should be added separately.
+	 * @param numStates Number of states
+	 * @param rowStarts Start of the choices for each state (array of size numStates+1)
+	 * @param choiceStarts Start of the transitions for each choice (array of size numDistrs+1)
+	 * @param cols Destination of each transition
+	 * @param nonZeros Probability of each transition
+	 * @param actions Action label of each choice (or null if there are none)
+	 */
+	public MDPSparse(int numStates, int rowStarts[], int choiceStarts[], int cols[], double nonZeros[], Object actions[])
+	{
+		initialise(numStates);
+		this.rowStarts = rowStarts;
+		this.choiceStarts = choiceStarts;
+		this.cols = cols;
+		this.nonZeros = nonZeros;
+		this.actions = actions;
+		numDistrs = rowStarts[numStates];
+		numTransitions = choiceStarts[numDistrs];
+		for (int s = 0; s < numStates; s++) {
+			maxNumDistrs = Math.max(maxNumDistrs, rowStarts[s + 1] - rowStarts[s]);
+		}
+	}
+
 	/**
 	 * Construct an empty MDP (e.g. for subsequent explicit import)
 	 */
@@ -419,9 +446,12 @@ public class MDPSparse extends MDPExplicit<Double>
 				count++;
 			}
 		};
-		rowStarts[numStates] = numDistrs;
-		choiceStarts[numDistrs] = numTransitions;
-		modelImporter.extractMDPTransitions(cons);
+		// Use direct sparse import, if supported
+		if (!modelImporter.extractMDPTransitionsSparse(rowStarts, choiceStarts, cols, nonZeros, actions)) {
+			rowStarts[numStates] = numDistrs;
+			choiceStarts[numDistrs] = numTransitions;
+			modelImporter.extractMDPTransitions(cons);
+		}
 		actionList.markNeedsRecomputing();
 		// Compute maxNumDistrs
 		maxNumDistrs = 0;
@@ -946,6 +976,10 @@ public class MDPSparse extends MDPExplicit<Double>
 	@Override
 	public double mvMultRewMinMaxSingle(int s, double vect[], MDPRewards<Double> mdpRewards, boolean min, int strat[])
 	{
+		RewardsArray rewardsArray = getRewardsArray(mdpRewards);
+		if (rewardsArray != null) {
+			return mvMultRewMinMaxSingle(s, vect, rewardsArray.getStateRewardsArray(), rewardsArray.getTransitionRewardsArray(), min, strat);
+		}
 		int j, k, l1, h1, l2, h2, stratCh = -1;
 		double d, minmax;
 		boolean first;
@@ -989,6 +1023,10 @@ public class MDPSparse extends MDPExplicit<Double>
 	@Override
 	public double mvMultRewSingle(int s, int i, double[] vect, MCRewards<Double> mcRewards)
 	{
+		RewardsArray rewardsArray = getRewardsArray(mcRewards);
+		if (rewardsArray != null) {
+			return mvMultRewSingle(s, i, vect, rewardsArray.getStateRewardsArray(), null);
+		}
 		int j, k, l2, h2;
 		double d;
 
@@ -1009,6 +1047,10 @@ public class MDPSparse extends MDPExplicit<Double>
 	@Override
 	public double mvMultRewJacMinMaxSingle(int s, double vect[], MDPRewards<Double> mdpRewards, boolean min, int strat[])
 	{
+		RewardsArray rewardsArray = getRewardsArray(mdpRewards);
+		if (rewardsArray != null) {
+			return mvMultRewJacMinMaxSingle(s, vect, rewardsArray.getStateRewardsArray(), rewardsArray.getTransitionRewardsArray(), min, strat);
+		}
 		int j, k, l1, h1, l2, h2, stratCh = -1;
 		double diag, d, minmax;
 		boolean first;
@@ -1073,6 +1115,10 @@ public class MDPSparse extends MDPExplicit<Double>
 	@Override
 	public List<Integer> mvMultRewMinMaxSingleChoices(int s, double vect[], MDPRewards<Double> mdpRewards, boolean min, double val)
 	{
+		RewardsArray rewardsArray = getRewardsArray(mdpRewards);
+		if (rewardsArray != null) {
+			return mvMultRewMinMaxSingleChoices(s, vect, rewardsArray.getStateRewardsArray(), rewardsArray.getTransitionRewardsArray(), min, val);
+		}
 		int j, k, l1, h1, l2, h2;
 		double d;
 		List<Integer> res;
@@ -1100,6 +1146,217 @@ public class MDPSparse extends MDPExplicit<Double>
 		return res;
 	}
 
+	// Reward-based matrix-vector methods for rewards stored as primitive arrays
+
+	/**
+	 * Get {@code rewards} as a {@link RewardsArray}, if it is one that is indexed
+	 * in the same way as this model (and can thus be accessed directly), or null otherwise.
+	 */
+	private RewardsArray getRewardsArray(Rewards<Double> rewards)
+	{
+		if (rewards instanceof RewardsArray && ((RewardsArray) rewards).isIndexedFor(this)) {
+			return (RewardsArray) rewards;
+		}
+		return null;
+	}
+
+	/**
+	 * Do a single row of matrix-vector multiplication and sum of rewards followed by min/max,
+	 * for rewards given as arrays (see {@link RewardsArray}).
+	 * i.e. return min/max_k { rew(s) + rew_k(s) + sum_j P_k(s,j)*vect[j] }
+	 * Optionally, store optimal (memoryless) strategy info.
+	 * @param s Row index
+	 * @param vect Vector to multiply by
+	 * @param stateRews State rewards
+	 * @param transRews Transition (choice) rewards, indexed by choice offset (null if all zero)
+	 * @param min Min or max for (true=min, false=max)
+	 * @param strat Storage for (memoryless) strategy choice indices (ignored if null)
+	 */
+	public double mvMultRewMinMaxSingle(int s, double vect[], double stateRews[], double transRews[], boolean min, int strat[])
+	{
+		int j, k, l1, h1, l2, h2, stratCh = -1;
+		double d, minmax;
+		boolean first;
+
+		minmax = 0;
+		first = true;
+		l1 = rowStarts[s];
+		h1 = rowStarts[s + 1];
+		for (j = l1; j < h1; j++) {
+			// Compute sum for this distribution
+			d = transRews == null ? 0.0 : transRews[j];
+			l2 = choiceStarts[j];
+			h2 = choiceStarts[j + 1];
+			for (k = l2; k < h2; k++) {
+				d += nonZeros[k] * vect[cols[k]];
+			}
+			// Check whether we have exceeded min/max so far
+			if (first || (min && d < minmax) || (!min && d > minmax)) {
+				minmax = d;
+				// If strategy generation is enabled, remember optimal choice
+				if (strat != null)
+					stratCh = j - l1;
+			}
+			first = false;
+		}
+		// Add state reward (doesn't affect min/max)
+		minmax += stateRews[s];
+		// If strategy generation is enabled, store optimal choice
+		if (strat != null & !first) {
+			// For max, only remember strictly better choices
+			if (min) {
+				strat[s] = stratCh;
+			} else if (strat[s] == -1 || minmax > vect[s]) {
+				strat[s] = stratCh;
+			}
+		}
+
+		return minmax;
+	}
+
+	/**
+	 * Do a single row of matrix-vector multiplication and sum of rewards for a specific choice,
+	 * for rewards given as arrays (see {@link RewardsArray}).
+	 * i.e. rew(s) + rew_i(s) + sum_j P_i(s,j)*vect[j]
+	 * @param s State (row) index
+	 * @param i Choice index
+	 * @param vect Vector to multiply by
+	 * @param stateRews State rewards
+	 * @param transRews Transition (choice) rewards, indexed by choice offset (null if all zero)
+	 */
+	public double mvMultRewSingle(int s, int i, double vect[], double stateRews[], double transRews[])
+	{
+		int j, k, l2, h2;
+		double d;
+
+		j = rowStarts[s] + i;
+		// Compute sum for this distribution
+		d = transRews == null ? 0.0 : transRews[j];
+		l2 = choiceStarts[j];
+		h2 = choiceStarts[j + 1];
+		for (k = l2; k < h2; k++) {
+			d += nonZeros[k] * vect[cols[k]];
+		}
+		d += stateRews[s];
+		return d;
+	}
+
+	/**
+	 * Do a single row of Jacobi-style matrix-vector multiplication and sum of rewards followed by min/max,
+	 * for rewards given as arrays (see {@link RewardsArray}).
+	 * i.e. return min/max_k { (rew(s) + rew_k(s) + sum_{j!=s} P_k(s,j)*vect[j]) / 1-P_k(s,s) }
+	 * Optionally, store optimal (memoryless) strategy info.
+	 * @param s Row index
+	 * @param vect Vector to multiply by
+	 * @param stateRews State rewards
+	 * @param transRews Transition (choice) rewards, indexed by choice offset (null if all zero)
+	 * @param min Min or max for (true=min, false=max)
+	 * @param strat Storage for (memoryless) strategy choice indices (ignored if null)
+	 */
+	public double mvMultRewJacMinMaxSingle(int s, double vect[], double stateRews[], double transRews[], boolean min, int strat[])
+	{
+		int j, k, l1, h1, l2, h2, stratCh = -1;
+		double diag, d, minmax;
+		boolean first;
+
+		minmax = 0;
+		first = true;
+		l1 = rowStarts[s];
+		h1 = rowStarts[s + 1];
+		for (j = l1; j < h1; j++) {
+			diag = 1.0;
+			boolean onlySelfloops = true;
+			// Compute sum for this distribution
+			// (note: have to add state rewards in the loop for Jacobi)
+			d = stateRews[s];
+			if (transRews != null) {
+				d += transRews[j];
+			}
+			l2 = choiceStarts[j];
+			h2 = choiceStarts[j + 1];
+			for (k = l2; k < h2; k++) {
+				if (cols[k] != s) {
+					onlySelfloops = false;
+					d += nonZeros[k] * vect[cols[k]];
+				} else {
+					diag -= nonZeros[k];
+				}
+			}
+			// Catch special case of probability 1 self-loop (Jacobi does it wrong)
+			if (onlySelfloops) {
+				if (d != 0) {
+					// always choosing the selfloop-action will produce infinite reward
+					d = (d>0 ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY);
+				} else {
+					// no reward & only self-loops: d remains 0
+					d = 0;
+				}
+			} else if (diag > 0) {
+				// not only self-loops, do Jacobi division
+				d /= diag;
+			}
+
+			// Check whether we have exceeded min/max so far
+			if (first || (min && d < minmax) || (!min && d > minmax)) {
+				minmax = d;
+				// If strategy generation is enabled, remember optimal choice
+				if (strat != null)
+					stratCh = j - l1;
+			}
+			first = false;
+		}
+		// If strategy generation is enabled, store optimal choice
+		if (strat != null & !first) {
+			// For max, only remember strictly better choices
+			if (min) {
+				strat[s] = stratCh;
+			} else if (strat[s] == -1 || minmax > vect[s]) {
+				strat[s] = stratCh;
+			}
+		}
+
+		return minmax;
+	}
+
+	/**
+	 * Determine which choices result in min/max after a single row of matrix-vector multiplication
+	 * and sum of rewards, for rewards given as arrays (see {@link RewardsArray}).
+	 * @param s Row index
+	 * @param vect Vector to multiply by
+	 * @param stateRews State rewards
+	 * @param transRews Transition (choice) rewards, indexed by choice offset (null if all zero)
+	 * @param min Min or max (true=min, false=max)
+	 * @param val Min or max value to match
+	 */
+	public List<Integer> mvMultRewMinMaxSingleChoices(int s, double vect[], double stateRews[], double transRews[], boolean min, double val)
+	{
+		int j, k, l1, h1, l2, h2;
+		double d;
+		List<Integer> res;
+
+		// Create data structures to store strategy
+		res = new ArrayList<Integer>();
+		// One row of matrix-vector operation
+		l1 = rowStarts[s];
+		h1 = rowStarts[s + 1];
+		for (j = l1; j < h1; j++) {
+			// Compute sum for this distribution
+			d = transRews == null ? 0.0 : transRews[j];
+			l2 = choiceStarts[j];
+			h2 = choiceStarts[j + 1];
+			for (k = l2; k < h2; k++) {
+				d += nonZeros[k] * vect[cols[k]];
+			}
+			d += stateRews[s];
+			// Store strategy info if value matches
+			if (PrismUtils.doublesAreEqual(val, d)) {
+				res.add(j - l1);
+			}
+		}
+
+		return res;
+	}
+
 	@Override
 	public void mvMultRight(int[] states, int[] strat, double[] source, double[] dest)
 	{
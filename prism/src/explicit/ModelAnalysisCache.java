@@ -0,0 +1,293 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+
+package explicit;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Storage of the results of graph-based analyses of a single (built) model,
+ * i.e. precomputation (Prob0/Prob1) state sets, SCC orderings and MECs,
+ * so that they can be re-used by later computations on the same model,
+ * e.g. for other properties or when a built model is re-used across an experiment
+ * in which only constants not affecting the model's structure change.
+ * <br><br>
+ * Results are only returned for the model object that this was created for
+ * (other models, e.g. products, are never matched), and are looked up by
+ * the kind of analysis (e.g. "Prob0E") plus the state sets that it was computed for.
+ * These analyses only depend on the graph of the model, so the model must not be modified.
+ * <br><br>
+ * The (estimated) memory used by stored results is bounded, by default to
+ * 1/{@link #DEFAULT_MEMORY_FRACTION} of the maximum heap size; the least recently used
+ * results are discarded first, and results too large to fit are not stored.
+ */
+public class ModelAnalysisCache
+{
+	/** By default, stored results use at most this fraction (1/n) of the maximum heap size */
+	public static final int DEFAULT_MEMORY_FRACTION = 32;
+
+	/**
+	 * Key identifying an analysis, i.e. its kind (e.g. "Prob0E")
+	 * and the state sets it is for.
+	 */
+	private static class Key
+	{
+		private final String kind;
+		private final BitSet remain;
+		private final BitSet target;
+
+		/**
+		 * Create a key.
+		 * @param kind Kind of analysis, e.g. "Prob0E"
+		 * @param remain Remain/restrict states (optional: null means "all")
+		 * @param target Target states (optional: null means "none")
+		 * @param copy Whether to store copies of the state sets (needed if the key is stored)
+		 */
+		private Key(String kind, BitSet remain, BitSet target, boolean copy)
+		{
+			this.kind = kind;
+			this.remain = remain == null || !copy ? remain : (BitSet) remain.clone();
+			this.target = target == null || !copy ? target : (BitSet) target.clone();
+		}
+
+		/**
+		 * Estimated memory used by the key (in bytes).
+		 */
+		private long getMemory()
+		{
+			return getBitSetMemory(remain) + getBitSetMemory(target);
+		}
+
+		@Override
+		public boolean equals(Object o)
+		{
+			if (!(o instanceof Key))
+				return false;
+			Key other = (Key) o;
+			return kind.equals(other.kind) && Objects.equals(remain, other.remain) && Objects.equals(target, other.target);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return Objects.hash(kind, remain, target);
+		}
+	}
+
+	/**
+	 * A stored result, and its estimated memory use (including that of the key).
+	 */
+	private static class Entry
+	{
+		private final Object result;
+		private final long memory;
+
+		private Entry(Object result, long memory)
+		{
+			this.result = result;
+			this.memory = memory;
+		}
+	}
+
+	/** The model that the stored results are for */
+	private final Model<?> model;
+
+	/** Maximum (estimated) memory for stored results, in bytes */
+	private final long maxMemory;
+
+	/** Stored results, of all kinds (in LRU order) */
+	private LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	/** Estimated memory used by stored results, in bytes */
+	private long memory = 0;
+
+	/**
+	 * Create (empty) storage for analyses of {@code model},
+	 * using the default memory bound (see {@link #DEFAULT_MEMORY_FRACTION}).
+	 */
+	public ModelAnalysisCache(Model<?> model)
+	{
+		this(model, Runtime.getRuntime().maxMemory() / DEFAULT_MEMORY_FRACTION);
+	}
+
+	/**
+	 * Create (empty) storage for analyses of {@code model},
+	 * using at most (an estimated) {@code maxMemory} bytes for stored results.
+	 */
+	public ModelAnalysisCache(Model<?> model, long maxMemory)
+	{
+		this.model = model;
+		this.maxMemory = maxMemory;
+	}
+
+	/**
+	 * Get the model that the stored results are for.
+	 */
+	public Model<?> getModel()
+	{
+		return model;
+	}
+
+	/**
+	 * Get (a copy of) the stored set of states computed by an analysis
+	 * (e.g. "Prob0E") of {@code model} for the states {@code remain} and {@code target},
+	 * or null if there is none.
+	 */
+	public synchronized BitSet getStates(String kind, Model<?> model, BitSet remain, BitSet target)
+	{
+		BitSet states = (BitSet) get(model, new Key(kind, remain, target, false));
+		return states == null ? null : (BitSet) states.clone();
+	}
+
+	/**
+	 * Store (a copy of) the set of states computed by an analysis
+	 * (e.g. "Prob0E") of {@code model} for the states {@code remain} and {@code target}.
+	 */
+	public synchronized void storeStates(String kind, Model<?> model, BitSet remain, BitSet target, BitSet states)
+	{
+		if (model == this.model) {
+			store(new Key(kind, remain, target, true), (BitSet) states.clone(), getBitSetMemory(states));
+		}
+	}
+
+	/**
+	 * Get the stored SCC ordering (with trivial SCCs) of {@code model},
+	 * restricted to the states in {@code restrict} (null means "all"), or null if there is none.
+	 * The result is shared, so must not be modified.
+	 */
+	public synchronized SCCInfo getSCCInfo(Model<?> model, BitSet restrict)
+	{
+		return (SCCInfo) get(model, new Key("SCC", restrict, null, false));
+	}
+
+	/**
+	 * Store the SCC ordering (with trivial SCCs) of {@code model},
+	 * restricted to the states in {@code restrict} (null means "all").
+	 * This is shared, so must not be modified subsequently.
+	 */
+	public synchronized void storeSCCInfo(Model<?> model, BitSet restrict, SCCInfo sccs)
+	{
+		if (model == this.model) {
+			// (an SCCInfo stores three int arrays over the states)
+			store(new Key("SCC", restrict, null, true), sccs, 12L * model.getNumStates());
+		}
+	}
+
+	/**
+	 * Get (a copy of) the stored list of MECs of {@code model}, restricted
+	 * to the states in {@code restrict} (null means "all"), or null if there is none.
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized List<BitSet> getMECs(Model<?> model, BitSet restrict)
+	{
+		List<BitSet> list = (List<BitSet>) get(model, new Key("MEC", restrict, null, false));
+		return list == null ? null : copyStateSets(list);
+	}
+
+	/**
+	 * Store (a copy of) the list of MECs of {@code model}, restricted
+	 * to the states in {@code restrict} (null means "all").
+	 */
+	public synchronized void storeMECs(Model<?> model, BitSet restrict, List<BitSet> list)
+	{
+		if (model == this.model) {
+			long mem = 0;
+			for (BitSet bs : list) {
+				mem += getBitSetMemory(bs);
+			}
+			store(new Key("MEC", restrict, null, true), copyStateSets(list), mem);
+		}
+	}
+
+	/**
+	 * Remove all stored results.
+	 */
+	public synchronized void clear()
+	{
+		entries.clear();
+		memory = 0;
+	}
+
+	/**
+	 * Get the estimated memory currently used by stored results (in bytes).
+	 */
+	public synchronized long getMemory()
+	{
+		return memory;
+	}
+
+	// Helpers
+
+	private Object get(Model<?> model, Key key)
+	{
+		if (model != this.model)
+			return null;
+		Entry entry = entries.get(key);
+		return entry == null ? null : entry.result;
+	}
+
+	/**
+	 * Store a result, whose estimated memory use (excluding the key) is {@code resultMemory},
+	 * then discard least recently used results until the memory bound is met.
+	 */
+	private void store(Key key, Object result, long resultMemory)
+	{
+		long entryMemory = key.getMemory() + resultMemory;
+		if (entryMemory > maxMemory) {
+			return;
+		}
+		Entry old = entries.put(key, new Entry(result, entryMemory));
+		memory += entryMemory - (old == null ? 0 : old.memory);
+		Iterator<Entry> it = entries.values().iterator();
+		while (memory > maxMemory && it.hasNext()) {
+			memory -= it.next().memory;
+			it.remove();
+		}
+	}
+
+	/**
+	 * Estimated memory used by a BitSet (in bytes).
+	 */
+	private static long getBitSetMemory(BitSet bs)
+	{
+		return bs == null ? 0 : 32 + bs.size() / 8;
+	}
+
+	private static List<BitSet> copyStateSets(List<BitSet> list)
+	{
+		List<BitSet> copy = new ArrayList<>(list.size());
+		for (BitSet bs : list) {
+			copy.add((BitSet) bs.clone());
+		}
+		return copy;
+	}
+}
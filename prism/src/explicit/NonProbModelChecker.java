@@ -336,7 +336,16 @@ public class NonProbModelChecker extends StateModelChecker
 	public BitSet computeExistsUntil(Model<?> model, BitSet A, BitSet B) throws PrismException
 	{
  		PredecessorRelation pre = model.getPredecessorRelation(this, true);
- 		return pre.calculatePreStar(A, B, B);
+ 		return pre.calculatePreStar(A, B, B, getNumPrecompThreads());
+	}
+
+	/**
+	 * Get the number of threads to use for backwards searches over the predecessor relation,
+	 * e.g. for precomputation (1 means sequential).
+	 */
+	protected int getNumPrecompThreads()
+	{
+		return 1;
 	}
 
 	/**
@@ -423,7 +432,8 @@ public class NonProbModelChecker extends StateModelChecker
 			// if there are no remaining successors into T, i.e, if count[s]==0
 
 			// For all predecessors s of t....
-			for (int s : pre.getPre(t)) {
+			for (int i = 0, numPre = pre.getNumPredecessors(t); i < numPre; i++) {
+				int s = pre.getPredecessor(t, i);
 				// ... ignore if we have already proven that it does not satisfy E[ a R b ]
 				if (!T.get(s)) continue;
 
@@ -499,7 +509,8 @@ public class NonProbModelChecker extends StateModelChecker
 
 			// For all predecessors s of t....
 
-			for (int s : pre.getPre(t)) {
+			for (int i = 0, numPre = pre.getNumPredecessors(t); i < numPre; i++) {
+				int s = pre.getPredecessor(t, i);
 				// ... ignore if we have already proven that it does not satisfy E[ a R b ]
 				if (!T.get(s)) continue;
 
@@ -35,7 +35,11 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
@@ -54,6 +58,9 @@ public class POMDPModelChecker extends ProbModelChecker
 {
 	// Some local data structures for convenience
 	
+	/** Minimum number of grid points processed by each task, when building/solving belief MDPs in parallel */
+	public static final int PARALLEL_MIN_GRID_POINTS = 256;
+
 	/**
 	 * Info for a single state of a belief MDP:
 	 * (1) a list (over choices in the state) of distributions over beliefs, stored as hashmap;
@@ -70,6 +77,26 @@ public class POMDPModelChecker extends ProbModelChecker
 		}
 	}
 	
+	/**
+	 * Info for a single state of a belief MDP, as for {@link BeliefMDPState}, but with successor beliefs
+	 * resolved for value iteration over the grid points (stored as an array of values):
+	 * for each choice, and each successor belief, its probability and either a fixed value
+	 * or the grid points (indices) and weights over which its value is interpolated.
+	 */
+	class GridBeliefMDPState
+	{
+		/** Reward for each choice (0 if none) */
+		public double[] rewards;
+		/** Probability of each successor, for each choice */
+		public double[][] probs;
+		/** Value of each successor, for each choice, if fixed (i.e., not interpolated) */
+		public double[][] fixedValues;
+		/** Grid point indices for interpolating the value of each successor, for each choice (null if fixed) */
+		public int[][][] gridIndices;
+		/** Weights for interpolating the value of each successor, for each choice (null if fixed) */
+		public double[][][] weights;
+	}
+
 	/**
 	 * Value backup function for belief state value iteration:
 	 * mapping from a state and its definition (reward + transitions)
@@ -180,59 +207,23 @@ public class POMDPModelChecker extends ProbModelChecker
 		// Initialise the grid points (just for unknown beliefs)
 		List<Belief> gridPoints = initialiseGridPoints(pomdp, unknownObs);
 		mainLog.println("Grid statistics: resolution=" + gridResolution + ", points=" + gridPoints.size());
-		// Construct grid belief "MDP"
-		mainLog.println("Building belief space approximation...");
-		List<BeliefMDPState> beliefMDP = buildBeliefMDP(pomdp, null, gridPoints);
-		
-		// Initialise hashmaps for storing values for the unknown belief states
-		HashMap<Belief, Double> vhash = new HashMap<>();
-		HashMap<Belief, Double> vhash_backUp = new HashMap<>();
-		for (Belief belief : gridPoints) {
-			vhash.put(belief, 0.0);
-			vhash_backUp.put(belief, 0.0);
-		}
+		// Index grid points, and initialise storage for their values
+		Map<Belief, Integer> gridIndex = indexGridPoints(gridPoints);
+		double[] gridValues = new double[gridPoints.size()];
 		// Define value function for the full set of belief states
-		Function<Belief, Double> values = belief -> approximateReachProb(belief, vhash_backUp, targetObs, unknownObs);
+		Function<Belief, Double> values = belief -> approximateReachProb(belief, gridIndex, gridValues, targetObs, unknownObs);
 		// Define value backup function
 		BeliefMDPBackUp backup = (belief, beliefState) -> approximateReachProbBackup(belief, beliefState, values, min);
-		
-		// Start iterations
-		mainLog.println("Solving belief space approximation...");
-		long timer2 = System.currentTimeMillis();
-		int iters = 0;
-		boolean done = false;
-		while (!done && iters < maxIters) {
-			// Iterate over all (unknown) grid points
-			int unK = gridPoints.size();
-			for (int b = 0; b < unK; b++) {
-				Belief belief = gridPoints.get(b);
-				Pair<Double, Integer> valChoice = backup.apply(belief, beliefMDP.get(b));
-				vhash.put(belief, valChoice.first);
-			}
-			// Check termination
-			done = PrismUtils.doublesAreClose(vhash, vhash_backUp, termCritParam, termCrit == TermCrit.RELATIVE);
-			// back up	
-			Set<Map.Entry<Belief, Double>> entries = vhash.entrySet();
-			for (Map.Entry<Belief, Double> entry : entries) {
-				vhash_backUp.put(entry.getKey(), entry.getValue());
-			}
-			iters++;
-		}
-		// Non-convergence is an error (usually)
-		if (!done && errorOnNonConverge) {
-			String msg = "Iterative method did not converge within " + iters + " iterations.";
-			msg += "\nConsider using a different numerical method or increasing the maximum number of iterations";
-			throw new PrismException(msg);
-		}
-		timer2 = System.currentTimeMillis() - timer2;
-		mainLog.print("Belief space value iteration (" + (min ? "min" : "max") + ")");
-		mainLog.println(" took " + iters + " iterations and " + timer2 / 1000.0 + " seconds.");
+
+		// Construct grid belief "MDP" and solve
+		ModelCheckerResult gridRes = buildAndSolveGridBeliefMDP(pomdp, null, gridPoints, gridIndex, gridValues, unknownObs, values, min);
+		int iters = gridRes.numIters;
 		
 		// Extract (approximate) solution value for the initial belief
 		// Also get (approximate) accuracy of result from value iteration
 		Belief initialBelief = Belief.pointDistribution(sInit, pomdp);
 		double outerBound = values.apply(initialBelief);
-		double outerBoundMaxDiff = PrismUtils.measureSupNorm(vhash, vhash_backUp, termCrit == TermCrit.RELATIVE);
+		double outerBoundMaxDiff = PrismUtils.measureSupNorm(gridRes.soln, gridRes.lastSoln, termCrit == TermCrit.RELATIVE);
 		Accuracy outerBoundAcc = AccuracyFactory.valueIteration(termCritParam, outerBoundMaxDiff, termCrit == TermCrit.RELATIVE);
 		// Print result
 		mainLog.println("Outer bound: " + outerBound + " (" + outerBoundAcc.toString(outerBound) + ")");
@@ -375,59 +366,23 @@ public class POMDPModelChecker extends ProbModelChecker
 		// Initialise the grid points (just for unknown beliefs)
 		List<Belief> gridPoints = initialiseGridPoints(pomdp, unknownObs);
 		mainLog.println("Grid statistics: resolution=" + gridResolution + ", points=" + gridPoints.size());
-		// Construct grid belief "MDP"
-		mainLog.println("Building belief space approximation...");
-		List<BeliefMDPState> beliefMDP = buildBeliefMDP(pomdp, mdpRewards, gridPoints);
-		
-		// Initialise hashmaps for storing values for the unknown belief states
-		HashMap<Belief, Double> vhash = new HashMap<>();
-		HashMap<Belief, Double> vhash_backUp = new HashMap<>();
-		for (Belief belief : gridPoints) {
-			vhash.put(belief, 0.0);
-			vhash_backUp.put(belief, 0.0);
-		}
+		// Index grid points, and initialise storage for their values
+		Map<Belief, Integer> gridIndex = indexGridPoints(gridPoints);
+		double[] gridValues = new double[gridPoints.size()];
 		// Define value function for the full set of belief states
-		Function<Belief, Double> values = belief -> approximateReachReward(belief, vhash_backUp, targetObs, infObs);
+		Function<Belief, Double> values = belief -> approximateReachReward(belief, gridIndex, gridValues, targetObs, infObs);
 		// Define value backup function
 		BeliefMDPBackUp backup = (belief, beliefState) -> approximateReachRewardBackup(belief, beliefState, values, min);
-		
-		// Start iterations
-		mainLog.println("Solving belief space approximation...");
-		long timer2 = System.currentTimeMillis();
-		int iters = 0;
-		boolean done = false;
-		while (!done && iters < maxIters) {
-			// Iterate over all (unknown) grid points
-			int unK = gridPoints.size();
-			for (int b = 0; b < unK; b++) {
-				Belief belief = gridPoints.get(b);
-				Pair<Double, Integer> valChoice = backup.apply(belief, beliefMDP.get(b));
-				vhash.put(belief, valChoice.first);
-			}
-			// Check termination
-			done = PrismUtils.doublesAreClose(vhash, vhash_backUp, termCritParam, termCrit == TermCrit.RELATIVE);
-			// back up	
-			Set<Map.Entry<Belief, Double>> entries = vhash.entrySet();
-			for (Map.Entry<Belief, Double> entry : entries) {
-				vhash_backUp.put(entry.getKey(), entry.getValue());
-			}
-			iters++;
-		}
-		// Non-convergence is an error (usually)
-		if (!done && errorOnNonConverge) {
-			String msg = "Iterative method did not converge within " + iters + " iterations.";
-			msg += "\nConsider using a different numerical method or increasing the maximum number of iterations";
-			throw new PrismException(msg);
-		}
-		timer2 = System.currentTimeMillis() - timer2;
-		mainLog.print("Belief space value iteration (" + (min ? "min" : "max") + ")");
-		mainLog.println(" took " + iters + " iterations and " + timer2 / 1000.0 + " seconds.");
+
+		// Construct grid belief "MDP" and solve
+		ModelCheckerResult gridRes = buildAndSolveGridBeliefMDP(pomdp, mdpRewards, gridPoints, gridIndex, gridValues, unknownObs, values, min);
+		int iters = gridRes.numIters;
 
 		// Extract (approximate) solution value for the initial belief
 		// Also get (approximate) accuracy of result from value iteration
 		Belief initialBelief = Belief.pointDistribution(sInit, pomdp);
 		double outerBound = values.apply(initialBelief);
-		double outerBoundMaxDiff = PrismUtils.measureSupNorm(vhash, vhash_backUp, termCrit == TermCrit.RELATIVE);
+		double outerBoundMaxDiff = PrismUtils.measureSupNorm(gridRes.soln, gridRes.lastSoln, termCrit == TermCrit.RELATIVE);
 		Accuracy outerBoundAcc = AccuracyFactory.valueIteration(termCritParam, outerBoundMaxDiff, termCrit == TermCrit.RELATIVE);
 		// Print result
 		mainLog.println("Outer bound: " + outerBound + " (" + outerBoundAcc.toString(outerBound) + ")");
@@ -591,6 +546,201 @@ public class POMDPModelChecker extends ProbModelChecker
 		return beliefMDP;
 	}
 	
+	/**
+	 * Construct a grid belief MDP, for the passed in grid points, and solve it with (approximate) value iteration.
+	 * Successor beliefs are resolved to either fixed values (using {@code values}) or interpolations over grid points.
+	 * Construction and backups are done in parallel if multiple threads are enabled,
+	 * with results identical to sequential computation.
+	 * Values of grid points (initially as passed in {@code gridValues}) are stored in {@code gridValues}.
+	 * In the result, {@code soln} is {@code gridValues} and {@code lastSoln} the values from the final backup.
+	 * @param pomdp The POMDP
+	 * @param mdpRewards The rewards (optional)
+	 * @param gridPoints Grid points
+	 * @param gridIndex Index of each grid point in {@code gridPoints}
+	 * @param gridValues Values for grid points
+	 * @param unknownObs Observations for which beliefs are interpolated
+	 * @param values Value function for other beliefs
+	 * @param min Min or max probabilities/rewards (true=min, false=max)
+	 */
+	protected ModelCheckerResult buildAndSolveGridBeliefMDP(POMDP<Double> pomdp, MDPRewards<Double> mdpRewards, List<Belief> gridPoints, Map<Belief, Integer> gridIndex, double[] gridValues, BitSet unknownObs, Function<Belief, Double> values, boolean min) throws PrismException
+	{
+		int numThreads = getNumThreads();
+		ExecutorService executor = numThreads > 1 ? Executors.newFixedThreadPool(numThreads) : null;
+		try {
+			// Construct grid belief "MDP"
+			mainLog.println("Building belief space approximation" + (executor != null ? " (using " + numThreads + " threads)" : "") + "...");
+			int unK = gridPoints.size();
+			GridBeliefMDPState[] gridBeliefMDP = new GridBeliefMDPState[unK];
+			forEachGridPointRange(unK, numThreads, executor, (lo, hi) -> {
+				for (int b = lo; b < hi; b++) {
+					BeliefMDPState beliefMDPState = buildBeliefMDPState(pomdp, mdpRewards, gridPoints.get(b));
+					gridBeliefMDP[b] = buildGridBeliefMDPState(beliefMDPState, gridIndex, unknownObs, values);
+				}
+			});
+
+			// Start iterations
+			mainLog.println("Solving belief space approximation...");
+			long timer2 = System.currentTimeMillis();
+			double[] gridValuesNew = new double[unK];
+			int iters = 0;
+			boolean done = false;
+			while (!done && iters < maxIters) {
+				// Iterate over all (unknown) grid points
+				forEachGridPointRange(unK, numThreads, executor, (lo, hi) -> {
+					for (int b = lo; b < hi; b++) {
+						gridValuesNew[b] = gridBeliefMDPBackup(gridBeliefMDP[b], gridValues, min);
+					}
+				});
+				// Check termination
+				done = PrismUtils.doublesAreClose(gridValuesNew, gridValues, termCritParam, termCrit == TermCrit.RELATIVE);
+				// back up
+				System.arraycopy(gridValuesNew, 0, gridValues, 0, unK);
+				iters++;
+			}
+			// Non-convergence is an error (usually)
+			if (!done && errorOnNonConverge) {
+				String msg = "Iterative method did not converge within " + iters + " iterations.";
+				msg += "\nConsider using a different numerical method or increasing the maximum number of iterations";
+				throw new PrismException(msg);
+			}
+			timer2 = System.currentTimeMillis() - timer2;
+			mainLog.print("Belief space value iteration (" + (min ? "min" : "max") + ")");
+			mainLog.println(" took " + iters + " iterations and " + timer2 / 1000.0 + " seconds.");
+
+			ModelCheckerResult res = new ModelCheckerResult();
+			res.soln = gridValues;
+			res.lastSoln = gridValuesNew;
+			res.numIters = iters;
+			return res;
+		} finally {
+			if (executor != null) {
+				executor.shutdown();
+			}
+		}
+	}
+
+	/**
+	 * Task over a range [lo,hi) of grid point indices.
+	 */
+	@FunctionalInterface
+	protected interface GridPointRangeTask
+	{
+		void apply(int lo, int hi) throws PrismException;
+	}
+
+	/**
+	 * Apply {@code task} to all grid point indices 0,...,n-1,
+	 * split into ranges which are processed in parallel if {@code executor} is non-null.
+	 */
+	protected void forEachGridPointRange(int n, int numThreads, ExecutorService executor, GridPointRangeTask task) throws PrismException
+	{
+		if (executor == null || n < 2 * PARALLEL_MIN_GRID_POINTS) {
+			task.apply(0, n);
+			return;
+		}
+		// Use a few ranges per thread, for load balancing
+		int rangeSize = Math.max(PARALLEL_MIN_GRID_POINTS, (n + 4 * numThreads - 1) / (4 * numThreads));
+		List<Callable<Void>> tasks = new ArrayList<>();
+		for (int lo = 0; lo < n; lo += rangeSize) {
+			final int lo2 = lo, hi2 = Math.min(n, lo + rangeSize);
+			tasks.add(() -> {
+				task.apply(lo2, hi2);
+				return null;
+			});
+		}
+		try {
+			for (Future<Void> future : executor.invokeAll(tasks)) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new PrismException("Interrupted during belief space computation");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof PrismException) {
+				throw (PrismException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new PrismException("Error during belief space computation: " + cause);
+		}
+	}
+
+	/**
+	 * Convert a state of a belief MDP to a {@link GridBeliefMDPState}:
+	 * successor beliefs for observations in {@code unknownObs} are interpolated over grid points,
+	 * values for others are fixed, using {@code values}.
+	 */
+	protected GridBeliefMDPState buildGridBeliefMDPState(BeliefMDPState beliefMDPState, Map<Belief, Integer> gridIndex, BitSet unknownObs, Function<Belief, Double> values)
+	{
+		int numChoices = beliefMDPState.trans.size();
+		GridBeliefMDPState gridState = new GridBeliefMDPState();
+		gridState.rewards = new double[numChoices];
+		gridState.probs = new double[numChoices][];
+		gridState.fixedValues = new double[numChoices][];
+		gridState.gridIndices = new int[numChoices][][];
+		gridState.weights = new double[numChoices][][];
+		for (int i = 0; i < numChoices; i++) {
+			// (successors are stored in the iteration order of the original distribution,
+			// so that values are computed exactly as for approximateReach{Prob,Reward}Backup)
+			HashMap<Belief, Double> trans = beliefMDPState.trans.get(i);
+			int numSuccs = trans.size();
+			gridState.rewards[i] = beliefMDPState.rewards.isEmpty() ? 0.0 : beliefMDPState.rewards.get(i);
+			gridState.probs[i] = new double[numSuccs];
+			gridState.fixedValues[i] = new double[numSuccs];
+			gridState.gridIndices[i] = new int[numSuccs][];
+			gridState.weights[i] = new double[numSuccs][];
+			int k = 0;
+			for (Map.Entry<Belief, Double> entry : trans.entrySet()) {
+				Belief nextBelief = entry.getKey();
+				gridState.probs[i][k] = entry.getValue();
+				if (unknownObs.get(nextBelief.so)) {
+					Pair<int[], double[]> interp = getGridInterpolation(nextBelief, gridIndex);
+					gridState.gridIndices[i][k] = interp.first;
+					gridState.weights[i][k] = interp.second;
+				} else {
+					gridState.fixedValues[i][k] = values.apply(nextBelief);
+				}
+				k++;
+			}
+		}
+		return gridState;
+	}
+
+	/**
+	 * Perform a single backup step of (approximate) value iteration for a grid belief MDP state,
+	 * using (and not modifying) the values {@code gridValues} for grid points.
+	 */
+	protected double gridBeliefMDPBackup(GridBeliefMDPState gridState, double[] gridValues, boolean min)
+	{
+		int numChoices = gridState.probs.length;
+		double chosenValue = min ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < numChoices; i++) {
+			double value = gridState.rewards[i];
+			double[] probs = gridState.probs[i];
+			for (int k = 0; k < probs.length; k++) {
+				int[] indices = gridState.gridIndices[i][k];
+				double nextValue;
+				if (indices == null) {
+					nextValue = gridState.fixedValues[i][k];
+				} else {
+					double[] weights = gridState.weights[i][k];
+					nextValue = 0;
+					for (int j = 0; j < indices.length; j++) {
+						nextValue += weights[j] * gridValues[indices[j]];
+					}
+				}
+				value += probs[k] * nextValue;
+			}
+			if ((min && chosenValue - value > 1.0e-6) || (!min && value - chosenValue > 1.0e-6)) {
+				chosenValue = value;
+			}
+		}
+		return chosenValue;
+	}
+
 	/**
 	 * Construct a single single state (belief) of a belief MDP, stored as a
 	 * list (over choices) of distributions over target beliefs.
@@ -675,7 +825,7 @@ public class POMDPModelChecker extends ProbModelChecker
 	/**
 	 * Compute the grid-based approximate value for a belief for probabilistic reachability
 	 */
-	protected double approximateReachProb(Belief belief, HashMap<Belief, Double> gridValues, BitSet targetObs, BitSet unknownObs)
+	protected double approximateReachProb(Belief belief, Map<Belief, Integer> gridIndex, double[] gridValues, BitSet targetObs, BitSet unknownObs)
 	{
 		// 1 for target states
 		if (targetObs.get(belief.so)) {
@@ -687,14 +837,14 @@ public class POMDPModelChecker extends ProbModelChecker
 		}
 		// Otherwise approximate vie interpolation over grid points
 		else {
-			return interpolateOverGrid(belief, gridValues);
+			return interpolateOverGrid(belief, gridIndex, gridValues);
 		}
 	}
 	
 	/**
 	 * Compute the grid-based approximate value for a belief for reward reachability
 	 */
-	protected double approximateReachReward(Belief belief, HashMap<Belief, Double> gridValues, BitSet targetObs, BitSet infObs)
+	protected double approximateReachReward(Belief belief, Map<Belief, Integer> gridIndex, double[] gridValues, BitSet targetObs, BitSet infObs)
 	{
 		// 0 for target states
 		if (targetObs.get(belief.so)) {
@@ -706,26 +856,65 @@ public class POMDPModelChecker extends ProbModelChecker
 		}
 		// Otherwise approximate vie interpolation over grid points
 		else {
-			return interpolateOverGrid(belief, gridValues);
+			return interpolateOverGrid(belief, gridIndex, gridValues);
 		}
 	}
 	
 	/**
 	 * Approximate the value for a belief {@code belief} by interpolating over values {@code gridValues}
-	 * for a representative set of beliefs whose convex hull is the full belief space.
+	 * for a representative set of beliefs (grid points, indexed by {@code gridIndex})
+	 * whose convex hull is the full belief space.
+	 */
+	protected double interpolateOverGrid(Belief belief, Map<Belief, Integer> gridIndex, double[] gridValues)
+	{
+		Pair<int[], double[]> interp = getGridInterpolation(belief, gridIndex);
+		int[] indices = interp.first;
+		double[] weights = interp.second;
+		double val = 0;
+		for (int j = 0; j < indices.length; j++) {
+			val += weights[j] * gridValues[indices[j]];
+		}
+		return val;
+	}
+
+	/**
+	 * Get the grid points (as indices, using {@code gridIndex}) and corresponding weights
+	 * over which the value for a belief {@code belief} is interpolated.
 	 */
-	protected double interpolateOverGrid(Belief belief, HashMap<Belief, Double> gridValues)
+	protected Pair<int[], double[]> getGridInterpolation(Belief belief, Map<Belief, Integer> gridIndex)
 	{
 		ArrayList<double[]> subSimplex = new ArrayList<>();
 		double[] lambdas = new double[belief.bu.length];
 		getSubSimplexAndLambdas(belief.bu, subSimplex, lambdas, gridResolution);
-		double val = 0;
+		int num = 0;
 		for (int j = 0; j < lambdas.length; j++) {
 			if (lambdas[j] >= 1e-6) {
-				val += lambdas[j] * gridValues.get(new Belief(belief.so, subSimplex.get(j)));
+				num++;
 			}
 		}
-		return val;
+		int[] indices = new int[num];
+		double[] weights = new double[num];
+		int k = 0;
+		for (int j = 0; j < lambdas.length; j++) {
+			if (lambdas[j] >= 1e-6) {
+				indices[k] = gridIndex.get(new Belief(belief.so, subSimplex.get(j)));
+				weights[k++] = lambdas[j];
+			}
+		}
+		return new Pair<>(indices, weights);
+	}
+
+	/**
+	 * Build an index for a list of grid points, mapping each to its position in the list.
+	 */
+	protected Map<Belief, Integer> indexGridPoints(List<Belief> gridPoints)
+	{
+		Map<Belief, Integer> gridIndex = new HashMap<>(gridPoints.size() * 4 / 3 + 1);
+		int numPoints = gridPoints.size();
+		for (int b = 0; b < numPoints; b++) {
+			gridIndex.put(gridPoints.get(b), b);
+		}
+		return gridIndex;
 	}
 	
 	/**
@@ -0,0 +1,383 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package explicit;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import parser.EvaluateContext.EvalMode;
+import parser.PackedStateEncoder;
+import parser.PackedStateList;
+import parser.State;
+import parser.VarList;
+import prism.PrismException;
+import prism.PrismLangException;
+
+/**
+ * Class storing an indexed set of states, in a compact form:
+ * each state is packed into a fixed number of {@code long} words (see {@link PackedStateEncoder}),
+ * which are stored contiguously, in index order, in a single array,
+ * and looked up via an open-addressing hash table of (primitive) indices.
+ * {@link State} objects are only created when states are retrieved,
+ * e.g. via {@link #getState(int)} or the lists returned by {@link #toList()}.
+ */
+public class PackedStateStorage implements StateStorage<State>
+{
+	/** Encoder for states */
+	protected PackedStateEncoder encoder;
+	/** Number of words per state */
+	protected int numWords;
+	/** Encoded states, in index order ({@code numWords} per state) */
+	protected long words[];
+	/** Number of states stored */
+	protected int size;
+	/** Hash table: each entry is 1 + the index of a state, or 0 if empty */
+	protected int table[];
+	/** Temporary storage for encoding */
+	protected long scratch[];
+	protected int indexOfLastAdd;
+
+	/** Initial hash table size (a power of 2) */
+	private static final int INITIAL_TABLE_SIZE = 1 << 10;
+	/** Maximum hash table size (a power of 2) */
+	private static final int MAX_TABLE_SIZE = 1 << 30;
+	/** Maximum size of an array (some JVMs reserve a few header words) */
+	private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+	/** Maximum size of the array of encoded states (only lowered for testing) */
+	int maxArraySize = MAX_ARRAY_SIZE;
+
+	/**
+	 * Create storage for the states of a model with variables {@code varList},
+	 * or return null if this is not possible (see {@link PackedStateEncoder#create(VarList, EvalMode)}).
+	 * @param varList Variable info
+	 * @param evalMode Evaluation mode used for states
+	 */
+	public static PackedStateStorage create(VarList varList, EvalMode evalMode)
+	{
+		PackedStateEncoder encoder = varList == null ? null : PackedStateEncoder.create(varList, evalMode);
+		return encoder == null ? null : new PackedStateStorage(encoder);
+	}
+
+	/**
+	 * Create (empty) storage for states, using the specified encoder.
+	 */
+	public PackedStateStorage(PackedStateEncoder encoder)
+	{
+		this.encoder = encoder;
+		numWords = encoder.getNumWords();
+		scratch = new long[numWords];
+		clear();
+	}
+
+	@Override
+	public void clear()
+	{
+		words = new long[INITIAL_TABLE_SIZE / 2 * numWords];
+		table = new int[INITIAL_TABLE_SIZE];
+		size = 0;
+		indexOfLastAdd = -1;
+	}
+
+	/**
+	 * Add a state (as for {@link #add(State)}), returning true if it was not already stored.
+	 * Throws an exception (rather than an unchecked one) if a variable value
+	 * is of the wrong type or out of range, or if there are too many states to store.
+	 */
+	public boolean addState(State state) throws PrismException
+	{
+		encoder.encode(state, scratch, 0);
+		int mask = table.length - 1;
+		int pos = hash(scratch, 0) & mask;
+		while (table[pos] != 0) {
+			int i = table[pos] - 1;
+			if (encoder.compare(words, offset(i), scratch, 0) == 0) {
+				indexOfLastAdd = i;
+				return false;
+			}
+			pos = (pos + 1) & mask;
+		}
+		// Not present: append and add to hash table (resizing if needed)
+		long end = (size + 1) * (long) numWords;
+		if (end > maxArraySize || 2L * (size + 1) > MAX_TABLE_SIZE) {
+			throw new PrismException("Too many states for packed storage (" + size + " stored)");
+		}
+		if (end > words.length) {
+			words = Arrays.copyOf(words, (int) Math.max(end, Math.min(maxArraySize, 2L * words.length)));
+		}
+		System.arraycopy(scratch, 0, words, offset(size), numWords);
+		table[pos] = size + 1;
+		indexOfLastAdd = size++;
+		if (2 * size > table.length) {
+			rehash(2 * table.length);
+		}
+		return true;
+	}
+
+	/**
+	 * Add a state, returning true if it was not already stored.
+	 * Throws an (unchecked) IllegalArgumentException if it cannot be encoded;
+	 * use {@link #addState(State)} to get a checked exception instead.
+	 */
+	@Override
+	public boolean add(State state)
+	{
+		try {
+			return addState(state);
+		} catch (PrismException e) {
+			throw new IllegalArgumentException(e.getMessage());
+		}
+	}
+
+	@Override
+	public boolean contains(State state)
+	{
+		return find(state) != -1;
+	}
+
+	@Override
+	public int get(State state)
+	{
+		int i = find(state);
+		if (i == -1) {
+			throw new IllegalArgumentException("State " + state + " is not stored");
+		}
+		return i;
+	}
+
+	/**
+	 * Get the state with index {@code i} (as a newly created State object).
+	 */
+	public State getState(int i)
+	{
+		return encoder.decode(words, offset(i));
+	}
+
+	/**
+	 * Get the state with index {@code i}, decoding it into an existing State object
+	 * (which must have the right number of variables), and returning it.
+	 */
+	public State getState(int i, State state)
+	{
+		return encoder.decode(words, offset(i), state);
+	}
+
+	@Override
+	public int getIndexOfLastAdd()
+	{
+		return indexOfLastAdd;
+	}
+
+	@Override
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	@Override
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Get access to the set of (state, index) pairs.
+	 * Note that this creates State objects for all states.
+	 */
+	@Override
+	public Set<Map.Entry<State, Integer>> getEntrySet()
+	{
+		Set<Map.Entry<State, Integer>> entries = new LinkedHashSet<>();
+		for (int i = 0; i < size; i++) {
+			entries.add(new AbstractMap.SimpleImmutableEntry<>(getState(i), i));
+		}
+		return entries;
+	}
+
+	/**
+	 * Get a (read-only) list of the states, ordered by index.
+	 * States are decoded each time they are accessed (see {@link PackedStateList}).
+	 * The list contains the states stored at the time of the call,
+	 * and remains valid if this storage is subsequently cleared.
+	 */
+	public List<State> toList()
+	{
+		trimToSize();
+		return new PackedStateList(encoder, words, size, null);
+	}
+
+	/**
+	 * Get a (read-only) list of the states, ordered by permuted index.
+	 * Index in new list is permut[old_index].
+	 * States are decoded each time they are accessed (see {@link PackedStateList}).
+	 * The list contains the states stored at the time of the call,
+	 * and remains valid if this storage is subsequently cleared.
+	 * @param permut Permutation to apply
+	 */
+	public List<State> toPermutedList(int permut[])
+	{
+		trimToSize();
+		int inverse[] = new int[size];
+		for (int i = 0; i < size; i++) {
+			inverse[permut[i]] = i;
+		}
+		return new PackedStateList(encoder, words, size, inverse);
+	}
+
+	@Override
+	public ArrayList<State> toArrayList()
+	{
+		ArrayList<State> list = new ArrayList<State>(size);
+		toArrayList(list);
+		return list;
+	}
+
+	@Override
+	public void toArrayList(ArrayList<State> list)
+	{
+		list.addAll(toList());
+	}
+
+	@Override
+	public ArrayList<State> toPermutedArrayList(int permut[])
+	{
+		ArrayList<State> list = new ArrayList<State>(size);
+		toPermutedArrayList(permut, list);
+		return list;
+	}
+
+	@Override
+	public void toPermutedArrayList(int permut[], ArrayList<State> list)
+	{
+		list.addAll(toPermutedList(permut));
+	}
+
+	/**
+	 * Build sort permutation, i.e., a permutation (integer array) mapping current
+	 * indices to new indices when states are sorted (as by {@link State#compareTo(State)}).
+	 */
+	@Override
+	public int[] buildSortingPermutation()
+	{
+		int order[] = new int[size];
+		for (int i = 0; i < size; i++) {
+			order[i] = i;
+		}
+		IntArrays.parallelQuickSort(order, (i, j) -> encoder.compare(words, offset(i), words, offset(j)));
+		int perm[] = new int[size];
+		for (int i = 0; i < size; i++) {
+			perm[order[i]] = i;
+		}
+		return perm;
+	}
+
+	@Override
+	public String toString()
+	{
+		return toList().toString();
+	}
+
+	// Helpers
+
+	/**
+	 * Shrink the array of encoded states to fit the states currently stored.
+	 */
+	private void trimToSize()
+	{
+		if (words.length > offset(size)) {
+			words = Arrays.copyOf(words, offset(size));
+		}
+	}
+
+	/**
+	 * Get the offset of the state with index {@code i} in the array of encoded states.
+	 * This is computed as a long and then narrowed, which is safe since
+	 * {@link #addState(State)} ensures that offsets never exceed the maximum array size.
+	 */
+	private int offset(int i)
+	{
+		return (int) ((long) i * numWords);
+	}
+
+	/**
+	 * Find the index of a state, or return -1 if not present.
+	 */
+	private int find(State state)
+	{
+		// (a state that cannot be encoded is not stored)
+		try {
+			encoder.encode(state, scratch, 0);
+		} catch (PrismLangException e) {
+			return -1;
+		}
+		int mask = table.length - 1;
+		int pos = hash(scratch, 0) & mask;
+		while (table[pos] != 0) {
+			int i = table[pos] - 1;
+			if (encoder.compare(words, offset(i), scratch, 0) == 0) {
+				return i;
+			}
+			pos = (pos + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * Rebuild the hash table, with a new size (a power of 2).
+	 */
+	private void rehash(int newSize)
+	{
+		table = new int[newSize];
+		int mask = newSize - 1;
+		for (int i = 0; i < size; i++) {
+			int pos = hash(words, offset(i)) & mask;
+			while (table[pos] != 0) {
+				pos = (pos + 1) & mask;
+			}
+			table[pos] = i + 1;
+		}
+	}
+
+	/**
+	 * Hash function for an encoded state.
+	 */
+	private int hash(long arr[], int offset)
+	{
+		long h = 0;
+		for (int w = 0; w < numWords; w++) {
+			h = (h ^ arr[offset + w]) * 0x9E3779B97F4A7C15L;
+			h ^= h >>> 32;
+		}
+		return (int) h;
+	}
+}
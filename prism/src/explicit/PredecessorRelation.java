@@ -26,32 +26,61 @@
 
 package explicit;
 
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Stack;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLongArray;
 
+import common.SharedThreadPool;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
 import prism.PrismComponent;
-import common.IterableBitSet;
 
 /**
  * A class for storing and accessing the predecessor relation of an explicit Model.
  * <p>
  * As Model only provide easy access to successors of states,
  * the predecessor relation is computed and stored for subsequent efficient access.
+ * It is stored in compressed (CSR) form, i.e., as a single array of predecessor states,
+ * sorted by successor state, and an array of start indices for each state.
+ * Predecessors of each state are unique and listed in ascending order.
  * <p>
  * Note: Naturally, if the model changes, the predecessor relation
  * has to be recomputed to remain accurate.
  */
 public class PredecessorRelation
 {
+	/** Minimum number of frontier states per task for parallel backwards searches */
+	private static final int PARALLEL_MIN_FRONTIER_SIZE = 1024;
+
 	/**
-	 * pre[i] provides the list of predecessors of state with index i.
+	 * Condition for adding a state to the result of a (parallel) backwards search,
+	 * see {@link #calculateBackwardsFixpoint(BitSet, BitSet, BackwardsCondition, BackwardsSearch)}.
 	 */
-	List<ArrayList<Integer>> pre;
+	@FunctionalInterface
+	public interface BackwardsCondition
+	{
+		/**
+		 * Should state {@code s} be added, given the current result {@code result}?
+		 * This may be called concurrently (but {@code result} is not modified while it is).
+		 */
+		boolean test(int s, BitSet result);
+	}
+
+	/**
+	 * The predecessors of the state with index i are
+	 * preStates[preStart[i]], ..., preStates[preStart[i+1]-1].
+	 */
+	private int preStart[];
+
+	/** Predecessor states (see {@code preStart}) */
+	private int preStates[];
 
 	/**
 	 * Constructor. Computes the predecessor relation for the given model
@@ -61,33 +90,77 @@ public class PredecessorRelation
 	 */
 	public PredecessorRelation(Model<?> model)
 	{
-		pre = new ArrayList<ArrayList<Integer>>(model.getNumStates());
-		// construct the (empty) array list for all states
-		for (int s = 0; s < model.getNumStates(); s++) {
-			pre.add(s, new ArrayList<Integer>());
-		}
-
 		compute(model);
 	}
 
-	/** Compute the predecessor relation using getSuccessorsIterator. */
+	/**
+	 * Compute the predecessor relation using getSuccessors,
+	 * in two passes: first count the predecessors of each state, then store them.
+	 */
 	private void compute(Model<?> model)
 	{
 		int n = model.getNumStates();
 
+		// For each state t, the last state s for which t was seen as a successor,
+		// used to remove duplicates (e.g., the same successor in several choices)
+		int lastSeen[] = new int[n];
+
+		// First pass: count predecessors (stored in preStart[t+1])
+		preStart = new int[n + 1];
+		Arrays.fill(lastSeen, -1);
 		for (int s = 0; s < n; s++) {
-			Iterator<Integer> it = model.getSuccessorsIterator(s);
+			SuccessorsIterator it = model.getSuccessors(s);
 			while (it.hasNext()) {
-				Integer successor = it.next();
-
-				// Add the current state s to pre[successor].
-				//
-				// As getSuccessorsIterator guarantees that
-				// there are no duplicates in the successors,
-				// s will be added to successor exactly once.
-				pre.get(successor).add(s);
+				int t = it.nextInt();
+				if (lastSeen[t] != s) {
+					lastSeen[t] = s;
+					preStart[t + 1]++;
+				}
 			}
 		}
+		for (int t = 0; t < n; t++) {
+			preStart[t + 1] += preStart[t];
+		}
+
+		// Second pass: store predecessors (using lastSeen to store the next free index)
+		preStates = new int[preStart[n]];
+		int next[] = Arrays.copyOf(preStart, n);
+		Arrays.fill(lastSeen, -1);
+		for (int s = 0; s < n; s++) {
+			SuccessorsIterator it = model.getSuccessors(s);
+			while (it.hasNext()) {
+				int t = it.nextInt();
+				if (lastSeen[t] != s) {
+					lastSeen[t] = s;
+					preStates[next[t]++] = s;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Get the number of (distinct) predecessor states of {@code s}.
+	 */
+	public int getNumPredecessors(int s)
+	{
+		return preStart[s + 1] - preStart[s];
+	}
+
+	/**
+	 * Get the {@code i}th predecessor state of {@code s}
+	 * (where {@code 0 <= i < getNumPredecessors(s)}).
+	 */
+	public int getPredecessor(int s, int i)
+	{
+		return preStates[preStart[s] + i];
+	}
+
+	/**
+	 * Get the total number of (distinct) predecessor/successor pairs.
+	 */
+	public int getNumPairs()
+	{
+		return preStates.length;
 	}
 
 	/**
@@ -95,15 +168,33 @@ public class PredecessorRelation
 	 */
 	public Iterable<Integer> getPre(int s)
 	{
-		return pre.get(s);
+		return () -> getPredecessorsIterator(s);
 	}
 
 	/**
 	 * Get an Iterator over the predecessor states of {@code s}.
 	 */
-	public Iterator<Integer> getPredecessorsIterator(int s)
+	public PrimitiveIterator.OfInt getPredecessorsIterator(int s)
 	{
-		return getPre(s).iterator();
+		return new PrimitiveIterator.OfInt()
+		{
+			private int i = preStart[s];
+			private final int end = preStart[s + 1];
+
+			@Override
+			public boolean hasNext()
+			{
+				return i < end;
+			}
+
+			@Override
+			public int nextInt()
+			{
+				if (i >= end)
+					throw new NoSuchElementException();
+				return preStates[i++];
+			}
+		};
 	}
 
 	/**
@@ -151,31 +242,28 @@ public class PredecessorRelation
 	 */
 	public BitSet calculatePreStar(BitSet remain, BitSet target, BitSet absorbing)
 	{
-		BitSet result;
-
 		// all target states are in Pre*
-		result = (BitSet)target.clone();
+		BitSet result = (BitSet) target.clone();
 
 		// the stack of states whose predecessors have to be considered
-		Stack<Integer> todo = new Stack<Integer>();
+		// (each state is pushed at most once, when it is added to the result)
+		int todo[] = new int[preStart.length - 1];
+		int todoSize = 0;
 
 		// initial todo: all the target states
-		for (Integer s : IterableBitSet.getSetBits(target)) {
-			todo.add(s);
-		};
-
-		// the set of states that are finished
-		BitSet done = new BitSet();
-
-		while (!todo.isEmpty()) {
-			int s = todo.pop();
-			// already considered?
-			if (done.get(s)) continue;
-
-			done.set(s);
+		for (int s = target.nextSetBit(0); s >= 0; s = target.nextSetBit(s + 1)) {
+			todo[todoSize++] = s;
+		}
 
+		while (todoSize > 0) {
+			int s = todo[--todoSize];
 			// for each predecessor in the graph
-			for (int p : getPre(s)) {
+			for (int i = preStart[s], end = preStart[s + 1]; i < end; i++) {
+				int p = preStates[i];
+				if (result.get(p)) {
+					// already found
+					continue;
+				}
 				if (absorbing != null && absorbing.get(p)) {
 					// predecessor is absorbing, thus the edge is considered to not exist
 					continue;
@@ -183,10 +271,7 @@ public class PredecessorRelation
 				if (remain == null || remain.get(p)) {
 					// can reach result (and is in remain)
 					result.set(p);
-					if (!done.get(p)) {
-						// add to stack
-						todo.add(p);
-					}
+					todo[todoSize++] = p;
 				}
 			}
 		}
@@ -224,25 +309,262 @@ public class PredecessorRelation
 
 		BitSet result = (BitSet) target.clone();
 
-		ArrayDeque<Integer> queue = new ArrayDeque<>();
-		for (int s : IterableBitSet.getSetBits(target)) {
+		// BFS queue (each state is added at most once)
+		int queue[] = new int[preStart.length - 1];
+		int head = 0, tail = 0;
+		for (int s = target.nextSetBit(0); s >= 0; s = target.nextSetBit(s + 1)) {
 			witness[s] = s; // self-sentinel: already at target
-			queue.add(s);
+			queue[tail++] = s;
 		}
 
-		while (!queue.isEmpty()) {
-			int s = queue.poll();
-			for (int p : getPre(s)) {
+		while (head < tail) {
+			int s = queue[head++];
+			for (int i = preStart[s], end = preStart[s + 1]; i < end; i++) {
+				int p = preStates[i];
 				if (absorbing != null && absorbing.get(p)) continue;
 				if (witness[p] == -1 && (remain == null || remain.get(p))) {
 					witness[p] = s; // to go forward from p toward B, take the edge p -> s
 					result.set(p);
-					queue.add(p);
+					queue[tail++] = p;
+				}
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Computes the set Pre*(target), as for {@link #calculatePreStar(BitSet, BitSet, BitSet)},
+	 * but using a parallel, level-synchronous backwards search with {@code numThreads} threads.
+	 * For {@code numThreads <= 1}, this is just the sequential (DFS) version.
+	 *
+	 * @param remain restriction on the states that may occur
+	 *               on the path to target, {@code null} = all states
+	 * @param target The set of target states
+	 * @param absorbing (optional) set of states that should be considered to be absorbing,
+	 *               i.e., their outgoing edges are ignored, {@code null} = no states
+	 * @param numThreads the number of threads to use
+	 * @return the set of states Pre*(target)
+	 */
+	public BitSet calculatePreStar(BitSet remain, BitSet target, BitSet absorbing, int numThreads)
+	{
+		if (numThreads <= 1) {
+			return calculatePreStar(remain, target, absorbing);
+		}
+		BitSet candidates = new BitSet();
+		if (remain == null) {
+			candidates.set(0, preStart.length - 1);
+		} else {
+			candidates.or(remain);
+		}
+		if (absorbing != null) {
+			candidates.andNot(absorbing);
+		}
+		return calculateBackwardsFixpoint(target, candidates, null, numThreads);
+	}
+
+	/**
+	 * Computes, using a parallel, level-synchronous backwards search with {@code numThreads} threads,
+	 * the least set of states that contains {@code init} and all states {@code s} in {@code candidates}
+	 * that have a successor in the set and for which {@code condition} holds (if non-null).
+	 * To reuse the work buffers across several searches,
+	 * use {@link #calculateBackwardsFixpoint(BitSet, BitSet, BackwardsCondition, BackwardsSearch)}.
+	 *
+	 * @param init The initial set of states
+	 * @param candidates The states that may be added to the set
+	 * @param condition (optional) condition for adding a state, {@code null} = always true
+	 * @param numThreads the number of threads to use
+	 * @return the computed set of states
+	 */
+	public BitSet calculateBackwardsFixpoint(BitSet init, BitSet candidates, BackwardsCondition condition, int numThreads)
+	{
+		try (BackwardsSearch search = createBackwardsSearch(numThreads)) {
+			return calculateBackwardsFixpoint(init, candidates, condition, search);
+		}
+	}
+
+	/**
+	 * Computes, using a level-synchronous backwards search, with the threads and buffers of {@code search},
+	 * the least set of states that contains {@code init} and all states {@code s} in {@code candidates}
+	 * that have a successor in the set and for which {@code condition} holds (if non-null).
+	 * <br/>
+	 * Each level processes the predecessors of the states added in the previous one (the frontier),
+	 * which is split into chunks that are handled by different threads. During a level,
+	 * the result computed so far is only read (in particular, by {@code condition})
+	 * and the states that are found are claimed in an atomic bitset, so that each is added once;
+	 * they are added to the result in between levels.
+	 * For this to give the least fixed point, {@code condition} must be monotonic in the result
+	 * and can only become true when a successor of {@code s} is added to it.
+	 * The result does not depend on the number of threads.
+	 *
+	 * @param init The initial set of states
+	 * @param candidates The states that may be added to the set
+	 * @param condition (optional) condition for adding a state, {@code null} = always true
+	 * @param search the thread pool and work buffers to use (see {@link #createBackwardsSearch(int)})
+	 * @return the computed set of states
+	 */
+	public BitSet calculateBackwardsFixpoint(BitSet init, BitSet candidates, BackwardsCondition condition, BackwardsSearch search)
+	{
+		BitSet result = (BitSet) init.clone();
+		AtomicLongArray claimed = search.claimed;
+		for (int w = 0, numWords = claimed.length(); w < numWords; w++) {
+			claimed.set(w, 0);
+		}
+
+		// initial frontier: all the initial states
+		// (each state is in the frontier at most once, when it is added to the result)
+		final int frontier[] = search.frontier;
+		int frontierSize = 0;
+		for (int s = init.nextSetBit(0); s >= 0; s = init.nextSetBit(s + 1)) {
+			frontier[frontierSize++] = s;
+		}
+
+		ExecutorService executor = search.executor;
+		int numThreads = search.numThreads;
+		try {
+			while (frontierSize > 0) {
+				// Split the frontier into chunks
+				List<int[]> chunks = new ArrayList<>();
+				if (executor == null || frontierSize < 2 * PARALLEL_MIN_FRONTIER_SIZE) {
+					chunks.add(new int[] { 0, frontierSize });
+				} else {
+					int chunkSize = Math.max(PARALLEL_MIN_FRONTIER_SIZE, frontierSize / (4 * numThreads));
+					for (int lo = 0; lo < frontierSize; lo += chunkSize) {
+						chunks.add(new int[] { lo, Math.min(frontierSize, lo + chunkSize) });
+					}
+				}
+				// Find the states to be added from each chunk
+				List<IntArrayList> found = new ArrayList<>();
+				if (chunks.size() == 1) {
+					found.add(expandFrontier(frontier, 0, frontierSize, result, candidates, condition, claimed));
+				} else {
+					List<Callable<IntArrayList>> tasks = new ArrayList<>();
+					for (int[] chunk : chunks) {
+						tasks.add(() -> expandFrontier(frontier, chunk[0], chunk[1], result, candidates, condition, claimed));
+					}
+					for (Future<IntArrayList> future : executor.invokeAll(tasks)) {
+						found.add(future.get());
+					}
+				}
+				// Add them to the result; they form the next frontier
+				frontierSize = 0;
+				for (IntArrayList list : found) {
+					for (int i = 0, size = list.size(); i < size; i++) {
+						int s = list.getInt(i);
+						result.set(s);
+						frontier[frontierSize++] = s;
+					}
 				}
 			}
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+			throw new RuntimeException(cause);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Backwards search was interrupted", e);
 		}
 
 		return result;
 	}
 
+	/**
+	 * Create the work buffers for a series of backwards searches of this relation with
+	 * {@code numThreads} threads, e.g. for all the iterations of a precomputation algorithm, see
+	 * {@link #calculateBackwardsFixpoint(BitSet, BitSet, BackwardsCondition, BackwardsSearch)}.
+	 * If {@code numThreads > 1}, the searches use the {@link SharedThreadPool}.
+	 * This should be closed after use.
+	 */
+	public BackwardsSearch createBackwardsSearch(int numThreads)
+	{
+		return new BackwardsSearch(numThreads);
+	}
+
+	/**
+	 * Thread pool and work buffers for (a series of) backwards searches,
+	 * which are used by one search at a time.
+	 * The thread pool is shared (see {@link SharedThreadPool}), so is not shut down on closing.
+	 */
+	public class BackwardsSearch implements AutoCloseable
+	{
+		/** Number of threads */
+		private final int numThreads;
+		/** Thread pool ({@code null} if single-threaded) */
+		private final ExecutorService executor;
+		/** Frontier of the current level */
+		private final int frontier[];
+		/** States claimed during the current search */
+		private final AtomicLongArray claimed;
+
+		private BackwardsSearch(int numThreads)
+		{
+			int n = preStart.length - 1;
+			this.numThreads = numThreads;
+			executor = numThreads > 1 ? SharedThreadPool.get(numThreads) : null;
+			frontier = new int[n];
+			claimed = new AtomicLongArray((n + 63) / 64);
+		}
+
+		@Override
+		public void close()
+		{
+			// Nothing to release (the thread pool is shared)
+		}
+	}
+
+	/**
+	 * Process the states {@code frontier[lo]}, ..., {@code frontier[hi-1]} of a level
+	 * of {@link #calculateBackwardsFixpoint(BitSet, BitSet, BackwardsCondition, BackwardsSearch)},
+	 * returning the predecessors that are newly claimed to be added to the result.
+	 */
+	private IntArrayList expandFrontier(int frontier[], int lo, int hi, BitSet result, BitSet candidates, BackwardsCondition condition, AtomicLongArray claimed)
+	{
+		IntArrayList found = new IntArrayList();
+		for (int j = lo; j < hi; j++) {
+			int t = frontier[j];
+			for (int i = preStart[t], end = preStart[t + 1]; i < end; i++) {
+				int p = preStates[i];
+				if (result.get(p) || !candidates.get(p) || isClaimed(claimed, p)) {
+					continue;
+				}
+				if (condition != null && !condition.test(p, result)) {
+					continue;
+				}
+				if (claim(claimed, p)) {
+					found.add(p);
+				}
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Check whether state {@code s} is set in the atomic bitset {@code claimed}.
+	 */
+	private static boolean isClaimed(AtomicLongArray claimed, int s)
+	{
+		return (claimed.get(s >> 6) & (1L << s)) != 0;
+	}
+
+	/**
+	 * Atomically set state {@code s} in the bitset {@code claimed},
+	 * returning true if it was not already set.
+	 */
+	private static boolean claim(AtomicLongArray claimed, int s)
+	{
+		int w = s >> 6;
+		long mask = 1L << s;
+		while (true) {
+			long old = claimed.get(w);
+			if ((old & mask) != 0) {
+				return false;
+			}
+			if (claimed.compareAndSet(w, old, old | mask)) {
+				return true;
+			}
+		}
+	}
 }
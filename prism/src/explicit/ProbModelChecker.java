@@ -31,6 +31,7 @@ import static prism.PrismSettings.DEFAULT_EXPORT_MODEL_PRECISION;
 import java.io.File;
 import java.util.BitSet;
 import java.util.List;
+import java.util.function.Supplier;
 
 import explicit.rewards.ConstructRewards;
 import explicit.rewards.MCRewards;
@@ -81,6 +82,8 @@ public class ProbModelChecker extends NonProbModelChecker
 	protected double termCritParam = 1e-8;
 	// Max iterations for numerical solution
 	protected int maxIters = 100000;
+	// Number of threads for numerical solution (where supported)
+	protected int numThreads = 1;
 	// Resolution for POMDP fixed grid approximation algorithm
 	protected int gridResolution = 10;
 	// Use precomputation algorithms in model checking?
@@ -91,6 +94,8 @@ public class ProbModelChecker extends NonProbModelChecker
 	protected boolean silentPrecomputations = false;
 	// Use predecessor relation? (e.g. for precomputation)
 	protected boolean preRel = true;
+	// Use multiple threads for precomputation (with the predecessor relation)?
+	protected boolean parPrecomp = true;
 	// Direction of convergence for value iteration (lfp/gfp)
 	protected ValIterDir valIterDir = ValIterDir.BELOW;
 	// Method used for numerical solution
@@ -249,6 +254,8 @@ public class ProbModelChecker extends NonProbModelChecker
 			setTermCritParam(settings.getDouble(PrismSettings.PRISM_TERM_CRIT_PARAM));
 			// PRISM_MAX_ITERS
 			setMaxIters(settings.getInteger(PrismSettings.PRISM_MAX_ITERS));
+			// PRISM_NUM_THREADS
+			setNumThreads(settings.getInteger(PrismSettings.PRISM_NUM_THREADS));
 			// PRISM_GRID_RESOLUTION
 			setGridResolution(settings.getInteger(PrismSettings.PRISM_GRID_RESOLUTION));
 			// PRISM_PRECOMPUTATION
@@ -259,6 +266,8 @@ public class ProbModelChecker extends NonProbModelChecker
 			setProb1(settings.getBoolean(PrismSettings.PRISM_PROB1));
 			// PRISM_USE_PRE
 			setPreRel(settings.getBoolean(PrismSettings.PRISM_PRE_REL));
+			// PRISM_PAR_PRECOMP
+			setParPrecomp(settings.getBoolean(PrismSettings.PRISM_PAR_PRECOMP));
 			// PRISM_FAIRNESS
 			if (settings.getBoolean(PrismSettings.PRISM_FAIRNESS)) {
 				throw new PrismNotSupportedException("The explicit engine does not support model checking MDPs under fairness");
@@ -282,10 +291,12 @@ public class ProbModelChecker extends NonProbModelChecker
 		setTermCrit(other.getTermCrit());
 		setTermCritParam(other.getTermCritParam());
 		setMaxIters(other.getMaxIters());
+		setNumThreads(other.getNumThreads());
 		setGridResolution(other.getGridResolution());
 		setPrecomp(other.getPrecomp());
 		setProb0(other.getProb0());
 		setProb1(other.getProb1());
+		setParPrecomp(other.getParPrecomp());
 		setValIterDir(other.getValIterDir());
 		setSolnMethod(other.getSolnMethod());
 		setErrorOnNonConverge(other.geterrorOnNonConverge());
@@ -303,10 +314,12 @@ public class ProbModelChecker extends NonProbModelChecker
 		mainLog.print("termCrit = " + termCrit + " ");
 		mainLog.print("termCritParam = " + termCritParam + " ");
 		mainLog.print("maxIters = " + maxIters + " ");
+		mainLog.print("numThreads = " + numThreads + " ");
 		mainLog.print("gridResolution = " + gridResolution + " ");
 		mainLog.print("precomp = " + precomp + " ");
 		mainLog.print("prob0 = " + prob0 + " ");
 		mainLog.print("prob1 = " + prob1 + " ");
+		mainLog.print("parPrecomp = " + parPrecomp + " ");
 		mainLog.print("valIterDir = " + valIterDir + " ");
 		mainLog.print("solnMethod = " + solnMethod + " ");
 		mainLog.print("errorOnNonConverge = " + errorOnNonConverge + " ");
@@ -382,6 +395,14 @@ public class ProbModelChecker extends NonProbModelChecker
 		this.maxIters = maxIters;
 	}
 
+	/**
+	 * Set number of threads for numerical iterative methods (where supported).
+	 */
+	public void setNumThreads(int numThreads)
+	{
+		this.numThreads = numThreads;
+	}
+
 	/**
 	 * Set resolution for POMDP fixed grid approximation algorithm.
 	 */
@@ -422,6 +443,14 @@ public class ProbModelChecker extends NonProbModelChecker
 		this.preRel = preRel;
 	}
 
+	/**
+	 * Set whether or not to use multiple threads for precomputation (with the predecessor relation)
+	 */
+	public void setParPrecomp(boolean parPrecomp)
+	{
+		this.parPrecomp = parPrecomp;
+	}
+
 	/**
 	 * Set direction of convergence for value iteration (lfp/gfp).
 	 */
@@ -483,6 +512,11 @@ public class ProbModelChecker extends NonProbModelChecker
 		return maxIters;
 	}
 
+	public int getNumThreads()
+	{
+		return numThreads;
+	}
+
 	public int getGridResolution()
 	{
 		return gridResolution;
@@ -508,6 +542,29 @@ public class ProbModelChecker extends NonProbModelChecker
 		return preRel;
 	}
 
+	public boolean getParPrecomp()
+	{
+		return parPrecomp;
+	}
+
+	@Override
+	protected int getNumPrecompThreads()
+	{
+		return parPrecomp ? numThreads : 1;
+	}
+
+	@Override
+	protected int getNumStateEvalThreads()
+	{
+		return numThreads;
+	}
+
+	@Override
+	protected int getNumExportThreads()
+	{
+		return numThreads;
+	}
+
 	public ValIterDir getValIterDir()
 	{
 		return valIterDir;
@@ -1314,6 +1371,54 @@ public class ProbModelChecker extends NonProbModelChecker
 		}
 	}
 
+	// Utility methods for (re-usable) graph-based analyses
+
+	/**
+	 * Compute a set of states by a graph-based analysis (e.g. Prob0/Prob1 precomputation)
+	 * of {@code model}, for the states {@code remain} and {@code target}, re-using the
+	 * result stored for the same analysis in the model analysis cache, if any
+	 * (see {@link #setModelAnalysisCache(ModelAnalysisCache)}), and storing it otherwise.
+	 * @param kind Kind of analysis, e.g. "Prob0E"
+	 * @param model The model
+	 * @param remain Remain states (optional: null means "all")
+	 * @param target Target states
+	 * @param analysis Computes the set of states (if not re-used)
+	 */
+	protected BitSet computeStatesCached(String kind, Model<?> model, BitSet remain, BitSet target, Supplier<BitSet> analysis)
+	{
+		if (analysisCache != null) {
+			BitSet states = analysisCache.getStates(kind, model, remain, target);
+			if (states != null) {
+				mainLog.println(kind + ": re-using previously computed states");
+				return states;
+			}
+		}
+		BitSet states = analysis.get();
+		if (analysisCache != null) {
+			analysisCache.storeStates(kind, model, remain, target, states);
+		}
+		return states;
+	}
+
+	/**
+	 * Compute an SCCInfo data structure (topological ordering, with trivial SCCs)
+	 * for {@code model}, restricted to the states in {@code restrict} (null means "all"),
+	 * as for {@link SCCComputer#computeTopologicalOrdering(PrismComponent, Model, boolean, java.util.function.IntPredicate)},
+	 * re-using the one stored in the model analysis cache, if any, and storing it otherwise.
+	 * The result must not be modified.
+	 */
+	protected SCCInfo computeTopologicalOrdering(Model<?> model, BitSet restrict) throws PrismException
+	{
+		SCCInfo sccs = analysisCache == null ? null : analysisCache.getSCCInfo(model, restrict);
+		if (sccs == null) {
+			sccs = SCCComputer.computeTopologicalOrdering(this, model, true, restrict == null ? null : restrict::get);
+			if (analysisCache != null) {
+				analysisCache.storeSCCInfo(model, restrict, sccs);
+			}
+		}
+		return sccs;
+	}
+
 	// Utility methods for probability distributions
 
 	/**
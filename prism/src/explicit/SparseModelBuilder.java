@@ -0,0 +1,450 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package explicit;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import prism.PrismUtils;
+
+/**
+ * Class to incrementally build a (double-valued) {@link DTMCSparse} or {@link MDPSparse},
+ * e.g. during model construction, without first creating a {@link DTMCSimple} or {@link MDPSimple}.
+ * <br><br>
+ * Transitions are stored in growable primitive arrays, in compressed sparse row (CSR) form,
+ * one row per state. Rows are appended in the order that states are explored, which need not
+ * be the order of their indices: each is started with {@link #startState(int)}.
+ * For a DTMC, transitions are then added with {@link #addTransition(int, double, Object)}.
+ * For an MDP, the transitions of each choice are added with {@link #addToChoice(int, double)},
+ * followed by {@link #finishChoice(Object)}.
+ * When building the final model, rows are put in index order,
+ * optionally also applying a state index permutation.
+ * <br><br>
+ * Transitions to the same state (and with the same action, for DTMCs) are merged,
+ * and duplicate choices (for MDPs) are removed, as for {@link DTMCSimple} and {@link MDPSimple}.
+ */
+public class SparseModelBuilder
+{
+	/** Is this for a nondeterministic model (MDP), rather than a DTMC? */
+	protected boolean nondet;
+
+	// Rows (one per state)
+	/** State index of each row */
+	protected IntArrayList rowStates = new IntArrayList();
+	/** Start of each row (index into transitions for a DTMC, into choices for an MDP), plus the end of the last row */
+	protected IntArrayList rowStarts = new IntArrayList(new int[] { 0 });
+
+	// Choices (for MDPs)
+	/** Start of each choice (index into transitions), plus the end of the last choice */
+	protected IntArrayList choiceStarts = new IntArrayList(new int[] { 0 });
+	/** Action of each choice (null until a non-null action is added) */
+	protected ObjectArrayList<Object> choiceActions;
+
+	// Transitions
+	/** Destination state of each transition */
+	protected IntArrayList cols = new IntArrayList();
+	/** Probability of each transition */
+	protected DoubleArrayList probs = new DoubleArrayList();
+	/** Action of each transition, for DTMCs (null until a non-null action is added) */
+	protected ObjectArrayList<Object> transitionActions;
+
+	// Other info
+	protected IntArrayList initialStates = new IntArrayList();
+	protected IntArrayList deadlocks = new IntArrayList();
+	protected List<Object> actions;
+	protected int numDeadlocksFixed;
+
+	/**
+	 * Create a builder for a DTMC or (if {@code nondet} is true) an MDP.
+	 */
+	public SparseModelBuilder(boolean nondet)
+	{
+		this.nondet = nondet;
+	}
+
+	/**
+	 * Add a state to the list of initial states.
+	 */
+	public void addInitialState(int s)
+	{
+		initialStates.add(s);
+	}
+
+	/**
+	 * Set the list of all action labels (see {@link ModelExplicit#setActions(List)}).
+	 */
+	public void setActions(List<Object> actions)
+	{
+		this.actions = actions;
+	}
+
+	/**
+	 * Start adding the transitions/choices of state {@code s}.
+	 * This should be done once for each state (states with no row are deadlocks).
+	 */
+	public void startState(int s)
+	{
+		rowStates.add(s);
+		rowStarts.add(rowStarts.getInt(rowStarts.size() - 1));
+	}
+
+	/**
+	 * Add to the probability for a transition from the current state of a DTMC
+	 * to state {@code dest}, labelled with {@code action} (which may be null).
+	 */
+	public void addTransition(int dest, double prob, Object action)
+	{
+		if (prob == 0.0) {
+			return;
+		}
+		int rowEnd = cols.size();
+		// Check for existing transition
+		for (int t = rowStarts.getInt(rowStarts.size() - 2); t < rowEnd; t++) {
+			if (cols.getInt(t) == dest && Objects.equals(getTransitionAction(t), action)) {
+				probs.set(t, probs.getDouble(t) + prob);
+				return;
+			}
+		}
+		// No existing transition
+		addTransitionAction(action);
+		cols.add(dest);
+		probs.add(prob);
+		rowStarts.set(rowStarts.size() - 1, cols.size());
+	}
+
+	/**
+	 * Add to the probability for state {@code dest} in the choice of an MDP currently being added.
+	 */
+	public void addToChoice(int dest, double prob)
+	{
+		if (prob == 0.0) {
+			return;
+		}
+		int choiceStart = choiceStarts.getInt(choiceStarts.size() - 1);
+		int choiceEnd = cols.size();
+		// Check for existing transition
+		for (int t = choiceStart; t < choiceEnd; t++) {
+			if (cols.getInt(t) == dest) {
+				probs.set(t, probs.getDouble(t) + prob);
+				return;
+			}
+		}
+		cols.add(dest);
+		probs.add(prob);
+	}
+
+	/**
+	 * Finish adding the choice of an MDP currently being added, labelling it with {@code action}.
+	 * The choice is discarded if it is identical to an existing choice for the current state
+	 * (same action, and same probabilities, up to round-off).
+	 */
+	public void finishChoice(Object action)
+	{
+		int numChoices = choiceStarts.size() - 1;
+		int choiceStart = choiceStarts.getInt(numChoices);
+		int choiceEnd = cols.size();
+		// Sort transitions by destination, to simplify comparisons
+		sortTransitions(cols.elements(), probs.elements(), choiceStart, choiceEnd);
+		// Discard if a duplicate
+		for (int c = rowStarts.getInt(rowStarts.size() - 2); c < numChoices; c++) {
+			if (Objects.equals(getChoiceAction(c), action) && sameTransitions(choiceStarts.getInt(c), choiceStarts.getInt(c + 1), choiceStart, choiceEnd)) {
+				cols.size(choiceStart);
+				probs.size(choiceStart);
+				return;
+			}
+		}
+		// Otherwise add
+		if (choiceActions == null && action != null) {
+			choiceActions = new ObjectArrayList<>();
+			choiceActions.size(numChoices);
+		}
+		if (choiceActions != null) {
+			choiceActions.add(action);
+		}
+		choiceStarts.add(choiceEnd);
+		rowStarts.set(rowStarts.size() - 1, numChoices + 1);
+	}
+
+	/**
+	 * Find (and optionally fix) deadlock states, i.e. those with no transitions (DTMC) or choices (MDP),
+	 * assuming that the model has states 0,...,numStates-1.
+	 * Fixing a deadlock adds a self-loop (with a null action).
+	 * This should be called after all transitions have been added.
+	 */
+	public void findDeadlocks(int numStates, boolean fix)
+	{
+		int rowOf[] = getRowOfStates(numStates);
+		for (int s = 0; s < numStates; s++) {
+			if (rowOf[s] == -1 || rowStarts.getInt(rowOf[s] + 1) == rowStarts.getInt(rowOf[s])) {
+				deadlocks.add(s);
+				if (fix) {
+					startState(s);
+					if (nondet) {
+						addToChoice(s, 1.0);
+						finishChoice(null);
+					} else {
+						addTransition(s, 1.0, null);
+					}
+					numDeadlocksFixed++;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Build a DTMC with states 0,...,numStates-1, optionally applying
+	 * a state index permutation, i.e. state index i becomes index permut[i].
+	 * Within each state, the order of transitions is preserved.
+	 * @param numStates Number of states
+	 * @param permut State space permutation (null if not required)
+	 */
+	public DTMCSparse buildDTMC(int numStates, int permut[])
+	{
+		int rowOf[] = getPermutedRows(numStates, permut);
+		// Count transitions (with non-zero probability) and allocate storage
+		int numTransitions = 0;
+		for (int s = 0; s < numStates; s++) {
+			numTransitions += countPositive(rowOf[s]);
+		}
+		int rows[] = new int[numStates + 1];
+		int columns[] = new int[numTransitions];
+		double probabilities[] = new double[numTransitions];
+		Object transActions[] = transitionActions == null ? null : new Object[numTransitions];
+		// Copy transitions, state by state
+		int t = 0;
+		for (int s = 0; s < numStates; s++) {
+			rows[s] = t;
+			if (rowOf[s] == -1) {
+				continue;
+			}
+			for (int i = rowStarts.getInt(rowOf[s]), end = rowStarts.getInt(rowOf[s] + 1); i < end; i++) {
+				if (probs.getDouble(i) > 0) {
+					columns[t] = permute(cols.getInt(i), permut);
+					probabilities[t] = probs.getDouble(i);
+					if (transActions != null) {
+						transActions[t] = transitionActions.get(i);
+					}
+					t++;
+				}
+			}
+		}
+		rows[numStates] = t;
+		DTMCSparse dtmc = new DTMCSparse(numStates, rows, columns, probabilities, transActions);
+		addStateInfo(dtmc, permut);
+		return dtmc;
+	}
+
+	/**
+	 * Build an MDP with states 0,...,numStates-1, optionally applying
+	 * a state index permutation, i.e. state index i becomes index permut[i].
+	 * Within each choice, transitions are sorted by (permuted) destination state.
+	 * @param numStates Number of states
+	 * @param permut State space permutation (null if not required)
+	 */
+	public MDPSparse buildMDP(int numStates, int permut[])
+	{
+		int rowOf[] = getPermutedRows(numStates, permut);
+		// Count choices/transitions and allocate storage
+		int numChoices = 0, numTransitions = 0;
+		for (int s = 0; s < numStates; s++) {
+			if (rowOf[s] != -1) {
+				int start = rowStarts.getInt(rowOf[s]), end = rowStarts.getInt(rowOf[s] + 1);
+				numChoices += end - start;
+				numTransitions += choiceStarts.getInt(end) - choiceStarts.getInt(start);
+			}
+		}
+		int newRowStarts[] = new int[numStates + 1];
+		int newChoiceStarts[] = new int[numChoices + 1];
+		int newCols[] = new int[numTransitions];
+		double newProbs[] = new double[numTransitions];
+		Object newActions[] = choiceActions == null ? null : new Object[numChoices];
+		// Copy choices, state by state
+		int c = 0, t = 0;
+		for (int s = 0; s < numStates; s++) {
+			newRowStarts[s] = c;
+			if (rowOf[s] == -1) {
+				continue;
+			}
+			for (int i = rowStarts.getInt(rowOf[s]), end = rowStarts.getInt(rowOf[s] + 1); i < end; i++) {
+				newChoiceStarts[c] = t;
+				if (newActions != null) {
+					newActions[c] = choiceActions.get(i);
+				}
+				int tStart = t;
+				for (int j = choiceStarts.getInt(i), jEnd = choiceStarts.getInt(i + 1); j < jEnd; j++) {
+					newCols[t] = permute(cols.getInt(j), permut);
+					newProbs[t] = probs.getDouble(j);
+					t++;
+				}
+				if (permut != null) {
+					sortTransitions(newCols, newProbs, tStart, t);
+				}
+				c++;
+			}
+		}
+		newRowStarts[numStates] = c;
+		newChoiceStarts[numChoices] = t;
+		MDPSparse mdp = new MDPSparse(numStates, newRowStarts, newChoiceStarts, newCols, newProbs, newActions);
+		addStateInfo(mdp, permut);
+		return mdp;
+	}
+
+	// Helpers
+
+	/**
+	 * Add initial states, deadlocks and actions to a newly built model.
+	 */
+	private void addStateInfo(ModelExplicit<Double> model, int permut[])
+	{
+		if (actions != null) {
+			model.setActions(actions);
+		}
+		// Add the empty action (if missing) if deadlocks were fixed
+		if (numDeadlocksFixed > 0) {
+			model.getActionList().addAction(null);
+		}
+		for (int i = 0, n = initialStates.size(); i < n; i++) {
+			model.addInitialState(permute(initialStates.getInt(i), permut));
+		}
+		for (int i = 0, n = deadlocks.size(); i < n; i++) {
+			model.addDeadlockState(permute(deadlocks.getInt(i), permut));
+		}
+	}
+
+	/**
+	 * Get the row for each state (-1 if none), using the last row for any state with several
+	 * (i.e., for a deadlock that was subsequently fixed).
+	 */
+	private int[] getRowOfStates(int numStates)
+	{
+		int rowOf[] = new int[numStates];
+		Arrays.fill(rowOf, -1);
+		for (int r = 0, n = rowStates.size(); r < n; r++) {
+			rowOf[rowStates.getInt(r)] = r;
+		}
+		return rowOf;
+	}
+
+	/**
+	 * Get the row for each (permuted) state index (-1 if none).
+	 */
+	private int[] getPermutedRows(int numStates, int permut[])
+	{
+		int rowOf[] = getRowOfStates(numStates);
+		if (permut == null) {
+			return rowOf;
+		}
+		int permutedRowOf[] = new int[numStates];
+		for (int s = 0; s < numStates; s++) {
+			permutedRowOf[permut[s]] = rowOf[s];
+		}
+		return permutedRowOf;
+	}
+
+	private static int permute(int s, int permut[])
+	{
+		return permut == null ? s : permut[s];
+	}
+
+	/**
+	 * Count the transitions with positive probability in a row of a DTMC (0 if row is -1).
+	 */
+	private int countPositive(int row)
+	{
+		int count = 0;
+		if (row != -1) {
+			for (int i = rowStarts.getInt(row), end = rowStarts.getInt(row + 1); i < end; i++) {
+				if (probs.getDouble(i) > 0) {
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+
+	private Object getTransitionAction(int t)
+	{
+		return transitionActions == null ? null : transitionActions.get(t);
+	}
+
+	private void addTransitionAction(Object action)
+	{
+		if (transitionActions == null && action != null) {
+			transitionActions = new ObjectArrayList<>();
+			transitionActions.size(cols.size());
+		}
+		if (transitionActions != null) {
+			transitionActions.add(action);
+		}
+	}
+
+	private Object getChoiceAction(int c)
+	{
+		return choiceActions == null ? null : choiceActions.get(c);
+	}
+
+	/**
+	 * Check whether two ranges of transitions (each sorted by destination) are the same,
+	 * with probabilities compared up to round-off.
+	 */
+	private boolean sameTransitions(int start1, int end1, int start2, int end2)
+	{
+		if (end1 - start1 != end2 - start2) {
+			return false;
+		}
+		for (int i = start1, j = start2; i < end1; i++, j++) {
+			if (cols.getInt(i) != cols.getInt(j) || !PrismUtils.doublesAreEqual(probs.getDouble(i), probs.getDouble(j))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Sort a range of transitions (stored in arrays {@code cols} and {@code probs}) by destination.
+	 * Ranges are typically small, so insertion sort is used.
+	 */
+	private static void sortTransitions(int cols[], double probs[], int start, int end)
+	{
+		for (int i = start + 1; i < end; i++) {
+			int col = cols[i];
+			double prob = probs[i];
+			int j = i - 1;
+			while (j >= start && cols[j] > col) {
+				cols[j + 1] = cols[j];
+				probs[j + 1] = probs[j];
+				j--;
+			}
+			cols[j + 1] = col;
+			probs[j + 1] = prob;
+		}
+	}
+}
@@ -51,8 +51,11 @@ import io.ModelExportZipper;
 import io.ModelExporter;
 import io.PrismExplicitExporter;
 import io.PrismExplicitImporter;
+import parser.ColumnarExpressionEvaluator;
 import parser.EvaluateContext.EvalMode;
+import parser.PackedStateList;
 import parser.State;
+import parser.StateColumns;
 import parser.Values;
 import parser.VarList;
 import parser.ast.Declaration;
@@ -78,6 +81,7 @@ import parser.ast.PropertiesFile;
 import parser.ast.Property;
 import parser.type.TypeBool;
 import parser.type.TypeDouble;
+import parser.type.TypeInt;
 import parser.visitor.ASTTraverseModify;
 import parser.visitor.ReplaceLabels;
 import prism.*;
@@ -122,6 +126,12 @@ public class StateModelChecker extends PrismComponent
 	// Do bisimulation minimisation before model checking?
 	protected boolean doBisim = false;
 
+	// Storage of previous solutions to warm-start numerical computations from (null if not used)
+	protected WarmStart warmStart = null;
+
+	// Storage of results of graph-based analyses (precomputation, SCCs, MECs) of the model (null if not used)
+	protected ModelAnalysisCache analysisCache = null;
+
 	// Do topological value iteration?
 	protected boolean doTopologicalValueIteration = false;
 
@@ -131,6 +141,12 @@ public class StateModelChecker extends PrismComponent
 	// Do interval iteration?
 	protected boolean doIntervalIteration = false;
 
+	// Evaluate non-probabilistic expressions over all states at once, column by column?
+	protected boolean columnarEval = true;
+
+	// Variable values for the states of the last model checked, stored by column (if computed)
+	private StateColumns stateColumns = null;
+
 	// Model info (for reward structures, etc.)
 	protected ModulesFile modulesFile = null;
 	protected ModelInfo modelInfo = null;
@@ -167,6 +183,7 @@ public class StateModelChecker extends PrismComponent
 			setDoIntervalIteration(settings.getBoolean(PrismSettings.PRISM_INTERVAL_ITER));
 			setDoTopologicalValueIteration(settings.getBoolean(PrismSettings.PRISM_TOPOLOGICAL_VI));
 			setDoPmaxQuotient(settings.getBoolean(PrismSettings.PRISM_PMAX_QUOTIENT));
+			setColumnarEval(settings.getBoolean(PrismSettings.PRISM_COLUMNAR_EVAL));
 		}
 	}
 
@@ -249,6 +266,7 @@ public class StateModelChecker extends PrismComponent
 		setDoBisim(other.getDoBisim());
 		setDoIntervalIteration(other.getDoIntervalIteration());
 		setDoPmaxQuotient(other.getDoPmaxQuotient());
+		setColumnarEval(other.getColumnarEval());
 	}
 
 	/**
@@ -341,6 +359,26 @@ public class StateModelChecker extends PrismComponent
 		this.doBisim = doBisim;
 	}
 
+	/**
+	 * Set storage of previous solutions from which to warm-start numerical computations
+	 * (and to which to add new ones). Null (the default) means warm starts are not used.
+	 * Note: this is not passed on by {@link #inheritSettings(StateModelChecker)}.
+	 */
+	public void setWarmStart(WarmStart warmStart)
+	{
+		this.warmStart = warmStart;
+	}
+
+	/**
+	 * Set storage of the results of graph-based analyses (precomputation, SCCs, MECs)
+	 * of the model being checked, to be re-used (and added to). Null (the default) means none.
+	 * Note: this is not passed on by {@link #inheritSettings(StateModelChecker)}.
+	 */
+	public void setModelAnalysisCache(ModelAnalysisCache analysisCache)
+	{
+		this.analysisCache = analysisCache;
+	}
+
 	/**
 	 * Specify whether or not to do topological value iteration.
 	 */
@@ -357,6 +395,15 @@ public class StateModelChecker extends PrismComponent
 		this.doPmaxQuotient = doPmaxQuotient;
 	}
 
+	/**
+	 * Specify whether or not to evaluate non-probabilistic expressions
+	 * over all states at once, column by column (see {@link ColumnarExpressionEvaluator}).
+	 */
+	public void setColumnarEval(boolean columnarEval)
+	{
+		this.columnarEval = columnarEval;
+	}
+
 	/**
 	 * Specify whether or not to use interval iteration.
 	 */
@@ -444,6 +491,22 @@ public class StateModelChecker extends PrismComponent
 		return doBisim;
 	}
 
+	/**
+	 * Get storage of previous solutions used to warm-start numerical computations (null if none).
+	 */
+	public WarmStart getWarmStart()
+	{
+		return warmStart;
+	}
+
+	/**
+	 * Get storage of the results of graph-based analyses of the model being checked (null if none).
+	 */
+	public ModelAnalysisCache getModelAnalysisCache()
+	{
+		return analysisCache;
+	}
+
 	/**
 	 * Whether or not to do topological value iteration.
 	 */
@@ -460,6 +523,23 @@ public class StateModelChecker extends PrismComponent
 		return doPmaxQuotient;
 	}
 
+	/**
+	 * Whether or not to evaluate non-probabilistic expressions column by column.
+	 */
+	public boolean getColumnarEval()
+	{
+		return columnarEval;
+	}
+
+	/**
+	 * Get the number of threads to use for evaluating non-probabilistic expressions
+	 * over the states of a model (1 means sequential).
+	 */
+	protected int getNumStateEvalThreads()
+	{
+		return 1;
+	}
+
 	/**
 	 * Whether or not to use interval iteration.
 	 */
@@ -613,6 +693,15 @@ public class StateModelChecker extends PrismComponent
 	{
 		StateValues res = null;
 
+		// Where possible, evaluate non-probabilistic expressions over all states at once
+		if (columnarEval && (expr instanceof ExpressionITE || expr instanceof ExpressionBinaryOp || expr instanceof ExpressionUnaryOp
+				|| expr instanceof ExpressionFunc || expr instanceof ExpressionVar || expr instanceof ExpressionLabel)) {
+			res = checkExpressionColumnar(model, expr, statesOfInterest);
+			if (res != null) {
+				return res;
+			}
+		}
+
 		// If-then-else
 		if (expr instanceof ExpressionITE) {
 			res = checkExpressionITE(model, (ExpressionITE) expr, statesOfInterest);
@@ -678,6 +767,78 @@ public class StateModelChecker extends PrismComponent
 		return res;
 	}
 
+	/**
+	 * Model check a non-probabilistic expression (over state variables, constants and labels)
+	 * by evaluating it over all states at once, column by column, using {@link ColumnarExpressionEvaluator}.
+	 * Returns null if this is not possible for the expression or model (e.g. if there is no states list).
+	 * @param statesOfInterest the states of interest, see checkExpression()
+	 */
+	protected StateValues checkExpressionColumnar(Model<?> model, Expression expr, BitSet statesOfInterest) throws PrismException
+	{
+		List<State> statesList = model.getStatesList();
+		if (statesList == null || statesList.size() != model.getNumStates()) {
+			return null;
+		}
+		// Labels are looked up as in checkExpressionLabel
+		ColumnarExpressionEvaluator.LabelResolver labelResolver = new ColumnarExpressionEvaluator.LabelResolver()
+		{
+			@Override
+			public BitSet getLabelStates(String name)
+			{
+				int numStates = model.getNumStates();
+				if ("deadlock".equals(name)) {
+					BitSet bs = new BitSet(numStates);
+					for (int i = 0; i < numStates; i++) {
+						bs.set(i, model.isDeadlockState(i));
+					}
+					return bs;
+				} else if ("init".equals(name)) {
+					BitSet bs = new BitSet(numStates);
+					for (int i = 0; i < numStates; i++) {
+						bs.set(i, model.isInitialState(i));
+					}
+					return bs;
+				}
+				return model.getLabelStates(name);
+			}
+
+			@Override
+			public Expression getLabelDefinition(String name)
+			{
+				LabelList ll = getLabelList();
+				int i = ll == null ? -1 : ll.getLabelIndex(name);
+				return i == -1 ? null : ll.getLabel(i);
+			}
+		};
+		ColumnarExpressionEvaluator evaluator = new ColumnarExpressionEvaluator(getStateColumns(statesList), constantValues, labelResolver);
+		if (!evaluator.isSupported(expr)) {
+			return null;
+		}
+		int numThreads = getNumStateEvalThreads();
+		if (expr.getType() instanceof TypeBool) {
+			BitSet bs = evaluator.evaluateBoolean(expr, statesOfInterest, numThreads);
+			return StateValues.createFromBitSet(bs, model);
+		} else if (expr.getType() instanceof TypeInt) {
+			int vals[] = evaluator.evaluateInt(expr, statesOfInterest, numThreads);
+			return StateValues.create(expr.getType(), i -> vals[i], model);
+		} else {
+			double vals[] = evaluator.evaluateDouble(expr, statesOfInterest, numThreads);
+			return StateValues.create(expr.getType(), i -> vals[i], model);
+		}
+	}
+
+	/**
+	 * Get the variable values for the states in {@code statesList}, stored by column
+	 * (reusing those for the previous call, if for the same list).
+	 */
+	private StateColumns getStateColumns(List<State> statesList)
+	{
+		if (stateColumns == null || stateColumns.getStatesList() != statesList) {
+			stateColumns = new StateColumns(statesList);
+		}
+		return stateColumns;
+	}
+
 	/**
 	 * Model check a binary operator.
 	 * @param statesOfInterest the states of interest, see checkExpression()
@@ -915,6 +1076,12 @@ public class StateModelChecker extends PrismComponent
 	{
 		// TODO (JK): optimize evaluation using statesOfInterest
 		List<State> statesList = model.getStatesList();
+		if (statesList instanceof PackedStateList) {
+			// For packed states, decode each into the same State object
+			PackedStateList packedList = (PackedStateList) statesList;
+			State state = new State(packedList.getNumVars());
+			return StateValues.create(expr.getType(), i -> expr.evaluate(packedList.get(i, state)), model);
+		}
 		return StateValues.create(expr.getType(), i -> expr.evaluate(statesList.get(i)), model);
 	}
 
@@ -1687,16 +1854,46 @@ public class StateModelChecker extends PrismComponent
 			List<BitSet> labelStates = checkLabels(model, labelNames);
 			exporter.addLabels(labelStates, labelNames);
 		}
-		// Export to file/log
+		// Export to file/log (compressing on the fly, if zipping was requested)
+		withExportThreads(exporter);
 		if (exportOptions.getFormat().isBinary() && !exportOptions.getBinaryAsText()) {
 			exporter.exportModel(model, file);
+			// Zip the exported file, if requested
+			ModelExportZipper.zipIfRequested(exportTask);
 		} else {
-			try (PrismLog out = getPrismLogForFile(file)) {
+			PrismLog zippedLog = ModelExportZipper.createZippedLog(exportTask);
+			try (PrismLog out = zippedLog != null ? zippedLog : getPrismLogForFile(file)) {
 				exporter.exportModel(model, out);
 			}
 		}
-		// Zip the exported file, if requested
-		ModelExportZipper.zipIfRequested(exportTask);
+	}
+
+	/**
+	 * Create a log for exporting to {@code file} (or a wrapper around the main log, if {@code file} is null),
+	 * which compresses the output on the fly if zipping was requested in {@code exportOptions}.
+	 */
+	private PrismLog getPrismLogForExport(File file, ModelExportOptions exportOptions) throws PrismException
+	{
+		PrismLog zippedLog = ModelExportZipper.createZippedLog(file, exportOptions);
+		return zippedLog != null ? zippedLog : getPrismLogForFile(file);
+	}
+
+	/**
+	 * Set up a model exporter to use the number of threads for formatting exports
+	 * (see {@link #getNumExportThreads()}), and return it.
+	 */
+	private <E extends ModelExporter<?>> E withExportThreads(E exporter)
+	{
+		exporter.setNumThreads(getNumExportThreads());
+		return exporter;
+	}
+
+	/**
+	 * Get the number of threads to use for formatting model exports (1 means sequential).
+	 */
+	protected int getNumExportThreads()
+	{
+		return 1;
 	}
 
 	/**
@@ -1725,11 +1922,9 @@ public class StateModelChecker extends PrismComponent
 		// Construct rewards before opening the output file:
 		// the rewards may be read lazily from an import file which could be the same as the export target.
 		Rewards<Value> modelRewards = getRewards(model, r, true);
-		try (PrismLog out = getPrismLogForFile(file)) {
-			PrismExplicitExporter<Value> exporter = new PrismExplicitExporter<>(exportOptions);
-			exporter.exportStateRewards(model, modelRewards, getRewardStructName(model, r), out);
+		try (PrismLog out = getPrismLogForExport(file, exportOptions)) {
+			withExportThreads(new PrismExplicitExporter<Value>(exportOptions)).exportStateRewards(model, modelRewards, getRewardStructName(model, r), out);
 		}
-		ModelExportZipper.zipIfRequested(file, exportOptions);
 	}
 
 	/**
@@ -1748,11 +1943,9 @@ public class StateModelChecker extends PrismComponent
 		// Construct rewards before opening the output file:
 		// the rewards may be read lazily from an import file which could be the same as the export target.
 		Rewards<Value> modelRewards = getRewards(model, r, true);
-		try (PrismLog out = getPrismLogForFile(file)) {
-			PrismExplicitExporter<Value> exporter = new PrismExplicitExporter<>(exportOptions);
-			exporter.exportTransRewards(model, modelRewards, getRewardStructName(model, r), out);
+		try (PrismLog out = getPrismLogForExport(file, exportOptions)) {
+			withExportThreads(new PrismExplicitExporter<Value>(exportOptions)).exportTransRewards(model, modelRewards, getRewardStructName(model, r), out);
 		}
-		ModelExportZipper.zipIfRequested(file, exportOptions);
 	}
 
 	/**
@@ -1763,17 +1956,16 @@ public class StateModelChecker extends PrismComponent
 	 */
 	public <Value> void exportStates(Model<Value> model, File file, ModelExportOptions exportOptions) throws PrismException
 	{
-		try (PrismLog out = getPrismLogForFile(file)) {
+		try (PrismLog out = getPrismLogForExport(file, exportOptions)) {
 			switch (exportOptions.getFormat()) {
 				case EXPLICIT:
-					new PrismExplicitExporter<Value>(exportOptions).exportStates(model, modelInfo.createVarList(), out);
+					withExportThreads(new PrismExplicitExporter<Value>(exportOptions)).exportStates(model, modelInfo.createVarList(), out);
 					break;
 				case MATLAB:
-					new MatlabExporter<Value>(exportOptions).exportStates(model, modelInfo.createVarList(), out);
+					withExportThreads(new MatlabExporter<Value>(exportOptions)).exportStates(model, modelInfo.createVarList(), out);
 					break;
 			}
 		}
-		ModelExportZipper.zipIfRequested(file, exportOptions);
 	}
 
 	/**
@@ -1784,17 +1976,16 @@ public class StateModelChecker extends PrismComponent
 	 */
 	public <Value> void exportObservations(Model<Value> model, File file, ModelExportOptions exportOptions) throws PrismException
 	{
-		try (PrismLog out = getPrismLogForFile(file)) {
+		try (PrismLog out = getPrismLogForExport(file, exportOptions)) {
 			switch (exportOptions.getFormat()) {
 				case EXPLICIT:
-					new PrismExplicitExporter<Value>(exportOptions).exportObservations((PartiallyObservableModel<Value>) model, modelInfo, out);
+					withExportThreads(new PrismExplicitExporter<Value>(exportOptions)).exportObservations((PartiallyObservableModel<Value>) model, modelInfo, out);
 					break;
 				case MATLAB:
-					new MatlabExporter<Value>(exportOptions).exportObservations((PartiallyObservableModel<Value>) model, modelInfo, out);
+					withExportThreads(new MatlabExporter<Value>(exportOptions)).exportObservations((PartiallyObservableModel<Value>) model, modelInfo, out);
 					break;
 			}
 		}
-		ModelExportZipper.zipIfRequested(file, exportOptions);
 	}
 
 	/**
@@ -1849,17 +2040,16 @@ public class StateModelChecker extends PrismComponent
 	 */
 	public <Value> void exportLabels(Model<Value> model, List<String> labelNames, List<BitSet> labelStates, File file, ModelExportOptions exportOptions) throws PrismException
 	{
-		try (PrismLog out = getPrismLogForFile(file)) {
+		try (PrismLog out = getPrismLogForExport(file, exportOptions)) {
 			switch (exportOptions.getFormat()) {
 				case EXPLICIT:
-					new PrismExplicitExporter<Value>(exportOptions).exportLabels(model, labelNames, labelStates, out);
+					withExportThreads(new PrismExplicitExporter<Value>(exportOptions)).exportLabels(model, labelNames, labelStates, out);
 					break;
 				case MATLAB:
-					new MatlabExporter<Value>(exportOptions).exportLabels(model, labelNames, labelStates, out);
+					withExportThreads(new MatlabExporter<Value>(exportOptions)).exportLabels(model, labelNames, labelStates, out);
 					break;
 			}
 		}
-		ModelExportZipper.zipIfRequested(file, exportOptions);
 	}
 
 	/**
@@ -0,0 +1,167 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package explicit;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+
+import parser.Values;
+import parser.ast.Expression;
+import prism.PrismLangException;
+
+/**
+ * Information about a sweep over the values of (undefined) property constants, e.g. in an experiment,
+ * during which a property is model checked once for each set of values, in turn.
+ * This allows transient computations for CTMCs to be done for all time bounds needed by the sweep at once
+ * (see {@link CTMCModelChecker#setTimeBoundSweep(TimeBoundSweep)}), storing the results for later.
+ */
+public class TimeBoundSweep
+{
+	/** Maximum total size (number of doubles) of solution vectors computed in one batch */
+	public static final long MAX_BATCH_SIZE = 1 << 24;
+
+	/**
+	 * Key identifying a (backwards transient) computation, i.e. the model and state sets it is for.
+	 * Models are compared by identity.
+	 */
+	public static class Key
+	{
+		private final Model<?> model;
+		private final BitSet target;
+		private final BitSet nonAbs;
+
+		/**
+		 * Create a key (copies of the state sets are stored).
+		 * @param model The model
+		 * @param target Target states
+		 * @param nonAbs States not made absorbing (optional: null means "all")
+		 */
+		public Key(Model<?> model, BitSet target, BitSet nonAbs)
+		{
+			this.model = model;
+			this.target = (BitSet) target.clone();
+			this.nonAbs = nonAbs == null ? null : (BitSet) nonAbs.clone();
+		}
+
+		@Override
+		public boolean equals(Object o)
+		{
+			if (!(o instanceof Key))
+				return false;
+			Key other = (Key) o;
+			return model == other.model && target.equals(other.target) && Objects.equals(nonAbs, other.nonAbs);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return Objects.hash(System.identityHashCode(model), target, nonAbs);
+		}
+	}
+
+	/** Values of the property constants for each step of the sweep */
+	private List<Values> propertyConstants;
+
+	/** Stored results, for each computation and time bound */
+	private Map<Key, Map<Double, ModelCheckerResult>> results = new HashMap<>();
+
+	/**
+	 * Create a sweep over the given values of property constants.
+	 */
+	public TimeBoundSweep(List<Values> propertyConstants)
+	{
+		this.propertyConstants = propertyConstants;
+	}
+
+	/**
+	 * Get the values of the property constants for each step of the sweep.
+	 */
+	public List<Values> getPropertyConstants()
+	{
+		return propertyConstants;
+	}
+
+	/**
+	 * Get the time points, in ascending order, for which a computation should be done at once,
+	 * given that it is currently needed for time {@code t}: these are the distinct values
+	 * that the time bound {@code timeExpr} takes during the sweep which are at least {@code t},
+	 * evaluated using {@code constantValues}, plus the values of the property constants for each step.
+	 * At most {@code maxNum} time points are returned; the first is always {@code t}.
+	 * @param timeExpr Expression for the time bound
+	 * @param constantValues Values for (model and property) constants
+	 * @param t Current value of the time bound
+	 * @param maxNum Maximum number of time points
+	 */
+	public double[] getTimes(Expression timeExpr, Values constantValues, double t, int maxNum)
+	{
+		TreeSet<Double> times = new TreeSet<>();
+		for (Values pfValues : propertyConstants) {
+			Values values = constantValues == null ? new Values() : new Values(constantValues);
+			values.setValues(pfValues);
+			try {
+				double time = timeExpr.evaluateDouble(values);
+				if (time > t) {
+					times.add(time);
+				}
+			} catch (PrismLangException e) {
+				// Ignore any time points that cannot be evaluated
+			}
+		}
+		int num = Math.min(times.size() + 1, Math.max(1, maxNum));
+		double ts[] = new double[num];
+		ts[0] = t;
+		int j = 1;
+		for (double time : times) {
+			if (j >= num)
+				break;
+			ts[j++] = time;
+		}
+		return ts;
+	}
+
+	/**
+	 * Store the result (solution vector and accuracy) of a computation, for time bound {@code t}.
+	 */
+	public synchronized void storeResult(Key key, double t, ModelCheckerResult res)
+	{
+		results.computeIfAbsent(key, k -> new HashMap<>()).put(t, res);
+	}
+
+	/**
+	 * Get (and remove) the stored result of a computation for time bound {@code t},
+	 * or null if there is none.
+	 */
+	public synchronized ModelCheckerResult removeResult(Key key, double t)
+	{
+		Map<Double, ModelCheckerResult> resultsForKey = results.get(key);
+		return resultsForKey == null ? null : resultsForKey.remove(t);
+	}
+}
@@ -0,0 +1,201 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package explicit;
+
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntToDoubleFunction;
+
+import common.IterableBitSet;
+
+/**
+ * Storage of solution vectors (and, for MDPs, strategies) from previous numerical computations,
+ * to be used as starting points for subsequent computations on models with the same state space,
+ * e.g. successive iterations of an experiment where only probabilities change.
+ * <br><br>
+ * Previous solutions are only a heuristic starting point: they are used by the model checkers
+ * only where convergence to the correct answer does not depend on the initial solution vector
+ * (for value iteration, this requires the fixpoint to be unique), or, for interval iteration,
+ * after checking that they are a valid lower or upper bound (see {@link #checkBound}).
+ */
+public class WarmStart
+{
+	/** Maximum number of stored solutions */
+	public static final int MAX_ENTRIES = 32;
+
+	/** Result of {@link #checkBound} */
+	public enum Bound {
+		/** Solution vector is a lower bound */
+		LOWER,
+		/** Solution vector is an upper bound */
+		UPPER,
+		/** Solution vector is a fixpoint (and so both a lower and upper bound) */
+		FIXPOINT,
+		/** Solution vector is neither a lower nor upper bound, as far as we know */
+		NONE;
+	}
+
+	/**
+	 * Key identifying a computation, i.e. its kind (e.g. "Pmin")
+	 * and the model size and state sets it is for.
+	 */
+	public static class Key
+	{
+		private final String kind;
+		private final int numStates;
+		private final BitSet remain;
+		private final BitSet target;
+
+		/**
+		 * Create a key (copies of the state sets are stored).
+		 * @param kind Kind of computation, e.g. "Pmin"
+		 * @param model The model
+		 * @param remain Remain states (optional: null means "all")
+		 * @param target Target states
+		 */
+		public Key(String kind, Model<?> model, BitSet remain, BitSet target)
+		{
+			this.kind = kind;
+			this.numStates = model.getNumStates();
+			this.remain = remain == null ? null : (BitSet) remain.clone();
+			this.target = (BitSet) target.clone();
+		}
+
+		@Override
+		public boolean equals(Object o)
+		{
+			if (!(o instanceof Key))
+				return false;
+			Key other = (Key) o;
+			return kind.equals(other.kind) && numStates == other.numStates && Objects.equals(remain, other.remain) && target.equals(other.target);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return Objects.hash(kind, numStates, remain, target);
+		}
+	}
+
+	/** Stored solution vectors (in LRU order) */
+	private LinkedHashMap<Key, double[]> solns = new LinkedHashMap<>(16, 0.75f, true)
+	{
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, double[]> eldest)
+		{
+			return size() > MAX_ENTRIES;
+		}
+	};
+
+	/** Stored strategies (in LRU order) */
+	private LinkedHashMap<Key, int[]> strats = new LinkedHashMap<>(16, 0.75f, true)
+	{
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, int[]> eldest)
+		{
+			return size() > MAX_ENTRIES;
+		}
+	};
+
+	/**
+	 * Get (a copy of) the stored solution vector for a computation, or null if there is none.
+	 */
+	public synchronized double[] getSolution(Key key)
+	{
+		double[] soln = solns.get(key);
+		return (soln == null || soln.length != key.numStates) ? null : soln.clone();
+	}
+
+	/**
+	 * Store (a copy of) the solution vector for a computation.
+	 */
+	public synchronized void storeSolution(Key key, double[] soln)
+	{
+		if (soln != null && soln.length == key.numStates) {
+			solns.put(key, soln.clone());
+		}
+	}
+
+	/**
+	 * Get (a copy of) the stored (memoryless) strategy for a computation, or null if there is none.
+	 * Choice indices are not checked against the model, so need to be validated by the caller.
+	 */
+	public synchronized int[] getStrategy(Key key)
+	{
+		int[] strat = strats.get(key);
+		return (strat == null || strat.length != key.numStates) ? null : strat.clone();
+	}
+
+	/**
+	 * Store (a copy of) the (memoryless) strategy for a computation.
+	 */
+	public synchronized void storeStrategy(Key key, int[] strat)
+	{
+		if (strat != null && strat.length == key.numStates) {
+			strats.put(key, strat.clone());
+		}
+	}
+
+	/**
+	 * Remove all stored solutions and strategies.
+	 */
+	public synchronized void clear()
+	{
+		solns.clear();
+		strats.clear();
+	}
+
+	/**
+	 * Check whether a solution vector is a lower or upper bound on the (unique) fixpoint
+	 * of a (monotone) Bellman operator on [0,1]^n, by applying it once:
+	 * if {@code soln <= step(soln)}, it is a lower bound; if {@code soln >= step(soln)},
+	 * it is an upper bound. This is only sound if the fixpoint is unique,
+	 * e.g. after Prob0/Prob1 precomputation (and MEC quotienting for Pmax).
+	 * @param soln Solution vector
+	 * @param unknown States to check (values for all other states should be exact)
+	 * @param step Function giving the result of applying the operator for a state
+	 */
+	public static Bound checkBound(double[] soln, BitSet unknown, IntToDoubleFunction step)
+	{
+		boolean lower = true, upper = true;
+		for (int s : new IterableBitSet(unknown)) {
+			double d = soln[s];
+			if (!(d >= 0.0 && d <= 1.0)) {
+				return Bound.NONE;
+			}
+			double d2 = step.applyAsDouble(s);
+			lower &= d <= d2;
+			upper &= d >= d2;
+			if (!lower && !upper) {
+				return Bound.NONE;
+			}
+		}
+		return lower ? (upper ? Bound.FIXPOINT : Bound.LOWER) : (upper ? Bound.UPPER : Bound.NONE);
+	}
+}
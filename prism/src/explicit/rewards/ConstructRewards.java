@@ -39,8 +39,10 @@ import java.util.WeakHashMap;
 
 import common.Interval;
 import explicit.DTMC;
+import explicit.DTMCSparse;
 import explicit.IDTMC;
 import explicit.MDP;
+import explicit.MDPSparse;
 import explicit.Model;
 import explicit.NondetModel;
 import parser.State;
@@ -108,12 +110,15 @@ public class ConstructRewards extends PrismComponent
 		int numStates = model.getNumStates();
 		List<State> statesList = model.getStatesList();
 		// Create reward structure object of appropriate type
-		// (can be more efficient if just double-valued state rewards)
+		// (can be more efficient if just double-valued state rewards,
+		// or if double-valued and stored in the same way as a sparse model)
 		RewardsExplicit<Value> rewards;
 		boolean nondet = model.getModelType().nondeterministic();
 		boolean dbl = rewardGen.getRewardEvaluator().one() instanceof Double;
 		boolean sr = !(rewardGen.rewardStructHasTransitionRewards(r) && !(expectedRewards && !nondet));
-		if (dbl && sr) {
+		if (dbl && isSparse(model)) {
+			rewards = (RewardsExplicit<Value>) new RewardsArray(model);
+		} else if (dbl && sr) {
 			rewards = (RewardsExplicit<Value>) new StateRewardsArray(numStates);
 		} else {
 			rewards = new RewardsSimple<>(numStates);
@@ -187,6 +192,15 @@ public class ConstructRewards extends PrismComponent
 		return rewards;
 	}
 
+	/**
+	 * Is {@code model} stored in a sparse matrix representation whose
+	 * (unboxed) reward-based operations can make use of {@link RewardsArray}?
+	 */
+	private static boolean isSparse(Model<?> model)
+	{
+		return model instanceof MDPSparse || model instanceof DTMCSparse;
+	}
+
 	/**
 	 * Get a state reward for a specific state and reward structure from a RewardGenerator.
 	 * Also check that the state reward is legal. Throw an exception if not.
@@ -259,11 +273,14 @@ public class ConstructRewards extends PrismComponent
 		int numStates = model.getNumStates();
 		List<State> statesList = model.getStatesList();
 		// Create reward structure object of appropriate type
-		// (can be more efficient if just (double-valued) state rewards)
+		// (can be more efficient if just (double-valued) state rewards,
+		// or if stored in the same way as a sparse model)
 		RewardsExplicit<Double> rewards;
 		boolean nondet = model.getModelType().nondeterministic();
 		boolean sr = !(rewStr.getNumTransItems() > 0 && !(expectedRewards && !nondet));
-		if (sr) {
+		if (isSparse(model)) {
+			rewards = new RewardsArray(model);
+		} else if (sr) {
 			rewards = new StateRewardsArray(numStates);
 		} else {
 			rewards = new RewardsSimple<>(numStates);
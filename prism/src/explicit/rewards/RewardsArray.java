@@ -0,0 +1,193 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+
+package explicit.rewards;
+
+import java.util.Arrays;
+
+import explicit.Model;
+import explicit.NondetModel;
+import explicit.Product;
+
+/**
+ * Explicit-state storage of (double-valued) state and transition rewards, as primitive arrays.
+ * Transition rewards are stored in a single array, indexed by the offset of each state's
+ * choices (for nondeterministic models) or transitions (for Markov chains) in the model,
+ * i.e., in the same way as the sparse model classes such as {@link explicit.MDPSparse},
+ * which can then access the rewards directly, without boxing.
+ */
+public class RewardsArray extends RewardsExplicit<Double>
+{
+	/** Model whose choice/transition indexing is used for the transition rewards */
+	protected Model<?> model;
+	/** Offset of the choices/transitions of each state (array of size numStates+1) */
+	protected int offsets[];
+	/** Array of state rewards */
+	protected double stateRewards[];
+	/** Array of transition rewards (null if all zero) */
+	protected double transRewards[];
+
+	/**
+	 * Constructor: all zero rewards.
+	 * @param model Associated model (needed for sizes and indexing of transition rewards)
+	 */
+	public RewardsArray(Model<?> model)
+	{
+		this.model = model;
+		int numStates = model.getNumStates();
+		boolean nondet = model.getModelType().nondeterministic();
+		offsets = new int[numStates + 1];
+		for (int s = 0; s < numStates; s++) {
+			int n = nondet ? ((NondetModel<?>) model).getNumChoices(s) : model.getNumTransitions(s);
+			offsets[s + 1] = offsets[s] + n;
+		}
+		// Default to all zero
+		stateRewards = new double[numStates];
+		transRewards = null;
+	}
+
+	/**
+	 * Copy constructor
+	 * @param rews Rewards to copy
+	 */
+	public RewardsArray(RewardsArray rews)
+	{
+		model = rews.model;
+		offsets = rews.offsets;
+		stateRewards = Arrays.copyOf(rews.stateRewards, rews.stateRewards.length);
+		transRewards = rews.transRewards == null ? null : Arrays.copyOf(rews.transRewards, rews.transRewards.length);
+	}
+
+	// Mutators
+
+	@Override
+	public void setStateReward(int s, Double r)
+	{
+		stateRewards[s] = r;
+	}
+
+	@Override
+	public void addToStateReward(int s, Double r)
+	{
+		stateRewards[s] += r;
+	}
+
+	@Override
+	public void setTransitionReward(int s, int i, Double r)
+	{
+		if (transRewards == null) {
+			if (r == 0.0) {
+				return;
+			}
+			transRewards = new double[offsets[offsets.length - 1]];
+		}
+		transRewards[offsets[s] + i] = r;
+	}
+
+	@Override
+	public void addToTransitionReward(int s, int i, Double r)
+	{
+		if (transRewards == null) {
+			setTransitionReward(s, i, r);
+		} else {
+			transRewards[offsets[s] + i] += r;
+		}
+	}
+
+	// Accessors
+
+	@Override
+	public boolean hasTransitionRewards()
+	{
+		return transRewards != null;
+	}
+
+	@Override
+	public Double getStateReward(int s)
+	{
+		return stateRewards[s];
+	}
+
+	@Override
+	public Double getTransitionReward(int s, int i)
+	{
+		return transRewards == null ? 0.0 : transRewards[offsets[s] + i];
+	}
+
+	/**
+	 * Returns true if the transition rewards are indexed according to the choices/transitions
+	 * of {@code model}, i.e., this was created for that model.
+	 */
+	public boolean isIndexedFor(Model<?> model)
+	{
+		return this.model == model;
+	}
+
+	/**
+	 * Get direct access to the array of state rewards (for read-only use).
+	 */
+	public double[] getStateRewardsArray()
+	{
+		return stateRewards;
+	}
+
+	/**
+	 * Get direct access to the array of transition rewards (for read-only use),
+	 * indexed by the offset of each choice/transition in the associated model.
+	 * Returns null if all transition rewards are zero.
+	 */
+	public double[] getTransitionRewardsArray()
+	{
+		return transRewards;
+	}
+
+	@Override
+	public RewardsArray liftFromModel(Product<?> product)
+	{
+		Model<?> modelProd = product.getProductModel();
+		int numStatesProd = modelProd.getNumStates();
+		RewardsArray rewardsProd = new RewardsArray(modelProd);
+		for (int s = 0; s < numStatesProd; s++) {
+			rewardsProd.stateRewards[s] = stateRewards[product.getModelState(s)];
+		}
+		if (transRewards != null) {
+			rewardsProd.transRewards = new double[rewardsProd.offsets[numStatesProd]];
+			for (int s = 0; s < numStatesProd; s++) {
+				int sModel = product.getModelState(s);
+				int n = Math.min(rewardsProd.offsets[s + 1] - rewardsProd.offsets[s], offsets[sModel + 1] - offsets[sModel]);
+				System.arraycopy(transRewards, offsets[sModel], rewardsProd.transRewards, rewardsProd.offsets[s], n);
+			}
+		}
+		return rewardsProd;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "st: " + Arrays.toString(stateRewards) + "; tr: " + Arrays.toString(transRewards);
+	}
+}
@@ -97,7 +97,7 @@ public class RewardsSimple<Value> extends RewardsExplicit<Value>
 				} else {
 					n = model.getNumTransitions(s);
 				}
-				for (int j = n; j >= 0; j--) {
+				for (int j = n - 1; j >= 0; j--) {
 					transRewards.setValue(s, j, rewMap.apply(rews.getTransitionReward(s, j)));
 				}
 			}
@@ -101,26 +101,26 @@ public class DRNExporter<Value> extends ModelExporter<Value>
 		// Output states and transitions
 		out.println("@model");
 
-		// Iterate through states
-		for (int s = 0; s < numStates; s++) {
+		// Iterate through states (formatting blocks of states in parallel, if enabled)
+		exportPerState(numStates, (s, buf) -> {
 
 			// Output state info
-			out.print("state " + s);
+			buf.append("state ").append(s);
 			if (modelType.partiallyObservable()) {
-				out.print(" {" + ((PartiallyObservableModel<Value>) model).getObservation(s) +"}");
+				buf.append(" {").append(((PartiallyObservableModel<Value>) model).getObservation(s)).append('}');
 			}
 			if (modelType.continuousTime()) {
-				out.print(" !" + ((CTMC<Value>) model).getExitRate(s));
+				buf.append(" !").append(((CTMC<Value>) model).getExitRate(s));
 			}
 			if (numRewards > 0) {
-				out.print(" " + getStateRewardTuple(getRewards(), s).toStringReversed(e -> formatValue(e, evalRewards), ", "));
+				buf.append(' ').append(getStateRewardTuple(getRewards(), s).toStringReversed(e -> formatValue(e, evalRewards), ", "));
 			}
 			for (int i = 0; i < numLabels; i++) {
 				if (getLabel(i).get(s)) {
-					out.print(" " + getLabelName(i));
+					buf.append(' ').append(getLabelName(i));
 				}
 			}
-			out.println();
+			buf.newline();
 
 			// Iterate through choices
 			int numChoices = 1;
@@ -128,22 +128,22 @@ public class DRNExporter<Value> extends ModelExporter<Value>
 				numChoices = ((NondetModel<Value>) model).getNumChoices(s);
 			}
 			for (int j = 0; j < numChoices; j++) {
-				out.print("\taction ");
+				buf.append("\taction ");
 				if (modelType.nondeterministic() && showActions) {
 					Object action = ((NondetModel<Value>) model).getAction(s, j);
-					out.print(action != null ? action : "__NOLABEL__");
+					buf.append(action != null ? action : "__NOLABEL__");
 				} else {
-					out.print(j);
+					buf.append(j);
 				}
 				if (numRewards > 0) {
-					out.print(" " + getTransitionRewardTuple(getRewards(), s, j).toStringReversed(e -> formatValue(e, evalRewards), ", "));
+					buf.append(' ').append(getTransitionRewardTuple(getRewards(), s, j).toStringReversed(e -> formatValue(e, evalRewards), ", "));
 				}
-				out.println();
+				buf.newline();
 				// Print out (sorted) transitions
 				for (Transition<?> transition : getSortedTransitionsIterator(model, s, j, showActions)) {
-					out.println("\t\t" + transition.target + " : " + transition.toString(modelExportOptions));
+					buf.append("\t\t").append(transition.target).append(" : ").appendValue(transition, modelExportOptions).newline();
 				}
 			}
-		}
+		}, out);
 	}
 }
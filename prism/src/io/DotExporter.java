@@ -78,8 +78,9 @@ public class DotExporter<Value> extends ModelExporter<Value>
 		out.println("node " + defaults + ";");
 
 		// Output transitions in Dot format
-		// Iterate through states
-		for (int s = 0; s < numStates; s++) {
+		// Iterate through states (formatting blocks of states in parallel, if enabled,
+		// but not if there are decorators, which are not necessarily thread-safe)
+		exportPerState(numStates, (s, buf) -> {
 			// Set up Dot Decoration
 			explicit.graphviz.Decoration d = new explicit.graphviz.Decoration(defaults);
 			d.setLabel(Integer.toString(s));
@@ -101,7 +102,7 @@ public class DotExporter<Value> extends ModelExporter<Value>
 			String nodeSrc = Integer.toString(s);
 			String nodeMid = Integer.toString(s);
 			String decoration = d.toString();
-			out.println(nodeSrc + " " + decoration + ";");
+			buf.append(nodeSrc).append(' ').append(decoration).append(';').newline();
 
 			// Iterate through choices
 			int numChoices = 1;
@@ -114,7 +115,7 @@ public class DotExporter<Value> extends ModelExporter<Value>
 				if (modelType.nondeterministic() && modelType.isProbabilistic()) {
 					// Print a new dot file line for the initial line fragment for this choice
 					nodeMid = "n" + s + "_" + j;
-					out.print(nodeSrc + " -> " + nodeMid + " ");
+					buf.append(nodeSrc).append(" -> ").append(nodeMid).append(' ');
 					// Annotate this with the choice index/action
 					explicit.graphviz.Decoration d2 = new explicit.graphviz.Decoration();
 					d2.attributes().put("arrowhead", "none");
@@ -133,15 +134,15 @@ public class DotExporter<Value> extends ModelExporter<Value>
 						}
 					}
 					// Append to the dot file line
-					out.println(" " + d2.toString() + ";");
+					buf.append(' ').append(d2.toString()).append(';').newline();
 					// Print a new dot file line for the point where this choice branches
-					out.print(nodeMid + " [ shape=point,width=0.1,height=0.1,label=\"\" ];\n");
+					buf.append(nodeMid).append(" [ shape=point,width=0.1,height=0.1,label=\"\" ];\n");
 				}
 
 				// Print out (sorted) transitions
 				for (Transition<?> transition : getSortedTransitionsIterator(model, s, j, showActions && !modelType.nondeterministic())) {
 					// Print a new Dot file line for the arrow for this transition
-					out.print(nodeMid + " -> " + transition.target);
+					buf.append(nodeMid).append(" -> ").append(transition.target);
 					// Annotate this arrow with the probability
 					explicit.graphviz.Decoration d3 = new explicit.graphviz.Decoration();
 					if (modelType.isProbabilistic()) {
@@ -165,10 +166,10 @@ public class DotExporter<Value> extends ModelExporter<Value>
 						}
 					}
 					// Append to the Dot file line for this transition
-					out.println(" " + d3.toString() + ";");
+					buf.append(' ').append(d3.toString()).append(';').newline();
 				}
 			}
-		}
+		}, decorators == null ? getNumThreads() : 1, out);
 
 		// Output footer
 		out.print("}\n");
@@ -245,6 +245,41 @@ public abstract class ExplicitModelImporter
 	 */
 	public abstract <Value> void extractMDPTransitions(IOUtils.MDPTransitionConsumer<Value> storeTransition, Evaluator<Value> eval) throws PrismException;
 
+	/**
+	 * Extract the (Markov chain) transitions directly into sparse matrix storage,
+	 * if this is supported by the importer (and likely to be more efficient than
+	 * {@link #extractMCTransitions(IOUtils.MCTransitionConsumer)}).
+	 * The transition probabilities are assumed to be of type double.
+	 * The arrays should have sizes numStates+1 and numTransitions (for the other three).
+	 * Returns false (leaving the arrays unmodified) if not supported, which is the default.
+	 * @param rows Storage for the start of the transitions for each state
+	 * @param columns Storage for the destination of each transition
+	 * @param probabilities Storage for the probability of each transition
+	 * @param actions Storage for the action label of each transition
+	 */
+	public boolean extractMCTransitionsSparse(int[] rows, int[] columns, double[] probabilities, Object[] actions) throws PrismException
+	{
+		return false;
+	}
+
+	/**
+	 * Extract the (Markov decision process) transitions directly into sparse matrix storage,
+	 * if this is supported by the importer (and likely to be more efficient than
+	 * {@link #extractMDPTransitions(IOUtils.MDPTransitionConsumer)}).
+	 * The transition probabilities are assumed to be of type double.
+	 * The arrays should have sizes numStates+1, numChoices+1, numTransitions, numTransitions and numChoices.
+	 * Returns false (leaving the arrays unmodified) if not supported, which is the default.
+	 * @param rowStarts Storage for the start of the choices for each state
+	 * @param choiceStarts Storage for the start of the transitions for each choice
+	 * @param cols Storage for the destination of each transition
+	 * @param nonZeros Storage for the probability of each transition
+	 * @param actions Storage for the action label of each choice
+	 */
+	public boolean extractMDPTransitionsSparse(int[] rowStarts, int[] choiceStarts, int[] cols, double[] nonZeros, Object[] actions) throws PrismException
+	{
+		return false;
+	}
+
 	/**
 	 * Extract the (labelled transition system) transitions.
 	 * @param storeTransition Function to be called for each transition
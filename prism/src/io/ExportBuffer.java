@@ -0,0 +1,244 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+
+package io;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import prism.Evaluator;
+import prism.PrismLog;
+
+/**
+ * A growable buffer of (encoded) text, used to format model exports in large blocks
+ * before writing them to a {@link PrismLog} (see {@link PrismLog#write(byte[], int, int)}).
+ * <br><br>
+ * Integers are formatted directly into the buffer (without creating intermediate Strings).
+ * Model values (e.g. probabilities) are formatted as for {@link Evaluator#toStringExport(Object, int)};
+ * since the same values typically occur many times in a model, the encoded forms of doubles are cached.
+ * Strings are encoded using the platform's default charset, as for a {@link java.io.PrintStream}.
+ * <br><br>
+ * This class is not thread-safe: when formatting in parallel, each thread should use its own buffer.
+ */
+public class ExportBuffer
+{
+	/** Maximum number of cached formatted values (the cache is cleared when full) */
+	private static final int MAX_CACHED_VALUES = 1 << 16;
+
+	/** Line separator */
+	private static final String LINE_SEPARATOR = System.lineSeparator();
+
+	/** Encoded text */
+	private byte buf[];
+	/** Length of encoded text */
+	private int len;
+	/** Cache of encoded doubles, for the current evaluator/precision */
+	private final Map<Double, byte[]> valueCache = new HashMap<>();
+	/** Evaluator for cached values */
+	private Evaluator<?> cacheEval;
+	/** Precision for cached values */
+	private int cachePrecision;
+
+	/**
+	 * Create an empty buffer, with the specified initial capacity (in bytes).
+	 */
+	public ExportBuffer(int capacity)
+	{
+		buf = new byte[Math.max(capacity, 16)];
+	}
+
+	/**
+	 * Get the length of the text in the buffer (in bytes).
+	 */
+	public int size()
+	{
+		return len;
+	}
+
+	/**
+	 * Empty the buffer (keeping its capacity and any cached values).
+	 */
+	public void clear()
+	{
+		len = 0;
+	}
+
+	/**
+	 * Get a copy of the contents of the buffer.
+	 */
+	public byte[] toByteArray()
+	{
+		return Arrays.copyOf(buf, len);
+	}
+
+	/**
+	 * Write the contents of the buffer to a log, and then empty it.
+	 */
+	public void writeTo(PrismLog out)
+	{
+		if (len > 0) {
+			out.write(buf, 0, len);
+			len = 0;
+		}
+	}
+
+	/**
+	 * Append a character.
+	 */
+	public ExportBuffer append(char c)
+	{
+		if (c < 0x80) {
+			ensureCapacity(1);
+			buf[len++] = (byte) c;
+			return this;
+		}
+		return appendEncoded(String.valueOf(c));
+	}
+
+	/**
+	 * Append a string.
+	 */
+	public ExportBuffer append(String s)
+	{
+		int n = s.length();
+		ensureCapacity(n);
+		// Fast path for ASCII, falling back to the charset for anything else
+		for (int i = 0; i < n; i++) {
+			char c = s.charAt(i);
+			if (c >= 0x80) {
+				return appendEncoded(s.substring(i));
+			}
+			buf[len++] = (byte) c;
+		}
+		return this;
+	}
+
+	/**
+	 * Append an object, as for {@link String#valueOf(Object)}.
+	 */
+	public ExportBuffer append(Object o)
+	{
+		return append(String.valueOf(o));
+	}
+
+	/**
+	 * Append an integer (in decimal).
+	 */
+	public ExportBuffer append(int i)
+	{
+		return append((long) i);
+	}
+
+	/**
+	 * Append a long integer (in decimal).
+	 */
+	public ExportBuffer append(long l)
+	{
+		if (l == Long.MIN_VALUE) {
+			return append(Long.toString(l));
+		}
+		ensureCapacity(20);
+		if (l < 0) {
+			buf[len++] = '-';
+			l = -l;
+		}
+		// Count digits, then fill in from the end
+		int numDigits = 1;
+		for (long x = l; x >= 10; x /= 10) {
+			numDigits++;
+		}
+		int pos = len + numDigits;
+		len = pos;
+		do {
+			buf[--pos] = (byte) ('0' + (int) (l % 10));
+			l /= 10;
+		} while (l != 0);
+		return this;
+	}
+
+	/**
+	 * Append a model value, formatted as by {@code eval.toStringExport(value, precision)}.
+	 */
+	@SuppressWarnings("unchecked")
+	public <V> ExportBuffer appendValue(V value, Evaluator<V> eval, int precision)
+	{
+		if (!(value instanceof Double)) {
+			return append(eval.toStringExport(value, precision));
+		}
+		if (eval != cacheEval || precision != cachePrecision) {
+			valueCache.clear();
+			cacheEval = eval;
+			cachePrecision = precision;
+		}
+		byte encoded[] = valueCache.get(value);
+		if (encoded == null) {
+			if (valueCache.size() >= MAX_CACHED_VALUES) {
+				valueCache.clear();
+			}
+			encoded = eval.toStringExport(value, precision).getBytes(Charset.defaultCharset());
+			valueCache.put((Double) value, encoded);
+		}
+		ensureCapacity(encoded.length);
+		System.arraycopy(encoded, 0, buf, len, encoded.length);
+		len += encoded.length;
+		return this;
+	}
+
+	/**
+	 * Append the value attached to a transition, formatted as by {@link Transition#toString(ModelExportOptions)}.
+	 */
+	public <V> ExportBuffer appendValue(Transition<V> transition, ModelExportOptions exportOptions)
+	{
+		return appendValue(transition.value, transition.evaluator, exportOptions.getModelPrecision());
+	}
+
+	/**
+	 * Append a line separator (as used by {@link PrismLog#println()}).
+	 */
+	public ExportBuffer newline()
+	{
+		return append(LINE_SEPARATOR);
+	}
+
+	private ExportBuffer appendEncoded(String s)
+	{
+		byte encoded[] = s.getBytes(Charset.defaultCharset());
+		ensureCapacity(encoded.length);
+		System.arraycopy(encoded, 0, buf, len, encoded.length);
+		len += encoded.length;
+		return this;
+	}
+
+	private void ensureCapacity(int extra)
+	{
+		if (len + extra > buf.length) {
+			buf = Arrays.copyOf(buf, Math.max(buf.length * 2, len + extra));
+		}
+	}
+}
@@ -83,10 +83,9 @@ public class MatlabExporter<Value> extends ModelExporter<Value>
 
 		// Print states
 		out.println("states=[");
-		int numStates = statesList.size();
-		for (int i = 0; i < numStates; i++) {
-			out.println(statesList.get(i).toStringNoParentheses());
-		}
+		exportPerState(statesList.size(), (i, buf) -> {
+			buf.append(statesList.get(i).toStringNoParentheses()).newline();
+		}, out);
 
 		// Print footer
 		out.println("];");
@@ -114,10 +113,9 @@ public class MatlabExporter<Value> extends ModelExporter<Value>
 
 		// Print states + observations
 		out.println("obs=[");
-		int numObservations = model.getNumObservations();
-		for (int i = 0; i < numObservations; i++) {
-			out.println(observationsList.get(i).toStringNoParentheses());
-		}
+		exportPerState(model.getNumObservations(), (i, buf) -> {
+			buf.append(observationsList.get(i).toStringNoParentheses()).newline();
+		}, out);
 
 		// Print footer
 		out.println("];");
@@ -145,13 +143,12 @@ public class MatlabExporter<Value> extends ModelExporter<Value>
 		out.println();
 
 		// Go through states and print satisfying label indices for each one
-		for (int s = 0; s < numStates; s++) {
-			boolean first = true;
+		exportPerState(numStates, (s, buf) -> {
 			for (int i = 0; i < numLabels; i++) {
 				if (labelStates.get(i).get(s)) {
-					out.println(varName + "_" + labelNames.get(i) + "(" + (s + 1) + ")=1;");
+					buf.append(varName).append('_').append(labelNames.get(i)).append('(').append(s + 1).append(")=1;").newline();
 				}
 			}
-		}
+		}, out);
 	}
 }
@@ -30,6 +30,8 @@ import org.apache.commons.compress.compressors.CompressorException;
 import org.apache.commons.compress.compressors.CompressorOutputStream;
 import org.apache.commons.compress.compressors.CompressorStreamFactory;
 import prism.PrismException;
+import prism.PrismLog;
+import prism.PrismPrintStreamLog;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
@@ -39,12 +41,15 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.PrintStream;
 
 /**
  * Utility to zip (compress) a model export file after it has been written to disk,
  * for export formats where this is requested via {@link ModelExportOptions#getZipped()}.
  * The compressed file is written alongside the original, with the appropriate extension
  * (e.g. ".gz") appended to its name, and the uncompressed original is then deleted.
+ * Alternatively, the export can be streamed directly into the compressed file,
+ * using a log created by {@link #createZippedLog(ModelExportTask)}.
  * <br>
  * Note: this is not used for UMB exports, which are zipped (or not) as part of writing
  * the (single) UMB file itself, without altering its filename.
@@ -82,6 +87,57 @@ public class ModelExportZipper
 		zip(file, exportOptions, exportOptions.getCompressionFormat().extension());
 	}
 
+	/**
+	 * If zipping was requested for the given export task, create a log for the export
+	 * which compresses the output as it is written, directly to the zipped file
+	 * (named as for {@link #zipIfRequested(ModelExportTask)}), so that no uncompressed
+	 * copy is written to disk. Returns null if zipping was not requested, if exporting
+	 * to standard output (no file), or for UMB exports, in which case the export
+	 * should be written as usual.
+	 * @param exportTask The export task
+	 */
+	public static PrismLog createZippedLog(ModelExportTask exportTask) throws PrismException
+	{
+		return createZippedLog(exportTask.getFile(), exportTask.getExportOptions(), exportTask.getZipFileExtension());
+	}
+
+	/**
+	 * If zipping was requested in {@code exportOptions}, create a log for exporting to {@code file}
+	 * which compresses the output as it is written, directly to the zipped file
+	 * (named as for {@link #zipIfRequested(File, ModelExportOptions)}).
+	 * Returns null if zipping was not requested, if exporting to standard output
+	 * (no file), or for UMB exports, in which case the export should be written as usual.
+	 * @param file The file to export to
+	 * @param exportOptions The options for the export
+	 */
+	public static PrismLog createZippedLog(File file, ModelExportOptions exportOptions) throws PrismException
+	{
+		return createZippedLog(file, exportOptions, exportOptions.getCompressionFormat().extension());
+	}
+
+	private static PrismLog createZippedLog(File file, ModelExportOptions exportOptions, String zipExtension) throws PrismException
+	{
+		if (file == null || !isZippable(exportOptions)) {
+			return null;
+		}
+		File zippedFile = new File(file.getPath() + "." + zipExtension);
+		OutputStream fileOut = null;
+		try {
+			fileOut = new BufferedOutputStream(new FileOutputStream(zippedFile), 65536);
+			CompressorOutputStream zipOut = new CompressorStreamFactory().createCompressorOutputStream(exportOptions.getCompressionFormat().extension(), fileOut);
+			return new PrismPrintStreamLog(new PrintStream(new BufferedOutputStream(zipOut, 65536)));
+		} catch (IOException | CompressorException e) {
+			if (fileOut != null) {
+				try {
+					fileOut.close();
+				} catch (IOException e2) {
+					// Ignore (already reporting an error)
+				}
+			}
+			throw new PrismException("Could not open zipped file \"" + zippedFile + "\" for output: " + e.getMessage());
+		}
+	}
+
 	private static boolean isZippable(ModelExportOptions exportOptions)
 	{
 		// Not zipped for UMB (handled separately, see above) or if not requested;
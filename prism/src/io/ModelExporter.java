@@ -37,18 +37,42 @@ import prism.PrismFileLog;
 import prism.PrismLog;
 
 import java.io.File;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.BitSet;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Base class for model exporter classes.
  */
 public abstract class ModelExporter<Value>
 {
+	/** Number of states formatted together, as a block, by {@link #exportPerState} */
+	public static final int EXPORT_BLOCK_SIZE = 4096;
+
+	/** Amount of formatted output (in bytes) that is buffered before being written */
+	private static final int EXPORT_FLUSH_SIZE = 1 << 20;
+
+	/**
+	 * Formatter for the part of an export relating to a single state.
+	 */
+	@FunctionalInterface
+	protected interface StateFormatter
+	{
+		/**
+		 * Append the output for state {@code s} to {@code buf}.
+		 */
+		void format(int s, ExportBuffer buf) throws PrismException;
+	}
+
 	/** Evaluator for model (defaults to one for doubles if not provided). */
 	@SuppressWarnings("unchecked")
 	protected Evaluator<Value> eval = (Evaluator<Value>) Evaluator.forDouble();
@@ -67,6 +91,9 @@ public abstract class ModelExporter<Value>
 
 	protected ModelInfo modelInfo;
 
+	/** Number of threads to use for formatting (or compressing) output */
+	protected int numThreads = 1;
+
 	/**
 	 * Construct a ModelExporter with default export options.
 	 */
@@ -169,6 +196,14 @@ public abstract class ModelExporter<Value>
 		this.modelInfo = modelInfo;
 	}
 
+	/**
+	 * Set the number of threads to use for formatting (or compressing) output (1 means sequential).
+	 */
+	public void setNumThreads(int numThreads)
+	{
+		this.numThreads = numThreads;
+	}
+
 	// Get methods
 
 	/**
@@ -287,6 +322,14 @@ public abstract class ModelExporter<Value>
 		return modelInfo;
 	}
 
+	/**
+	 * Get the number of threads to use for formatting output.
+	 */
+	public int getNumThreads()
+	{
+		return numThreads;
+	}
+
 	/**
 	 * Export a model to a {@link PrismLog}.
 	 * @param model The model
@@ -308,6 +351,81 @@ public abstract class ModelExporter<Value>
 
 	// Utility functions
 
+	/**
+	 * Export the output for each of states 0,...,{@code numStates}-1, in order,
+	 * as formatted by {@code formatter}. Output is formatted into large buffers
+	 * (see {@link ExportBuffer}) and written to {@code out} in blocks.
+	 * If more than one thread is to be used (see {@link #setNumThreads(int)}),
+	 * blocks of {@link #EXPORT_BLOCK_SIZE} states are formatted in parallel
+	 * (so {@code formatter} must be thread-safe), but are still written in order.
+	 */
+	protected void exportPerState(int numStates, StateFormatter formatter, PrismLog out) throws PrismException
+	{
+		exportPerState(numStates, formatter, numThreads, out);
+	}
+
+	/**
+	 * Export the output for each of states 0,...,{@code numStates}-1, in order,
+	 * as formatted by {@code formatter}, using {@code numThreads} threads
+	 * (see {@link #exportPerState(int, StateFormatter, PrismLog)}).
+	 */
+	protected void exportPerState(int numStates, StateFormatter formatter, int numThreads, PrismLog out) throws PrismException
+	{
+		int numBlocks = (numStates + EXPORT_BLOCK_SIZE - 1) / EXPORT_BLOCK_SIZE;
+		if (numThreads <= 1 || numBlocks <= 1) {
+			ExportBuffer buf = new ExportBuffer(EXPORT_FLUSH_SIZE);
+			for (int s = 0; s < numStates; s++) {
+				formatter.format(s, buf);
+				if (buf.size() >= EXPORT_FLUSH_SIZE) {
+					buf.writeTo(out);
+				}
+			}
+			buf.writeTo(out);
+			return;
+		}
+		// Each thread formats into its own buffer, keeping its cache of formatted values
+		ThreadLocal<ExportBuffer> buffers = ThreadLocal.withInitial(() -> new ExportBuffer(EXPORT_FLUSH_SIZE));
+		ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+		try {
+			// Keep a bounded number of blocks in progress, writing them out in order
+			Deque<Future<byte[]>> pending = new ArrayDeque<>();
+			int maxPending = 4 * numThreads;
+			int nextBlock = 0;
+			while (nextBlock < numBlocks || !pending.isEmpty()) {
+				while (nextBlock < numBlocks && pending.size() < maxPending) {
+					int lo = nextBlock * EXPORT_BLOCK_SIZE;
+					int hi = Math.min(lo + EXPORT_BLOCK_SIZE, numStates);
+					pending.add(executor.submit(() -> {
+						ExportBuffer buf = buffers.get();
+						buf.clear();
+						for (int s = lo; s < hi; s++) {
+							formatter.format(s, buf);
+						}
+						return buf.toByteArray();
+					}));
+					nextBlock++;
+				}
+				byte bytes[] = pending.remove().get();
+				out.write(bytes, 0, bytes.length);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new PrismException("Interrupted during model export");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof PrismException) {
+				throw (PrismException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new PrismException("Error during model export: " + cause.getMessage());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
 	/**
 	 * Format a {@code Value} as a string, based on the {@link Evaluator} and {@link ModelExportOptions}.
 	 */
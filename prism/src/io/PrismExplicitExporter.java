@@ -141,8 +141,8 @@ public class PrismExplicitExporter<Value> extends ModelExporter<Value>
 		}
 
 		// Output transitions in .tra format
-		// Iterate through states
-		for (int s = 0; s < numStates; s++) {
+		// Iterate through states (formatting blocks of states in parallel, if enabled)
+		exportPerState(numStates, (s, buf) -> {
 			int numChoices = 1;
 			if (modelType.nondeterministic()) {
 				numChoices = ((NondetModel<ValueM>) model).getNumChoices(s);
@@ -151,24 +151,24 @@ public class PrismExplicitExporter<Value> extends ModelExporter<Value>
 			for (int j = 0; j < numChoices; j++) {
 				// Print out (sorted) transitions
 				for (Transition<?> transition : getSortedTransitionsIterator(model, s, j, showActions)) {
-					out.print(s);
+					buf.append(s);
 					if (modelType.nondeterministic()) {
-						out.print(" " + j);
+						buf.append(' ').append(j);
 					}
-					out.print(" " + transition.target);
+					buf.append(' ').append(transition.target);
 					if (modelType.isProbabilistic()) {
-						out.print(" " + transition.toString(modelExportOptions));
+						buf.append(' ').appendValue(transition, modelExportOptions);
 					}
 					if (modelType.partiallyObservable()) {
-						out.print(" " + ((PartiallyObservableModel<ValueM>) model).getObservation(transition.target));
+						buf.append(' ').append(((PartiallyObservableModel<ValueM>) model).getObservation(transition.target));
 					}
 					if (showActions && transition.action != null && !"".equals(transition.action)) {
-						out.print(" " + transition.action);
+						buf.append(' ').append(transition.action);
 					}
-					out.print("\n");
+					buf.append('\n');
 				}
 			}
-		}
+		}, out);
 	}
 
 	/**
@@ -198,12 +198,13 @@ public class PrismExplicitExporter<Value> extends ModelExporter<Value>
 		}
 		// Output non-zero rewards
 		out.println(numStates + " " + nonZeroRews);
-		for (int s = 0; s < numStates; s++) {
+		int precision = modelExportOptions.getModelPrecision();
+		exportPerState(numStates, (s, buf) -> {
 			Value d = rewards.getStateReward(s);
 			if (!evalRewards.isZero(d)) {
-				out.println(s + " " + formatValue(d, evalRewards));
+				buf.append(s).append(' ').appendValue(d, evalRewards, precision).newline();
 			}
-		}
+		}, out);
 	}
 
 	/**
@@ -267,7 +268,8 @@ public class PrismExplicitExporter<Value> extends ModelExporter<Value>
 			out.print(" " + ((NondetModel<Value>) model).getNumChoices());
 		}
 		out.println(" " + nonZeroRews);
-		for (int s = 0; s < numStates; s++) {
+		int precision = modelExportOptions.getModelPrecision();
+		exportPerState(numStates, (s, buf) -> {
 			if (nondet) {
 				int numChoices = ((NondetModel<Value>) model).getNumChoices(s);
 				for (int j = 0; j < numChoices; j++) {
@@ -276,7 +278,7 @@ public class PrismExplicitExporter<Value> extends ModelExporter<Value>
 						// For nondet models, the choice reward is displayed by all transitions
 						// (which we sort, in order to match the output for the model)
 						for (Transition<?> transition : getSortedTransitionsIterator(model, s, j, modelExportOptions.getShowActions())) {
-							out.println(s + " " + j + " " + transition.target + " " + formatValue(d, evalRewards));
+							buf.append(s).append(' ').append(j).append(' ').append(transition.target).append(' ').appendValue(d, evalRewards, precision).newline();
 						}
 					}
 				}
@@ -284,11 +286,11 @@ public class PrismExplicitExporter<Value> extends ModelExporter<Value>
 				DTMC<?> mcModel = (model instanceof IDTMC) ? ((IDTMC<Value>) model).getIntervalModel() : (DTMC<Value>) model;
 				for (Transition<Value> transition : getSortedTransitionRewardsIterator(mcModel, rewards, s, true)) {
 					if (!transition.isZero()) {
-						out.println(s + " " + transition.target + " " + transition.toString(modelExportOptions));
+						buf.append(s).append(' ').append(transition.target).append(' ').appendValue(transition, modelExportOptions).newline();
 					}
 				}
 			}
-		}
+		}, out);
 	}
 
 	/**
@@ -339,10 +341,9 @@ public class PrismExplicitExporter<Value> extends ModelExporter<Value>
 		out.println(")");
 
 		// Print states
-		int numStates = statesList.size();
-		for (int i = 0; i < numStates; i++) {
-			out.println(i + ":" + statesList.get(i).toString());
-		}
+		exportPerState(statesList.size(), (i, buf) -> {
+			buf.append(i).append(':').append(statesList.get(i).toString()).newline();
+		}, out);
 	}
 
 	/**
@@ -370,10 +371,9 @@ public class PrismExplicitExporter<Value> extends ModelExporter<Value>
 		out.println(")");
 
 		// Print states + observations
-		int numObservations = model.getNumObservations();
-		for (int i = 0; i < numObservations; i++) {
-			out.println(i + ":" + observationsList.get(i).toString());
-		}
+		exportPerState(model.getNumObservations(), (i, buf) -> {
+			buf.append(i).append(':').append(observationsList.get(i).toString()).newline();
+		}, out);
 	}
 
 	/**
@@ -401,20 +401,20 @@ public class PrismExplicitExporter<Value> extends ModelExporter<Value>
 		out.println();
 
 		// Go through states and print satisfying label indices for each one
-		for (int s = 0; s < numStates; s++) {
+		exportPerState(numStates, (s, buf) -> {
 			boolean first = true;
 			for (int i = 0; i < numLabels; i++) {
 				if (labelStates.get(i).get(s)) {
 					if (first) {
-						out.print(s + ":");
+						buf.append(s).append(':');
 						first = false;
 					}
-					out.print(" " + i);
+					buf.append(' ').append(i);
 				}
 			}
 			if (!first) {
-				out.println();
+				buf.newline();
 			}
-		}
+		}, out);
 	}
 }
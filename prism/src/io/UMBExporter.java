@@ -108,7 +108,7 @@ public class UMBExporter<Value> extends ModelExporter<Value>
 		try {
 			ModelExportOptions.CompressionFormat compressionDefault = ModelExportOptions.CompressionFormat.fromUMB(UMBFormat.DEFAULT_COMPRESSION_FORMAT);
 			UMBFormat.CompressionFormat compressionFormat = modelExportOptions.getCompressionFormat(compressionDefault).toUMB();
-			umbWriter.export(fileOut, modelExportOptions.getZipped(), compressionFormat);
+			umbWriter.export(fileOut, modelExportOptions.getZipped(), compressionFormat, getNumThreads());
 		} catch (UMBException e) {
 			throw new PrismException(e.getMessage());
 		}
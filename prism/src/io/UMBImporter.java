@@ -49,6 +49,7 @@ import prism.RewardInfo;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -86,11 +87,20 @@ public class UMBImporter extends ExplicitModelImporter
 	private BasicRewardInfo basicRewardInfo;
 
 	public UMBImporter(File umbFile) throws PrismException
+	{
+		this(umbFile, 1);
+	}
+
+	/**
+	 * Construct an importer for a UMB file, using {@code numThreads} threads
+	 * to decompress it (if it was compressed in independent chunks).
+	 */
+	public UMBImporter(File umbFile, int numThreads) throws PrismException
 	{
 		this.umbFile = umbFile;
 
 		try {
-			umbReader = new UMBReader(umbFile);
+			umbReader = new UMBReader(umbFile, numThreads);
 			// Extract index and store model stats
 			umbIndex = umbReader.getUMBIndex();
 			numStates = SafeCast.toIntExact(umbIndex.getNumStates());
@@ -603,6 +613,81 @@ public class UMBImporter extends ExplicitModelImporter
 		}
 	}
 
+	@Override
+	public boolean extractMCTransitionsSparse(int[] rows, int[] columns, double[] probabilities, Object[] actions) throws PrismException
+	{
+		if (getModelInfo().getModelType() != ModelType.DTMC || !canMapTransitions()) {
+			return false;
+		}
+		try {
+			// Copy transition info straight from the (memory mapped) file
+			// (for DTMCs, there is one choice per state)
+			umbReader.mapChoiceBranchOffsets(rows);
+			umbReader.mapBranchTargets(columns);
+			umbReader.mapBranchProbabilities(probabilities);
+			// Extract action info
+			List<Object> actionList = getModelInfo().getActions();
+			if (umbReader.hasBranchActionIndices()) {
+				int[] transitionActionIndices = new int[numTransitions];
+				umbReader.mapBranchActionIndices(transitionActionIndices);
+				for (int j = 0; j < numTransitions; j++) {
+					actions[j] = actionList.get(transitionActionIndices[j]);
+				}
+			} else {
+				Arrays.fill(actions, actionList.get(0));
+			}
+		} catch (UMBException e) {
+			throw new PrismException("UMB import problem: " + e.getMessage());
+		}
+		return true;
+	}
+
+	@Override
+	public boolean extractMDPTransitionsSparse(int[] rowStarts, int[] choiceStarts, int[] cols, double[] nonZeros, Object[] actions) throws PrismException
+	{
+		if (getModelInfo().getModelType() != ModelType.MDP || !canMapTransitions()) {
+			return false;
+		}
+		try {
+			// Copy transition info straight from the (memory mapped) file
+			umbReader.mapStateChoiceOffsets(rowStarts);
+			umbReader.mapChoiceBranchOffsets(choiceStarts);
+			umbReader.mapBranchTargets(cols);
+			umbReader.mapBranchProbabilities(nonZeros);
+			// Extract action info
+			List<Object> actionList = getModelInfo().getActions();
+			if (umbReader.hasChoiceActionIndices()) {
+				int[] choiceActionIndices = new int[numChoices];
+				umbReader.mapChoiceActionIndices(choiceActionIndices);
+				for (int i = 0; i < numChoices; i++) {
+					actions[i] = actionList.get(choiceActionIndices[i]);
+				}
+			} else {
+				Arrays.fill(actions, actionList.get(0));
+			}
+		} catch (UMBException e) {
+			throw new PrismException("UMB import problem: " + e.getMessage());
+		}
+		return true;
+	}
+
+	/**
+	 * Can transitions be copied directly from the UMB file, via memory mapping?
+	 * This requires the file to be uncompressed and probabilities to be (non-interval) doubles.
+	 */
+	private boolean canMapTransitions() throws PrismException
+	{
+		UMBType probType = umbIndex.getBranchProbabilityType();
+		if (probType != null && (!probType.type.isDouble() || probType.type.isInterval())) {
+			return false;
+		}
+		try {
+			return umbReader.isMappable();
+		} catch (UMBException e) {
+			throw new PrismException("UMB import problem: " + e.getMessage());
+		}
+	}
+
 	@Override
 	public void extractLTSTransitions(IOUtils.LTSTransitionConsumer storeTransition) throws PrismException
 	{
@@ -0,0 +1,340 @@
+/*
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.pmctools.umbj;
+
+import org.tukaani.xz.SeekableFileInputStream;
+import org.tukaani.xz.SeekableXZInputStream;
+import org.tukaani.xz.XZFormatException;
+import org.tukaani.xz.XZInputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Input stream that decompresses a file made up of independently compressed chunks,
+ * as written by {@link UMBChunkedOutputStream}, decompressing several chunks ahead
+ * concurrently and returning their contents in order.
+ * The chunks are first located with {@link #findChunks(File)}.
+ */
+class UMBChunkedInputStream extends InputStream
+{
+	/**
+	 * Location of a compressed chunk within a file.
+	 */
+	static class Chunk
+	{
+		/** Compression format */
+		final UMBFormat.CompressionFormat compressionFormat;
+		/** Offset of the (compressed) chunk in the file */
+		final long offset;
+		/** Size of the compressed chunk (in bytes) */
+		final int compressedSize;
+		/** Size of the chunk once decompressed (in bytes) */
+		final int size;
+
+		Chunk(UMBFormat.CompressionFormat compressionFormat, long offset, int compressedSize, int size)
+		{
+			this.compressionFormat = compressionFormat;
+			this.offset = offset;
+			this.compressedSize = compressedSize;
+			this.size = size;
+		}
+	}
+
+	/** Channel for reading the file (positional reads are thread-safe) */
+	private final FileChannel channel;
+	/** The chunks */
+	private final List<Chunk> chunks;
+	/** Thread pool for decompression */
+	private final ExecutorService executor;
+	/** Maximum number of chunks being decompressed at once */
+	private final int maxPending;
+	/** Chunks being decompressed, in order */
+	private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+	/** Index of the next chunk to be submitted for decompression */
+	private int nextChunk = 0;
+	/** Current (decompressed) chunk, and position within it */
+	private byte[] current = new byte[0];
+	private int posn = 0;
+
+	/**
+	 * Open a file, made up of the specified chunks, for reading, using {@code numThreads} threads.
+	 */
+	public UMBChunkedInputStream(File file, List<Chunk> chunks, int numThreads) throws IOException
+	{
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		this.chunks = chunks;
+		executor = Executors.newFixedThreadPool(numThreads);
+		maxPending = 2 * numThreads;
+	}
+
+	/**
+	 * Locate the independently compressed chunks of a file, if it is made up of
+	 * at least two such chunks that can be found without decompression:
+	 * gzip members each recording their size (see {@link UMBChunkedOutputStream}),
+	 * or xz streams each containing a single block. Otherwise, returns null.
+	 */
+	public static List<Chunk> findChunks(File file) throws IOException
+	{
+		List<Chunk> chunks;
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			ByteBuffer magic = readBytes(channel, 0, Math.min(6, (int) channel.size()));
+			if (magic.remaining() >= 2 && magic.get(0) == (byte) 0x1f && magic.get(1) == (byte) 0x8b) {
+				chunks = findGzipChunks(channel);
+			} else if (magic.remaining() == 6 && magic.get(0) == (byte) 0xfd && magic.get(1) == '7' && magic.get(2) == 'z' && magic.get(3) == 'X' && magic.get(4) == 'Z' && magic.get(5) == 0) {
+				chunks = findXZChunks(file, channel.size());
+			} else {
+				chunks = null;
+			}
+		}
+		return chunks != null && chunks.size() > 1 ? chunks : null;
+	}
+
+	private static List<Chunk> findGzipChunks(FileChannel channel) throws IOException
+	{
+		List<Chunk> chunks = new ArrayList<>();
+		long fileSize = channel.size();
+		long offset = 0;
+		while (offset < fileSize) {
+			// Check for a gzip member header with (only) an extra field, whose first subfield gives the size
+			if (fileSize - offset < 28) {
+				return null;
+			}
+			ByteBuffer header = readBytes(channel, offset, 20);
+			if (header.get(0) != (byte) 0x1f || header.get(1) != (byte) 0x8b || header.get(2) != 8 || header.get(3) != 4
+					|| header.get(12) != UMBFormat.GZIP_CHUNK_SIZE_FIELD_ID[0] || header.get(13) != UMBFormat.GZIP_CHUNK_SIZE_FIELD_ID[1]
+					|| header.getShort(10) < 8 || header.getShort(14) != 4) {
+				return null;
+			}
+			long memberSize = header.getInt(16) & 0xffffffffL;
+			if (memberSize < 28 || memberSize > fileSize - offset || memberSize > Integer.MAX_VALUE) {
+				return null;
+			}
+			// Uncompressed size is in the final 4 bytes (ISIZE), which should fit in an array
+			int size = readBytes(channel, offset + memberSize - 4, 4).getInt(0);
+			if (size < 0 || size > Integer.MAX_VALUE - 8) {
+				return null;
+			}
+			chunks.add(new Chunk(UMBFormat.CompressionFormat.GZIP, offset, (int) memberSize, size));
+			offset += memberSize;
+		}
+		return chunks;
+	}
+
+	private static List<Chunk> findXZChunks(File file, long fileSize) throws IOException
+	{
+		// The indexes of the streams give the positions and sizes of all blocks;
+		// if each stream has exactly one block, each stream can be decompressed separately
+		try (SeekableXZInputStream xzIn = new SeekableXZInputStream(new SeekableFileInputStream(file))) {
+			int numBlocks = xzIn.getBlockCount();
+			if (numBlocks != xzIn.getStreamCount()) {
+				return null;
+			}
+			List<Chunk> chunks = new ArrayList<>();
+			// Each stream starts with a 12-byte header, just before its block
+			final int streamHeaderSize = 12;
+			for (int i = 0; i < numBlocks; i++) {
+				long start = xzIn.getBlockCompPos(i) - streamHeaderSize;
+				long end = i + 1 < numBlocks ? xzIn.getBlockCompPos(i + 1) - streamHeaderSize : fileSize;
+				long size = xzIn.getBlockSize(i);
+				if ((i == 0 && start != 0) || end - start > Integer.MAX_VALUE || size > Integer.MAX_VALUE - 8) {
+					return null;
+				}
+				chunks.add(new Chunk(UMBFormat.CompressionFormat.XZ, start, (int) (end - start), (int) size));
+			}
+			return chunks;
+		} catch (XZFormatException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Read {@code len} bytes from position {@code posn} of a file (fewer only if the file ends),
+	 * returning them as a (little-endian) buffer.
+	 */
+	private static ByteBuffer readBytes(FileChannel channel, long posn, int len) throws IOException
+	{
+		ByteBuffer buffer = ByteBuffer.allocate(len).order(ByteOrder.LITTLE_ENDIAN);
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, posn + buffer.position()) < 0) {
+				break;
+			}
+		}
+		buffer.flip();
+		return buffer;
+	}
+
+	/**
+	 * Read and decompress a chunk.
+	 */
+	private byte[] decompressChunk(Chunk chunk) throws IOException
+	{
+		ByteBuffer compressed = readBytes(channel, chunk.offset, chunk.compressedSize);
+		if (compressed.remaining() != chunk.compressedSize) {
+			throw new IOException("Unexpected end of compressed UMB file");
+		}
+		byte[] bytes = compressed.array();
+		byte[] data = new byte[chunk.size];
+		switch (chunk.compressionFormat) {
+			case GZIP:
+				// Skip header (including extra field), inflate, check trailer
+				int headerLen = 12 + (compressed.getShort(10) & 0xffff);
+				Inflater inflater = new Inflater(true);
+				try {
+					inflater.setInput(bytes, headerLen, bytes.length - headerLen - 8);
+					int len = 0;
+					while (len < data.length && !inflater.finished()) {
+						int n = inflater.inflate(data, len, data.length - len);
+						if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+							break;
+						}
+						len += n;
+					}
+					// Check the chunk is fully decompressed (and no larger than expected)
+					if (len != data.length || (!inflater.finished() && inflater.inflate(new byte[1]) > 0)) {
+						throw new IOException("Corrupt chunk in compressed UMB file");
+					}
+				} catch (DataFormatException e) {
+					throw new IOException("Corrupt chunk in compressed UMB file: " + e.getMessage());
+				} finally {
+					inflater.end();
+				}
+				CRC32 crc = new CRC32();
+				crc.update(data, 0, data.length);
+				if (compressed.getInt(bytes.length - 8) != (int) crc.getValue()) {
+					throw new IOException("CRC error in compressed UMB file");
+				}
+				break;
+			case XZ:
+				try (XZInputStream xzIn = new XZInputStream(new ByteArrayInputStream(bytes))) {
+					int len = xzIn.readNBytes(data, 0, data.length);
+					if (len != data.length || xzIn.read() != -1) {
+						throw new IOException("Corrupt chunk in compressed UMB file");
+					}
+				}
+				break;
+			default:
+				throw new IOException("Unsupported compression format " + chunk.compressionFormat);
+		}
+		return data;
+	}
+
+	/**
+	 * Move on to the next decompressed chunk, if there is one,
+	 * keeping up to {@link #maxPending} chunks being decompressed.
+	 * Returns false if there are no more chunks.
+	 */
+	private boolean nextChunk() throws IOException
+	{
+		while (nextChunk < chunks.size() && pending.size() < maxPending) {
+			Chunk chunk = chunks.get(nextChunk++);
+			pending.addLast(executor.submit(() -> decompressChunk(chunk)));
+		}
+		if (pending.isEmpty()) {
+			return false;
+		}
+		try {
+			current = pending.removeFirst().get();
+			posn = 0;
+			return true;
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			throw cause instanceof IOException ? (IOException) cause : new IOException("Error decompressing UMB file: " + cause.getMessage(), cause);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while decompressing UMB file");
+		}
+	}
+
+	@Override
+	public int read() throws IOException
+	{
+		while (posn == current.length) {
+			if (!nextChunk()) {
+				return -1;
+			}
+		}
+		return current[posn++] & 0xff;
+	}
+
+	@Override
+	public int read(byte[] bytes, int off, int len) throws IOException
+	{
+		if (len == 0) {
+			return 0;
+		}
+		// Fill the request across chunk boundaries, like the standard decompressors
+		// (callers of the tar stream expect full reads where possible)
+		int total = 0;
+		while (total < len) {
+			if (posn == current.length && !nextChunk()) {
+				break;
+			}
+			int n = Math.min(len - total, current.length - posn);
+			System.arraycopy(current, posn, bytes, off + total, n);
+			posn += n;
+			total += n;
+		}
+		return total == 0 ? -1 : total;
+	}
+
+	@Override
+	public long skip(long n) throws IOException
+	{
+		if (n <= 0) {
+			return 0;
+		}
+		while (posn == current.length) {
+			if (!nextChunk()) {
+				return 0;
+			}
+		}
+		int skipped = (int) Math.min(n, current.length - posn);
+		posn += skipped;
+		return skipped;
+	}
+
+	@Override
+	public int available()
+	{
+		return current.length - posn;
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		executor.shutdownNow();
+		channel.close();
+	}
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.pmctools.umbj;
+
+import org.apache.commons.compress.compressors.xz.XZCompressorOutputStream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Output stream that compresses data in chunks of {@link UMBFormat#COMPRESSION_CHUNK_SIZE} bytes,
+ * each compressed independently (and concurrently) and then written, in order, to an underlying stream.
+ * <br><br>
+ * Each chunk is a complete gzip member or xz stream, so the result is a valid gzip/xz file
+ * (standard decompressors process concatenated members/streams in sequence).
+ * Each gzip member also stores its own size in an "extra" header field
+ * (see {@link UMBFormat#GZIP_CHUNK_SIZE_FIELD_ID}), so that the chunks
+ * can be located, and then decompressed in parallel, by {@link UMBChunkedInputStream}.
+ * Chunks of an xz file can be located using the indexes that xz already stores.
+ */
+class UMBChunkedOutputStream extends OutputStream
+{
+	/** Underlying stream to write compressed chunks to */
+	private final OutputStream out;
+	/** Compression format */
+	private final UMBFormat.CompressionFormat compressionFormat;
+	/** Thread pool for compression */
+	private final ExecutorService executor;
+	/** Maximum number of chunks being compressed (or waiting to be written) at once */
+	private final int maxPending;
+	/** Chunks being compressed, in order */
+	private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+	/** Current (uncompressed) chunk */
+	private byte[] chunk = new byte[UMBFormat.COMPRESSION_CHUNK_SIZE];
+	/** Number of bytes in the current chunk */
+	private int chunkLen = 0;
+	/** Has anything been submitted for compression yet? */
+	private boolean submitted = false;
+	/** Has the stream been closed? */
+	private boolean closed = false;
+
+	/**
+	 * Create a stream compressing to {@code out}, using {@code numThreads} threads.
+	 * @param out The stream to write to
+	 * @param compressionFormat How to compress
+	 * @param numThreads Number of threads
+	 */
+	public UMBChunkedOutputStream(OutputStream out, UMBFormat.CompressionFormat compressionFormat, int numThreads)
+	{
+		this.out = out;
+		this.compressionFormat = compressionFormat;
+		executor = Executors.newFixedThreadPool(numThreads);
+		maxPending = 2 * numThreads;
+	}
+
+	@Override
+	public void write(int b) throws IOException
+	{
+		if (chunkLen == chunk.length) {
+			submitChunk();
+		}
+		chunk[chunkLen++] = (byte) b;
+	}
+
+	@Override
+	public void write(byte[] bytes, int off, int len) throws IOException
+	{
+		while (len > 0) {
+			if (chunkLen == chunk.length) {
+				submitChunk();
+			}
+			int n = Math.min(len, chunk.length - chunkLen);
+			System.arraycopy(bytes, off, chunk, chunkLen, n);
+			chunkLen += n;
+			off += n;
+			len -= n;
+		}
+	}
+
+	/**
+	 * Submit the current chunk for compression, first writing out
+	 * the oldest pending chunk if too many are already in progress.
+	 */
+	private void submitChunk() throws IOException
+	{
+		if (pending.size() >= maxPending) {
+			writeChunk(pending.removeFirst());
+		}
+		byte[] data = chunk;
+		int len = chunkLen;
+		pending.addLast(executor.submit(() -> compressChunk(data, len)));
+		chunk = new byte[UMBFormat.COMPRESSION_CHUNK_SIZE];
+		chunkLen = 0;
+		submitted = true;
+	}
+
+	/**
+	 * Wait for a chunk to be compressed, then write it out.
+	 */
+	private void writeChunk(Future<byte[]> future) throws IOException
+	{
+		try {
+			byte[] compressed = future.get();
+			out.write(compressed, 0, compressed.length);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			throw cause instanceof IOException ? (IOException) cause : new IOException("Error compressing UMB file: " + cause.getMessage(), cause);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while compressing UMB file");
+		}
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			// Compress the final (possibly partial, but never missing) chunk
+			if (chunkLen > 0 || !submitted) {
+				submitChunk();
+			}
+			while (!pending.isEmpty()) {
+				writeChunk(pending.removeFirst());
+			}
+			out.close();
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Abandon writing (e.g. after an error): stop compression, discarding any pending chunks,
+	 * and close the underlying stream, ignoring any further errors.
+	 */
+	public void abort()
+	{
+		if (closed) {
+			return;
+		}
+		closed = true;
+		executor.shutdownNow();
+		pending.clear();
+		try {
+			out.close();
+		} catch (IOException e) {
+			// Ignore (already failed)
+		}
+	}
+
+	/**
+	 * Compress the first {@code len} bytes of {@code data} as a single chunk.
+	 */
+	private byte[] compressChunk(byte[] data, int len) throws IOException
+	{
+		switch (compressionFormat) {
+			case GZIP:
+				return compressGzipChunk(data, len);
+			case XZ:
+				ByteArrayOutputStream bytesOut = new ByteArrayOutputStream(len / 4 + 64);
+				try (XZCompressorOutputStream xzOut = new XZCompressorOutputStream(bytesOut)) {
+					xzOut.write(data, 0, len);
+				}
+				return bytesOut.toByteArray();
+			default:
+				throw new IOException("Unsupported compression format " + compressionFormat);
+		}
+	}
+
+	/**
+	 * Compress the first {@code len} bytes of {@code data} as a single gzip member (RFC 1952),
+	 * including an extra header field giving the total size of the member in bytes.
+	 */
+	private static byte[] compressGzipChunk(byte[] data, int len)
+	{
+		// Header: magic, method (deflate), flags (FEXTRA), mtime (none), extra flags, OS (unknown)
+		// then the extra field: XLEN, subfield ID, subfield length, member size (filled in below)
+		byte[] header = {
+				0x1f, (byte) 0x8b, 8, 4, 0, 0, 0, 0, 0, (byte) 255,
+				8, 0, UMBFormat.GZIP_CHUNK_SIZE_FIELD_ID[0], UMBFormat.GZIP_CHUNK_SIZE_FIELD_ID[1], 4, 0, 0, 0, 0, 0
+		};
+		int headerLen = header.length;
+		Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		byte[] member;
+		int memberLen;
+		try {
+			deflater.setInput(data, 0, len);
+			deflater.finish();
+			member = new byte[headerLen + len / 2 + 64];
+			memberLen = headerLen;
+			while (!deflater.finished()) {
+				if (memberLen == member.length) {
+					member = Arrays.copyOf(member, 2 * member.length);
+				}
+				memberLen += deflater.deflate(member, memberLen, member.length - memberLen);
+			}
+		} finally {
+			deflater.end();
+		}
+		// Trailer: CRC-32 and uncompressed size
+		CRC32 crc = new CRC32();
+		crc.update(data, 0, len);
+		member = Arrays.copyOf(member, memberLen + 8);
+		putIntLE(member, memberLen, (int) crc.getValue());
+		putIntLE(member, memberLen + 4, len);
+		memberLen += 8;
+		System.arraycopy(header, 0, member, 0, headerLen);
+		putIntLE(member, headerLen - 4, memberLen);
+		return member;
+	}
+
+	private static void putIntLE(byte[] bytes, int off, int value)
+	{
+		bytes[off] = (byte) value;
+		bytes[off + 1] = (byte) (value >>> 8);
+		bytes[off + 2] = (byte) (value >>> 16);
+		bytes[off + 3] = (byte) (value >>> 24);
+	}
+}
@@ -107,6 +107,14 @@ public class UMBFormat
 	/** Default compression format */
 	public static final CompressionFormat DEFAULT_COMPRESSION_FORMAT = CompressionFormat.GZIP;
 
+	// Chunked compression
+
+	/** Size (in bytes, before compression) of the chunks compressed independently for parallel (de)compression */
+	public static final int COMPRESSION_CHUNK_SIZE = 4 * 1024 * 1024;
+
+	/** Subfield ID (two bytes) of the gzip "extra" header field storing the (compressed) size of a chunk */
+	public static final byte[] GZIP_CHUNK_SIZE_FIELD_ID = { 'U', 'M' };
+
 	/**
 	 * Get the filename for the offsets mapping string indices to string data within some folder
 	 */
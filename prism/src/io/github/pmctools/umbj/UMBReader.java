@@ -19,8 +19,8 @@ package io.github.pmctools.umbj;
 import it.unimi.dsi.fastutil.booleans.BooleanConsumer;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarFile;
 import org.apache.commons.compress.compressors.CompressorException;
-import org.apache.commons.compress.compressors.CompressorInputStream;
 import org.apache.commons.compress.compressors.CompressorStreamFactory;
 
 import java.io.BufferedInputStream;
@@ -29,10 +29,18 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 import java.util.function.DoubleConsumer;
 import java.util.function.IntConsumer;
@@ -58,13 +66,31 @@ public class UMBReader
 	 */
 	private static int BUFFER_SIZE = 64 * 1024;
 
+	/**
+	 * Number of threads to use for decompression.
+	 */
+	private final int numThreads;
+
 	/**
 	 * Construct a new {@link UMBReader} reading from the specified file.
 	 * @param fileIn The UMB file to read from.
 	 */
 	public UMBReader(File fileIn) throws UMBException
+	{
+		this(fileIn, 1);
+	}
+
+	/**
+	 * Construct a new {@link UMBReader} reading from the specified file.
+	 * If the file was compressed in independent chunks (see {@link UMBWriter#export(File, boolean, UMBFormat.CompressionFormat, int)}),
+	 * and more than one thread is used, chunks are decompressed concurrently.
+	 * @param fileIn The UMB file to read from.
+	 * @param numThreads Number of threads to use for decompression
+	 */
+	public UMBReader(File fileIn, int numThreads) throws UMBException
 	{
 		this.fileIn = fileIn;
+		this.numThreads = numThreads;
 		extractIndex();
 	}
 
@@ -75,9 +101,13 @@ public class UMBReader
 	{
 		// Extract index JSON as string
 		UMBIn umbIn = open();
-		umbIn.findArchiveEntry(UMBFormat.INDEX_FILE);
-		String json = umbIn.readAsString();
-		umbIn.close();
+		String json;
+		try {
+			umbIn.findArchiveEntry(UMBFormat.INDEX_FILE);
+			json = umbIn.readAsString();
+		} finally {
+			umbIn.close();
+		}
 
 		// Parse/validate JSON
 		// Note that we check for required fields, but do not complain about unexpected ones
@@ -290,6 +320,87 @@ public class UMBReader
 		extractLongArray(umbIndex.observationsAnnotation.getFilename(entity), umbIndex.getEntityCount(entity), longConsumer);
 	}
 
+	// Methods to extract core model info directly into arrays, via memory mapping
+
+	/**
+	 * Can data be extracted via memory mapping, i.e., is the UMB file an uncompressed archive?
+	 * If so, the {@code map...} methods can be used, which copy data directly from the file
+	 * into the provided arrays, rather than streaming it through consumers.
+	 * Indices stored in the file are 64-bit, so these must fit in an int.
+	 */
+	public boolean isMappable() throws UMBException
+	{
+		return getMappableEntries() != null;
+	}
+
+	/**
+	 * Extract the state choice offsets, via memory mapping, into an array of size numStates+1.
+	 */
+	public void mapStateChoiceOffsets(int[] offsets) throws UMBException
+	{
+		if (!mappedFileExists(UMBFormat.STATE_CHOICE_OFFSETS_FILE)) {
+			// Indices default to identities if requested when absent
+			fillDefaultIntArray(offsets, umbIndex.getNumStates() + 1, UMBFormat.BinFileDefaultValue.IDENTITY);
+		} else {
+			mapLongArrayToInts(UMBFormat.STATE_CHOICE_OFFSETS_FILE, umbIndex.getNumStates() + 1, offsets);
+		}
+	}
+
+	/**
+	 * Extract the choice branch offsets, via memory mapping, into an array of size numChoices+1.
+	 */
+	public void mapChoiceBranchOffsets(int[] offsets) throws UMBException
+	{
+		if (!mappedFileExists(UMBFormat.CHOICE_BRANCH_OFFSETS_FILE)) {
+			// Indices default to identities if requested when absent
+			fillDefaultIntArray(offsets, umbIndex.getNumChoices() + 1, UMBFormat.BinFileDefaultValue.IDENTITY);
+		} else {
+			mapLongArrayToInts(UMBFormat.CHOICE_BRANCH_OFFSETS_FILE, umbIndex.getNumChoices() + 1, offsets);
+		}
+	}
+
+	/**
+	 * Extract the branch targets, via memory mapping, into an array of size numBranches.
+	 */
+	public void mapBranchTargets(int[] targets) throws UMBException
+	{
+		mapLongArrayToInts(UMBFormat.BRANCH_TARGETS_FILE, umbIndex.getNumBranches(), targets);
+	}
+
+	/**
+	 * Extract the branch probabilities, via memory mapping, into an array of size numBranches.
+	 * This is only possible if {@link UMBIndex#getBranchProbabilityType()} is a (non-interval) double.
+	 */
+	public void mapBranchProbabilities(double[] probabilities) throws UMBException
+	{
+		UMBType type = umbIndex.getBranchProbabilityType();
+		if (type != null && (!type.type.isDouble() || type.type.isInterval())) {
+			throw new UMBException("Memory mapping of branch probabilities of type " + type + " is not supported");
+		}
+		if (!mappedFileExists(UMBFormat.BRANCH_PROBABILITIES_FILE)) {
+			// Branch probabilities default to 1 if requested when absent
+			Arrays.fill(probabilities, 0, toArraySize(umbIndex.getNumBranches()), 1.0);
+		} else {
+			mapDoubleArray(UMBFormat.BRANCH_PROBABILITIES_FILE, umbIndex.getNumBranches(), probabilities);
+		}
+	}
+
+	/**
+	 * Extract the indices for actions of all choices, via memory mapping, into an array of size numChoices.
+	 */
+	public void mapChoiceActionIndices(int[] indices) throws UMBException
+	{
+		mapIntArray(umbIndex.actionsAnnotation.getFilename(UMBIndex.UMBEntity.CHOICES), umbIndex.getNumChoices(), indices);
+	}
+
+	/**
+	 * Extract the indices for actions of all branches, via memory mapping, into an array of size numBranches.
+	 */
+	public void mapBranchActionIndices(int[] indices) throws UMBException
+	{
+		mapIntArray(umbIndex.actionsAnnotation.getFilename(UMBIndex.UMBEntity.BRANCHES), umbIndex.getNumBranches(), indices);
+	}
+
 	// Utility methods for extracting date
 
 	public <T extends LongConsumer> T extractStateChoiceCounts(T longConsumer) throws UMBException
@@ -572,9 +683,11 @@ public class UMBReader
 	private boolean fileExists(String filename) throws UMBException
 	{
 		UMBIn umbIn = open();
-		boolean exists = umbIn.archiveEntryExists(filename);
-		umbIn.close();
-		return exists;
+		try {
+			return umbIn.archiveEntryExists(filename);
+		} finally {
+			umbIn.close();
+		}
 	}
 
 	private void extractBooleanArraySparse(String filename, long size, LongConsumer longConsumer) throws UMBException
@@ -958,6 +1071,199 @@ public class UMBReader
 		}
 	}
 
+	// Local methods for extracting data via memory mapping
+
+	/**
+	 * Maximum number of bytes memory mapped at once (mappings are limited to 2GB).
+	 */
+	private static int MAP_CHUNK_SIZE = 1 << 30;
+
+	/**
+	 * Entries (files) in the archive, indexed by name, if it can be memory mapped.
+	 * Computed lazily, and null if not yet computed or if mapping is not possible.
+	 */
+	private Map<String, TarArchiveEntry> mappableEntries;
+
+	/**
+	 * Has {@link #mappableEntries} been computed?
+	 */
+	private boolean mappableEntriesComputed = false;
+
+	/**
+	 * Get the entries (files) in the archive, indexed by name,
+	 * or null if it cannot be memory mapped (i.e., if it is compressed).
+	 */
+	private Map<String, TarArchiveEntry> getMappableEntries() throws UMBException
+	{
+		if (!mappableEntriesComputed) {
+			mappableEntriesComputed = true;
+			try (InputStream in = new BufferedInputStream(Files.newInputStream(fileIn.toPath()))) {
+				// Any detectable compression format rules out mapping
+				CompressorStreamFactory.detect(in);
+				return null;
+			} catch (CompressorException e) {
+				// No compression: fine
+			} catch (IOException e) {
+				throw new UMBException("Could not open UMB file: " + e.getMessage());
+			}
+			try (TarFile tarFile = new TarFile(fileIn)) {
+				Map<String, TarArchiveEntry> entries = new HashMap<>();
+				for (TarArchiveEntry entry : tarFile.getEntries()) {
+					// Sparse entries are not stored contiguously
+					if (!entry.isSparse()) {
+						entries.put(entry.getName(), entry);
+					}
+				}
+				mappableEntries = entries;
+			} catch (IOException e) {
+				throw new UMBException("I/O error reading UMB file: " + e.getMessage());
+			}
+		}
+		return mappableEntries;
+	}
+
+	private boolean mappedFileExists(String filename) throws UMBException
+	{
+		Map<String, TarArchiveEntry> entries = getMappableEntries();
+		if (entries == null) {
+			throw new UMBException("UMB file cannot be memory mapped");
+		}
+		return entries.containsKey(filename);
+	}
+
+	/**
+	 * Memory map an entry (file) in the archive, checking that its size is as expected.
+	 * The entry is returned as a list of (read-only, little-endian) chunks,
+	 * each of which is a multiple of {@code elementBytes} bytes in size.
+	 */
+	private List<ByteBuffer> mapArchiveEntry(String filename, long size, int elementBytes) throws UMBException
+	{
+		if (!mappedFileExists(filename)) {
+			throw new UMBException("UMB archive entry \"" + filename + "\" not found");
+		}
+		TarArchiveEntry entry = mappableEntries.get(filename);
+		long entrySize = entry.getSize();
+		if (entrySize != size * elementBytes) {
+			throw new UMBException("File " + filename + " has unexpected size (" + entrySize + " bytes, not " + (size * elementBytes) + ")");
+		}
+		List<ByteBuffer> chunks = new ArrayList<>();
+		// Mappings remain valid once the channel is closed
+		try (FileChannel channel = FileChannel.open(fileIn.toPath(), StandardOpenOption.READ)) {
+			long maxChunk = (MAP_CHUNK_SIZE / elementBytes) * elementBytes;
+			for (long offset = 0; offset < entrySize; offset += maxChunk) {
+				long chunkSize = Math.min(maxChunk, entrySize - offset);
+				chunks.add(channel.map(FileChannel.MapMode.READ_ONLY, entry.getDataOffset() + offset, chunkSize).order(ByteOrder.LITTLE_ENDIAN));
+			}
+		} catch (IOException e) {
+			throw new UMBException("I/O error mapping UMB entry \"" + filename + "\": " + e.getMessage());
+		}
+		return chunks;
+	}
+
+	private void mapIntArray(String filename, long size, int[] array) throws UMBException
+	{
+		int i = 0;
+		toArraySize(size);
+		for (ByteBuffer chunk : mapArchiveEntry(filename, size, Integer.BYTES)) {
+			IntBuffer ints = chunk.asIntBuffer();
+			int n = ints.remaining();
+			ints.get(array, i, n);
+			i += n;
+		}
+	}
+
+	private void mapLongArrayToInts(String filename, long size, int[] array) throws UMBException
+	{
+		int i = 0;
+		toArraySize(size);
+		for (ByteBuffer chunk : mapArchiveEntry(filename, size, Long.BYTES)) {
+			LongBuffer longs = chunk.asLongBuffer();
+			for (int j = 0, n = longs.remaining(); j < n; j++) {
+				long l = longs.get(j);
+				if (l < 0 || l > Integer.MAX_VALUE) {
+					throw new UMBException("Value " + l + " in file " + filename + " exceeds the range of an int");
+				}
+				array[i++] = (int) l;
+			}
+		}
+	}
+
+	private void mapDoubleArray(String filename, long size, double[] array) throws UMBException
+	{
+		int i = 0;
+		toArraySize(size);
+		for (ByteBuffer chunk : mapArchiveEntry(filename, size, Double.BYTES)) {
+			DoubleBuffer doubles = chunk.asDoubleBuffer();
+			int n = doubles.remaining();
+			doubles.get(array, i, n);
+			i += n;
+		}
+	}
+
+	/**
+	 * Fill (the first {@code size} elements of) an int array with a default value.
+	 */
+	private void fillDefaultIntArray(int[] array, long size, UMBFormat.BinFileDefaultValue value) throws UMBException
+	{
+		int n = toArraySize(size);
+		switch (value) {
+			case IDENTITY:
+				for (int i = 0; i < n; i++) {
+					array[i] = i;
+				}
+				break;
+			case ZERO:
+				Arrays.fill(array, 0, n, 0);
+				break;
+			case ONE:
+				Arrays.fill(array, 0, n, 1);
+				break;
+			default:
+				throw new UMBException("Unsupported default value " + value);
+		}
+	}
+
+	/**
+	 * Check that an array size fits in an int, and return it.
+	 */
+	private static int toArraySize(long size) throws UMBException
+	{
+		if (size < 0 || size > Integer.MAX_VALUE) {
+			throw new UMBException("Array of size " + size + " is too large to extract");
+		}
+		return (int) size;
+	}
+
+	/**
+	 * Independently compressed chunks of the file, if they can be decompressed in parallel.
+	 * Computed lazily, and null if not yet computed or if not possible.
+	 */
+	private List<UMBChunkedInputStream.Chunk> chunks;
+
+	/**
+	 * Has {@link #chunks} been computed?
+	 */
+	private boolean chunksComputed = false;
+
+	/**
+	 * Get the independently compressed chunks of the file,
+	 * or null if it is not to be (or cannot be) decompressed in parallel.
+	 */
+	private List<UMBChunkedInputStream.Chunk> getChunks() throws UMBException
+	{
+		if (!chunksComputed) {
+			chunksComputed = true;
+			if (numThreads > 1) {
+				try {
+					chunks = UMBChunkedInputStream.findChunks(fileIn);
+				} catch (IOException e) {
+					throw new UMBException("Could not open UMB file: " + e.getMessage());
+				}
+			}
+		}
+		return chunks;
+	}
+
 	UMBIn umbInCached = null;
 
 	private UMBIn open() throws UMBException
@@ -967,7 +1273,7 @@ public class UMBReader
 		} else {
 //			umbInCached = new UMBIn(fileIn);;
 //			return umbInCached;
-			return new UMBIn(fileIn);
+			return new UMBIn(fileIn, getChunks(), numThreads);
 		}
 	}
 
@@ -981,7 +1287,7 @@ public class UMBReader
 		/** Input stream from zip file */
 		private final InputStream fsIn;
 		/** Input stream after unzipping */
-		private CompressorInputStream zipIn;
+		private InputStream zipIn;
 		/** Input stream from tar file */
 		private TarArchiveInputStream tarIn;
 
@@ -994,13 +1300,33 @@ public class UMBReader
 		 * Open a new UMB file for reading
 		 */
 		public UMBIn(File fileIn) throws UMBException
+		{
+			this(fileIn, null, 1);
+		}
+
+		/**
+		 * Open a new UMB file for reading
+		 * @param fileIn The file to read from
+		 * @param chunks Independently compressed chunks of the file (null if not applicable)
+		 * @param numThreads Number of threads to use for decompressing chunks
+		 */
+		public UMBIn(File fileIn, List<UMBChunkedInputStream.Chunk> chunks, int numThreads) throws UMBException
 		{
 			try {
+				// Compressed in chunks: decompress in parallel
+				if (chunks != null) {
+					fsIn = null;
+					zipIn = new UMBChunkedInputStream(fileIn, chunks, numThreads);
+					tarIn = new TarArchiveInputStream(zipIn);
+					byteBuffer = ByteBuffer.allocate(DEFAULT_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+					return;
+				}
 				// Open file/zip/tar and create buffer
 				fsIn = new BufferedInputStream(Files.newInputStream(fileIn.toPath()));
 				try {
 					// Any supported zip format is fine
-					zipIn = new CompressorStreamFactory().createCompressorInputStream(fsIn);
+					// (and may consist of several concatenated members/streams)
+					zipIn = new CompressorStreamFactory(true).createCompressorInputStream(fsIn);
 					tarIn = new TarArchiveInputStream(zipIn);
 				} catch (CompressorException e) {
 					// No zipping also fine
@@ -1165,17 +1491,19 @@ public class UMBReader
 		 */
 		public void close() throws UMBException
 		{
-			try {
-				if (tarIn != null) {
-					tarIn.close();
-				}
-				if (zipIn != null) {
-					zipIn.close();
-				}
-				if (fsIn != null) {
-					fsIn.close();
+			// Close all streams, even if one fails, so that the file
+			// (and any decompression threads) are always released
+			IOException error = null;
+			for (InputStream in : new InputStream[] { tarIn, zipIn, fsIn }) {
+				if (in != null) {
+					try {
+						in.close();
+					} catch (IOException e) {
+						error = e;
+					}
 				}
-			} catch (IOException e) {
+			}
+			if (error != null) {
 				throw new UMBException("I/O error closing UMB file");
 			}
 		}
@@ -22,7 +22,6 @@ import org.apache.commons.compress.archivers.ArchiveOutputStream;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
 import org.apache.commons.compress.compressors.CompressorException;
-import org.apache.commons.compress.compressors.CompressorOutputStream;
 import org.apache.commons.compress.compressors.CompressorStreamFactory;
 
 import java.io.BufferedOutputStream;
@@ -762,12 +761,35 @@ public class UMBWriter
 	 */
 	public void export(File fileOut, boolean zipped, UMBFormat.CompressionFormat compressionFormat) throws UMBException
 	{
-		UMBOut umbOut = new UMBOut(fileOut, zipped, compressionFormat);
-		exportIndex(umbOut);
-		for (UMBDataFile umbDataFile : umbDataFiles) {
-			exportUMBFile(umbDataFile, umbOut);
+		export(fileOut, zipped, compressionFormat, 1);
+	}
+
+	/**
+	 * Export content to a UMB file.
+	 * If zipped, and more than one thread is used, the archive is compressed
+	 * as a sequence of independently compressed chunks, concurrently.
+	 * @param fileOut The file to export to.
+	 * @param zipped Whether to zip the file
+	 * @param compressionFormat How to zip the file (null means use default)
+	 * @param numThreads Number of threads to use for compression
+	 */
+	public void export(File fileOut, boolean zipped, UMBFormat.CompressionFormat compressionFormat, int numThreads) throws UMBException
+	{
+		UMBOut umbOut = new UMBOut(fileOut, zipped, compressionFormat, numThreads);
+		boolean done = false;
+		try {
+			exportIndex(umbOut);
+			for (UMBDataFile umbDataFile : umbDataFiles) {
+				exportUMBFile(umbDataFile, umbOut);
+			}
+			umbOut.close();
+			done = true;
+		} finally {
+			// On error, make sure the file (and any compression threads) are released
+			if (!done) {
+				umbOut.abort();
+			}
 		}
-		umbOut.close();
 	}
 
 	/**
@@ -857,7 +879,7 @@ public class UMBWriter
 		/** Output stream for zip file */
 		private final OutputStream fsOut;
 		/** Output stream for zipping */
-		private final CompressorOutputStream zipOut;
+		private final OutputStream zipOut;
 		/** Output stream for tar file */
 		private final ArchiveOutputStream tarOut;
 
@@ -887,23 +909,43 @@ public class UMBWriter
 		 * @param compressionFormat How to zip the file (null means use the default)
 		 */
 		public UMBOut(File fileOut, boolean zipped, UMBFormat.CompressionFormat compressionFormat) throws UMBException
+		{
+			this(fileOut, zipped, compressionFormat, 1);
+		}
+
+		/**
+		 * Open a new UMB file for writing
+		 * @param fileOut The file to write to
+		 * @param zipped Whether to zip the file
+		 * @param compressionFormat How to zip the file (null means use the default)
+		 * @param numThreads Number of threads to use for zipping (if more than one, zip in chunks)
+		 */
+		public UMBOut(File fileOut, boolean zipped, UMBFormat.CompressionFormat compressionFormat, int numThreads) throws UMBException
 		{
 			try {
-				// Open file/zip/tar
+				// Open file
 				fsOut = new BufferedOutputStream(Files.newOutputStream(fileOut.toPath()));
+			} catch (IOException e) {
+				throw new UMBException("Could not create UMB file: " + e.getMessage());
+			}
+			try {
+				// Open zip/tar
 				if (zipped) {
 					if (compressionFormat == null) {
 						compressionFormat = UMBFormat.DEFAULT_COMPRESSION_FORMAT;
 					}
-					zipOut = new CompressorStreamFactory().createCompressorOutputStream(compressionFormat.extension(), fsOut);
+					if (numThreads > 1) {
+						zipOut = new UMBChunkedOutputStream(fsOut, compressionFormat, numThreads);
+					} else {
+						zipOut = new CompressorStreamFactory().createCompressorOutputStream(compressionFormat.extension(), fsOut);
+					}
 					tarOut = new TarArchiveOutputStream(zipOut);
 				} else {
 					zipOut = null;
 					tarOut = new TarArchiveOutputStream(fsOut);
 				}
-			} catch (IOException e) {
-				throw new UMBException("Could not create UMB file: " + e.getMessage());
 			} catch (CompressorException e) {
+				closeQuietly(fsOut);
 				throw new UMBException("Could not create zip for UMB file: " + e.getMessage());
 			}
 		}
@@ -968,9 +1010,35 @@ public class UMBWriter
 					fsOut.close();
 				}
 			} catch (IOException e) {
+				abort();
 				throw new UMBException("I/O error closing UMB file");
 			}
 		}
+
+		/**
+		 * Close the UMB file without completing it (e.g. after an error),
+		 * releasing the file and any compression threads, and ignoring further errors.
+		 */
+		public void abort()
+		{
+			if (zipOut instanceof UMBChunkedOutputStream) {
+				((UMBChunkedOutputStream) zipOut).abort();
+			} else {
+				closeQuietly(zipOut);
+			}
+			closeQuietly(fsOut);
+		}
+
+		private static void closeQuietly(OutputStream out)
+		{
+			if (out != null) {
+				try {
+					out.close();
+				} catch (IOException e) {
+					// Ignore (already failed)
+				}
+			}
+		}
 	}
 
 	/**
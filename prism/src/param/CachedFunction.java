@@ -40,18 +40,22 @@ final class CachedFunction extends Function {
 	private int number;
 	/** factory this function belongs to */
 	private CachedFunctionFactory factory;
+	/** function (of the factory's context) this function represents */
+	private final Function function;
 	
 	/**
 	 * Constructs a new cached function.
 	 * 
 	 * @param factory function factory this function belongs to
 	 * @param number unique number of cached function this function represents
+	 * @param function function (of the factory's context) this function represents
 	 */
-	CachedFunction(CachedFunctionFactory factory, int number)
+	CachedFunction(CachedFunctionFactory factory, int number, Function function)
 	{
 		super(factory);
 		this.factory = factory;
 		this.number = number;
+		this.function = function;
 	}
 	
 	/**
@@ -64,10 +68,20 @@ final class CachedFunction extends Function {
 		return number;
 	}
 	
+	/**
+	 * Returns the function (of the factory's context) this function represents.
+	 * 
+	 * @return function represented
+	 */
+	Function getFunction()
+	{
+		return function;
+	}
+	
 	@Override
 	public String toString()
 	{
-		return factory.getFunction(number).toString();
+		return function.toString();
 	}
 	
 	@Override
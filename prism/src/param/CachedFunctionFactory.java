@@ -31,6 +31,7 @@ import prism.PrismException;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Function factory implementing a cache for functions from other factories.
@@ -39,6 +40,10 @@ import java.util.HashMap;
  * cache for operations on functions, so that if an operation on the same
  * two functions has already been performed before, the result will be
  * looked up instead of being performed again.
+ * <br>
+ * The factory can be used by several threads concurrently: functions are
+ * numbered under a lock, and the operation caches are concurrent maps
+ * (an operation may occasionally be performed twice, with the same result).
  * 
  * @author Ernst Moritz Hahn <emhahn@cs.ox.ac.uk> (University of Oxford)
  * @see FunctionFactory
@@ -105,11 +110,11 @@ final class CachedFunctionFactory extends FunctionFactory {
 	/** true iff operation cache is to be used */
 	private boolean useOpCache;
 	/** cache for additions (and indirectly subtractions) */		
-	private HashMap<OpCacheKey, CachedFunction> addCache;
+	private ConcurrentHashMap<OpCacheKey, CachedFunction> addCache;
 	/** cache for multiplications (and indirectly divisions) */	
-	private HashMap<OpCacheKey, CachedFunction> multCache;
+	private ConcurrentHashMap<OpCacheKey, CachedFunction> multCache;
 	/** cache for star operation */
-	private HashMap<CachedFunction, CachedFunction> starCache;
+	private ConcurrentHashMap<CachedFunction, CachedFunction> starCache;
 	
 	/**
 	 * Constructs a new cached function factory.
@@ -126,9 +131,9 @@ final class CachedFunctionFactory extends FunctionFactory {
 		nextFunctionNumber = 0;
 		one = makeUnique(context.getOne());
 		zero = makeUnique(context.getZero());
-		addCache = new HashMap<OpCacheKey, CachedFunction>();
-		multCache = new HashMap<OpCacheKey, CachedFunction>();
-		starCache = new HashMap<CachedFunction, CachedFunction>();
+		addCache = new ConcurrentHashMap<OpCacheKey, CachedFunction>();
+		multCache = new ConcurrentHashMap<OpCacheKey, CachedFunction>();
+		starCache = new ConcurrentHashMap<CachedFunction, CachedFunction>();
 		useOpCache = true;
 	}
 	
@@ -151,13 +156,13 @@ final class CachedFunctionFactory extends FunctionFactory {
 	 * @param function function to return unique integer of
 	 * @return unique integer representing function
 	 */
-	private CachedFunction makeUnique(Function function)
+	private synchronized CachedFunction makeUnique(Function function)
 	{
 		Integer number = functionToNumber.get(function);
 		if (number != null) {
 			return cachedFunctions.get(number);
 		} else {
-			CachedFunction cachedFunction = new CachedFunction(this, nextFunctionNumber);
+			CachedFunction cachedFunction = new CachedFunction(this, nextFunctionNumber, function);
 			functionToNumber.put(function, nextFunctionNumber);
 			cachedFunctions.add(cachedFunction);
 			functions.add(function);
@@ -172,7 +177,7 @@ final class CachedFunctionFactory extends FunctionFactory {
 	 * @param number number of function to return
 	 * @return function with the given number
 	 */
-	Function getFunction(int number)
+	synchronized Function getFunction(int number)
 	{
 		return functions.get(number);
 	}
@@ -191,7 +196,7 @@ final class CachedFunctionFactory extends FunctionFactory {
 
 	private Function getFunctionFromCache(Function cached)
 	{
-		return functions.get(((CachedFunction) cached).getNumber());
+		return ((CachedFunction) cached).getFunction();
 	}
 	
 	Function add(Function cached1, Function cached2)
@@ -36,11 +36,12 @@ import java.util.HashMap;
  * is unlikely but not impossible that there are other points in the
  * region which are below (or equal) to zero. Derived classes might
  * use a constraint solver to guarantee validity of this check.
+ * Checks can be performed by several threads concurrently.
  * 
  * @author Ernst Moritz Hahn <emhahn@cs.ox.ac.uk> (University of Oxford)
  */
 class ConstraintChecker {
-	private boolean usedUnsoundCheck = false;
+	private volatile boolean usedUnsoundCheck = false;
 
 	/**
 	 * Class to store keys for the cache of the decision procedure.
@@ -184,33 +185,38 @@ class ConstraintChecker {
 		DecisionEntryKey key = new DecisionEntryKey();
 		key.constraint = constr;
 		key.strict = strict;
-		ArrayList<DecisionEntryValue> entries = decisions.get(key);
-		if (entries != null) {
-			for (DecisionEntryValue entry : entries) {
-				if (entry.region.contains(region)) {
-					if (entry.result) {
-						return true;
-					} else if (entry.region.equals(region)) {
-						return false;
+		synchronized (decisions) {
+			ArrayList<DecisionEntryValue> entries = decisions.get(key);
+			if (entries != null) {
+				for (DecisionEntryValue entry : entries) {
+					if (entry.region.contains(region)) {
+						if (entry.result) {
+							return true;
+						} else if (entry.region.equals(region)) {
+							return false;
+						}
 					}
 				}
 			}
 		}
 		
+		// (the check itself is done outside the lock on the decision cache)
 		boolean result = preCheck(region, constr, strict);
 		if (result) {
 			result = mainCheck(region, constr, strict);
 		}
 
-		entries = decisions.get(key);
-		if (entries == null) {
-			entries = new ArrayList<DecisionEntryValue>();
-			decisions.put(key, entries);
+		synchronized (decisions) {
+			ArrayList<DecisionEntryValue> entries = decisions.get(key);
+			if (entries == null) {
+				entries = new ArrayList<DecisionEntryValue>();
+				decisions.put(key, entries);
+			}
+			DecisionEntryValue entry = new DecisionEntryValue();
+			entry.region = region;
+			entry.result = result;
+			entries.add(entry);
 		}
-		DecisionEntryValue entry = new DecisionEntryValue();
-		entry.region = region;
-		entry.result = result;
-		entries.add(entry);
 
 		return result;
 	}
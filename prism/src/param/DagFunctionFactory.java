@@ -201,7 +201,7 @@ class DagFunctionFactory extends FunctionFactory {
 		return minf;
 	}
 	
-	private DagOperator makeUnique(DagOperator op) {
+	private synchronized DagOperator makeUnique(DagOperator op) {
 		DagOperator foundOp = polynomials.get(op);
 		if (foundOp == null) {
 			foundOp = op;
@@ -210,7 +210,7 @@ class DagFunctionFactory extends FunctionFactory {
 		return foundOp;
 	}
 	
-	private DagFunction makeUnique(DagFunction fn) {
+	private synchronized DagFunction makeUnique(DagFunction fn) {
 		DagFunction foundFn = functions.get(fn);
 		if (foundFn == null) {
 			foundFn = fn;
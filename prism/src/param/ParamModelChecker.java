@@ -152,6 +152,7 @@ final public class ParamModelChecker extends PrismComponent
 	private int numRandomPoints;
 	private Lumper.BisimType bisimType;
 	private boolean simplifyRegions;
+	private int numThreads = 1;
 
 	/**
 	 * Constructor
@@ -201,6 +202,7 @@ final public class ParamModelChecker extends PrismComponent
 			throw new PrismException("unknown bisimulation type " + bisimTypeString);							
 		}
 		simplifyRegions = settings.getBoolean(PrismSettings.PRISM_PARAM_SUBSUME_REGIONS);
+		numThreads = settings.getInteger(PrismSettings.PRISM_NUM_THREADS);
 		}
 	}
 	
@@ -251,6 +253,7 @@ final public class ParamModelChecker extends PrismComponent
 		regionFactory = new BoxRegionFactory(functionFactory, constraintChecker, precision,
 				model.getNumStates(), model.getFirstInitialState(), simplifyRegions, splitMethod);
 		valueComputer = new ValueComputer(this, mode, regionFactory, precision, eliminationOrder, bisimType);
+		valueComputer.setNumThreads(numThreads);
 		
 		long timer = 0;
 		
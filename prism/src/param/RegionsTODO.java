@@ -72,4 +72,9 @@ final class RegionsTODO {
 		Region result = regions.poll();
 		return result;
 	}
+
+	Region peek()
+	{
+		return regions.peek();
+	}
 }
@@ -50,7 +50,13 @@ import java.util.BitSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Computes values for properties of a parametric Markov model. 
@@ -241,6 +247,29 @@ final class ValueComputer extends PrismComponent
 		}
 	}
 
+	/**
+	 * Result of analysing a single region (at its midpoint) during region refinement for MDPs.
+	 * This is done independently of other regions (possibly in parallel),
+	 * and then applied afterwards (see {@code computeUnboundedMDP}).
+	 */
+	class RegionWork
+	{
+		/** region analysed */
+		Region region;
+		/** optimal scheduler at the region's midpoint (null if model not well-defined there) */
+		Scheduler scheduler;
+		/** whether the values were newly computed (rather than found in the cache) */
+		boolean newValues;
+		/** values for the scheduler */
+		StateValues values;
+		/** functions which need to be non-negative for the scheduler to be optimal */
+		Function[] compare;
+		/** whether the scheduler is optimal throughout the region */
+		boolean ok;
+		/** (last) function checked against the region */
+		Function choiceValue;
+	}
+
 	private ParamMode mode;
 	private RegionFactory regionFactory;
 	private FunctionFactory functionFactory;
@@ -250,6 +279,8 @@ final class ValueComputer extends PrismComponent
 	private HashMap<ResultCacheKey,ResultCacheEntry> resultCache;
 	private StateEliminator.EliminationOrder eliminationOrder;
 	private Lumper.BisimType bisimType;
+	/** number of threads used to analyse regions in parallel */
+	private int numThreads = 1;
 
 	ValueComputer(PrismComponent parent, ParamMode mode, RegionFactory regionFactory, BigRational precision, StateEliminator.EliminationOrder eliminationOrder, Lumper.BisimType bisimType) {
 		super(parent);
@@ -264,6 +295,15 @@ final class ValueComputer extends PrismComponent
 		this.bisimType = bisimType;
 	}
 
+	/**
+	 * Set the number of threads used to analyse regions (of the same volume) in parallel
+	 * during region refinement.
+	 */
+	void setNumThreads(int numThreads)
+	{
+		this.numThreads = Math.max(1, numThreads);
+	}
+
 	RegionValues computeUnbounded(Model<?> model, RegionValues b1, RegionValues b2, boolean min, Rewards<?> rew) throws PrismException {
 		RegionValues result = new RegionValues(regionFactory);
 		RegionValuesIntersections co = new RegionValuesIntersections(b1, b2);
@@ -350,56 +390,134 @@ final class ValueComputer extends PrismComponent
 		Scheduler initialScheduler = new Scheduler(mdp);
 		precomputeScheduler(mdp, initialScheduler, b1, b2, mdpRewards, min);
 
-		while (volume.compareTo(requiredVolume) == -1) {
-			Region currentRegion = todo.poll();
-			Point midPoint = ((BoxRegion)currentRegion).getMidPoint();
-			Scheduler scheduler = computeOptConcreteReachScheduler(midPoint, mdp, b1, b2, min, mdpRewards, initialScheduler);
-			if (scheduler == null) {
-				// midpoint leads to non-well-defined model
-				if (currentRegion.volume().compareTo(precisionForThisRegion) <= 0) {
-					// region is below precision threshold, treat as undefined
-					// and adjust required volume
-					requiredVolume = requiredVolume.subtract(currentRegion.volume());
-				} else {
-					// we split the current region
-					// TODO: Would be nice to try and analyse the well-definedness constraints
-					todo.addAll(currentRegion.split());
+		// Regions are refined largest first. The regions of the same (largest) volume are independent,
+		// so are analysed in batches, in parallel if there are multiple threads, and the results
+		// then applied (and the caches updated) in order. With a single thread, this is exactly
+		// as for one region at a time; otherwise, regions in a batch do not see schedulers found
+		// for each other, so the resulting partition of the parameter space may differ slightly.
+		ExecutorService executor = numThreads > 1 ? Executors.newFixedThreadPool(numThreads) : null;
+		try {
+			while (volume.compareTo(requiredVolume) == -1) {
+				List<Region> batch = new ArrayList<>();
+				batch.add(todo.poll());
+				while (batch.size() < numThreads && !todo.isEmpty() && todo.peek().volume().compareTo(batch.get(0).volume()) == 0) {
+					batch.add(todo.poll());
 				}
-				continue;
-			}
-
-			ResultCacheEntry resultCacheEntry = lookupValues(PropType.REACH, b1, b2, mdpRewards, scheduler, min);
-			Function[] compare;
-			StateValues values;
-			if (resultCacheEntry == null) {
-				DTMC<Function> dtmc = new DTMCFromMDPMemorylessAdversary<>(mdp, scheduler.choices);
-				MCRewards<Function> mcRewards = mdpRewards == null ? null : new MCRewardsFromMDPRewards<>(mdpRewards, scheduler.choices);
-				MutablePMC pmc = buildAlterablePMCForReach(dtmc, b1, b2, mcRewards);
-				values = computeValues(pmc, mdp.getFirstInitialState());
-				compare = computeCompare(mdp, b1, b2, mdpRewards, scheduler, min, values);
-				storeValues(PropType.REACH, b1, b2, mdpRewards, scheduler, min, values, compare);
-			} else {
-				values = resultCacheEntry.getValues();
-				compare = resultCacheEntry.getCompare();
-			}
-			boolean ok = true;
-			Function choiceValue = null;
-			for (Function entry : compare) {
-				choiceValue = entry;
-				if (!constraintChecker.check(currentRegion, entry, false)) {
-					ok = false;
+				List<RegionWork> batchWork = analyseRegions(batch, executor, mdp, b1, b2, min, mdpRewards, initialScheduler);
+				for (RegionWork work : batchWork) {
+					if (volume.compareTo(requiredVolume) != -1) {
+						break;
+					}
+					Region currentRegion = work.region;
+					if (work.scheduler == null) {
+						// midpoint leads to non-well-defined model
+						if (currentRegion.volume().compareTo(precisionForThisRegion) <= 0) {
+							// region is below precision threshold, treat as undefined
+							// and adjust required volume
+							requiredVolume = requiredVolume.subtract(currentRegion.volume());
+						} else {
+							// we split the current region
+							// TODO: Would be nice to try and analyse the well-definedness constraints
+							todo.addAll(currentRegion.split());
+						}
+						continue;
+					}
+					// Store newly found schedulers/values (unless already stored for another region in the batch)
+					if (work.newValues && lookupValues(PropType.REACH, b1, b2, mdpRewards, work.scheduler, min) == null) {
+						storeScheduler(PropType.REACH, b1, b2, min, mdpRewards, work.scheduler);
+						storeValues(PropType.REACH, b1, b2, mdpRewards, work.scheduler, min, work.values, work.compare);
+					}
+					if (work.ok) {
+						volume = volume.add(currentRegion.volume());
+						result.add(currentRegion, work.values);
+					} else {
+						todo.addAll(currentRegion.split(work.choiceValue));
+					}
 				}
 			}
-			if (ok) {
-				volume = volume.add(currentRegion.volume());
-				result.add(currentRegion, values);
-			} else {
-				todo.addAll(currentRegion.split(choiceValue));
+		} finally {
+			if (executor != null) {
+				executor.shutdown();
 			}
 		}
 
 		return result;
 	}
+
+	/**
+	 * Analyse a batch of regions for {@code computeUnboundedMDP}, in parallel if {@code executor} is non-null.
+	 * The scheduler/result caches are only read, not modified, here.
+	 */
+	private List<RegionWork> analyseRegions(List<Region> regions, ExecutorService executor, MDP<Function> mdp, StateValues b1, StateValues b2, boolean min, MDPRewards<Function> mdpRewards, Scheduler initialScheduler) throws PrismException
+	{
+		List<RegionWork> batchWork = new ArrayList<>();
+		if (executor == null || regions.size() == 1) {
+			for (Region region : regions) {
+				batchWork.add(analyseRegion(region, mdp, b1, b2, min, mdpRewards, initialScheduler));
+			}
+			return batchWork;
+		}
+		List<Callable<RegionWork>> tasks = new ArrayList<>();
+		for (Region region : regions) {
+			tasks.add(() -> analyseRegion(region, mdp, b1, b2, min, mdpRewards, initialScheduler));
+		}
+		try {
+			for (Future<RegionWork> future : executor.invokeAll(tasks)) {
+				batchWork.add(future.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new PrismException("Interrupted during parametric region analysis");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof PrismException) {
+				throw (PrismException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new PrismException("Error during parametric region analysis: " + cause);
+		}
+		return batchWork;
+	}
+
+	/**
+	 * Analyse a single region for {@code computeUnboundedMDP}: compute an optimal scheduler
+	 * at its midpoint, the corresponding values, and check whether it is optimal throughout the region.
+	 */
+	private RegionWork analyseRegion(Region currentRegion, MDP<Function> mdp, StateValues b1, StateValues b2, boolean min, MDPRewards<Function> mdpRewards, Scheduler initialScheduler) throws PrismException
+	{
+		RegionWork work = new RegionWork();
+		work.region = currentRegion;
+		Point midPoint = ((BoxRegion)currentRegion).getMidPoint();
+		Scheduler scheduler = computeOptConcreteReachScheduler(midPoint, mdp, b1, b2, min, mdpRewards, initialScheduler);
+		work.scheduler = scheduler;
+		if (scheduler == null) {
+			return work;
+		}
+
+		ResultCacheEntry resultCacheEntry = lookupValues(PropType.REACH, b1, b2, mdpRewards, scheduler, min);
+		if (resultCacheEntry == null) {
+			DTMC<Function> dtmc = new DTMCFromMDPMemorylessAdversary<>(mdp, scheduler.choices);
+			MCRewards<Function> mcRewards = mdpRewards == null ? null : new MCRewardsFromMDPRewards<>(mdpRewards, scheduler.choices);
+			MutablePMC pmc = buildAlterablePMCForReach(dtmc, b1, b2, mcRewards);
+			work.values = computeValues(pmc, mdp.getFirstInitialState());
+			work.compare = computeCompare(mdp, b1, b2, mdpRewards, scheduler, min, work.values);
+			work.newValues = true;
+		} else {
+			work.values = resultCacheEntry.getValues();
+			work.compare = resultCacheEntry.getCompare();
+		}
+		work.ok = true;
+		for (Function entry : work.compare) {
+			work.choiceValue = entry;
+			if (!constraintChecker.check(currentRegion, entry, false)) {
+				work.ok = false;
+			}
+		}
+		return work;
+	}
 	
 	private Function[] computeCompare(MDP<Function> model, StateValues b1, StateValues b2,
 			MDPRewards<Function> mdpRewards, Scheduler scheduler, boolean min,
@@ -458,6 +576,9 @@ final class ValueComputer extends PrismComponent
 	 * <br>
 	 * This method expects an initial scheduler that ensures that policy iteration
 	 * will converge.
+	 * <br>
+	 * Previously stored schedulers are reused if optimal at the point, but newly computed
+	 * ones are not stored here (this is done, with their values, by {@code computeUnboundedMDP}).
 	 *
 	 * @param point The point (parameter valuation) where the model should be instantiated
 	 * @param mdp the model
@@ -536,8 +657,6 @@ final class ValueComputer extends PrismComponent
 				}
 			}
 		}
-		storeScheduler(PropType.REACH, b1, b2, min, mdpRewards, scheduler);
-
 		return scheduler;
 	}
 	
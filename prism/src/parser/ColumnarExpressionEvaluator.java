@@ -0,0 +1,954 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+
+package parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import common.SharedThreadPool;
+import parser.EvaluateContext.EvalMode;
+import parser.ast.Expression;
+import parser.ast.ExpressionBinaryOp;
+import parser.ast.ExpressionConstant;
+import parser.ast.ExpressionFormula;
+import parser.ast.ExpressionFunc;
+import parser.ast.ExpressionITE;
+import parser.ast.ExpressionLabel;
+import parser.ast.ExpressionLiteral;
+import parser.ast.ExpressionUnaryOp;
+import parser.ast.ExpressionVar;
+import parser.type.Type;
+import parser.type.TypeBool;
+import parser.type.TypeDouble;
+import parser.type.TypeInt;
+import prism.PrismLangException;
+
+/**
+ * Class to evaluate expressions over a list of states all at once, column by column,
+ * using the primitive storage of variable values in {@link StateColumns},
+ * rather than interpreting the expression's AST separately for each state.
+ * <br><br>
+ * States are processed in chunks of {@link #CHUNK_SIZE} states: each node of the expression
+ * is evaluated for all states in the chunk before its parent, with Boolean values stored
+ * as bit vectors (so that logical operators are applied to 64 states at a time).
+ * Chunks are independent and can be evaluated in parallel.
+ * <br><br>
+ * Evaluation is in floating-point mode ({@link EvalMode#FP}) and gives exactly the same
+ * results as the interpreter ({@link Expression#evaluate(EvaluateContext)}), in the same way
+ * as {@link ExpressionCompiler}: sub-expressions that are not supported are evaluated
+ * by the interpreter instead, and errors (e.g. arithmetic overflow) are delegated to
+ * the operators themselves, so that the same exceptions are thrown. As for the interpreter,
+ * the right-hand operands of short-circuiting operators (&amp;, |, =&gt;) and the branches of
+ * if-then-else are only evaluated (and so only throw errors) in the states where they are needed.
+ * <br><br>
+ * Labels are supported if their states, or their definitions, are provided by a {@link LabelResolver}.
+ */
+public class ColumnarExpressionEvaluator
+{
+	/** Number of states per chunk (a multiple of 64) */
+	public static final int CHUNK_SIZE = 4096;
+
+	/**
+	 * Source of information about labels referred to in expressions.
+	 */
+	public interface LabelResolver
+	{
+		/**
+		 * Get the set of states satisfying label {@code name}, if directly available (null if not).
+		 */
+		BitSet getLabelStates(String name);
+
+		/**
+		 * Get the definition of label {@code name}, as an expression (null if unknown).
+		 */
+		Expression getLabelDefinition(String name);
+	}
+
+	/** Columns of variable values */
+	private final StateColumns columns;
+	/** Values for any constants remaining in expressions (may be null) */
+	private final Values constantValues;
+	/** Source of label info (may be null) */
+	private final LabelResolver labelResolver;
+	/** States satisfying labels resolved so far (those given directly as states) */
+	private final Map<String, BitSet> labelStates = new HashMap<>();
+	/** Definitions of labels resolved so far (those given as expressions) */
+	private final Map<String, Expression> labelDefinitions = new HashMap<>();
+
+	/**
+	 * Create an evaluator for expressions over the states whose variable values are stored in {@code columns}.
+	 * @param columns Columns of variable values
+	 * @param constantValues Values for any constants remaining in expressions (may be null)
+	 * @param labelResolver Source of label info (may be null)
+	 */
+	public ColumnarExpressionEvaluator(StateColumns columns, Values constantValues, LabelResolver labelResolver)
+	{
+		this.columns = columns;
+		this.constantValues = constantValues;
+		this.labelResolver = labelResolver;
+	}
+
+	/**
+	 * Check whether {@code expr} can be evaluated by this class,
+	 * i.e., it is a (Boolean, integer or double-valued) expression over state variables,
+	 * constants and labels known to the {@link LabelResolver}.
+	 */
+	public boolean isSupported(Expression expr)
+	{
+		Type type = expr.getType();
+		if (!(type instanceof TypeBool || type instanceof TypeInt || type instanceof TypeDouble)) {
+			return false;
+		}
+		if (expr instanceof ExpressionLiteral || expr instanceof ExpressionConstant || expr instanceof ExpressionVar) {
+			return true;
+		}
+		if (expr instanceof ExpressionFormula) {
+			Expression def = ((ExpressionFormula) expr).getDefinition();
+			return def != null && isSupported(def);
+		}
+		if (expr instanceof ExpressionLabel) {
+			return resolveLabel(((ExpressionLabel) expr).getName());
+		}
+		if (isNative(expr)) {
+			for (Expression operand : getOperands(expr)) {
+				if (!isSupported(operand)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		return isInterpretable(expr);
+	}
+
+	/**
+	 * Evaluate a Boolean-valued expression, returning the set of states where it is true.
+	 * The expression should be supported (see {@link #isSupported(Expression)}).
+	 * @param expr The expression
+	 * @param statesOfInterest States for which the value is needed (null = all);
+	 *        the values for other states are arbitrary
+	 * @param numThreads Number of threads to use
+	 */
+	public BitSet evaluateBoolean(Expression expr, BitSet statesOfInterest, int numThreads) throws PrismLangException
+	{
+		long words[] = new long[(columns.getNumStates() + 63) / 64];
+		evaluateChunks(statesOfInterest, numThreads, chunk -> {
+			long res[] = chunk.evalBool(expr, chunk.active);
+			chunk.clearUnused(res);
+			System.arraycopy(res, 0, words, chunk.lo / 64, chunk.numWords);
+		});
+		return BitSet.valueOf(words);
+	}
+
+	/**
+	 * Evaluate an integer-valued expression, returning its value for each state.
+	 * The expression should be supported (see {@link #isSupported(Expression)}).
+	 * @param expr The expression
+	 * @param statesOfInterest States for which the value is needed (null = all);
+	 *        the values for other states are arbitrary
+	 * @param numThreads Number of threads to use
+	 */
+	public int[] evaluateInt(Expression expr, BitSet statesOfInterest, int numThreads) throws PrismLangException
+	{
+		int values[] = new int[columns.getNumStates()];
+		evaluateChunks(statesOfInterest, numThreads, chunk -> {
+			System.arraycopy(chunk.evalInt(expr, chunk.active), 0, values, chunk.lo, chunk.m);
+		});
+		return values;
+	}
+
+	/**
+	 * Evaluate a double-valued expression (or an integer-valued one, cast to a double),
+	 * returning its value for each state.
+	 * The expression should be supported (see {@link #isSupported(Expression)}).
+	 * @param expr The expression
+	 * @param statesOfInterest States for which the value is needed (null = all);
+	 *        the values for other states are arbitrary
+	 * @param numThreads Number of threads to use
+	 */
+	public double[] evaluateDouble(Expression expr, BitSet statesOfInterest, int numThreads) throws PrismLangException
+	{
+		double values[] = new double[columns.getNumStates()];
+		evaluateChunks(statesOfInterest, numThreads, chunk -> {
+			System.arraycopy(chunk.evalDouble(expr, chunk.active), 0, values, chunk.lo, chunk.m);
+		});
+		return values;
+	}
+
+	// Methods to check support
+
+	/**
+	 * Look up a label, storing its states or definition, and return true if it is supported.
+	 */
+	private boolean resolveLabel(String name)
+	{
+		if (labelStates.containsKey(name)) {
+			return true;
+		}
+		if (labelDefinitions.containsKey(name)) {
+			return isSupported(labelDefinitions.get(name));
+		}
+		if (labelResolver == null) {
+			return false;
+		}
+		BitSet states = labelResolver.getLabelStates(name);
+		if (states != null) {
+			labelStates.put(name, states);
+			return true;
+		}
+		Expression def = labelResolver.getLabelDefinition(name);
+		if (def == null) {
+			return false;
+		}
+		labelDefinitions.put(name, def);
+		return isSupported(def);
+	}
+
+	/**
+	 * Check whether an operator/function expression is evaluated directly by this class
+	 * (rather than by the interpreter), based on its operator/function and operand types.
+	 */
+	private static boolean isNative(Expression expr)
+	{
+		Type type = expr.getType();
+		if (expr instanceof ExpressionUnaryOp) {
+			ExpressionUnaryOp e = (ExpressionUnaryOp) expr;
+			Type t = e.getOperand().getType();
+			switch (e.getOperator()) {
+			case ExpressionUnaryOp.NOT:
+				return type instanceof TypeBool && t instanceof TypeBool;
+			case ExpressionUnaryOp.MINUS:
+				return (type instanceof TypeInt && t instanceof TypeInt) || (type instanceof TypeDouble && isNumeric(t));
+			case ExpressionUnaryOp.PARENTH:
+				return type.equals(t) || (type instanceof TypeDouble && isNumeric(t));
+			default:
+				return false;
+			}
+		}
+		if (expr instanceof ExpressionBinaryOp) {
+			ExpressionBinaryOp e = (ExpressionBinaryOp) expr;
+			Type t1 = e.getOperand1().getType();
+			Type t2 = e.getOperand2().getType();
+			boolean bothBool = t1 instanceof TypeBool && t2 instanceof TypeBool;
+			boolean bothInt = t1 instanceof TypeInt && t2 instanceof TypeInt;
+			boolean bothNumeric = isNumeric(t1) && isNumeric(t2);
+			switch (e.getOperator()) {
+			case ExpressionBinaryOp.IMPLIES:
+			case ExpressionBinaryOp.IFF:
+			case ExpressionBinaryOp.OR:
+			case ExpressionBinaryOp.AND:
+				return bothBool;
+			case ExpressionBinaryOp.EQ:
+			case ExpressionBinaryOp.NE:
+				return bothBool || bothNumeric;
+			case ExpressionBinaryOp.GT:
+			case ExpressionBinaryOp.GE:
+			case ExpressionBinaryOp.LT:
+			case ExpressionBinaryOp.LE:
+				return bothNumeric;
+			case ExpressionBinaryOp.PLUS:
+			case ExpressionBinaryOp.MINUS:
+			case ExpressionBinaryOp.TIMES:
+				return (type instanceof TypeInt && bothInt) || (type instanceof TypeDouble && bothNumeric);
+			case ExpressionBinaryOp.DIVIDE:
+			case ExpressionBinaryOp.POW:
+				return type instanceof TypeDouble && bothNumeric;
+			default:
+				return false;
+			}
+		}
+		if (expr instanceof ExpressionITE) {
+			ExpressionITE e = (ExpressionITE) expr;
+			Type t2 = e.getOperand2().getType();
+			Type t3 = e.getOperand3().getType();
+			if (!(e.getOperand1().getType() instanceof TypeBool)) {
+				return false;
+			}
+			if (type instanceof TypeDouble) {
+				return isNumeric(t2) && isNumeric(t3);
+			}
+			return type.equals(t2) && type.equals(t3);
+		}
+		if (expr instanceof ExpressionFunc) {
+			ExpressionFunc e = (ExpressionFunc) expr;
+			int n = e.getNumOperands();
+			switch (e.getNameCode()) {
+			case ExpressionFunc.MIN:
+			case ExpressionFunc.MAX:
+				for (int i = 0; i < n; i++) {
+					Type t = e.getOperand(i).getType();
+					if (!(type instanceof TypeInt ? t instanceof TypeInt : type instanceof TypeDouble && isNumeric(t))) {
+						return false;
+					}
+				}
+				return n > 0;
+			case ExpressionFunc.FLOOR:
+			case ExpressionFunc.CEIL:
+				return type instanceof TypeInt && n == 1 && isNumeric(e.getOperand(0).getType());
+			case ExpressionFunc.MOD:
+				return type instanceof TypeInt && n == 2 && e.getOperand(0).getType() instanceof TypeInt && e.getOperand(1).getType() instanceof TypeInt;
+			case ExpressionFunc.POW:
+				return type instanceof TypeDouble && n == 2 && isNumeric(e.getOperand(0).getType()) && isNumeric(e.getOperand(1).getType());
+			default:
+				return false;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Check whether an expression can be evaluated by the interpreter on a single state,
+	 * i.e., it only contains state variables, constants, operators and functions.
+	 */
+	private static boolean isInterpretable(Expression expr)
+	{
+		if (expr instanceof ExpressionLiteral || expr instanceof ExpressionConstant || expr instanceof ExpressionVar) {
+			return true;
+		}
+		if (expr instanceof ExpressionFormula) {
+			Expression def = ((ExpressionFormula) expr).getDefinition();
+			return def != null && isInterpretable(def);
+		}
+		if (expr instanceof ExpressionUnaryOp || expr instanceof ExpressionBinaryOp || expr instanceof ExpressionITE || expr instanceof ExpressionFunc) {
+			for (Expression operand : getOperands(expr)) {
+				if (!isInterpretable(operand)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Get the operands of an operator/function expression.
+	 */
+	private static List<Expression> getOperands(Expression expr)
+	{
+		List<Expression> operands = new ArrayList<>();
+		if (expr instanceof ExpressionUnaryOp) {
+			operands.add(((ExpressionUnaryOp) expr).getOperand());
+		} else if (expr instanceof ExpressionBinaryOp) {
+			operands.add(((ExpressionBinaryOp) expr).getOperand1());
+			operands.add(((ExpressionBinaryOp) expr).getOperand2());
+		} else if (expr instanceof ExpressionITE) {
+			operands.add(((ExpressionITE) expr).getOperand1());
+			operands.add(((ExpressionITE) expr).getOperand2());
+			operands.add(((ExpressionITE) expr).getOperand3());
+		} else if (expr instanceof ExpressionFunc) {
+			ExpressionFunc e = (ExpressionFunc) expr;
+			for (int i = 0; i < e.getNumOperands(); i++) {
+				operands.add(e.getOperand(i));
+			}
+		}
+		return operands;
+	}
+
+	private static boolean isNumeric(Type type)
+	{
+		return type instanceof TypeInt || type instanceof TypeDouble;
+	}
+
+	// Evaluation over chunks
+
+	@FunctionalInterface
+	private interface ChunkTask
+	{
+		void evaluate(Chunk chunk) throws PrismLangException;
+	}
+
+	/**
+	 * Evaluate {@code task} for each chunk of states, using {@code numThreads} threads
+	 * (from the {@link SharedThreadPool}), or sequentially if there is only one chunk.
+	 */
+	private void evaluateChunks(BitSet statesOfInterest, int numThreads, ChunkTask task) throws PrismLangException
+	{
+		int numStates = columns.getNumStates();
+		int numChunks = (numStates + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		if (numThreads <= 1 || numChunks <= 1) {
+			for (int c = 0; c < numChunks; c++) {
+				task.evaluate(new Chunk(c * CHUNK_SIZE, statesOfInterest));
+			}
+			return;
+		}
+		ExecutorService executor = SharedThreadPool.get(numThreads);
+		try {
+			// (errors are returned, rather than thrown, since the pool may wrap checked exceptions)
+			List<Callable<PrismLangException>> tasks = new ArrayList<>(numChunks);
+			for (int c = 0; c < numChunks; c++) {
+				int lo = c * CHUNK_SIZE;
+				tasks.add(() -> {
+					try {
+						task.evaluate(new Chunk(lo, statesOfInterest));
+						return null;
+					} catch (PrismLangException e) {
+						return e;
+					}
+				});
+			}
+			// Collect results in order, so that any error is the one for the first chunk
+			for (Future<PrismLangException> future : executor.invokeAll(tasks)) {
+				PrismLangException error = future.get();
+				if (error != null) {
+					throw error;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new PrismLangException("Interrupted during expression evaluation");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new PrismLangException(cause.getMessage());
+		}
+	}
+
+	/**
+	 * Evaluation of expressions over a single chunk of states.
+	 * Boolean values are stored as arrays of 64-bit words,
+	 * integer/double values as int/double arrays, indexed from the start of the chunk.
+	 */
+	private class Chunk
+	{
+		/** Index of the first state of the chunk */
+		final int lo;
+		/** Number of states in the chunk */
+		final int m;
+		/** Number of words in bit vectors for the chunk */
+		final int numWords;
+		/** States of interest in the chunk */
+		final long active[];
+		/** Evaluation context, for the interpreter */
+		final EvaluateContextState ec;
+
+		Chunk(int lo, BitSet statesOfInterest)
+		{
+			this.lo = lo;
+			m = Math.min(CHUNK_SIZE, columns.getNumStates() - lo);
+			numWords = (m + 63) / 64;
+			if (statesOfInterest == null) {
+				active = allTrue();
+			} else {
+				active = bits(statesOfInterest);
+			}
+			ec = new EvaluateContextState(constantValues, columns.getStatesList().get(lo));
+			ec.setEvaluationMode(EvalMode.FP);
+		}
+
+		// Bit vector utilities
+
+		long[] allTrue()
+		{
+			long res[] = new long[numWords];
+			Arrays.fill(res, -1L);
+			clearUnused(res);
+			return res;
+		}
+
+		/** Clear any bits beyond the end of the chunk */
+		void clearUnused(long res[])
+		{
+			if (m % 64 != 0) {
+				res[numWords - 1] &= (1L << (m % 64)) - 1;
+			}
+		}
+
+		/** Get the bits of {@code bs} for this chunk */
+		long[] bits(BitSet bs)
+		{
+			long words[] = bs.get(lo, lo + m).toLongArray();
+			return words.length == numWords ? words : Arrays.copyOf(words, numWords);
+		}
+
+		long[] and(long a[], long b[])
+		{
+			long res[] = new long[numWords];
+			for (int w = 0; w < numWords; w++) {
+				res[w] = a[w] & b[w];
+			}
+			return res;
+		}
+
+		long[] andNot(long a[], long b[])
+		{
+			long res[] = new long[numWords];
+			for (int w = 0; w < numWords; w++) {
+				res[w] = a[w] & ~b[w];
+			}
+			return res;
+		}
+
+		boolean get(long bits[], int i)
+		{
+			return (bits[i >>> 6] & (1L << i)) != 0;
+		}
+
+		void set(long bits[], int i)
+		{
+			bits[i >>> 6] |= 1L << i;
+		}
+
+		// Boolean-valued expressions
+
+		long[] evalBool(Expression expr, long active[]) throws PrismLangException
+		{
+			if (expr instanceof ExpressionLiteral || expr instanceof ExpressionConstant) {
+				boolean b;
+				try {
+					b = expr.evaluateBoolean(ec);
+				} catch (PrismLangException e) {
+					return interpretBool(expr, active);
+				}
+				return b ? allTrue() : new long[numWords];
+			}
+			if (expr instanceof ExpressionVar) {
+				BitSet column = columns.getBooleanColumn(((ExpressionVar) expr).getIndex());
+				return column != null ? bits(column) : interpretBool(expr, active);
+			}
+			if (expr instanceof ExpressionFormula) {
+				return evalBool(((ExpressionFormula) expr).getDefinition(), active);
+			}
+			if (expr instanceof ExpressionLabel) {
+				String name = ((ExpressionLabel) expr).getName();
+				BitSet states = labelStates.get(name);
+				return states != null ? bits(states) : evalBool(labelDefinitions.get(name), active);
+			}
+			if (!isNative(expr)) {
+				return interpretBool(expr, active);
+			}
+			if (expr instanceof ExpressionUnaryOp) {
+				ExpressionUnaryOp e = (ExpressionUnaryOp) expr;
+				long a[] = evalBool(e.getOperand(), active);
+				if (e.getOperator() == ExpressionUnaryOp.NOT) {
+					for (int w = 0; w < numWords; w++) {
+						a[w] = ~a[w];
+					}
+				}
+				return a;
+			}
+			if (expr instanceof ExpressionBinaryOp) {
+				return evalBoolBinaryOp((ExpressionBinaryOp) expr, active);
+			}
+			if (expr instanceof ExpressionITE) {
+				ExpressionITE e = (ExpressionITE) expr;
+				long c[] = evalBool(e.getOperand1(), active);
+				long a[] = evalBool(e.getOperand2(), and(active, c));
+				long b[] = evalBool(e.getOperand3(), andNot(active, c));
+				for (int w = 0; w < numWords; w++) {
+					a[w] = (c[w] & a[w]) | (~c[w] & b[w]);
+				}
+				return a;
+			}
+			return interpretBool(expr, active);
+		}
+
+		long[] evalBoolBinaryOp(ExpressionBinaryOp e, long active[]) throws PrismLangException
+		{
+			int op = e.getOperator();
+			Type t1 = e.getOperand1().getType();
+			Type t2 = e.getOperand2().getType();
+			switch (op) {
+			case ExpressionBinaryOp.IMPLIES:
+			case ExpressionBinaryOp.OR:
+			case ExpressionBinaryOp.AND: {
+				// Short-circuiting: only evaluate the right-hand side where needed
+				long a[] = evalBool(e.getOperand1(), active);
+				long b[] = evalBool(e.getOperand2(), op == ExpressionBinaryOp.OR ? andNot(active, a) : and(active, a));
+				for (int w = 0; w < numWords; w++) {
+					a[w] = op == ExpressionBinaryOp.IMPLIES ? (~a[w] | b[w]) : op == ExpressionBinaryOp.OR ? (a[w] | b[w]) : (a[w] & b[w]);
+				}
+				return a;
+			}
+			case ExpressionBinaryOp.IFF: {
+				long a[] = evalBool(e.getOperand1(), active);
+				long b[] = evalBool(e.getOperand2(), active);
+				for (int w = 0; w < numWords; w++) {
+					a[w] = ~(a[w] ^ b[w]);
+				}
+				return a;
+			}
+			default:
+				break;
+			}
+			// Remaining cases: (in)equalities and relations
+			if (t1 instanceof TypeBool && t2 instanceof TypeBool) {
+				long a[] = evalBool(e.getOperand1(), active);
+				long b[] = evalBool(e.getOperand2(), active);
+				boolean eq = op == ExpressionBinaryOp.EQ;
+				for (int w = 0; w < numWords; w++) {
+					a[w] = eq ? ~(a[w] ^ b[w]) : (a[w] ^ b[w]);
+				}
+				return a;
+			}
+			long res[] = new long[numWords];
+			if (t1 instanceof TypeInt && t2 instanceof TypeInt) {
+				int a[] = evalInt(e.getOperand1(), active);
+				int b[] = evalInt(e.getOperand2(), active);
+				for (int i = 0; i < m; i++) {
+					boolean r;
+					switch (op) {
+					case ExpressionBinaryOp.EQ:
+						r = a[i] == b[i];
+						break;
+					case ExpressionBinaryOp.NE:
+						r = a[i] != b[i];
+						break;
+					case ExpressionBinaryOp.GT:
+						r = a[i] > b[i];
+						break;
+					case ExpressionBinaryOp.GE:
+						r = a[i] >= b[i];
+						break;
+					case ExpressionBinaryOp.LT:
+						r = a[i] < b[i];
+						break;
+					default:
+						r = a[i] <= b[i];
+					}
+					if (r) {
+						set(res, i);
+					}
+				}
+			} else {
+				double a[] = evalDouble(e.getOperand1(), active);
+				double b[] = evalDouble(e.getOperand2(), active);
+				for (int i = 0; i < m; i++) {
+					boolean r;
+					switch (op) {
+					case ExpressionBinaryOp.EQ:
+						// Compare as Double.equals() does, as for the interpreter
+						r = Double.doubleToLongBits(a[i]) == Double.doubleToLongBits(b[i]);
+						break;
+					case ExpressionBinaryOp.NE:
+						r = Double.doubleToLongBits(a[i]) != Double.doubleToLongBits(b[i]);
+						break;
+					case ExpressionBinaryOp.GT:
+						r = a[i] > b[i];
+						break;
+					case ExpressionBinaryOp.GE:
+						r = a[i] >= b[i];
+						break;
+					case ExpressionBinaryOp.LT:
+						r = a[i] < b[i];
+						break;
+					default:
+						r = a[i] <= b[i];
+					}
+					if (r) {
+						set(res, i);
+					}
+				}
+			}
+			return res;
+		}
+
+		// Integer-valued expressions
+
+		int[] evalInt(Expression expr, long active[]) throws PrismLangException
+		{
+			if (expr instanceof ExpressionLiteral || expr instanceof ExpressionConstant) {
+				int val;
+				try {
+					val = expr.evaluateInt(ec);
+				} catch (PrismLangException e) {
+					return interpretInt(expr, active);
+				}
+				int res[] = new int[m];
+				Arrays.fill(res, val);
+				return res;
+			}
+			if (expr instanceof ExpressionVar) {
+				int column[] = columns.getIntColumn(((ExpressionVar) expr).getIndex());
+				return column != null ? Arrays.copyOfRange(column, lo, lo + m) : interpretInt(expr, active);
+			}
+			if (expr instanceof ExpressionFormula) {
+				return evalInt(((ExpressionFormula) expr).getDefinition(), active);
+			}
+			if (!isNative(expr)) {
+				return interpretInt(expr, active);
+			}
+			// For the remaining cases, any errors (e.g. overflow) are handled
+			// by applying the operator to the operand values in that state,
+			// which throws the same exception as the interpreter
+			if (expr instanceof ExpressionUnaryOp) {
+				ExpressionUnaryOp e = (ExpressionUnaryOp) expr;
+				int a[] = evalInt(e.getOperand(), active);
+				if (e.getOperator() == ExpressionUnaryOp.MINUS) {
+					for (int i = 0; i < m; i++) {
+						if (a[i] == Integer.MIN_VALUE) {
+							a[i] = get(active, i) ? (int) e.apply(a[i], EvalMode.FP) : 0;
+						} else {
+							a[i] = -a[i];
+						}
+					}
+				}
+				return a;
+			}
+			if (expr instanceof ExpressionBinaryOp) {
+				ExpressionBinaryOp e = (ExpressionBinaryOp) expr;
+				int op = e.getOperator();
+				int a[] = evalInt(e.getOperand1(), active);
+				int b[] = evalInt(e.getOperand2(), active);
+				for (int i = 0; i < m; i++) {
+					long r = op == ExpressionBinaryOp.PLUS ? (long) a[i] + b[i] : op == ExpressionBinaryOp.MINUS ? (long) a[i] - b[i] : (long) a[i] * b[i];
+					if (r != (int) r) {
+						r = get(active, i) ? (int) e.apply(a[i], b[i], EvalMode.FP) : 0;
+					}
+					a[i] = (int) r;
+				}
+				return a;
+			}
+			if (expr instanceof ExpressionITE) {
+				ExpressionITE e = (ExpressionITE) expr;
+				long c[] = evalBool(e.getOperand1(), active);
+				int a[] = evalInt(e.getOperand2(), and(active, c));
+				int b[] = evalInt(e.getOperand3(), andNot(active, c));
+				for (int i = 0; i < m; i++) {
+					if (!get(c, i)) {
+						a[i] = b[i];
+					}
+				}
+				return a;
+			}
+			if (expr instanceof ExpressionFunc) {
+				ExpressionFunc e = (ExpressionFunc) expr;
+				switch (e.getNameCode()) {
+				case ExpressionFunc.MIN:
+				case ExpressionFunc.MAX: {
+					boolean min = e.getNameCode() == ExpressionFunc.MIN;
+					int res[] = evalInt(e.getOperand(0), active);
+					for (int j = 1; j < e.getNumOperands(); j++) {
+						int b[] = evalInt(e.getOperand(j), active);
+						for (int i = 0; i < m; i++) {
+							res[i] = min ? Math.min(res[i], b[i]) : Math.max(res[i], b[i]);
+						}
+					}
+					return res;
+				}
+				case ExpressionFunc.FLOOR:
+				case ExpressionFunc.CEIL: {
+					boolean floor = e.getNameCode() == ExpressionFunc.FLOOR;
+					double a[] = evalDouble(e.getOperand(0), active);
+					int res[] = new int[m];
+					for (int i = 0; i < m; i++) {
+						double d = floor ? Math.floor(a[i]) : Math.ceil(a[i]);
+						if (d >= Integer.MIN_VALUE && d <= Integer.MAX_VALUE) {
+							res[i] = (int) d;
+						} else {
+							res[i] = get(active, i) ? (int) e.applyUnary(a[i], EvalMode.FP) : 0;
+						}
+					}
+					return res;
+				}
+				case ExpressionFunc.MOD: {
+					int a[] = evalInt(e.getOperand(0), active);
+					int b[] = evalInt(e.getOperand(1), active);
+					for (int i = 0; i < m; i++) {
+						if (b[i] <= 0) {
+							a[i] = get(active, i) ? (int) e.applyBinary(a[i], b[i], EvalMode.FP) : 0;
+						} else {
+							int rem = a[i] % b[i];
+							a[i] = (rem < 0) ? rem + b[i] : rem;
+						}
+					}
+					return a;
+				}
+				default:
+					break;
+				}
+			}
+			return interpretInt(expr, active);
+		}
+
+		// Double-valued expressions
+
+		double[] evalDouble(Expression expr, long active[]) throws PrismLangException
+		{
+			if (expr.getType() instanceof TypeInt) {
+				int a[] = evalInt(expr, active);
+				double res[] = new double[m];
+				for (int i = 0; i < m; i++) {
+					res[i] = a[i];
+				}
+				return res;
+			}
+			if (expr instanceof ExpressionLiteral || expr instanceof ExpressionConstant) {
+				double val;
+				try {
+					val = expr.evaluateDouble(ec);
+				} catch (PrismLangException e) {
+					return interpretDouble(expr, active);
+				}
+				double res[] = new double[m];
+				Arrays.fill(res, val);
+				return res;
+			}
+			if (expr instanceof ExpressionVar) {
+				double column[] = columns.getDoubleColumn(((ExpressionVar) expr).getIndex());
+				return column != null ? Arrays.copyOfRange(column, lo, lo + m) : interpretDouble(expr, active);
+			}
+			if (expr instanceof ExpressionFormula) {
+				return evalDouble(((ExpressionFormula) expr).getDefinition(), active);
+			}
+			if (!isNative(expr)) {
+				return interpretDouble(expr, active);
+			}
+			if (expr instanceof ExpressionUnaryOp) {
+				ExpressionUnaryOp e = (ExpressionUnaryOp) expr;
+				double a[] = evalDouble(e.getOperand(), active);
+				if (e.getOperator() == ExpressionUnaryOp.MINUS) {
+					for (int i = 0; i < m; i++) {
+						a[i] = -a[i];
+					}
+				}
+				return a;
+			}
+			if (expr instanceof ExpressionBinaryOp) {
+				ExpressionBinaryOp e = (ExpressionBinaryOp) expr;
+				double a[] = evalDouble(e.getOperand1(), active);
+				double b[] = evalDouble(e.getOperand2(), active);
+				switch (e.getOperator()) {
+				case ExpressionBinaryOp.PLUS:
+					for (int i = 0; i < m; i++) {
+						a[i] += b[i];
+					}
+					break;
+				case ExpressionBinaryOp.MINUS:
+					for (int i = 0; i < m; i++) {
+						a[i] -= b[i];
+					}
+					break;
+				case ExpressionBinaryOp.TIMES:
+					for (int i = 0; i < m; i++) {
+						a[i] *= b[i];
+					}
+					break;
+				case ExpressionBinaryOp.DIVIDE:
+					for (int i = 0; i < m; i++) {
+						a[i] /= b[i];
+					}
+					break;
+				default:
+					for (int i = 0; i < m; i++) {
+						a[i] = Math.pow(a[i], b[i]);
+					}
+				}
+				return a;
+			}
+			if (expr instanceof ExpressionITE) {
+				ExpressionITE e = (ExpressionITE) expr;
+				long c[] = evalBool(e.getOperand1(), active);
+				double a[] = evalDouble(e.getOperand2(), and(active, c));
+				double b[] = evalDouble(e.getOperand3(), andNot(active, c));
+				for (int i = 0; i < m; i++) {
+					if (!get(c, i)) {
+						a[i] = b[i];
+					}
+				}
+				return a;
+			}
+			if (expr instanceof ExpressionFunc) {
+				ExpressionFunc e = (ExpressionFunc) expr;
+				switch (e.getNameCode()) {
+				case ExpressionFunc.MIN:
+				case ExpressionFunc.MAX: {
+					boolean min = e.getNameCode() == ExpressionFunc.MIN;
+					double res[] = evalDouble(e.getOperand(0), active);
+					for (int j = 1; j < e.getNumOperands(); j++) {
+						double b[] = evalDouble(e.getOperand(j), active);
+						for (int i = 0; i < m; i++) {
+							res[i] = min ? Math.min(res[i], b[i]) : Math.max(res[i], b[i]);
+						}
+					}
+					return res;
+				}
+				case ExpressionFunc.POW: {
+					double a[] = evalDouble(e.getOperand(0), active);
+					double b[] = evalDouble(e.getOperand(1), active);
+					for (int i = 0; i < m; i++) {
+						a[i] = Math.pow(a[i], b[i]);
+					}
+					return a;
+				}
+				default:
+					break;
+				}
+			}
+			return interpretDouble(expr, active);
+		}
+
+		// Fall-backs to the interpreter (for states of interest only)
+
+		long[] interpretBool(Expression expr, long active[]) throws PrismLangException
+		{
+			long res[] = new long[numWords];
+			List<State> statesList = columns.getStatesList();
+			for (int i = 0; i < m; i++) {
+				if (get(active, i) && expr.evaluateBoolean(ec.setState(statesList.get(lo + i)))) {
+					set(res, i);
+				}
+			}
+			return res;
+		}
+
+		int[] interpretInt(Expression expr, long active[]) throws PrismLangException
+		{
+			int res[] = new int[m];
+			List<State> statesList = columns.getStatesList();
+			for (int i = 0; i < m; i++) {
+				if (get(active, i)) {
+					res[i] = expr.evaluateInt(ec.setState(statesList.get(lo + i)));
+				}
+			}
+			return res;
+		}
+
+		double[] interpretDouble(Expression expr, long active[]) throws PrismLangException
+		{
+			double res[] = new double[m];
+			List<State> statesList = columns.getStatesList();
+			for (int i = 0; i < m; i++) {
+				if (get(active, i)) {
+					res[i] = expr.evaluateDouble(ec.setState(statesList.get(lo + i)));
+				}
+			}
+			return res;
+		}
+	}
+}
@@ -0,0 +1,567 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package parser;
+
+import common.SafeCast;
+import parser.EvaluateContext.EvalMode;
+import parser.ast.Expression;
+import parser.ast.ExpressionBinaryOp;
+import parser.ast.ExpressionFunc;
+import parser.ast.ExpressionITE;
+import parser.ast.ExpressionLiteral;
+import parser.ast.ExpressionUnaryOp;
+import parser.ast.ExpressionVar;
+import parser.ast.Update;
+import parser.ast.UpdateElement;
+import parser.type.Type;
+import parser.type.TypeBool;
+import parser.type.TypeDouble;
+import parser.type.TypeInt;
+import prism.PrismLangException;
+
+/**
+ * Class to compile expressions into (trees of) typed closures that evaluate them
+ * in a {@link State} using primitive values, reading variable values directly
+ * from the state, rather than interpreting the expression's AST each time.
+ * <br><br>
+ * Evaluation is in floating-point mode ({@link EvalMode#FP}) and gives exactly the same
+ * results as the interpreter ({@link Expression#evaluate(EvaluateContext)}).
+ * Sub-expressions that are not supported by the compiler (e.g. unusual functions,
+ * undefined constants, or types other than int/double/bool) are evaluated by
+ * the interpreter instead. Errors (e.g. arithmetic overflow) are also delegated
+ * to the interpreter, so that the same exceptions are thrown.
+ * <br><br>
+ * Compiled expressions share an evaluation context, so the objects created
+ * by a single compiler should not be used concurrently from multiple threads.
+ */
+public class ExpressionCompiler
+{
+	/** A compiled Boolean-valued expression */
+	@FunctionalInterface
+	public interface CompiledBoolean
+	{
+		boolean evaluate(State state) throws PrismLangException;
+	}
+
+	/** A compiled integer-valued expression */
+	@FunctionalInterface
+	public interface CompiledInt
+	{
+		int evaluate(State state) throws PrismLangException;
+	}
+
+	/** A compiled double-valued expression (or an integer-valued one, cast to a double) */
+	@FunctionalInterface
+	public interface CompiledDouble
+	{
+		double evaluate(State state) throws PrismLangException;
+	}
+
+	/** A compiled update: applies changes to {@code newState}, based on values in {@code oldState} */
+	@FunctionalInterface
+	public interface CompiledUpdate
+	{
+		void update(State oldState, State newState) throws PrismLangException;
+	}
+
+	/** Evaluation context used for sub-expressions that are interpreted */
+	private EvaluateContextState ec;
+
+	/**
+	 * Create a compiler for expressions over states with {@code numVars} variables.
+	 * @param constantValues Values for any constants remaining in expressions (may be null)
+	 * @param numVars Number of variables
+	 */
+	public ExpressionCompiler(Values constantValues, int numVars)
+	{
+		ec = new EvaluateContextState(constantValues, new State(numVars));
+		ec.setEvaluationMode(EvalMode.FP);
+	}
+
+	/**
+	 * Compile a Boolean-valued expression.
+	 */
+	public CompiledBoolean compileBoolean(Expression expr)
+	{
+		CompiledBoolean c = expr.getType() instanceof TypeBool ? compileBooleanNode(expr) : null;
+		return c != null ? c : interpretBoolean(expr);
+	}
+
+	/**
+	 * Compile an integer-valued expression.
+	 */
+	public CompiledInt compileInt(Expression expr)
+	{
+		CompiledInt c = expr.getType() instanceof TypeInt ? compileIntNode(expr) : null;
+		return c != null ? c : interpretInt(expr);
+	}
+
+	/**
+	 * Compile a double-valued expression (integer-valued ones are cast to doubles).
+	 */
+	public CompiledDouble compileDouble(Expression expr)
+	{
+		if (expr.getType() instanceof TypeInt) {
+			CompiledInt c = compileInt(expr);
+			return s -> c.evaluate(s);
+		}
+		CompiledDouble c = expr.getType() instanceof TypeDouble ? compileDoubleNode(expr) : null;
+		return c != null ? c : interpretDouble(expr);
+	}
+
+	/**
+	 * Compile an update, i.e., a list of assignments to variables,
+	 * which behaves as {@link Update#update(State, State, boolean, VarList)} in floating-point mode.
+	 */
+	public CompiledUpdate compileUpdate(Update update)
+	{
+		int n = update.getNumElements();
+		CompiledUpdate elements[] = new CompiledUpdate[n];
+		for (int i = 0; i < n; i++) {
+			elements[i] = compileUpdateElement(update.getElement(i));
+		}
+		if (n == 1) {
+			return elements[0];
+		}
+		return (oldState, newState) -> {
+			for (CompiledUpdate element : elements) {
+				element.update(oldState, newState);
+			}
+		};
+	}
+
+	// Compilation of each kind of expression (returns null if not supported)
+
+	private CompiledUpdate compileUpdateElement(UpdateElement element)
+	{
+		int v = element.getVarIndex();
+		Type varType = element.getType();
+		Type exprType = element.getExpression().getType();
+		if (v >= 0) {
+			if (varType instanceof TypeBool && exprType instanceof TypeBool) {
+				CompiledBoolean c = compileBoolean(element.getExpression());
+				return (oldState, newState) -> newState.varValues[v] = c.evaluate(oldState);
+			} else if (varType instanceof TypeInt && exprType instanceof TypeInt) {
+				CompiledInt c = compileInt(element.getExpression());
+				return (oldState, newState) -> newState.varValues[v] = c.evaluate(oldState);
+			} else if (varType instanceof TypeDouble && (exprType instanceof TypeInt || exprType instanceof TypeDouble)) {
+				CompiledDouble c = compileDouble(element.getExpression());
+				return (oldState, newState) -> newState.varValues[v] = c.evaluate(oldState);
+			}
+		}
+		return (oldState, newState) -> element.update(ec.setState(oldState), newState, null);
+	}
+
+	private CompiledBoolean compileBooleanNode(Expression expr)
+	{
+		if (expr instanceof ExpressionLiteral) {
+			try {
+				boolean b = expr.evaluateBoolean(ec);
+				return s -> b;
+			} catch (PrismLangException e) {
+				return null;
+			}
+		}
+		if (expr instanceof ExpressionVar) {
+			int v = ((ExpressionVar) expr).getIndex();
+			if (v < 0) {
+				return null;
+			}
+			CompiledBoolean interp = interpretBoolean(expr);
+			return s -> {
+				Object val = s.varValues[v];
+				return val instanceof Boolean ? (Boolean) val : interp.evaluate(s);
+			};
+		}
+		if (expr instanceof ExpressionUnaryOp) {
+			ExpressionUnaryOp e = (ExpressionUnaryOp) expr;
+			switch (e.getOperator()) {
+			case ExpressionUnaryOp.NOT:
+				CompiledBoolean c = compileBoolean(e.getOperand());
+				return s -> !c.evaluate(s);
+			case ExpressionUnaryOp.PARENTH:
+				return compileBoolean(e.getOperand());
+			default:
+				return null;
+			}
+		}
+		if (expr instanceof ExpressionBinaryOp) {
+			return compileBooleanBinaryOp((ExpressionBinaryOp) expr);
+		}
+		if (expr instanceof ExpressionITE) {
+			ExpressionITE e = (ExpressionITE) expr;
+			CompiledBoolean c1 = compileBoolean(e.getOperand1());
+			CompiledBoolean c2 = compileBoolean(e.getOperand2());
+			CompiledBoolean c3 = compileBoolean(e.getOperand3());
+			return s -> c1.evaluate(s) ? c2.evaluate(s) : c3.evaluate(s);
+		}
+		return null;
+	}
+
+	private CompiledBoolean compileBooleanBinaryOp(ExpressionBinaryOp e)
+	{
+		Type t1 = e.getOperand1().getType();
+		Type t2 = e.getOperand2().getType();
+		boolean bothBool = t1 instanceof TypeBool && t2 instanceof TypeBool;
+		boolean bothInt = t1 instanceof TypeInt && t2 instanceof TypeInt;
+		boolean bothNumeric = (t1 instanceof TypeInt || t1 instanceof TypeDouble) && (t2 instanceof TypeInt || t2 instanceof TypeDouble);
+		int op = e.getOperator();
+		switch (op) {
+		case ExpressionBinaryOp.IMPLIES:
+		case ExpressionBinaryOp.IFF:
+		case ExpressionBinaryOp.OR:
+		case ExpressionBinaryOp.AND:
+			if (!bothBool) {
+				return null;
+			}
+			CompiledBoolean b1 = compileBoolean(e.getOperand1());
+			CompiledBoolean b2 = compileBoolean(e.getOperand2());
+			switch (op) {
+			case ExpressionBinaryOp.IMPLIES:
+				return s -> !b1.evaluate(s) || b2.evaluate(s);
+			case ExpressionBinaryOp.IFF:
+				return s -> b1.evaluate(s) == b2.evaluate(s);
+			case ExpressionBinaryOp.OR:
+				return s -> b1.evaluate(s) || b2.evaluate(s);
+			default:
+				return s -> b1.evaluate(s) && b2.evaluate(s);
+			}
+		case ExpressionBinaryOp.EQ:
+		case ExpressionBinaryOp.NE:
+			boolean eq = op == ExpressionBinaryOp.EQ;
+			if (bothBool) {
+				CompiledBoolean c1 = compileBoolean(e.getOperand1());
+				CompiledBoolean c2 = compileBoolean(e.getOperand2());
+				return s -> (c1.evaluate(s) == c2.evaluate(s)) == eq;
+			} else if (bothInt) {
+				CompiledInt c1 = compileInt(e.getOperand1());
+				CompiledInt c2 = compileInt(e.getOperand2());
+				return s -> (c1.evaluate(s) == c2.evaluate(s)) == eq;
+			} else if (bothNumeric) {
+				// Compare as Double.equals() does, as for the interpreter
+				CompiledDouble c1 = compileDouble(e.getOperand1());
+				CompiledDouble c2 = compileDouble(e.getOperand2());
+				return s -> (Double.doubleToLongBits(c1.evaluate(s)) == Double.doubleToLongBits(c2.evaluate(s))) == eq;
+			}
+			return null;
+		case ExpressionBinaryOp.GT:
+		case ExpressionBinaryOp.GE:
+		case ExpressionBinaryOp.LT:
+		case ExpressionBinaryOp.LE:
+			if (bothInt) {
+				CompiledInt c1 = compileInt(e.getOperand1());
+				CompiledInt c2 = compileInt(e.getOperand2());
+				switch (op) {
+				case ExpressionBinaryOp.GT:
+					return s -> c1.evaluate(s) > c2.evaluate(s);
+				case ExpressionBinaryOp.GE:
+					return s -> c1.evaluate(s) >= c2.evaluate(s);
+				case ExpressionBinaryOp.LT:
+					return s -> c1.evaluate(s) < c2.evaluate(s);
+				default:
+					return s -> c1.evaluate(s) <= c2.evaluate(s);
+				}
+			} else if (bothNumeric) {
+				CompiledDouble c1 = compileDouble(e.getOperand1());
+				CompiledDouble c2 = compileDouble(e.getOperand2());
+				switch (op) {
+				case ExpressionBinaryOp.GT:
+					return s -> c1.evaluate(s) > c2.evaluate(s);
+				case ExpressionBinaryOp.GE:
+					return s -> c1.evaluate(s) >= c2.evaluate(s);
+				case ExpressionBinaryOp.LT:
+					return s -> c1.evaluate(s) < c2.evaluate(s);
+				default:
+					return s -> c1.evaluate(s) <= c2.evaluate(s);
+				}
+			}
+			return null;
+		default:
+			return null;
+		}
+	}
+
+	private CompiledInt compileIntNode(Expression expr)
+	{
+		if (expr instanceof ExpressionLiteral) {
+			try {
+				int i = expr.evaluateInt(ec);
+				return s -> i;
+			} catch (PrismLangException e) {
+				return null;
+			}
+		}
+		if (expr instanceof ExpressionVar) {
+			int v = ((ExpressionVar) expr).getIndex();
+			if (v < 0) {
+				return null;
+			}
+			CompiledInt interp = interpretInt(expr);
+			return s -> {
+				Object val = s.varValues[v];
+				return val instanceof Integer ? (Integer) val : interp.evaluate(s);
+			};
+		}
+		// For the remaining cases, any errors (e.g. overflow) are
+		// handled by re-evaluating with the interpreter, which throws the same exception
+		CompiledInt interp = interpretInt(expr);
+		if (expr instanceof ExpressionUnaryOp) {
+			ExpressionUnaryOp e = (ExpressionUnaryOp) expr;
+			switch (e.getOperator()) {
+			case ExpressionUnaryOp.MINUS:
+				CompiledInt c = compileInt(e.getOperand());
+				return s -> {
+					int i = c.evaluate(s);
+					return i == Integer.MIN_VALUE ? interp.evaluate(s) : -i;
+				};
+			case ExpressionUnaryOp.PARENTH:
+				return compileInt(e.getOperand());
+			default:
+				return null;
+			}
+		}
+		if (expr instanceof ExpressionBinaryOp) {
+			ExpressionBinaryOp e = (ExpressionBinaryOp) expr;
+			if (!(e.getOperand1().getType() instanceof TypeInt && e.getOperand2().getType() instanceof TypeInt)) {
+				return null;
+			}
+			CompiledInt c1 = compileInt(e.getOperand1());
+			CompiledInt c2 = compileInt(e.getOperand2());
+			switch (e.getOperator()) {
+			case ExpressionBinaryOp.PLUS:
+				return s -> {
+					try {
+						return Math.addExact(c1.evaluate(s), c2.evaluate(s));
+					} catch (ArithmeticException ex) {
+						return interp.evaluate(s);
+					}
+				};
+			case ExpressionBinaryOp.MINUS:
+				return s -> {
+					try {
+						return Math.subtractExact(c1.evaluate(s), c2.evaluate(s));
+					} catch (ArithmeticException ex) {
+						return interp.evaluate(s);
+					}
+				};
+			case ExpressionBinaryOp.TIMES:
+				return s -> {
+					try {
+						return Math.multiplyExact(c1.evaluate(s), c2.evaluate(s));
+					} catch (ArithmeticException ex) {
+						return interp.evaluate(s);
+					}
+				};
+			default:
+				return null;
+			}
+		}
+		if (expr instanceof ExpressionITE) {
+			ExpressionITE e = (ExpressionITE) expr;
+			CompiledBoolean c1 = compileBoolean(e.getOperand1());
+			CompiledInt c2 = compileInt(e.getOperand2());
+			CompiledInt c3 = compileInt(e.getOperand3());
+			return s -> c1.evaluate(s) ? c2.evaluate(s) : c3.evaluate(s);
+		}
+		if (expr instanceof ExpressionFunc) {
+			ExpressionFunc e = (ExpressionFunc) expr;
+			int n = e.getNumOperands();
+			switch (e.getNameCode()) {
+			case ExpressionFunc.MIN:
+			case ExpressionFunc.MAX:
+				boolean min = e.getNameCode() == ExpressionFunc.MIN;
+				CompiledInt cs[] = new CompiledInt[n];
+				for (int i = 0; i < n; i++) {
+					cs[i] = compileInt(e.getOperand(i));
+				}
+				return s -> {
+					try {
+						int res = cs[0].evaluate(s);
+						for (int i = 1; i < n; i++) {
+							res = min ? Math.min(res, cs[i].evaluate(s)) : Math.max(res, cs[i].evaluate(s));
+						}
+						return res;
+					} catch (PrismLangException ex) {
+						return interp.evaluate(s);
+					}
+				};
+			case ExpressionFunc.FLOOR:
+			case ExpressionFunc.CEIL:
+				boolean floor = e.getNameCode() == ExpressionFunc.FLOOR;
+				CompiledDouble c = compileDouble(e.getOperand(0));
+				return s -> {
+					try {
+						double d = c.evaluate(s);
+						return SafeCast.toIntExact(floor ? Math.floor(d) : Math.ceil(d));
+					} catch (PrismLangException | ArithmeticException ex) {
+						return interp.evaluate(s);
+					}
+				};
+			case ExpressionFunc.MOD:
+				CompiledInt m1 = compileInt(e.getOperand(0));
+				CompiledInt m2 = compileInt(e.getOperand(1));
+				return s -> {
+					try {
+						int i1 = m1.evaluate(s);
+						int i2 = m2.evaluate(s);
+						if (i2 <= 0) {
+							return interp.evaluate(s);
+						}
+						int rem = i1 % i2;
+						return (rem < 0) ? rem + i2 : rem;
+					} catch (PrismLangException ex) {
+						return interp.evaluate(s);
+					}
+				};
+			default:
+				return null;
+			}
+		}
+		return null;
+	}
+
+	private CompiledDouble compileDoubleNode(Expression expr)
+	{
+		if (expr instanceof ExpressionLiteral) {
+			try {
+				double d = expr.evaluateDouble(ec);
+				return s -> d;
+			} catch (PrismLangException e) {
+				return null;
+			}
+		}
+		if (expr instanceof ExpressionVar) {
+			int v = ((ExpressionVar) expr).getIndex();
+			if (v < 0) {
+				return null;
+			}
+			CompiledDouble interp = interpretDouble(expr);
+			return s -> {
+				Object val = s.varValues[v];
+				return val instanceof Double ? (Double) val : interp.evaluate(s);
+			};
+		}
+		if (expr instanceof ExpressionUnaryOp) {
+			ExpressionUnaryOp e = (ExpressionUnaryOp) expr;
+			switch (e.getOperator()) {
+			case ExpressionUnaryOp.MINUS:
+				CompiledDouble c = compileDouble(e.getOperand());
+				return s -> -c.evaluate(s);
+			case ExpressionUnaryOp.PARENTH:
+				return compileDouble(e.getOperand());
+			default:
+				return null;
+			}
+		}
+		if (expr instanceof ExpressionBinaryOp) {
+			ExpressionBinaryOp e = (ExpressionBinaryOp) expr;
+			Type t1 = e.getOperand1().getType();
+			Type t2 = e.getOperand2().getType();
+			if (!((t1 instanceof TypeInt || t1 instanceof TypeDouble) && (t2 instanceof TypeInt || t2 instanceof TypeDouble))) {
+				return null;
+			}
+			CompiledDouble c1 = compileDouble(e.getOperand1());
+			CompiledDouble c2 = compileDouble(e.getOperand2());
+			switch (e.getOperator()) {
+			case ExpressionBinaryOp.PLUS:
+				return s -> c1.evaluate(s) + c2.evaluate(s);
+			case ExpressionBinaryOp.MINUS:
+				return s -> c1.evaluate(s) - c2.evaluate(s);
+			case ExpressionBinaryOp.TIMES:
+				return s -> c1.evaluate(s) * c2.evaluate(s);
+			case ExpressionBinaryOp.DIVIDE:
+				return s -> c1.evaluate(s) / c2.evaluate(s);
+			case ExpressionBinaryOp.POW:
+				return s -> Math.pow(c1.evaluate(s), c2.evaluate(s));
+			default:
+				return null;
+			}
+		}
+		if (expr instanceof ExpressionITE) {
+			ExpressionITE e = (ExpressionITE) expr;
+			CompiledBoolean c1 = compileBoolean(e.getOperand1());
+			CompiledDouble c2 = compileDouble(e.getOperand2());
+			CompiledDouble c3 = compileDouble(e.getOperand3());
+			return s -> c1.evaluate(s) ? c2.evaluate(s) : c3.evaluate(s);
+		}
+		if (expr instanceof ExpressionFunc) {
+			ExpressionFunc e = (ExpressionFunc) expr;
+			int n = e.getNumOperands();
+			CompiledDouble interp = interpretDouble(expr);
+			switch (e.getNameCode()) {
+			case ExpressionFunc.MIN:
+			case ExpressionFunc.MAX:
+				boolean min = e.getNameCode() == ExpressionFunc.MIN;
+				CompiledDouble cs[] = new CompiledDouble[n];
+				for (int i = 0; i < n; i++) {
+					cs[i] = compileDouble(e.getOperand(i));
+				}
+				return s -> {
+					try {
+						double res = cs[0].evaluate(s);
+						for (int i = 1; i < n; i++) {
+							res = min ? Math.min(res, cs[i].evaluate(s)) : Math.max(res, cs[i].evaluate(s));
+						}
+						return res;
+					} catch (PrismLangException ex) {
+						return interp.evaluate(s);
+					}
+				};
+			case ExpressionFunc.POW:
+				CompiledDouble p1 = compileDouble(e.getOperand(0));
+				CompiledDouble p2 = compileDouble(e.getOperand(1));
+				return s -> {
+					try {
+						return Math.pow(p1.evaluate(s), p2.evaluate(s));
+					} catch (PrismLangException ex) {
+						return interp.evaluate(s);
+					}
+				};
+			default:
+				return null;
+			}
+		}
+		return null;
+	}
+
+	// Fall-backs to the interpreter
+
+	private CompiledBoolean interpretBoolean(Expression expr)
+	{
+		return s -> expr.evaluateBoolean(ec.setState(s));
+	}
+
+	private CompiledInt interpretInt(Expression expr)
+	{
+		return s -> expr.evaluateInt(ec.setState(s));
+	}
+
+	private CompiledDouble interpretDouble(Expression expr)
+	{
+		return s -> expr.evaluateDouble(ec.setState(s));
+	}
+}
@@ -0,0 +1,232 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package parser;
+
+import java.math.BigInteger;
+
+import parser.EvaluateContext.EvalMode;
+import parser.ast.DeclarationBool;
+import parser.ast.DeclarationInt;
+import parser.ast.DeclarationType;
+import prism.PrismLangException;
+
+/**
+ * Class to encode {@link State} objects compactly, as a fixed number of {@code long} words,
+ * using the variable bounds from a {@link VarList}. Each variable is stored as its integer
+ * encoding (see {@link VarList#encodeToInt(int, Object)}), using as few bits as possible.
+ * <br><br>
+ * Variables are packed in order, starting from the most significant bits of the first word,
+ * and no variable is split across two words. So, comparing the words of two encoded states
+ * lexicographically (as unsigned values) gives the same ordering as {@link State#compareTo(State)}.
+ * <br><br>
+ * Only models whose variables are all bounded integers or Booleans (with non-empty ranges)
+ * can be encoded; use {@link #create(VarList, EvalMode)} to check this.
+ */
+public class PackedStateEncoder
+{
+	// Variable info
+	private VarList varList;
+	private int numVars;
+	private int low[];
+	private boolean isBool[];
+	// How integer values are represented in decoded states
+	private EvalMode evalMode;
+	// Packing: word index, shift and bit mask for each variable
+	private int numWords;
+	private int word[];
+	private int shift[];
+	private long mask[];
+
+	/**
+	 * Create an encoder for the states of a model with variables {@code varList},
+	 * or return null if the variables cannot be encoded (e.g. there are unbounded variables or clocks).
+	 * @param varList Variable info
+	 * @param evalMode Evaluation mode used for states (determines whether integers are stored as Integer or BigInteger)
+	 */
+	public static PackedStateEncoder create(VarList varList, EvalMode evalMode)
+	{
+		int n = varList.getNumVars();
+		if (n == 0) {
+			return null;
+		}
+		for (int v = 0; v < n; v++) {
+			DeclarationType declType = varList.getDeclarationType(v);
+			if (!(declType instanceof DeclarationInt || declType instanceof DeclarationBool)) {
+				return null;
+			}
+			// Each variable must fit (unsplit) in a word
+			long range = getRange(varList, v);
+			if (range < 1 || getNumBits(range) > 63) {
+				return null;
+			}
+		}
+		return new PackedStateEncoder(varList, evalMode);
+	}
+
+	private PackedStateEncoder(VarList varList, EvalMode evalMode)
+	{
+		this.varList = varList;
+		this.evalMode = evalMode;
+		numVars = varList.getNumVars();
+		low = new int[numVars];
+		isBool = new boolean[numVars];
+		word = new int[numVars];
+		shift = new int[numVars];
+		mask = new long[numVars];
+		int w = 0, bitsLeft = 64;
+		for (int v = 0; v < numVars; v++) {
+			low[v] = varList.getLow(v);
+			isBool[v] = varList.getDeclarationType(v) instanceof DeclarationBool;
+			int bits = getNumBits(getRange(varList, v));
+			if (bits > bitsLeft) {
+				w++;
+				bitsLeft = 64;
+			}
+			bitsLeft -= bits;
+			word[v] = w;
+			shift[v] = bitsLeft;
+			mask[v] = (1L << bits) - 1;
+		}
+		numWords = w + 1;
+	}
+
+	/**
+	 * Get the range of (the integer encoding of) variable {@code v},
+	 * computed without overflow (unlike {@link VarList#getRange(int)}).
+	 */
+	private static long getRange(VarList varList, int v)
+	{
+		return (long) varList.getHigh(v) - varList.getLow(v) + 1;
+	}
+
+	/**
+	 * Get the number of bits needed to store values 0,...,{@code range}-1 (at least 1).
+	 */
+	private static int getNumBits(long range)
+	{
+		return Math.max(1, 64 - Long.numberOfLeadingZeros(range - 1));
+	}
+
+	/**
+	 * Get the number of {@code long} words needed to store each state.
+	 */
+	public int getNumWords()
+	{
+		return numWords;
+	}
+
+	/**
+	 * Get the variable info used for the encoding.
+	 */
+	public VarList getVarList()
+	{
+		return varList;
+	}
+
+	/**
+	 * Encode a state, storing it in {@code words[offset]}...{@code words[offset+getNumWords()-1]}.
+	 * Throws an exception if any variable value is of the wrong type or out of range.
+	 */
+	public void encode(State state, long words[], int offset) throws PrismLangException
+	{
+		for (int w = 0; w < numWords; w++) {
+			words[offset + w] = 0;
+		}
+		Object vals[] = state.varValues;
+		for (int v = 0; v < numVars; v++) {
+			long val;
+			if (isBool[v]) {
+				if (!(vals[v] instanceof Boolean)) {
+					throw new PrismLangException("Invalid value " + vals[v] + " for variable " + varList.getName(v));
+				}
+				val = ((Boolean) vals[v]) ? 1 : 0;
+			} else {
+				if (!(vals[v] instanceof Number)) {
+					throw new PrismLangException("Invalid value " + vals[v] + " for variable " + varList.getName(v));
+				}
+				val = ((Number) vals[v]).longValue() - low[v];
+				if (val < 0 || val > mask[v] || val + low[v] > varList.getHigh(v)) {
+					throw new PrismLangException("Value " + vals[v] + " out of range for variable " + varList.getName(v));
+				}
+			}
+			words[offset + word[v]] |= val << shift[v];
+		}
+	}
+
+	/**
+	 * Decode a state stored in {@code words[offset]}...{@code words[offset+getNumWords()-1]},
+	 * returning a new {@link State} object.
+	 */
+	public State decode(long words[], int offset)
+	{
+		return decode(words, offset, new State(numVars));
+	}
+
+	/**
+	 * Decode a state stored in {@code words[offset]}...{@code words[offset+getNumWords()-1]},
+	 * overwriting the variable values of an existing {@link State} object {@code state}
+	 * (which must have the right number of variables), and returning it.
+	 */
+	public State decode(long words[], int offset, State state)
+	{
+		for (int v = 0; v < numVars; v++) {
+			state.varValues[v] = decodeValue(words, offset, v);
+		}
+		return state;
+	}
+
+	/**
+	 * Decode the value of variable {@code v} in the state stored in
+	 * {@code words[offset]}...{@code words[offset+getNumWords()-1]}.
+	 */
+	public Object decodeValue(long words[], int offset, int v)
+	{
+		// Unsigned: ranges may be up to 32 bits wide
+		long val = (words[offset + word[v]] >>> shift[v]) & mask[v];
+		if (isBool[v]) {
+			return val != 0;
+		} else if (evalMode == EvalMode.EXACT) {
+			return BigInteger.valueOf(val + low[v]);
+		} else {
+			return (int) (val + low[v]);
+		}
+	}
+
+	/**
+	 * Compare two encoded states, in the style of {@link State#compareTo(State)}.
+	 */
+	public int compare(long words1[], int offset1, long words2[], int offset2)
+	{
+		for (int w = 0; w < numWords; w++) {
+			int c = Long.compareUnsigned(words1[offset1 + w], words2[offset2 + w]);
+			if (c != 0) {
+				return c;
+			}
+		}
+		return 0;
+	}
+}
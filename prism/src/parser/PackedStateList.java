@@ -0,0 +1,111 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+
+package parser;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Read-only list view of states stored compactly by a {@link PackedStateEncoder}, optionally reordered.
+ * States are decoded (as new State objects) each time they are accessed with {@link #get(int)};
+ * callers that access many states can instead decode into an existing object
+ * with {@link #get(int, State)}, or decode single variables with {@link #getValue(int, int)}.
+ */
+public class PackedStateList extends AbstractList<State> implements RandomAccess
+{
+	private PackedStateEncoder encoder;
+	private long words[];
+	private int size;
+	// Index in the underlying storage for each list index (null means identity)
+	private int index[];
+
+	/**
+	 * Create a list of the first {@code size} states encoded in {@code words}.
+	 * @param encoder The encoder used for the states
+	 * @param words The encoded states (not copied)
+	 * @param size The number of states
+	 * @param index Index in {@code words} of the state for each list index (null means identity)
+	 */
+	public PackedStateList(PackedStateEncoder encoder, long words[], int size, int index[])
+	{
+		this.encoder = encoder;
+		this.words = words;
+		this.size = size;
+		this.index = index;
+	}
+
+	/**
+	 * Get the {@code i}th state, as a newly created {@link State} object.
+	 * Note that this allocates (and decodes) a new State on every call, so loops over
+	 * all states should use {@link #get(int, State)} or {@link #getValue(int, int)} instead.
+	 */
+	@Override
+	public State get(int i)
+	{
+		return encoder.decode(words, getOffset(i));
+	}
+
+	/**
+	 * Get the {@code i}th state, decoding it into an existing {@link State} object {@code state}
+	 * (which must have the right number of variables), and returning it.
+	 */
+	public State get(int i, State state)
+	{
+		return encoder.decode(words, getOffset(i), state);
+	}
+
+	/**
+	 * Get the value of variable {@code v} in the {@code i}th state.
+	 */
+	public Object getValue(int i, int v)
+	{
+		return encoder.decodeValue(words, getOffset(i), v);
+	}
+
+	/**
+	 * Get the number of variables in each state.
+	 */
+	public int getNumVars()
+	{
+		return encoder.getVarList().getNumVars();
+	}
+
+	@Override
+	public int size()
+	{
+		return size;
+	}
+
+	private int getOffset(int i)
+	{
+		if (i < 0 || i >= size) {
+			throw new IndexOutOfBoundsException("Index " + i + " out of bounds for length " + size);
+		}
+		return (index == null ? i : index[i]) * encoder.getNumWords();
+	}
+}
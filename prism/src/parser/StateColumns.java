@@ -0,0 +1,193 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+
+package parser;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Storage of the values of variables over a list of states as primitive columns,
+ * one per variable: an {@code int[]} for integer variables, a {@code double[]}
+ * for double variables and a {@link BitSet} for Boolean variables.
+ * This allows expressions to be evaluated over many states at once,
+ * without going through the (boxed) values in each {@link State}
+ * (see {@link ColumnarExpressionEvaluator}).
+ * <br><br>
+ * Columns are built on demand, the first time they are requested.
+ * Variables whose values are not all of the same (supported) type have no column.
+ * This class is thread-safe.
+ */
+public class StateColumns
+{
+	/** The list of states */
+	private final List<State> statesList;
+	/** Number of states */
+	private final int numStates;
+	/** Column for each variable (int[], double[] or BitSet), or null if not (yet) built */
+	private final Object columns[];
+	/** Whether the column for each variable has been built (or found to be impossible) */
+	private final boolean built[];
+
+	/**
+	 * Create (initially empty) column storage for a list of states.
+	 * @param statesList The list of states (should not be modified afterwards)
+	 */
+	public StateColumns(List<State> statesList)
+	{
+		this.statesList = statesList;
+		numStates = statesList.size();
+		int numVars = numStates == 0 ? 0 : statesList.get(0).varValues.length;
+		columns = new Object[numVars];
+		built = new boolean[numVars];
+	}
+
+	/**
+	 * Get the list of states that these columns are for.
+	 */
+	public List<State> getStatesList()
+	{
+		return statesList;
+	}
+
+	/**
+	 * Get the number of states.
+	 */
+	public int getNumStates()
+	{
+		return numStates;
+	}
+
+	/**
+	 * Get the number of variables.
+	 */
+	public int getNumVars()
+	{
+		return columns.length;
+	}
+
+	/**
+	 * Get the column of values for integer variable {@code v},
+	 * or null if the values of {@code v} are not all integers.
+	 */
+	public int[] getIntColumn(int v)
+	{
+		Object column = getColumn(v);
+		return column instanceof int[] ? (int[]) column : null;
+	}
+
+	/**
+	 * Get the column of values for double variable {@code v},
+	 * or null if the values of {@code v} are not all doubles.
+	 */
+	public double[] getDoubleColumn(int v)
+	{
+		Object column = getColumn(v);
+		return column instanceof double[] ? (double[]) column : null;
+	}
+
+	/**
+	 * Get the column of values for Boolean variable {@code v} (as the set of states where it is true),
+	 * or null if the values of {@code v} are not all Booleans.
+	 */
+	public BitSet getBooleanColumn(int v)
+	{
+		Object column = getColumn(v);
+		return column instanceof BitSet ? (BitSet) column : null;
+	}
+
+	/**
+	 * Get the column for variable {@code v}, building it if needed.
+	 */
+	private synchronized Object getColumn(int v)
+	{
+		if (v < 0 || v >= columns.length) {
+			return null;
+		}
+		if (!built[v]) {
+			columns[v] = buildColumn(v);
+			built[v] = true;
+		}
+		return columns[v];
+	}
+
+	/**
+	 * Build the column for variable {@code v}, or return null if not possible.
+	 */
+	private Object buildColumn(int v)
+	{
+		Object first = getValue(0, v);
+		if (first instanceof Integer) {
+			int column[] = new int[numStates];
+			for (int s = 0; s < numStates; s++) {
+				Object val = getValue(s, v);
+				if (!(val instanceof Integer)) {
+					return null;
+				}
+				column[s] = (Integer) val;
+			}
+			return column;
+		} else if (first instanceof Double) {
+			double column[] = new double[numStates];
+			for (int s = 0; s < numStates; s++) {
+				Object val = getValue(s, v);
+				if (!(val instanceof Double)) {
+					return null;
+				}
+				column[s] = (Double) val;
+			}
+			return column;
+		} else if (first instanceof Boolean) {
+			BitSet column = new BitSet(numStates);
+			for (int s = 0; s < numStates; s++) {
+				Object val = getValue(s, v);
+				if (!(val instanceof Boolean)) {
+					return null;
+				}
+				if ((Boolean) val) {
+					column.set(s);
+				}
+			}
+			return column;
+		}
+		return null;
+	}
+
+	/**
+	 * Get the value of variable {@code v} in state {@code s} (null if it has no such variable).
+	 */
+	private Object getValue(int s, int v)
+	{
+		// Decode packed states one variable at a time, avoiding a State object per access
+		if (statesList instanceof PackedStateList) {
+			PackedStateList packedList = (PackedStateList) statesList;
+			return v < packedList.getNumVars() ? packedList.getValue(s, v) : null;
+		}
+		Object varValues[] = statesList.get(s).varValues;
+		return v < varValues.length ? varValues[v] : null;
+	}
+}
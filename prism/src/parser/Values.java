@@ -28,6 +28,7 @@ package parser;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 import parser.type.Type;
 import parser.type.TypeUtils;
@@ -301,6 +302,18 @@ public class Values implements Cloneable //implements Comparable
 		return true;
 	}
 
+	@Override
+	public int hashCode()
+	{
+		// independent of the order of values, as for equals()
+		int h = 0;
+		int n = getNumValues();
+		for (int i = 0; i < n; i++) {
+			h += getName(i).hashCode() ^ Objects.hashCode(getValue(i));
+		}
+		return h;
+	}
+
 	// compare
 	
 // 	public int compareTo(Object o)
@@ -30,6 +30,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 import parser.EvaluateContext;
 import parser.IdentUsage;
@@ -1319,6 +1320,49 @@ public class ModulesFile extends ASTElement implements ModelInfo, RewardGenerato
 		return constantList.getUndefinedConstants();
 	}
 
+	/**
+	 * Get the names of the constants that the model itself depends on, i.e., those
+	 * which can affect its variables, commands, initial states, labels or observables,
+	 * either directly or through the definitions of other constants.
+	 * Constants that only appear in reward structures are not included,
+	 * so changing the values of these leaves the state space and transitions unaffected.
+	 */
+	public Set<String> getModelStructureConstants()
+	{
+		List<ASTElement> elements = new ArrayList<>();
+		elements.add(formulaList);
+		elements.add(labelList);
+		elements.addAll(globals);
+		for (int i = 0; i < getNumModules(); i++) {
+			if (getModule(i) != null) {
+				elements.add(getModule(i));
+			}
+		}
+		elements.addAll(systemDefns);
+		if (initStates != null) {
+			elements.add(initStates);
+		}
+		elements.addAll(observableVarLists);
+		elements.addAll(observableDefns);
+		// Collect constants used directly in the model
+		Set<String> consts = new HashSet<>();
+		List<String> todo = new ArrayList<>();
+		for (ASTElement element : elements) {
+			todo.addAll(element.getAllConstants());
+		}
+		// And then, transitively, any constants used to define them
+		while (!todo.isEmpty()) {
+			String name = todo.remove(todo.size() - 1);
+			if (consts.add(name)) {
+				int i = constantList.getConstantIndex(name);
+				if (i != -1 && constantList.getConstant(i) != null) {
+					todo.addAll(constantList.getConstant(i).getAllConstants());
+				}
+			}
+		}
+		return consts;
+	}
+
 	@Override
 	public void setSomeUndefinedConstants(EvaluateContext ecUndefined) throws PrismLangException
 	{
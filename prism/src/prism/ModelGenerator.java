@@ -102,6 +102,17 @@ public interface ModelGenerator<Value> extends ModelInfo
 		return false;
 	}
 
+	/**
+	 * Create a copy of this model generator that can explore states independently
+	 * of this one, i.e., that shares no mutable exploration state with it.
+	 * This is used, for example, to explore a model from several threads concurrently.
+	 * Not supported by default.
+	 */
+	public default ModelGenerator<Value> createCopy() throws PrismException
+	{
+		throw new PrismNotSupportedException("Copying of this model generator is not supported");
+	}
+
 	/**
 	 * Explore a given state of the model. After a call to this method,
 	 * the class should be able to respond to the various methods that are
@@ -34,7 +34,10 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 import common.iterable.Range;
@@ -47,7 +50,11 @@ import explicit.ExplicitFiles2Model;
 import explicit.ExplicitFiles2Rewards;
 import explicit.FastAdaptiveUniformisation;
 import explicit.FastAdaptiveUniformisationModelChecker;
+import explicit.ModelAnalysisCache;
+import explicit.ModelExplicit;
 import explicit.ModelModelGenerator;
+import explicit.TimeBoundSweep;
+import explicit.WarmStart;
 import io.UMBImporter;
 import io.ExplicitModelImporter;
 import io.ModelExportOptions;
@@ -358,11 +365,47 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 			modelBuildType = other.modelBuildType;
 			modelDigitalClocks = other.modelDigitalClocks;
 		}
+
+		/**
+		 * Get the type of the built model stored here (null if not built).
+		 */
+		public ModelBuildType getBuiltModelType()
+		{
+			return modelBuildType;
+		}
+
+		/**
+		 * Clear the built model stored here, if any (free/deallocate memory etc).
+		 * Only to be used for models that have been detached (see {@link Prism#detachModel()}).
+		 */
+		public void clearBuiltModel()
+		{
+			model = null;
+			if (modelSymb != null) {
+				modelSymb.clear();
+				modelSymb = null;
+			}
+			modelExpl = null;
+			modelBuildType = null;
+		}
 	}
 
 	/** Info about currently loaded model, if any */
 	private ModelDetails currentModelDetails = new ModelDetails();
 
+	// Cache of models built explicitly for the current PRISM model with different constants,
+	// keyed by the values of the constants that affect the model structure (in LRU order),
+	// each stored along with the results of graph-based analyses (precomputation, SCCs, MECs) of it, if enabled
+	private LinkedHashMap<Values, ModelAnalysisCache> builtModelCache = new LinkedHashMap<>(16, 0.75f, true);
+	// Build type of the models in builtModelCache
+	private ModelBuildType builtModelCacheType = null;
+	// Results of graph-based analyses of the current explicitly built model (created when first needed)
+	private ModelAnalysisCache modelAnalysisCache = null;
+	// Solutions from previous numerical computations for the current PRISM model (for warm starts)
+	private WarmStart warmStart = new WarmStart();
+	// Sweep over property constants currently in progress, if any (e.g. in an experiment)
+	private TimeBoundSweep timeBoundSweep = null;
+
 	// The last strategy that was generated
 	private Strategy<?> strategy = null;
 	
@@ -765,6 +808,18 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 		this.doBisim = doBisim;
 	}
 
+	/**
+	 * Specify the values of (undefined) property constants that will be used, in turn,
+	 * for the next calls to model check a property, e.g. during an experiment;
+	 * pass null once this is finished. This is optional, but allows some computations
+	 * to be shared between the calls (currently, time-bounded until probabilities for CTMCs,
+	 * with the explicit engine, which are computed for all time bounds at once).
+	 */
+	public void setPropertyConstantsSweep(List<Values> propertyConstants)
+	{
+		timeBoundSweep = (propertyConstants == null) ? null : new TimeBoundSweep(propertyConstants);
+	}
+
 	public void setDoReach(boolean b) throws PrismException
 	{
 		doReach = b;
@@ -1157,6 +1212,8 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 	 */
 	public void notifySettings(PrismSettings settings)
 	{
+		// Settings may affect model construction, so discard any cached models
+		clearBuiltModelCache();
 		for (PrismLibrary lib : libraries) {
 			lib.notifySettings(settings);
 		}
@@ -1744,6 +1801,35 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 		clearBuiltModel();
 	}
 	
+	/**
+	 * Detach the currently loaded model (including any built model) and return its details,
+	 * leaving no model loaded. The built model is not cleared: the caller takes ownership of it,
+	 * and can either re-load it later using {@link #attachModel(ModelDetails)},
+	 * or free it using {@link ModelDetails#clearBuiltModel()}.
+	 */
+	public ModelDetails detachModel() throws PrismException
+	{
+		ModelDetails details = currentModelDetails;
+		clearStrategy();
+		clearBuiltModelCache();
+		warmStart.clear();
+		modelAnalysisCache = null;
+		currentModelDetails = new ModelDetails();
+		return details;
+	}
+
+	/**
+	 * Re-load a model (including any built model), previously detached using {@link #detachModel()},
+	 * for subsequent model checking etc. Any currently loaded model is cleared first.
+	 * The model should be detached again before it is replaced, if it is to be re-used.
+	 * @param details The model details
+	 */
+	public void attachModel(ModelDetails details) throws PrismException
+	{
+		clearModel();
+		currentModelDetails = new ModelDetails(details);
+	}
+
 	/**
 	 * Load a (parsed) PRISM model, which will be stored and used for subsequent model checking etc.
 	 * Some model constants can still be undefined at this stage.
@@ -1849,7 +1935,11 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 		}
 
 		// Clear any existing built model(s)
+		// (an explicitly built one may be kept in the cache, for later re-use)
 		clearBuiltModel();
+		if (!exactSame) {
+			clearBuiltModelCache();
+		}
 		// Store constants here and in ModulesFile
 		setDefinedMFConstants(definedMFConstants, exact);
 		if (getPRISMModel() != null) {
@@ -1861,6 +1951,8 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 		} else if (getModelGenerator(false) != null) {
 			getModelGenerator(false).setSomeUndefinedConstants(definedMFConstants, exact);
 		}
+		// Re-use a previously built model, if there is one with the same structure
+		restoreBuiltModelFromCache();
 	}
 
 	/**
@@ -1939,7 +2031,7 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 	 */
 	public void loadModelFromUMBFile(File umbFile) throws PrismException
 	{
-		UMBImporter importer = new UMBImporter(umbFile);
+		UMBImporter importer = new UMBImporter(umbFile, settings.getInteger(PrismSettings.PRISM_NUM_THREADS));
 		loadModelFromExplicitFiles(importer);
 	}
 
@@ -2369,6 +2461,7 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 					constructModel.setFixDeadlocks(getFixDeadlocks());
 					newModelExpl = constructModel.constructModel(getModelGenerator());
 					setBuiltModel(getModelBuildTypeForEngine(getCurrentEngine()), newModelExpl);
+					addBuiltModelToCache();
 					break;
 				case EXPLICIT_FILES:
 					ExplicitFiles2Model expf2model = new ExplicitFiles2Model(this);
@@ -4123,6 +4216,15 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 		if (getCurrentEngine() == PrismEngine.EXACT || getCurrentEngine() == PrismEngine.PARAM) {
 			throw new PrismException("Transient probabilities cannot be computed with " + getCurrentEngine().description() + " engine");
 		}
+		// For CTMCs with the explicit engine (and standard uniformisation),
+		// compute all time points at once, in a single uniformisation sweep
+		if (getModelType() == ModelType.CTMC && times.getNumPropertyIterations() > 1 && !settings.getString(PrismSettings.PRISM_TRANSIENT_METHOD).equals("Fast adaptive uniformisation")) {
+			buildModelIfRequired();
+			if (getBuiltModelType() == ModelBuildType.EXPLICIT) {
+				exportTransientProbabilitiesExplicitCTMC(times, file, exportOptions, initDistFile);
+				return;
+			}
+		}
 		// Step through required time points
 		prism.StateVector probs = null;
 		symbolic.states.StateValues probsSym = null, initDistSym = null;
@@ -4242,6 +4344,48 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 		probs.clear();
 	}
 
+	/**
+	 * Compute transient probabilities for an (explicitly built) CTMC, for several time points,
+	 * and export them to a file (or to the log), as for {@link #exportTransientProbabilities(UndefinedConstants, File, ModelExportOptions, File)}.
+	 * All time points are computed at once, in a single uniformisation sweep.
+	 */
+	private void exportTransientProbabilitiesExplicitCTMC(UndefinedConstants times, File file, ModelExportOptions exportOptions, File initDistFile) throws PrismException
+	{
+		// Get time points (all iterations, from the first), check non-negative
+		List<Values> timeValues = times.getAllPFConstantValues();
+		double ts[] = new double[timeValues.size()];
+		for (int i = 0; i < ts.length; i++) {
+			ts[i] = ((Double) timeValues.get(i).getValue(0)).doubleValue();
+			if (ts[i] < 0) {
+				throw new PrismException("Cannot compute transient probabilities for negative time value");
+			}
+		}
+		mainLog.printSeparator();
+		mainLog.println("\nComputing transient probabilities (times = " + times.getPFDefinedConstantsString() + ")...");
+		long l = System.currentTimeMillis();
+		@SuppressWarnings("unchecked")
+		CTMC<Double> ctmc = (CTMC<Double>) getBuiltModelExplicit();
+		CTMCModelChecker mc = new CTMCModelChecker(this);
+		explicit.StateValues initDist = mc.readDistributionFromFile(initDistFile, ctmc);
+		if (initDist == null) {
+			initDist = mc.buildInitialDistribution(ctmc);
+		}
+		// Export the probabilities for each time point as soon as they are computed
+		mc.computeTransientProbs(ctmc, ts, initDist.getDoubleArray(), (i, soln) -> {
+			// Change filename for each time point
+			File fileOutActual = (file == null) ? null : new File(PrismUtils.addSuffixToFilename(file.getPath(), Double.toString(ts[i])));
+			mainLog.print("\nExporting transient probabilities (time = " + ts[i] + ") ");
+			mainLog.println(exportOptions.getFormat().description() + " " + getDestinationStringForFile(fileOutActual));
+			explicit.StateValues probs = explicit.StateValues.createFromDoubleArray(soln, ctmc);
+			try (PrismLog out = getPrismLogForFile(fileOutActual)) {
+				probs.print(out, file == null, exportOptions.getFormat() == ModelExportFormat.MATLAB, file == null, true);
+			}
+			probs.clear();
+		});
+		l = System.currentTimeMillis() - l;
+		mainLog.println("\nTime for transient probability computation: " + l / 1000.0 + " seconds.");
+	}
+
 	public void explicitBuildTest() throws PrismException
 	{
 		/* old code...
@@ -4293,6 +4437,8 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 	{
 		// Clear any built model(s)
 		clearBuiltModel();
+		clearBuiltModelCache();
+		warmStart.clear();
 		// Close down libraries/engines
 		ParamModelChecker.closeDown();
 		int numLibs = libraries.size();
@@ -4342,6 +4488,10 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 	 */
 	private void setPRISMModel(ModulesFile modulesFile) throws PrismException
 	{
+		if (modulesFile != currentModelDetails.modulesFile) {
+			clearBuiltModelCache();
+			warmStart.clear();
+		}
 		currentModelDetails.modulesFile = modulesFile;
 	}
 
@@ -4430,9 +4580,114 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 		}
 		currentModelDetails.modelExpl = null;
 		currentModelDetails.modelBuildType = null;
+		modelAnalysisCache = null;
 		clearStrategy();
 	}
 
+	/**
+	 * Get the key under which a model built for the current PRISM model
+	 * (with its current constant values) is stored in the built model cache, i.e.,
+	 * the values of the constants that affect its structure
+	 * (see {@link ModulesFile#getModelStructureConstants()}).
+	 * Returns null if models should not currently be cached.
+	 */
+	private Values getBuiltModelCacheKey() throws PrismException
+	{
+		if (getSettings().getInteger(PrismSettings.PRISM_MODEL_CACHE_SIZE) < 1) {
+			return null;
+		}
+		if (getModelSource() != ModelSource.PRISM_MODEL || isModelSourceDigitalClocks() || getPRISMModel() == null) {
+			return null;
+		}
+		Values key = new Values();
+		Values definedMFConstants = getUndefinedModelValues();
+		if (definedMFConstants != null) {
+			Set<String> structureConstants = getPRISMModel().getModelStructureConstants();
+			int n = definedMFConstants.getNumValues();
+			for (int i = 0; i < n; i++) {
+				if (structureConstants.contains(definedMFConstants.getName(i))) {
+					key.addValue(definedMFConstants.getName(i), definedMFConstants.getValue(i));
+				}
+			}
+		}
+		return key;
+	}
+
+	/**
+	 * Store the currently built model (if built explicitly from a PRISM model) in the
+	 * built model cache, removing the least recently used one if the cache is full.
+	 */
+	private void addBuiltModelToCache() throws PrismException
+	{
+		Values key = getBuiltModelCacheKey();
+		ModelBuildType buildType = getBuiltModelType();
+		if (key == null || (buildType != ModelBuildType.EXPLICIT && buildType != ModelBuildType.EXACT)) {
+			return;
+		}
+		if (builtModelCacheType != buildType) {
+			clearBuiltModelCache();
+			builtModelCacheType = buildType;
+		}
+		builtModelCache.put(key, getModelAnalysisCache());
+		int maxSize = getSettings().getInteger(PrismSettings.PRISM_MODEL_CACHE_SIZE);
+		Iterator<Values> it = builtModelCache.keySet().iterator();
+		while (builtModelCache.size() > maxSize) {
+			it.next();
+			it.remove();
+		}
+	}
+
+	/**
+	 * If the built model cache contains a model for the current PRISM model and its
+	 * current constant values, of the type needed for the current engine, make it the
+	 * current built model.
+	 */
+	private void restoreBuiltModelFromCache() throws PrismException
+	{
+		Values key = getBuiltModelCacheKey();
+		if (key == null || builtModelCacheType != getModelBuildTypeForEngine(getCurrentEngine())) {
+			return;
+		}
+		ModelAnalysisCache cached = builtModelCache.get(key);
+		if (cached == null) {
+			return;
+		}
+		explicit.Model<?> cachedModel = cached.getModel();
+		mainLog.println("\nRe-using previously built model (constants affecting model structure: " + (key.getNumValues() == 0 ? "none" : key) + ")");
+		// Update the constant values stored in the model (e.g. for rewards/exports)
+		if (cachedModel instanceof ModelExplicit) {
+			((ModelExplicit<?>) cachedModel).setConstantValues(new Values(getPRISMModel().getConstantValues()));
+		}
+		setBuiltModel(builtModelCacheType, cachedModel);
+		modelAnalysisCache = cached;
+	}
+
+	/**
+	 * Get the storage of the results of graph-based analyses (precomputation, SCCs, MECs)
+	 * for the current explicitly built model, creating it if needed.
+	 * Returns null if there is no explicitly built model.
+	 */
+	private ModelAnalysisCache getModelAnalysisCache()
+	{
+		explicit.Model<?> model = getBuiltModelExplicit();
+		if (model == null) {
+			return null;
+		}
+		if (modelAnalysisCache == null || modelAnalysisCache.getModel() != model) {
+			modelAnalysisCache = new ModelAnalysisCache(model);
+		}
+		return modelAnalysisCache;
+	}
+
+	/**
+	 * Remove all models from the built model cache.
+	 */
+	private void clearBuiltModelCache()
+	{
+		builtModelCache.clear();
+		builtModelCacheType = null;
+	}
+
 	/**
 	 * Clear the currently stored strategy if present (free/deallocate memory etc).
 	 * This resets {@code strategy} to {@code null}.
@@ -4490,6 +4745,15 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 		mc.setGenStrat(genStrat);
 		mc.setRestrictStratToReach(restrictStratToReach);
 		mc.setDoBisim(doBisim);
+		if (settings.getBoolean(PrismSettings.PRISM_WARM_START)) {
+			mc.setWarmStart(warmStart);
+		}
+		if (settings.getBoolean(PrismSettings.PRISM_MODEL_ANALYSIS_CACHE)) {
+			mc.setModelAnalysisCache(getModelAnalysisCache());
+		}
+		if (timeBoundSweep != null && mc instanceof CTMCModelChecker) {
+			((CTMCModelChecker) mc).setTimeBoundSweep(timeBoundSweep);
+		}
 
 		return mc;
 	}
@@ -107,11 +107,16 @@ public class PrismCL implements PrismModelListener
 	private boolean nobuild = false;
 	private boolean test = false;
 	private boolean testExitsOnFail = true;
+	private boolean server = false;
 
 	// export info
 	private List<ModelExportTask> modelExportTasks = new ArrayList<>();
 	private ModelExportOptions modelExportOptionsGlobal = new ModelExportOptions();
 
+	// server info
+	private int serverPort = -1;
+	private int serverCacheSize = PrismServer.DEFAULT_CACHE_SIZE;
+
 	// import info
 	private List<ModelImportSource> modelImportSources = new ArrayList<>();
 
@@ -289,6 +294,13 @@ public class PrismCL implements PrismModelListener
 		// Initialise
 		initialise(args);
 
+		// Server mode
+		if (server) {
+			runServer();
+			closeDown();
+			return;
+		}
+
 		// Import (and optionally re-export) results
 		if (importresults) {
 			importResults();
@@ -437,6 +449,10 @@ public class PrismCL implements PrismModelListener
 				}
 				// otherwise, treat each case individually
 				else {
+					// (but let PRISM know the values to come, so that some computations can be shared)
+					if (!simulate && undefinedConstants[j].getNumPropertyIterations() > 1) {
+						prism.setPropertyConstantsSweep(undefinedConstants[j].getAllPFConstantValues());
+					}
 					for (k = 0; k < undefinedConstants[j].getNumPropertyIterations(); k++) {
 
 						try {
@@ -529,6 +545,7 @@ public class PrismCL implements PrismModelListener
 						// iterate to next property
 						undefinedConstants[j].iterateProperty();
 					}
+					prism.setPropertyConstantsSweep(null);
 				}
 
 				// in case of build failure during model checking, store as result for any further properties and continue
@@ -641,6 +658,12 @@ public class PrismCL implements PrismModelListener
 			// parse command line arguments
 			parseArguments(args);
 
+			// in server mode, responses go to stdout (unless using a socket), so the log can't
+			if (server && serverPort < 0 && mainLog instanceof PrismFileLog && "stdout".equals(((PrismFileLog) mainLog).getFileName())) {
+				mainLog = new PrismPrintStreamLog(System.err);
+				prism.setMainLog(mainLog);
+			}
+
 			// load setting file if requested
 			if (settingsFilename != null)
 				prism.loadUserSettingsFile(new File(settingsFilename));
@@ -658,6 +681,24 @@ public class PrismCL implements PrismModelListener
 		}
 	}
 
+	/**
+	 * Run in server mode, processing requests until shutdown (see {@link PrismServer}).
+	 */
+	private void runServer()
+	{
+		try {
+			PrismServer prismServer = new PrismServer(prism, serverCacheSize);
+			if (serverPort >= 0) {
+				prismServer.serveSocket(serverPort);
+			} else {
+				prismServer.serveStdio();
+			}
+			prismServer.clear();
+		} catch (PrismException e) {
+			errorAndExit(e.getMessage());
+		}
+	}
+
 	/**
 	 * Parse model and properties, load model into PRISM. 
 	 */
@@ -1211,6 +1252,26 @@ public class PrismCL implements PrismModelListener
 		}, "<n>", "Exit after a time-out of <n> seconds if not already terminated");
 		registry.addSwitch("ng", new FlagSwitch(() -> {}),  // handled in main() before go()
 			"", "Run PRISM in Nailgun server mode; subsequent calls are then made via \"ngprism\"");
+		registry.addSwitch("server", new FlagSwitch(() -> server = true),
+			"", "Run PRISM as a server, reading model checking requests (JSON) from stdin",
+			log -> {
+				log.println("Runs PRISM as a long-running server, reading requests (one JSON object per line)");
+				log.println("from stdin and writing responses (one JSON object per line) to stdout; the log goes to stderr.");
+				log.println("Loaded/built models are kept, so that properties can be checked against them without rebuilding.");
+				log.println("Other switches (e.g. engine, solution methods) apply to all requests. Example request:");
+				log.println();
+				log.println(" {\"id\":1, \"model\":\"dice.pm\", \"constants\":\"N=3\", \"properties\":[\"P=? [ F s=7 ]\"]}");
+				log.println();
+				log.println("Other fields are \"propertiesFile\" and \"engine\"; \"command\" can also be \"status\", \"clear\" or \"shutdown\".");
+			});
+		registry.addSwitch("serverport", new IntSwitch(n -> {
+			if (n < 0) errorAndExit("Invalid port number for -serverport switch");
+			server = true; serverPort = n;
+		}), "<n>", "Run PRISM as a server (see -server), accepting connections on local port <n> (0: any free port)");
+		registry.addSwitch("servercache", new IntSwitch(n -> {
+			if (n < 1) errorAndExit("Invalid value for -servercache switch");
+			serverCacheSize = n;
+		}), "<n>", "Number of loaded models kept in server mode [default: " + PrismServer.DEFAULT_CACHE_SIZE + "]");
 
 		// Hidden general switches
 		registry.addSwitch("keywords", new FlagSwitch(() -> { printListOfKeywords(); exit(); }));
@@ -1990,8 +2051,8 @@ public class PrismCL implements PrismModelListener
 	{
 		int j;
 
-		// make sure a model file is specified
-		if (modelFilename == null) {
+		// make sure a model file is specified (not needed in server mode)
+		if (modelFilename == null && !server) {
 			mainLog.println("Usage: " + Prism.getCommandLineName() + " [options] <model-file> [<properties-file>] [more-options]");
 			mainLog.println("\nFor more information, type: prism -help");
 			exit();
@@ -28,6 +28,7 @@
 package prism;
 
 import java.io.Closeable;
+import java.nio.charset.Charset;
 
 /**
  * Base class for PRISM logs: PrintStream-like objects which can write messages, warnings, etc.
@@ -162,6 +163,16 @@ public abstract class PrismLog implements Closeable, AutoCloseable
 	 */
 	public abstract void println();
 
+	/**
+	 * Prints text that has already been encoded as bytes, using the platform's default charset
+	 * (e.g. by a {@link io.ExportBuffer}). By default, the bytes are decoded and printed as a string;
+	 * logs that write to a byte stream can pass them on directly instead.
+	 */
+	public void write(byte[] bytes, int off, int len)
+	{
+		print(new String(bytes, off, len, Charset.defaultCharset()));
+	}
+
 	// Additional print methods (other objects)
 
 	/**
@@ -96,6 +96,12 @@ public class PrismLogWrapper extends PrismLog
         log.print(s);
     }
 
+    @Override
+    public void write(byte[] bytes, int off, int len)
+    {
+        log.write(bytes, off, len);
+    }
+
     @Override
     public void println()
     {
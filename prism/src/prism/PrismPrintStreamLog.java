@@ -146,4 +146,16 @@ public class PrismPrintStreamLog extends PrismLog
 	{
 		logStream.println();
 	}
+
+	@Override
+	public void write(byte[] bytes, int off, int len)
+	{
+		// Bytes can be written directly, unless the stream does its own
+		// (native) writing or may not use the default charset (stdout/stderr)
+		if (logStream instanceof PrismFileLogNative || logStream == System.out || logStream == System.err) {
+			super.write(bytes, off, len);
+		} else {
+			logStream.write(bytes, off, len);
+		}
+	}
 }
@@ -0,0 +1,532 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package prism;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import parser.EvaluateContext;
+import parser.Values;
+import parser.ast.ModulesFile;
+import parser.ast.PropertiesFile;
+import parser.ast.Property;
+
+/**
+ * Long-running model checking server: reads requests, one JSON object per line,
+ * from standard input or a local socket, and writes a one-line JSON response to each.
+ * Models that have been loaded (parsed, and built if needed) are kept in an LRU cache,
+ * keyed by a hash of the model file contents, the values of the model constants and the engine,
+ * so that several batches of properties can be checked against a model without rebuilding it.
+ * <br><br>
+ * Requests have the following fields (all optional, except where stated):
+ * <ul>
+ * <li>{@code "command"}: {@code "check"} (default), {@code "status"}, {@code "clear"} or {@code "shutdown"}</li>
+ * <li>{@code "id"}: any value, copied to the response</li>
+ * <li>{@code "model"}: model file (required for {@code "check"})</li>
+ * <li>{@code "properties"}: array of property strings</li>
+ * <li>{@code "propertiesFile"}: properties file (all properties in it are checked, after those in {@code "properties"})</li>
+ * <li>{@code "constants"}: values for undefined model/property constants, in the format of the -const switch (no ranges)</li>
+ * <li>{@code "engine"}: engine to use, e.g. "explicit" (default: as for the server)</li>
+ * </ul>
+ * Responses contain {@code "status"} ({@code "ok"} or {@code "error"}, with {@code "error"} giving a message)
+ * and, for {@code "check"}, {@code "cached"} (whether the model was re-used),
+ * {@code "time"} (in seconds) and {@code "results"}, one entry per property,
+ * each with a {@code "property"} and either a {@code "result"} (and, for numerical/Boolean results,
+ * {@code "value"}) or an {@code "error"}.
+ * <br><br>
+ * Requests are processed one at a time, since a {@link Prism} object does not support concurrent use.
+ * Settings (other than the engine) are those of the {@link Prism} object the server is created with.
+ */
+public class PrismServer extends PrismComponent
+{
+	/** Default maximum number of loaded models to keep */
+	public static final int DEFAULT_CACHE_SIZE = 4;
+
+	/** A loaded model */
+	private static class LoadedModel
+	{
+		/** Details of the model (null if currently attached to the Prism object) */
+		Prism.ModelDetails details;
+	}
+
+	/** Prism object used for parsing/model checking */
+	private Prism prism;
+	/** Maximum number of loaded models to keep */
+	private int cacheSize;
+	/** Engine used if not specified in a request */
+	private int defaultEngine;
+	/** Loaded models (in LRU order) */
+	private LinkedHashMap<String, LoadedModel> cache = new LinkedHashMap<>(16, 0.75f, true);
+	/** Key of the model currently attached to the Prism object (null if none) */
+	private String currentKey = null;
+	/** Undefined constants of each model, by (hash of) file contents (only for models in the cache) */
+	private Map<String, Set<String>> modelConstants = new HashMap<>();
+	/** Has a shutdown been requested? */
+	private boolean shutdown = false;
+
+	/**
+	 * Create a server, using the given Prism object (which should already have been initialised).
+	 * @param prism Prism object
+	 * @param cacheSize Maximum number of loaded models to keep
+	 */
+	public PrismServer(Prism prism, int cacheSize)
+	{
+		super(prism);
+		this.prism = prism;
+		this.cacheSize = Math.max(1, cacheSize);
+		defaultEngine = prism.getEngine();
+	}
+
+	/**
+	 * Serve requests from standard input, writing responses to standard output,
+	 * until the end of the input or a shutdown request.
+	 * (Note that the log should not also be sent to standard output.)
+	 */
+	public void serveStdio() throws PrismException
+	{
+		serve(new InputStreamReader(System.in, StandardCharsets.UTF_8), new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Serve requests from connections to a local socket (one connection at a time),
+	 * until a shutdown request.
+	 * @param port Port number (0 means pick any free one)
+	 */
+	public void serveSocket(int port) throws PrismException
+	{
+		try (ServerSocket serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+			mainLog.println("PRISM server listening on " + serverSocket.getInetAddress().getHostAddress() + ":" + serverSocket.getLocalPort());
+			mainLog.flush();
+			while (!shutdown) {
+				try (Socket socket = serverSocket.accept()) {
+					serve(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8), new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+				} catch (IOException | PrismException e) {
+					// (e.g. the client dropped the connection): carry on with the next one
+					mainLog.printWarning("Connection failed: " + e.getMessage());
+				}
+			}
+		} catch (IOException e) {
+			throw new PrismException("Could not start server on port " + port + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Serve requests (one per line) from {@code in}, writing responses (one per line) to {@code out},
+	 * until the end of the input or a shutdown request.
+	 */
+	public void serve(Reader in, Writer out) throws PrismException
+	{
+		BufferedReader reader = new BufferedReader(in);
+		PrintWriter writer = new PrintWriter(out);
+		try {
+			String line;
+			while (!shutdown && (line = reader.readLine()) != null) {
+				if (line.trim().isEmpty()) {
+					continue;
+				}
+				JsonObject response;
+				try {
+					JsonElement request = JsonParser.parseString(line);
+					if (!request.isJsonObject()) {
+						throw new PrismException("Request is not a JSON object");
+					}
+					response = handleRequest(request.getAsJsonObject());
+				} catch (JsonParseException e) {
+					response = errorResponse(null, "Invalid JSON in request");
+				} catch (PrismException e) {
+					response = errorResponse(null, e.getMessage());
+				}
+				writer.println(response.toString());
+				writer.flush();
+				mainLog.flush();
+			}
+		} catch (IOException e) {
+			throw new PrismException("Error reading request: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Process a single request and return the response.
+	 */
+	public JsonObject handleRequest(JsonObject request)
+	{
+		JsonElement id = request.get("id");
+		try {
+			String command = getString(request, "command", "check");
+			JsonObject response;
+			switch (command) {
+			case "check":
+				response = check(request);
+				break;
+			case "status":
+				response = new JsonObject();
+				response.addProperty("models", cache.size());
+				response.addProperty("cacheSize", cacheSize);
+				break;
+			case "clear":
+				clear();
+				response = new JsonObject();
+				break;
+			case "shutdown":
+				shutdown = true;
+				response = new JsonObject();
+				break;
+			default:
+				throw new PrismException("Unknown command \"" + command + "\"");
+			}
+			JsonObject fullResponse = new JsonObject();
+			if (id != null) {
+				fullResponse.add("id", id);
+			}
+			fullResponse.addProperty("status", "ok");
+			response.entrySet().forEach(e -> fullResponse.add(e.getKey(), e.getValue()));
+			return fullResponse;
+		} catch (PrismException e) {
+			return errorResponse(id, e.getMessage());
+		} catch (Exception | StackOverflowError e) {
+			// Don't let one bad request take down the server
+			return errorResponse(id, e.toString());
+		}
+	}
+
+	/**
+	 * Process a "check" request.
+	 */
+	private JsonObject check(JsonObject request) throws PrismException
+	{
+		long timer = System.currentTimeMillis();
+		String modelFilename = getString(request, "model", null);
+		if (modelFilename == null) {
+			throw new PrismException("No model file specified");
+		}
+		String constSwitch = getString(request, "constants", "");
+		int engine = getEngine(request);
+		boolean exact = prism.getSettings().getBoolean(PrismSettings.PRISM_EXACT_ENABLED);
+
+		// Make sure the model is loaded
+		File modelFile = new File(modelFilename);
+		String hash = hashFile(modelFile);
+		String key = getKey(hash, constSwitch, engine, exact);
+		boolean cached = key != null && (key.equals(currentKey) || cache.containsKey(key));
+		if (!cached) {
+			loadModel(modelFile, hash, constSwitch, engine, exact);
+			key = getKey(hash, constSwitch, engine, exact);
+		} else {
+			attach(key, engine);
+			mainLog.println("\nRe-using loaded model \"" + modelFilename + "\"");
+		}
+		ModulesFile modulesFile = prism.getPRISMModel();
+
+		// Parse the properties
+		StringBuilder props = new StringBuilder();
+		if (request.has("properties")) {
+			for (JsonElement prop : getArray(request, "properties")) {
+				if (!prop.isJsonPrimitive()) {
+					throw new PrismException("Invalid property in request");
+				}
+				props.append(prop.getAsString()).append("\n");
+			}
+		}
+		String propertiesFilename = getString(request, "propertiesFile", null);
+		if (propertiesFilename != null) {
+			try {
+				props.append(new String(Files.readAllBytes(new File(propertiesFilename).toPath()), StandardCharsets.UTF_8)).append("\n");
+			} catch (IOException e) {
+				throw new PrismException("Could not read properties file \"" + propertiesFilename + "\"");
+			}
+		}
+		PropertiesFile propertiesFile = prism.parsePropertiesString(modulesFile, props.toString());
+		UndefinedConstants undefinedConstants = new UndefinedConstants(modulesFile, propertiesFile);
+		undefinedConstants.setExactMode(exact);
+		undefinedConstants.defineUsingConstSwitch(constSwitch);
+		if (undefinedConstants.getNumPropertyIterations() > 1) {
+			throw new PrismException("Ranges of constant values are not supported in server mode");
+		}
+		propertiesFile.setSomeUndefinedConstants(EvaluateContext.create(undefinedConstants.getPFConstantValues(), exact));
+
+		// Check each property
+		JsonArray results = new JsonArray();
+		for (int i = 0; i < propertiesFile.getNumProperties(); i++) {
+			Property prop = propertiesFile.getPropertyObject(i);
+			JsonObject result = new JsonObject();
+			result.addProperty("property", prop.toString());
+			try {
+				Result res = prism.modelCheck(propertiesFile, prop);
+				result.addProperty("result", res.getResultAndAccuracy());
+				Object value = res.getResult();
+				if (value instanceof Boolean) {
+					result.addProperty("value", (Boolean) value);
+				} else if (value instanceof Integer || (value instanceof Double && Double.isFinite((Double) value))) {
+					result.addProperty("value", (Number) value);
+				}
+			} catch (PrismException e) {
+				mainLog.printWarning(e.getMessage());
+				result.addProperty("error", e.getMessage());
+			}
+			results.add(result);
+		}
+
+		JsonObject response = new JsonObject();
+		response.addProperty("cached", cached);
+		response.add("results", results);
+		response.addProperty("time", (System.currentTimeMillis() - timer) / 1000.0);
+		return response;
+	}
+
+	/**
+	 * Parse and load a model, and make it the current one, storing it in the cache.
+	 */
+	private void loadModel(File modelFile, String hash, String constSwitch, int engine, boolean exact) throws PrismException
+	{
+		detach();
+		ModulesFile modulesFile;
+		try {
+			modulesFile = prism.parseModelFile(modelFile);
+		} catch (IOException e) {
+			throw new PrismException("File \"" + modelFile + "\" not found");
+		}
+		Set<String> constNames = new HashSet<>();
+		for (int i = 0; i < modulesFile.getConstantList().size(); i++) {
+			if (modulesFile.getConstantList().getConstant(i) == null) {
+				constNames.add(modulesFile.getConstantList().getConstantName(i));
+			}
+		}
+		modelConstants.put(hash, constNames);
+		// Define model constants
+		UndefinedConstants undefinedMFConstants = new UndefinedConstants(modulesFile, null);
+		undefinedMFConstants.setExactMode(exact);
+		undefinedMFConstants.defineUsingConstSwitch(getModelConstSwitch(constSwitch, constNames));
+		if (undefinedMFConstants.getNumModelIterations() > 1) {
+			throw new PrismException("Ranges of constant values are not supported in server mode");
+		}
+		prism.setEngine(engine);
+		prism.loadPRISMModel(modulesFile);
+		Values definedMFConstants = undefinedMFConstants.getMFConstantValues();
+		prism.setPRISMModelConstants(definedMFConstants, exact);
+		// Store (as current model)
+		currentKey = getKey(hash, constSwitch, engine, exact);
+		cache.put(currentKey, new LoadedModel());
+		evict();
+	}
+
+	/**
+	 * Make the (cached) model with the given key the current one.
+	 */
+	private void attach(String key, int engine) throws PrismException
+	{
+		if (key.equals(currentKey)) {
+			cache.get(key);
+			return;
+		}
+		detach();
+		LoadedModel loadedModel = cache.get(key);
+		prism.setEngine(engine);
+		prism.attachModel(loadedModel.details);
+		loadedModel.details = null;
+		currentKey = key;
+	}
+
+	/**
+	 * Detach the current model, if any, storing it back in the cache.
+	 */
+	private void detach() throws PrismException
+	{
+		if (currentKey == null) {
+			return;
+		}
+		Prism.ModelDetails details = prism.detachModel();
+		LoadedModel loadedModel = cache.get(currentKey);
+		if (loadedModel != null) {
+			loadedModel.details = details;
+		} else {
+			details.clearBuiltModel();
+		}
+		currentKey = null;
+	}
+
+	/**
+	 * Remove least recently used models from the cache, if it is too big.
+	 */
+	private void evict()
+	{
+		Iterator<Map.Entry<String, LoadedModel>> it = cache.entrySet().iterator();
+		while (cache.size() > cacheSize && it.hasNext()) {
+			Map.Entry<String, LoadedModel> entry = it.next();
+			// (the current model is never removed)
+			if (!entry.getKey().equals(currentKey)) {
+				entry.getValue().details.clearBuiltModel();
+				it.remove();
+			}
+		}
+		// Forget the constants of models no longer loaded
+		modelConstants.keySet().removeIf(hash -> cache.keySet().stream().noneMatch(key -> key.startsWith(hash + "|")));
+	}
+
+	/**
+	 * Remove all loaded models.
+	 */
+	public void clear() throws PrismException
+	{
+		detach();
+		for (LoadedModel loadedModel : cache.values()) {
+			loadedModel.details.clearBuiltModel();
+		}
+		cache.clear();
+		modelConstants.clear();
+		prism.clearModel();
+	}
+
+	/**
+	 * Get the cache key for a model, i.e. the hash of its file contents,
+	 * the values of its undefined constants, the engine and whether constants are exact.
+	 * Returns null if the model's constants are not known (i.e., it has not been loaded yet).
+	 */
+	private String getKey(String hash, String constSwitch, int engine, boolean exact) throws PrismException
+	{
+		Set<String> constNames = modelConstants.get(hash);
+		if (constNames == null) {
+			return null;
+		}
+		return hash + "|" + getModelConstSwitch(constSwitch, constNames) + "|" + engine + "|" + exact;
+	}
+
+	/**
+	 * Extract, from a -const switch string, the parts defining the given (model) constants,
+	 * in a normalised order.
+	 */
+	private static String getModelConstSwitch(String constSwitch, Set<String> constNames) throws PrismException
+	{
+		TreeMap<String, String> defs = new TreeMap<>();
+		for (String part : constSwitch.split(",")) {
+			int j = part.indexOf('=');
+			if (j > 0 && constNames.contains(part.substring(0, j).trim())) {
+				if (defs.put(part.substring(0, j).trim(), part.substring(j + 1).trim()) != null) {
+					throw new PrismException("Duplicate definitions for undefined constant \"" + part.substring(0, j).trim() + "\"");
+				}
+			}
+		}
+		List<String> parts = new ArrayList<>();
+		defs.forEach((name, val) -> parts.add(name + "=" + val));
+		return String.join(",", parts);
+	}
+
+	/**
+	 * Get the engine requested (or the default one).
+	 */
+	private int getEngine(JsonObject request) throws PrismException
+	{
+		String engineName = getString(request, "engine", null);
+		if (engineName == null) {
+			return defaultEngine;
+		}
+		for (int engine = Prism.MTBDD; engine <= Prism.EXPLICIT; engine++) {
+			if (Prism.getEngineString(engine).equalsIgnoreCase(engineName)) {
+				return engine;
+			}
+		}
+		throw new PrismException("Unknown engine \"" + engineName + "\"");
+	}
+
+	/**
+	 * Compute a hash (SHA-256, as a hex string) of the contents of a file.
+	 */
+	private static String hashFile(File file) throws PrismException
+	{
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(file.toPath()));
+			StringBuilder sb = new StringBuilder();
+			for (byte b : digest) {
+				sb.append(String.format("%02x", b));
+			}
+			return sb.toString();
+		} catch (IOException e) {
+			throw new PrismException("File \"" + file + "\" not found");
+		} catch (NoSuchAlgorithmException e) {
+			throw new PrismException("Could not compute hash of model file: " + e.getMessage());
+		}
+	}
+
+	private static String getString(JsonObject request, String field, String defaultValue) throws PrismException
+	{
+		JsonElement elem = request.get(field);
+		if (elem == null || elem.isJsonNull()) {
+			return defaultValue;
+		}
+		if (!elem.isJsonPrimitive()) {
+			throw new PrismException("Invalid value for \"" + field + "\" in request");
+		}
+		return elem.getAsString();
+	}
+
+	private static JsonArray getArray(JsonObject request, String field) throws PrismException
+	{
+		JsonElement elem = request.get(field);
+		if (elem == null || !elem.isJsonArray()) {
+			throw new PrismException("Invalid value for \"" + field + "\" in request");
+		}
+		return elem.getAsJsonArray();
+	}
+
+	private static JsonObject errorResponse(JsonElement id, String message)
+	{
+		JsonObject response = new JsonObject();
+		if (id != null) {
+			response.add("id", id);
+		}
+		response.addProperty("status", "error");
+		response.addProperty("error", message == null ? "Unknown error" : message);
+		return response;
+	}
+}
@@ -76,14 +76,21 @@ public class PrismSettings implements Observer
 	//PRISM
 	public static final	String PRISM_ENGINE							= "prism.engine";
 	public static final	String PRISM_HEURISTIC						= "prism.heuristic";
+	public static final	String PRISM_NUM_THREADS					= "prism.numThreads";
 	public static final	String PRISM_VERBOSE						= "prism.verbose";
 	public static final	String PRISM_FAIRNESS						= "prism.fairness";
 	public static final	String PRISM_PRECOMPUTATION					= "prism.precomputation";
 	public static final	String PRISM_PROB0							= "prism.prob0";
 	public static final	String PRISM_PROB1							= "prism.prob1";
 	public static final	String PRISM_PRE_REL					= "prism.preRel";
+	public static final	String PRISM_PAR_PRECOMP					= "prism.parPrecomp";
+	public static final	String PRISM_COLUMNAR_EVAL					= "prism.columnarEval";
 	public static final	String PRISM_FIX_DEADLOCKS					= "prism.fixDeadlocks";
 	public static final	String PRISM_DO_PROB_CHECKS					= "prism.doProbChecks";
+	public static final	String PRISM_COMPILE_EXPRESSIONS			= "prism.compileExpressions";
+	public static final	String PRISM_MODEL_CACHE_SIZE				= "prism.modelCacheSize";
+	public static final	String PRISM_MODEL_ANALYSIS_CACHE			= "prism.modelAnalysisCache";
+	public static final	String PRISM_WARM_START						= "prism.warmStart";
 	public static final	String PRISM_SUM_ROUND_OFF					= "prism.sumRoundOff";
 	public static final	String PRISM_COMPACT						= "prism.compact";
 	public static final	String PRISM_LIN_EQ_METHOD					= "prism.linEqMethod";//"prism.iterativeMethod";
@@ -243,6 +250,8 @@ public class PrismSettings implements Observer
 																			"Which engine (hybrid, sparse, MTBDD, explicit) should be used for model checking." },
 			{ CHOICE_TYPE,		PRISM_HEURISTIC,						"Heuristic mode",							"4.5",			"None",																		"None,Speed,Memory",																		
 																			"Which heuristic mode to use for picking engines/settings (none, speed, memory)." },
+			{ INTEGER_TYPE,		PRISM_NUM_THREADS,						"Number of threads",					"4.10.2",		Integer.valueOf(1),																"1,",
+																			"Number of threads to use for multi-threaded computations (currently: explicit model construction, value iteration, precomputation and statistical model checking)." },
 			{ BOOLEAN_TYPE,		PRISM_EXACT_ENABLED,					"Do exact model checking",			"4.2.1",			Boolean.valueOf(false),															"",
 																			"Perform exact model checking." },
 																			
@@ -292,12 +301,24 @@ public class PrismSettings implements Observer
 																			"Whether to use model checking precomputation algorithm Prob1 (if precomputation enabled)." },
 			{ BOOLEAN_TYPE,		PRISM_PRE_REL,							"Use predecessor relation",		"4.2.1",		Boolean.valueOf(true),											"",
 																			"Whether to use a pre-computed predecessor relation in several algorithms." },
+			{ BOOLEAN_TYPE,		PRISM_PAR_PRECOMP,						"Parallel precomputation",				"4.10.2",		Boolean.valueOf(true),															"",
+																			"Whether to use parallel (multi-threaded) backwards searches for precomputation/reachability with the predecessor relation (explicit engine, if the number of threads is greater than 1)." },
+			{ BOOLEAN_TYPE,		PRISM_COLUMNAR_EVAL,					"Columnar expression evaluation",		"4.10.2",		Boolean.valueOf(true),															"",
+																			"Whether to evaluate non-probabilistic state formulas and labels over all states at once, variable by variable, rather than state by state (explicit engine)." },
 			{ BOOLEAN_TYPE,		PRISM_FAIRNESS,							"Use fairness",							"2.1",			Boolean.valueOf(false),															"",																							
 																			"Constrain to fair adversaries when model checking MDPs." },
 			{ BOOLEAN_TYPE,		PRISM_FIX_DEADLOCKS,					"Automatically fix deadlocks",			"4.0.3",		Boolean.valueOf(true),															"",																							
 																			"Automatically fix deadlocks, where necessary, when constructing probabilistic models." },
 			{ BOOLEAN_TYPE,		PRISM_DO_PROB_CHECKS,					"Do probability/rate checks",			"2.1",			Boolean.valueOf(true),															"",																							
 																			"Perform sanity checks on model probabilities/rates when constructing probabilistic models." },
+			{ BOOLEAN_TYPE,		PRISM_COMPILE_EXPRESSIONS,				"Compile model expressions",			"4.10.2",		Boolean.valueOf(false),															"",
+																			"Compile guards, probabilities/rates and updates of PRISM models, rather than interpreting them, when exploring models (non-exact, non-parametric models only; anything that cannot be compiled is interpreted)." },
+			{ INTEGER_TYPE,		PRISM_MODEL_CACHE_SIZE,					"Built model cache size",				"4.10.2",		Integer.valueOf(0),																"0,",
+																			"Maximum number of (explicitly) built models to retain when model constants change, e.g. during experiments, for re-use if only constants not affecting the state space/transitions (e.g. reward constants) differ (0 = none, the default). A value of 1 only re-uses a model if consecutive iterations have the same values for constants affecting the state space/transitions: if an experiment varies such a constant more quickly than the others, set this to its number of values." },
+			{ BOOLEAN_TYPE,		PRISM_MODEL_ANALYSIS_CACHE,				"Cache model analyses",					"4.10.2",		Boolean.valueOf(false),															"",
+																			"Store the results of precomputation and SCC/MEC computation for (explicitly) built models, for re-use by later properties or, with a built model cache, later iterations of an experiment. Memory used is bounded by a fraction of the maximum heap size." },
+			{ BOOLEAN_TYPE,		PRISM_WARM_START,						"Warm-start numerical solution",		"4.10.2",		Boolean.valueOf(false),															"",
+																			"Start numerical solution of probabilistic reachability (explicit engine) from the solution (or, for policy iteration, strategy) of the previous matching computation, e.g. in the previous iteration of an experiment." },
 			{ DOUBLE_TYPE,		PRISM_SUM_ROUND_OFF,					"Probability sum threshold",					"2.1",			Double.valueOf(1.0E-5),													"0.0,",
 																			"Round-off threshold for places where doubles are summed and compared to integers (e.g. checking that probabilities sum to 1 in an update)." },							
 			{ BOOLEAN_TYPE,		PRISM_DO_SS_DETECTION,					"Use steady-state detection",			"2.1",			Boolean.valueOf(true),															"0,",																						
@@ -1027,6 +1048,11 @@ public class PrismSettings implements Observer
 			.when("speed",  () -> set(PRISM_HEURISTIC, "Speed"))
 			.when("memory", () -> set(PRISM_HEURISTIC, "Memory")),
 			"<mode>", "Automatic choice of engines/settings (none, speed, memory) [default: none]");
+		reg.addSwitch("threads", (sw, a) -> {
+			int n = a.nextInt(sw);
+			if (n < 1) throw new PrismException("Invalid value for -" + sw + " switch");
+			set(PRISM_NUM_THREADS, n);
+		}, "<n>", "Number of threads for multi-threaded computations [default: 1]");
 
 		// ── SOLUTION METHODS (LINEAR EQUATIONS) ──────────────────────────────
 		reg.beginGroup("SOLUTION METHODS (LINEAR EQUATIONS)");
@@ -1123,6 +1149,10 @@ public class PrismSettings implements Observer
 			"", "Skip precomputation algorithm Prob1 (where optional)");
 		reg.addSwitch("noprerel",    new FlagSwitch(() -> set(PRISM_PRE_REL, false)),
 			"", "Do not pre-compute/use predecessor relation, e.g. for precomputation");
+		reg.addSwitch("noparprecomp", new FlagSwitch(() -> set(PRISM_PAR_PRECOMP, false)),
+			"", "Do not use multiple threads for precomputation (explicit engine)");
+		reg.addSwitch("nocolumnareval", new FlagSwitch(() -> set(PRISM_COLUMNAR_EVAL, false)),
+			"", "Evaluate state formulas/labels state by state (explicit engine)");
 		reg.addSwitch("fair",        new FlagSwitch(() -> set(PRISM_FAIRNESS, true)),
 			"", "Use fairness (for model checking of MDPs)");
 		reg.addSwitch("nofair",      new FlagSwitch(() -> set(PRISM_FAIRNESS, false)),
@@ -1133,6 +1163,21 @@ public class PrismSettings implements Observer
 			"", "Do not automatically put self-loops in deadlock states");
 		reg.addSwitch("noprobchecks", new FlagSwitch(() -> set(PRISM_DO_PROB_CHECKS, false)),
 			"", "Disable checks on model probabilities/rates");
+		reg.addSwitch("compileexprs", new FlagSwitch(() -> set(PRISM_COMPILE_EXPRESSIONS, true)),
+			"", "Compile model expressions when exploring models (any that cannot be compiled are interpreted)");
+		reg.addSwitch("nocompileexprs", new FlagSwitch(() -> set(PRISM_COMPILE_EXPRESSIONS, false)),
+			"", "Interpret (rather than compile) model expressions when exploring models [default]");
+		reg.addSwitch("modelcache", (sw, a) -> {
+			int n = a.nextInt(sw);
+			if (n < 0) throw new PrismException("Invalid value for -" + sw + " switch");
+			set(PRISM_MODEL_CACHE_SIZE, n);
+		}, "<n>", "Number of built models to retain across changes in model constants [default: 0] (more than 1 if an experiment varies model-structure constants more quickly than others)");
+		reg.addSwitch("modelanalysiscache", new FlagSwitch(() -> set(PRISM_MODEL_ANALYSIS_CACHE, true)),
+			"", "Store precomputation and SCC/MEC results for re-use (explicit engine)");
+		reg.addSwitch("nomodelanalysiscache", new FlagSwitch(() -> set(PRISM_MODEL_ANALYSIS_CACHE, false)),
+			"", "Do not store precomputation and SCC/MEC results for re-use [default]");
+		reg.addSwitch("warmstart", new FlagSwitch(() -> set(PRISM_WARM_START, true)),
+			"", "Warm-start numerical solution from previous solutions, e.g. in experiments (explicit engine)");
 		reg.addSwitch("sumroundoff", (sw, a) -> {
 			double d = a.nextDouble(sw);
 			if (d < 0) throw new PrismException("Invalid value for -" + sw + " switch");
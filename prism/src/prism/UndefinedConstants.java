@@ -838,6 +838,24 @@ public class UndefinedConstants
 		return mfValues;
 	}
 
+	/**
+	 * Get the values of the property constants for all iterations, in the order that they
+	 * would be obtained by calling {@link #iterateProperty()} repeatedly, starting from the first.
+	 * The property iterator is then reset (i.e., back at the first values).
+	 */
+	public List<Values> getAllPFConstantValues()
+	{
+		int numIters = getNumPropertyIterations();
+		List<Values> allValues = new ArrayList<>(numIters);
+		intialisePropertyIterator();
+		for (int i = 0; i < numIters; i++) {
+			allValues.add(new Values(pfValues));
+			iterateProperty();
+		}
+		intialisePropertyIterator();
+		return allValues;
+	}
+
 	public Values getPFConstantValues()
 	{
 		return pfValues;
@@ -26,6 +26,8 @@
 
 package pta;
 
+import java.util.Arrays;
+
 /**
  * Implementation of the difference-bound matrix (DBM) data structure.
  * 
@@ -39,11 +41,14 @@ public class DBM extends Zone
 	protected PTA pta;
 	/*
 	 * Canonical zone representation: DBM
-	 * (numClocks+1)^2 matrix d, indexed 1...numClocks for clocks in PTA and 0 for special zero clock.
-	 * Each entry d[i][j] gives the bound for clock difference xi-xj.
+	 * (numClocks+1)^2 matrix d, indexed 1...numClocks for clocks in PTA and 0 for special zero clock,
+	 * stored as a flat array in row-major order, i.e., entry d[i * dim + j] gives the bound
+	 * for clock difference xi-xj, where dim = numClocks+1.
 	 * Difference bounds are encoded as a single integer; see help class DB for details.
 	 */
-	protected int d[][];
+	protected int d[];
+	/* Dimension of the matrix (numClocks+1) */
+	protected int dim;
 
 	/**
 	 * Construct an empty DBM (don't use this).
@@ -51,7 +56,8 @@ public class DBM extends Zone
 	public DBM(PTA pta)
 	{
 		this.pta = pta;
-		this.d = new int[pta.numClocks + 1][pta.numClocks + 1];
+		this.dim = pta.numClocks + 1;
+		this.d = new int[dim * dim];
 	}
 
 	// Methods required for Zone interface
@@ -72,30 +78,30 @@ public class DBM extends Zone
 	public void addConstraint(int x, int y, int db)
 	{
 		// Check if this causes inconsistency (i.e. zone emptiness)
-		// and, if so, flag this by setting d[0][0] to -1;
-		if (DB.add(d[y][x], db) < DB.LEQ_ZERO)
-			d[0][0] = DB.LEQ_MINUS_ONE;
+		// and, if so, flag this by setting d[0] to -1;
+		if (DB.add(d[y * dim + x], db) < DB.LEQ_ZERO)
+			d[0] = DB.LEQ_MINUS_ONE;
 		// Now add the constraint (if it is tighter than existing one)
-		else if (db < d[x][y]) {
+		else if (db < d[x * dim + y]) {
 			int i, j, n, dTmp;
 			// Store new constraint
-			d[x][y] = db;
+			d[x * dim + y] = db;
 			// Partial re-canonicalisation
 			// Note we do 2 (separate) outer iterations of Floyd-Warshall,
 			// unlike the incorrect formulation in the DBM algorithm notes.
 			n = pta.numClocks;
 			for (i = 0; i < n + 1; i++) {
 				for (j = 0; j < n + 1; j++) {
-					dTmp = DB.add(d[i][x], d[x][j]);
-					if (dTmp < d[i][j])
-						d[i][j] = dTmp;
+					dTmp = DB.add(d[i * dim + x], d[x * dim + j]);
+					if (dTmp < d[i * dim + j])
+						d[i * dim + j] = dTmp;
 				}
 			}
 			for (i = 0; i < n + 1; i++) {
 				for (j = 0; j < n + 1; j++) {
-					dTmp = DB.add(d[i][y], d[y][j]);
-					if (dTmp < d[i][j])
-						d[i][j] = dTmp;
+					dTmp = DB.add(d[i * dim + y], d[y * dim + j]);
+					if (dTmp < d[i * dim + j])
+						d[i * dim + j] = dTmp;
 				}
 			}
 		}
@@ -128,8 +134,8 @@ public class DBM extends Zone
 		n = pta.numClocks;
 		for (i = 0; i < n + 1; i++) {
 			for (j = 0; j < n + 1; j++) {
-				if (i != j && !DB.isInfty(dbm.d[i][j]))
-					addConstraint(i, j, dbm.d[i][j]);
+				if (i != j && !DB.isInfty(dbm.d[i * dbm.dim + j]))
+					addConstraint(i, j, dbm.d[i * dbm.dim + j]);
 			}
 		}
 	}
@@ -142,7 +148,7 @@ public class DBM extends Zone
 		int i, n;
 		n = pta.numClocks;
 		for (i = 1; i < n + 1; i++) {
-			d[i][0] = DB.INFTY;
+			d[i * dim] = DB.INFTY;
 		}
 		if (constraints != null) {
 			for (Constraint c : constraints) {
@@ -159,10 +165,10 @@ public class DBM extends Zone
 		int i, j, n;
 		n = pta.numClocks;
 		for (i = 1; i < n + 1; i++) {
-			d[0][i] = DB.LEQ_ZERO;
+			d[i] = DB.LEQ_ZERO;
 			for (j = 1; j < n + 1; j++) {
-				if (d[j][i] < d[0][i])
-					d[0][i] = d[j][i];
+				if (d[j * dim + i] < d[i])
+					d[i] = d[j * dim + i];
 			}
 		}
 		if (constraints != null) {
@@ -181,8 +187,8 @@ public class DBM extends Zone
 		n = pta.numClocks;
 		for (i = 0; i < n + 1; i++) {
 			if (i != x) {
-				d[x][i] = DB.INFTY;
-				d[i][x] = d[i][0];
+				d[x * dim + i] = DB.INFTY;
+				d[i * dim + x] = d[i * dim];
 			}
 		}
 	}
@@ -195,8 +201,8 @@ public class DBM extends Zone
 		int i, n;
 		n = pta.numClocks;
 		for (i = 0; i < n + 1; i++) {
-			d[x][i] = DB.add(DB.createLeq(v), d[0][i]);
-			d[i][x] = DB.add(d[i][0], DB.createLeq(-v));
+			d[x * dim + i] = DB.add(DB.createLeq(v), d[i]);
+			d[i * dim + x] = DB.add(d[i * dim], DB.createLeq(-v));
 		}
 	}
 
@@ -224,10 +230,10 @@ public class DBM extends Zone
 		n = pta.numClocks;
 		for (i = 0; i < n + 1; i++) {
 			for (j = 0; j < n + 1; j++) {
-				if (!DB.isInfty(d[i][j]) && DB.createLeq(c) < d[i][j]) {
-					d[i][j] = DB.INFTY;
-				} else if (!DB.isInfty(d[i][j]) && d[i][j] < DB.createLt(-c)) {
-					d[i][j] = DB.createLt(-c);
+				if (!DB.isInfty(d[i * dim + j]) && DB.createLeq(c) < d[i * dim + j]) {
+					d[i * dim + j] = DB.INFTY;
+				} else if (!DB.isInfty(d[i * dim + j]) && d[i * dim + j] < DB.createLt(-c)) {
+					d[i * dim + j] = DB.createLt(-c);
 				}
 			}
 		}
@@ -249,15 +255,15 @@ public class DBM extends Zone
 			list.addDBM(createTrue(pta));
 			return list;
 		}
-		n = d.length - 1;
+		n = dim - 1;
 		for (i = 0; i < n + 1; i++) {
 			for (j = 0; j < n + 1; j++) {
 				if (i == j)
 					continue;
-				if (DB.isInfty(d[i][j]))
+				if (DB.isInfty(d[i * dim + j]))
 					continue;
 				dbmNew = (DBM) new DBMFactory().createTrue(pta);
-				dbmNew.addConstraint(j, i, DB.dual(d[i][j]));
+				dbmNew.addConstraint(j, i, DB.dual(d[i * dim + j]));
 				if (!dbmNew.isEmpty()) {
 					list.addDBM(dbmNew);
 				}
@@ -273,9 +279,9 @@ public class DBM extends Zone
 	 */
 	public boolean isEmpty()
 	{
-		// Internally, inconsistency is flagged by setting d[0][0] to -1.
+		// Internally, inconsistency is flagged by setting d[0] to -1.
 		// (Note: strictly speaking "<0" checks that the difference bound is less than "<0".)
-		return d[0][0] < 0;
+		return d[0] < 0;
 	}
 
 	/**
@@ -283,7 +289,7 @@ public class DBM extends Zone
 	 */
 	public boolean isSatisfied(Constraint c)
 	{
-		return DB.add(c.db, d[c.y][c.x]) > 0;
+		return DB.add(c.db, d[c.y * dim + c.x]) > 0;
 	}
 
 	/**
@@ -291,14 +297,10 @@ public class DBM extends Zone
 	 */
 	public boolean includes(DBM dbm)
 	{
-		int i, j, n;
-		int[][] d2 = dbm.d;
-		n = pta.numClocks;
-		for (i = 0; i < n + 1; i++) {
-			for (j = 0; j < n + 1; j++) {
-				if (d[i][j] < d2[i][j])
-					return false;
-			}
+		int[] d2 = dbm.d;
+		for (int i = 0; i < d.length; i++) {
+			if (d[i] < d2[i])
+				return false;
 		}
 		return true;
 	}
@@ -308,7 +310,7 @@ public class DBM extends Zone
 	 */
 	public int getClockMin(int x)
 	{
-		return -DB.getSignedDiff(d[0][x]);
+		return -DB.getSignedDiff(d[x]);
 	}
 	
 	/**
@@ -316,7 +318,7 @@ public class DBM extends Zone
 	 */
 	public int getClockMax(int x)
 	{
-		return DB.getSignedDiff(d[x][0]);
+		return DB.getSignedDiff(d[x * dim]);
 	}
 	
 	/**
@@ -324,7 +326,7 @@ public class DBM extends Zone
 	 */
 	public boolean clockIsUnbounded(int x)
 	{
-		return DB.isInfty(d[x][0]);
+		return DB.isInfty(d[x * dim]);
 	}
 	
 	/**
@@ -335,7 +337,7 @@ public class DBM extends Zone
 		int i, n;
 		n = pta.numClocks;
 		for (i = 1; i < n + 1; i++) {
-			if (!DB.isInfty(d[i][0])) {
+			if (!DB.isInfty(d[i * dim])) {
 				return false;
 			}
 		}
@@ -349,18 +351,20 @@ public class DBM extends Zone
 	 */
 	public DBM deepCopy()
 	{
-		int i, j, n;
 		DBM copy = new DBM(pta);
-		n = pta.numClocks;
-		copy.d = new int[n + 1][n + 1];
-		for (i = 0; i < n + 1; i++) {
-			for (j = 0; j < n + 1; j++) {
-				copy.d[i][j] = d[i][j];
-			}
-		}
+		System.arraycopy(d, 0, copy.d, 0, d.length);
 		return copy;
 	}
 
+	/**
+	 * Overwrite this zone with a copy of another DBM (for the same PTA),
+	 * without any new allocation.
+	 */
+	public void copyFrom(DBM dbm)
+	{
+		System.arraycopy(dbm.d, 0, d, 0, d.length);
+	}
+
 	/**
 	 * Get storage info string
 	 */
@@ -373,12 +377,9 @@ public class DBM extends Zone
 
 	public int hashCode()
 	{
-		int n = pta.numClocks + 1;
 		int hash = 0;
-		for (int i = 0; i < n; i++) {
-			for (int j = 0; j < n; j++) {
-				hash = (hash * 7) + d[i][j];
-			}
+		for (int i = 0; i < d.length; i++) {
+			hash = (hash * 7) + d[i];
 		}
 		return hash;
 	}
@@ -386,7 +387,6 @@ public class DBM extends Zone
 	public boolean equals(Object o)
 	{
 		DBM dbm;
-		int i, j, n;
 		if (o == null)
 			return false;
 		try {
@@ -394,14 +394,7 @@ public class DBM extends Zone
 		} catch (ClassCastException e) {
 			return false;
 		}
-		n = pta.numClocks;
-		for (i = 0; i < n + 1; i++) {
-			for (j = 0; j < n + 1; j++) {
-				if (d[i][j] != dbm.d[i][j])
-					return false;
-			}
-		}
-		return true;
+		return Arrays.equals(d, dbm.d);
 	}
 
 	// To string methods
@@ -427,14 +420,14 @@ public class DBM extends Zone
 		for (i = 0; i < n + 1; i++) {
 			for (j = i + 1; j < n + 1; j++) {
 				s2 = null;
-				if (!DB.isInfty(d[i][j])) {
-					if (!DB.isInfty(d[j][i])) {
-						s2 = DB.constraintPairToString(i, j, d[i][j], d[j][i], pta);
+				if (!DB.isInfty(d[i * dim + j])) {
+					if (!DB.isInfty(d[j * dim + i])) {
+						s2 = DB.constraintPairToString(i, j, d[i * dim + j], d[j * dim + i], pta);
 					} else {
-						s2 = DB.constraintToString(i, j, d[i][j], pta);
+						s2 = DB.constraintToString(i, j, d[i * dim + j], pta);
 					}
-				} else if (!DB.isInfty(d[j][i])) {
-					s2 = DB.constraintToString(j, i, d[j][i], pta);
+				} else if (!DB.isInfty(d[j * dim + i])) {
+					s2 = DB.constraintToString(j, i, d[j * dim + i], pta);
 				}
 				if (s2 != null) {
 					if (!first)
@@ -463,7 +456,7 @@ public class DBM extends Zone
 			for (j = 0; j < n + 1; j++) {
 				if (j > 0)
 					s += " ";
-				s += DB.toString(d[i][j]);
+				s += DB.toString(d[i * dim + j]);
 			}
 			if (i < n)
 				s += ", ";
@@ -479,14 +472,19 @@ public class DBM extends Zone
 	 */
 	private void canonicalise()
 	{
-		int k, i, j, db, n;
-		n = pta.numClocks;
-		for (k = 0; k < n + 1; k++) {
-			for (i = 0; i < n + 1; i++) {
-				for (j = 0; j < n + 1; j++) {
-					db = DB.add(d[i][k], d[k][j]);
-					if (db < d[i][j])
-						d[i][j] = db;
+		int k, i, j, db, dik, kRow, iRow;
+		for (k = 0; k < dim; k++) {
+			kRow = k * dim;
+			for (i = 0; i < dim; i++) {
+				iRow = i * dim;
+				// (nothing to do if xi-xk is unbounded)
+				dik = d[iRow + k];
+				if (DB.isInfty(dik))
+					continue;
+				for (j = 0; j < dim; j++) {
+					db = DB.add(dik, d[kRow + j]);
+					if (db < d[iRow + j])
+						d[iRow + j] = db;
 				}
 			}
 		}
@@ -499,14 +497,8 @@ public class DBM extends Zone
 	 */
 	public static DBM createZero(PTA pta)
 	{
-		int i, j, n;
 		DBM dbm = new DBM(pta);
-		n = pta.numClocks;
-		for (i = 0; i < n + 1; i++) {
-			for (j = 0; j < n + 1; j++) {
-				dbm.d[i][j] = DB.LEQ_ZERO;
-			}
-		}
+		Arrays.fill(dbm.d, DB.LEQ_ZERO);
 		return dbm;
 	}
 
@@ -521,11 +513,11 @@ public class DBM extends Zone
 		for (i = 0; i < n + 1; i++) {
 			for (j = 0; j < n + 1; j++) {
 				if (i == j)
-					dbm.d[i][j] = DB.LEQ_ZERO;
+					dbm.d[i * dbm.dim + j] = DB.LEQ_ZERO;
 				else if (i == 0)
-					dbm.d[i][j] = DB.LEQ_ZERO;
+					dbm.d[j] = DB.LEQ_ZERO;
 				else
-					dbm.d[i][j] = DB.INFTY;
+					dbm.d[i * dbm.dim + j] = DB.INFTY;
 			}
 		}
 		return dbm;
@@ -26,6 +26,8 @@
 
 package pta;
 
+import java.util.Arrays;
+
 public class DBMFactory implements ZoneFactory
 {
 	/* Basic zone creation */
@@ -35,14 +37,8 @@ public class DBMFactory implements ZoneFactory
 	 */
 	public DBM createZero(PTA pta)
 	{
-		int i, j, n;
 		DBM dbm = new DBM(pta);
-		n = pta.numClocks;
-		for (i = 0; i < n + 1; i++) {
-			for (j = 0; j < n + 1; j++) {
-				dbm.d[i][j] = DB.LEQ_ZERO;
-			}
-		}
+		Arrays.fill(dbm.d, DB.LEQ_ZERO);
 		return dbm;
 	}
 
@@ -56,9 +52,9 @@ public class DBMFactory implements ZoneFactory
 		n = pta.numClocks;
 		for (i = 0; i < n + 1; i++) {
 			for (j = 0; j < n + 1; j++) {
-				if (i == j) dbm.d[i][j] = DB.LEQ_ZERO;
-				else if (i == 0) dbm.d[i][j] = DB.LEQ_ZERO;
-				else  dbm.d[i][j] = DB.INFTY;
+				if (i == j) dbm.d[i * dbm.dim + j] = DB.LEQ_ZERO;
+				else if (i == 0) dbm.d[i * dbm.dim + j] = DB.LEQ_ZERO;
+				else  dbm.d[i * dbm.dim + j] = DB.INFTY;
 			}
 		}
 		return dbm;
@@ -83,14 +83,15 @@ public class ForwardsReach
 	
 	/**
 	 * Implementation of {@link #buildForwardsGraph} using FORMATS'10 definition.
+	 * Successor states whose zone is included in that of an existing state
+	 * (for the same location) are replaced by the existing one (see {@link LocZoneStore}).
 	 */
 	private ReachabilityGraph buildForwardsGraphFormats10(PTA pta, BitSet targetLocs, Constraint targetConstraint)
 	throws PrismException
 	{
 		LocZone init, lz, lz2;
-		LinkedList<LocZone> X;
-		StateStorage<LocZone> Yset;
-		//LocZoneSetOld Zset;
+		DBM lzZone, lz2Zone;
+		LocZoneStore Yset;
 		ReachabilityGraph graph;
 		int src, dest, count, dests[];
 		boolean canDiverge;
@@ -113,26 +114,28 @@ public class ForwardsReach
 		
 		// Initialise data structures
 		graph = new ReachabilityGraph(pta);
-		Yset = new IndexedSet<LocZone>();
-		X = new LinkedList<LocZone>();
+		Yset = new LocZoneStore();
 		target = new BitSet();
 
 		// Build initial symbolic state (NB: assume initial location = 0)
 		init = new LocZone(0, DBM.createZero(pta));
 
+		// Storage for the state being explored and its successors
+		// (re-used, to avoid allocation; states are copied when stored)
+		lzZone = new DBM(pta);
+		lz = new LocZone(0, lzZone);
+		lz2Zone = new DBM(pta);
+		lz2 = new LocZone(0, lz2Zone);
+
 		// Reachability loop
 		Yset.add(init);
-		X.add(init);
-		src = -1;
-		// While there are unexplored symbolic states (in X)...
-		while (!X.isEmpty()) {
+		// While there are unexplored symbolic states...
+		// (states are stored in the order found, so those not yet explored are those after src)
+		for (src = 0; src < Yset.size(); src++) {
 			// Pick next state to explore
-			// X is a list containing states in order found
-			// (so we know index of lz is src+1)
-			lz = X.removeFirst();
-			src++;
 			// Compute timed post for this zone (NB: do this before checking if target)
-			lz = lz.deepCopy();
+			lz.loc = Yset.get(src).loc;
+			lzZone.copyFrom((DBM) Yset.get(src).zone);
 			lz.tPost(pta);
 			// Is this a target state? (If so, don't explore)
 			if (targetLocs.get(lz.loc) && (targetConstraint == null || lz.zone.isSatisfied(targetConstraint))) {
@@ -191,14 +194,13 @@ public class ForwardsReach
 				for (Edge edge : transition.getEdges()) {
 					// Do "discrete post" for this edge
 					// (followed by c-closure)
-					lz2 = lz.deepCopy();
+					lz2.loc = lz.loc;
+					lz2Zone.copyFrom(lzZone);
 					lz2.dPost(edge);
 					lz2.cClosure(pta);
-					// If non-empty, create edge, also adding state to X if new 
+					// If non-empty, create edge, also adding state (to be explored) if new 
 					if (!lz2.zone.isEmpty()) {
-						if (Yset.add(lz2)) {
-							X.add(lz2);
-						}
+						Yset.add(lz2);
 						dest = Yset.getIndexOfLastAdd();
 						enabled = true;
 						dests[count] = dest;
@@ -252,6 +254,8 @@ public class ForwardsReach
 		mainLog.println("Graph constructed in " + (timer / 1000.0) + " secs.");
 		mainLog.print("Graph: " + graph.states.size() + " symbolic states");
 		mainLog.println(" (" + initialStates.size() + " initial, " + target.cardinality() + " target)");
+		if (Yset.getNumSubsumed() > 0)
+			mainLog.println("Zones subsumed by existing ones during exploration: " + Yset.getNumSubsumed());
 
 		// Print a warning if there are no target states
 		if (target.cardinality() == 0)
@@ -0,0 +1,139 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package pta;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+/**
+ * Storage for the symbolic states (location/zone pairs) found during forwards reachability,
+ * i.e. a combined passed/waiting list: states are indexed in the order they are added,
+ * so those with index greater than the one currently being explored are the waiting ones.
+ * <br><br>
+ * When adding a state, inclusion (subsumption) is checked: if an existing state for the same location
+ * has a zone that includes the new one, the new state is not added and the existing one is used instead.
+ * Zones must be DBMs.
+ */
+public class LocZoneStore
+{
+	/** Stored states, in order of addition */
+	private ArrayList<LocZone> states = new ArrayList<>();
+	/** Index of each stored state (for fast detection of exact duplicates) */
+	private HashMap<LocZone, Integer> indices = new HashMap<>();
+	/** Indices of stored states, for each location */
+	private ArrayList<IntArrayList> statesForLoc = new ArrayList<>();
+	/** Index of the state found by the last call to add */
+	private int indexOfLastAdd = -1;
+	/** Number of states that were not added because they were subsumed by a (different) existing one */
+	private int numSubsumed = 0;
+
+	/**
+	 * Add a state, unless it is included in an existing one for the same location.
+	 * If added, a copy of {@code lz} is stored, so it can be reused by the caller.
+	 * Either way, the index of the new/including state is available from {@link #getIndexOfLastAdd()}.
+	 * @return true if the state was added
+	 */
+	public boolean add(LocZone lz)
+	{
+		// Exact duplicate?
+		Integer i = indices.get(lz);
+		if (i != null) {
+			indexOfLastAdd = i;
+			return false;
+		}
+		// Included in an existing zone for the same location?
+		// (check most recently added first)
+		DBM dbm = (DBM) lz.zone;
+		IntArrayList list = lz.loc < statesForLoc.size() ? statesForLoc.get(lz.loc) : null;
+		if (list != null) {
+			for (int k = list.size() - 1; k >= 0; k--) {
+				int j = list.getInt(k);
+				if (states.get(j).zone.includes(dbm)) {
+					indexOfLastAdd = j;
+					numSubsumed++;
+					return false;
+				}
+			}
+		}
+		// Add (a copy of) the new state
+		LocZone lzNew = lz.deepCopy();
+		indexOfLastAdd = states.size();
+		states.add(lzNew);
+		indices.put(lzNew, indexOfLastAdd);
+		while (statesForLoc.size() <= lz.loc) {
+			statesForLoc.add(null);
+		}
+		if (list == null) {
+			list = new IntArrayList();
+			statesForLoc.set(lz.loc, list);
+		}
+		list.add(indexOfLastAdd);
+		return true;
+	}
+
+	/**
+	 * Get the index of the state (added or including) found by the last call to {@link #add(LocZone)}.
+	 */
+	public int getIndexOfLastAdd()
+	{
+		return indexOfLastAdd;
+	}
+
+	/**
+	 * Get the {@code i}th stored state.
+	 */
+	public LocZone get(int i)
+	{
+		return states.get(i);
+	}
+
+	/**
+	 * Get the number of stored states.
+	 */
+	public int size()
+	{
+		return states.size();
+	}
+
+	/**
+	 * Get the number of states that were not added because they were included in (but not equal to) an existing one.
+	 */
+	public int getNumSubsumed()
+	{
+		return numSubsumed;
+	}
+
+	/**
+	 * Get the stored states, as a (new) list.
+	 */
+	public ArrayList<LocZone> toArrayList()
+	{
+		return new ArrayList<>(states);
+	}
+}
@@ -28,7 +28,9 @@ package simulator;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
+import parser.ExpressionCompiler.CompiledUpdate;
 import parser.State;
 import parser.VarList;
 import parser.ast.Command;
@@ -66,6 +68,10 @@ public class ChoiceListFlexi<Value> implements Choice<Value>
 	// denoting when it can be taken.
 	protected Expression clockGuard;
 
+	// Optionally, compiled versions of Update objects,
+	// used (where present) to compute target states
+	protected Map<Update, CompiledUpdate> compiledUpdates;
+
 	/**
 	 * Create empty choice.
 	 */
@@ -100,6 +106,7 @@ public class ChoiceListFlexi<Value> implements Choice<Value>
 			probability.add(p);
 		}
 		clockGuard = ch.clockGuard;
+		compiledUpdates = ch.compiledUpdates;
 	}
 
 	// Set methods
@@ -122,6 +129,15 @@ public class ChoiceListFlexi<Value> implements Choice<Value>
 		this.clockGuard = clockGuard;
 	}
 
+	/**
+	 * Set (optional) compiled versions of Update objects, used to compute target states.
+	 * @param compiledUpdates Map from updates to compiled versions (may be null or partial)
+	 */
+	public void setCompiledUpdates(Map<Update, CompiledUpdate> compiledUpdates)
+	{
+		this.compiledUpdates = compiledUpdates;
+	}
+
 	/**
 	 * Add a transition to this choice.
 	 * @param probability Probability (or rate) of the transition
@@ -255,16 +271,21 @@ public class ChoiceListFlexi<Value> implements Choice<Value>
 	public State computeTarget(int i, State currentState, VarList varList) throws PrismLangException
 	{
 		State newState = new State(currentState);
-		for (Update up : updates.get(i))
-			up.update(currentState, newState, eval.exact(), varList);
+		computeTarget(i, currentState, newState, varList);
 		return newState;
 	}
 
 	@Override
 	public void computeTarget(int i, State currentState, State newState, VarList varList) throws PrismLangException
 	{
-		for (Update up : updates.get(i))
-			up.update(currentState, newState, eval.exact(), varList);
+		for (Update up : updates.get(i)) {
+			CompiledUpdate compiled = compiledUpdates == null ? null : compiledUpdates.get(up);
+			if (compiled != null) {
+				compiled.update(currentState, newState);
+			} else {
+				up.update(currentState, newState, eval.exact(), varList);
+			}
+		}
 	}
 
 	@Override
@@ -263,6 +263,38 @@ public class ModulesFileModelGenerator<Value> implements ModelGenerator<Value>,
 		ec.setEvaluationMode(eval.evalMode());
 	}
 	
+	/**
+	 * Copy constructor: creates a model generator for the same (already initialised) model
+	 * that can be used independently of {@code other}, e.g. from another thread.
+	 * The resolved modules file is deep-copied and all exploration data structures are fresh.
+	 * @param other The model generator to copy
+	 */
+	public ModulesFileModelGenerator(ModulesFileModelGenerator<Value> other) throws PrismException
+	{
+		parent = other.parent;
+		eval = other.eval;
+		evalInt = other.evalInt;
+		originalModulesFile = other.originalModulesFile;
+		modulesFile = (ModulesFile) other.modulesFile.deepCopy();
+		modelType = other.modelType;
+		mfConstants = other.mfConstants;
+		varList = other.varList;
+		labelList = modulesFile.getLabelList();
+		labelNames = labelList.getLabelNames();
+		invariant = other.invariant == null ? null : other.invariant.deepCopy();
+		if (!modelType.uncertain()) {
+			updater = new Updater<Value>(modulesFile, varList, eval, parent);
+			transitionList = new TransitionList<Value>(eval);
+		} else {
+			updaterInt = new Updater<Interval<Value>>(modulesFile, varList, evalInt, parent);
+			transitionListInt = new TransitionList<Interval<Value>>(evalInt);
+		}
+		transitionListBuilt = false;
+		transitionListIntBuilt = false;
+		ec = new EvaluateContextState(mfConstants, new State(modulesFile.getNumVars()));
+		ec.setEvaluationMode(eval.evalMode());
+	}
+	
 	/**
 	 * (Re-)Initialise the class ready for model exploration
 	 * (can only be done once any constants needed have been provided)
@@ -319,6 +351,17 @@ public class ModulesFileModelGenerator<Value> implements ModelGenerator<Value>,
 		transitionListIntBuilt = false;
 	}
 	
+	// Methods for ModelGenerator interface (copying)
+	
+	@Override
+	public ModulesFileModelGenerator<Value> createCopy() throws PrismException
+	{
+		if (mfConstants == null) {
+			throw new PrismException("Cannot copy model generator before undefined constants are defined");
+		}
+		return new ModulesFileModelGenerator<>(this);
+	}
+	
 	// Methods for ModelInfo interface
 	
 	@Override
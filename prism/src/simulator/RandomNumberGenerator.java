@@ -86,6 +86,15 @@ public class RandomNumberGenerator
 		return x * random.nextDouble();
 	}
 
+	/**
+	 * Pick a random integer (from the full range of int values),
+	 * e.g. to use as the seed for another random number generator.
+	 */
+	public int randomSeed()
+	{
+		return random.nextInt();
+	}
+
 	/**
 	 * Pick a random double according to exponential distribution with rate x.
 	 */
@@ -27,9 +27,15 @@
 package simulator;
 
 import java.io.File;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import parser.State;
 import parser.Values;
@@ -138,6 +144,9 @@ public class SimulatorEngine extends PrismComponent
 	// Random number generator
 	private RandomNumberGenerator rng;
 
+	// Thread pool for parallel sampling (created when first needed, then reused)
+	private ForkJoinPool samplingPool;
+
 	/**
 	 * Utility class to store a reference to a transition,
 	 * broken up into the index of its (nondetermnistic) choice {@code i}
@@ -1990,15 +1999,12 @@ public class SimulatorEngine extends PrismComponent
 	private void doSampling(State initialState, long maxPathLength) throws PrismException
 	{
 		int iters;
-		long i;
 		// Flags
 		boolean fixdl = getSettings().getBoolean(PrismSettings.PRISM_FIX_DEADLOCKS);
 		boolean stoppedEarly = false;
 		boolean deadlocksFound = false;
 		State deadlockState = null;
 		boolean allDone = false;
-		boolean allKnown = false;
-		boolean someUnknownButBounded = false;
 		boolean shouldStopSampling = false;
 		// Path stats
 		double avgPathLength = 0;
@@ -2010,9 +2016,15 @@ public class SimulatorEngine extends PrismComponent
 		long start, stop;
 		double time_taken;
 
+		// Set up worker threads, if required and possible
+		// (if not, paths are generated sequentially, in this thread)
+		int numThreads = getSettings().getInteger(PrismSettings.PRISM_NUM_THREADS);
+		SamplingWorkers workers = numThreads > 1 ? createSamplingWorkers(numThreads, initialState, maxPathLength, fixdl) : null;
+		SampleOutcome outcome = new SampleOutcome();
+
 		// Start
 		start = System.currentTimeMillis();
-		mainLog.print("\nSampling progress: [");
+		mainLog.print("\nSampling progress" + (workers == null ? "" : " (using " + numThreads + " threads)") + ": [");
 		mainLog.flush();
 
 		// Main sampling loop
@@ -2041,56 +2053,41 @@ public class SimulatorEngine extends PrismComponent
 
 			iters++;
 
-			// Start the new path for this iteration (sample)
-			initialisePath(initialState);
+			// Generate a path (or, if using worker threads, get the next one generated)
+			if (workers == null) {
+				samplePath(initialState, maxPathLength, fixdl, outcome);
+			} else {
+				workers.nextPath(outcome);
+			}
 
-			// Generate a path
-			allKnown = false;
-			deadlocksFound = false;
-			someUnknownButBounded = false;
-			i = 0;
-			while ((!allKnown && i < maxPathLength) || someUnknownButBounded) {
-				// Check status of samplers
-				allKnown = true;
-				someUnknownButBounded = false;
-				for (Sampler sampler : propertySamplers) {
-					if (!sampler.isCurrentValueKnown()) {
-						allKnown = false;
-						if (sampler.needsBoundedNumSteps())
-							someUnknownButBounded = true;
-					}
-				}
-				// If we found a deadlock (and they are not being fixed) stop
-				if (!fixdl && modelGen.isDeadlock()) {
-					deadlocksFound = true;
-					deadlockState = new State(path.getCurrentState());
-					shouldStopSampling = true;
-					break;
-				}
-				// Stop when all answers are known or we have reached max path length
-				// (but don't stop yet if there are "bounded" samplers with unkown values)
-				if ((allKnown || i >= maxPathLength) && !someUnknownButBounded)
-					break;
-				// Make a random transition
-				// (ignore return value; need to check deadlocks separately above)
-				automaticTransition();
-				i++;
+			// If we found a deadlock (and they are not being fixed) stop
+			if (outcome.deadlockState != null) {
+				deadlocksFound = true;
+				deadlockState = outcome.deadlockState;
+				shouldStopSampling = true;
 			}
 
 			// Update path length statistics
+			long i = outcome.length;
 			avgPathLength = (avgPathLength * (iters - 1) + (i)) / iters;
 			minPathFound = (iters == 1) ? i : Math.min(minPathFound, i);
 			maxPathFound = (iters == 1) ? i : Math.max(maxPathFound, i);
 
 			// If not all samplers could produce values, this an error
-			if (!allKnown) {
+			if (!outcome.allKnown) {
 				stoppedEarly = true;
 				break;
 			}
 
 			// Update state of samplers based on last path
-			for (Sampler sampler : propertySamplers) {
-				sampler.updateStats();
+			if (workers == null) {
+				for (Sampler sampler : propertySamplers) {
+					sampler.updateStats();
+				}
+			} else {
+				for (int j = 0; j < propertySamplers.size(); j++) {
+					propertySamplers.get(j).updateStats(outcome.values[j]);
+				}
 			}
 		}
 
@@ -2128,6 +2125,228 @@ public class SimulatorEngine extends PrismComponent
 		}
 	}
 
+	/**
+	 * Generate a single path for sampling, from the specified initial state and up to a maximum length,
+	 * updating the samplers for the currently loaded properties as the path is generated.
+	 * Details of the path (length, whether all sampler values are known, any deadlock found)
+	 * are stored in {@code outcome}.
+	 * @param initialState Initial state (if null, is selected randomly)
+	 * @param maxPathLength The maximum path length for sampling
+	 * @param fixdl Whether deadlocks are being fixed (if not, generation stops at a deadlock)
+	 * @param outcome Where to store details of the path
+	 */
+	private void samplePath(State initialState, long maxPathLength, boolean fixdl, SampleOutcome outcome) throws PrismException
+	{
+		long i;
+		boolean allKnown = false;
+		boolean someUnknownButBounded = false;
+
+		// Start the new path for this iteration (sample)
+		initialisePath(initialState);
+		outcome.deadlockState = null;
+
+		// Generate a path
+		i = 0;
+		while ((!allKnown && i < maxPathLength) || someUnknownButBounded) {
+			// Check status of samplers
+			allKnown = true;
+			someUnknownButBounded = false;
+			for (Sampler sampler : propertySamplers) {
+				if (!sampler.isCurrentValueKnown()) {
+					allKnown = false;
+					if (sampler.needsBoundedNumSteps())
+						someUnknownButBounded = true;
+				}
+			}
+			// If we found a deadlock (and they are not being fixed) stop
+			if (!fixdl && modelGen.isDeadlock()) {
+				outcome.deadlockState = new State(path.getCurrentState());
+				break;
+			}
+			// Stop when all answers are known or we have reached max path length
+			// (but don't stop yet if there are "bounded" samplers with unkown values)
+			if ((allKnown || i >= maxPathLength) && !someUnknownButBounded)
+				break;
+			// Make a random transition
+			// (ignore return value; need to check deadlocks separately above)
+			automaticTransition();
+			i++;
+		}
+		outcome.length = i;
+		outcome.allKnown = allKnown;
+	}
+
+	/**
+	 * Details of a single path generated for sampling.
+	 */
+	private static class SampleOutcome
+	{
+		/** Path length */
+		long length;
+		/** Whether the values of all samplers were known for the path */
+		boolean allKnown;
+		/** Deadlock state found (and not fixed), if any */
+		State deadlockState;
+		/** Values of the samplers for the path (only stored for paths generated by workers) */
+		Object values[];
+	}
+
+	/** Minimum number of paths in a batch generated by a worker thread */
+	private static final int SAMPLING_MIN_BATCH_SIZE = 16;
+	/** Maximum number of paths in a batch generated by a worker thread */
+	private static final int SAMPLING_MAX_BATCH_SIZE = 1024;
+
+	/**
+	 * Create a set of worker threads to generate paths for sampling in parallel,
+	 * each using its own copy of the currently loaded model and properties.
+	 * Returns null (and paths should be generated sequentially) if this is not possible,
+	 * e.g. if the model generator cannot be copied or a strategy is loaded.
+	 */
+	@SuppressWarnings("unchecked")
+	private SamplingWorkers createSamplingWorkers(int numThreads, State initialState, long maxPathLength, boolean fixdl) throws PrismException
+	{
+		// Strategies and separate reward generators may not be safe to share between threads
+		if (stratGen != null || (rewardGen != modelGen && rewardGen.getNumRewardStructs() > 0)) {
+			return null;
+		}
+		List<SimulatorEngine> engines = new ArrayList<>(numThreads);
+		try {
+			for (int t = 0; t < numThreads; t++) {
+				ModelGenerator<Double> modelGenCopy = modelGen.createCopy();
+				SimulatorEngine engine = new SimulatorEngine(this);
+				engine.loadModel(modelGenCopy, rewardGen == modelGen ? (RewardGenerator<Double>) modelGenCopy : rewardGen);
+				engine.createNewOnTheFlyPath();
+				for (Expression prop : properties) {
+					engine.addProperty(prop);
+				}
+				engines.add(engine);
+			}
+		} catch (PrismNotSupportedException e) {
+			return null;
+		}
+		return new SamplingWorkers(engines, getSamplingPool(numThreads), initialState, maxPathLength, fixdl);
+	}
+
+	/**
+	 * Get the thread pool, with {@code numThreads} threads, used for parallel sampling,
+	 * creating it if needed (or if the number of threads has changed).
+	 * The pool is reused across calls, so it is not shut down after sampling,
+	 * but its (daemon) threads terminate once it is idle.
+	 */
+	private ForkJoinPool getSamplingPool(int numThreads)
+	{
+		if (samplingPool == null || samplingPool.getParallelism() != numThreads) {
+			samplingPool = new ForkJoinPool(numThreads);
+		}
+		return samplingPool;
+	}
+
+	/**
+	 * Worker threads generating paths for sampling, in batches.
+	 * <br><br>
+	 * Each batch of paths is generated by a single worker, using a random number generator
+	 * seeded from this engine's one (in batch order), and the paths are then passed back,
+	 * via {@link #nextPath(SampleOutcome)}, in batch order. So, for a given seed, the sequence
+	 * of paths is the same each time, and independent of the number of threads.
+	 * Since paths are still processed one at a time, the stopping criteria of the simulation methods
+	 * are checked exactly as for sequential sampling (any surplus paths in the last batches are discarded).
+	 */
+	private class SamplingWorkers
+	{
+		// Copies of the simulator, one per thread
+		private List<SimulatorEngine> engines;
+		// Sampling parameters
+		private State initialState;
+		private long maxPathLength;
+		private boolean fixdl;
+		// Thread pool (shared with other sampling runs of this engine)
+		private ForkJoinPool executor;
+		// Paths generated, but not yet passed back
+		private Deque<SampleOutcome> paths = new ArrayDeque<>();
+		// Number of batches generated so far
+		private int numBatches = 0;
+
+		SamplingWorkers(List<SimulatorEngine> engines, ForkJoinPool executor, State initialState, long maxPathLength, boolean fixdl)
+		{
+			this.engines = engines;
+			this.executor = executor;
+			this.initialState = initialState;
+			this.maxPathLength = maxPathLength;
+			this.fixdl = fixdl;
+		}
+
+		/**
+		 * Get details of the next path generated, storing them in {@code outcome}.
+		 */
+		void nextPath(SampleOutcome outcome) throws PrismException
+		{
+			if (paths.isEmpty()) {
+				generateBatches();
+			}
+			SampleOutcome next = paths.removeFirst();
+			outcome.length = next.length;
+			outcome.allKnown = next.allKnown;
+			outcome.deadlockState = next.deadlockState;
+			outcome.values = next.values;
+		}
+
+		/**
+		 * Generate one batch of paths per worker thread, in parallel.
+		 */
+		private void generateBatches() throws PrismException
+		{
+			List<Callable<List<SampleOutcome>>> tasks = new ArrayList<>(engines.size());
+			for (SimulatorEngine engine : engines) {
+				// Batch size increases gradually, so that little work is wasted if few paths are needed
+				int batchSize = Math.min(SAMPLING_MAX_BATCH_SIZE, SAMPLING_MIN_BATCH_SIZE << Math.min(numBatches / 8, 10));
+				int seed = rng.randomSeed();
+				tasks.add(() -> engine.sampleBatch(initialState, maxPathLength, fixdl, batchSize, seed));
+				numBatches++;
+			}
+			try {
+				for (Future<List<SampleOutcome>> future : executor.invokeAll(tasks)) {
+					paths.addAll(future.get());
+				}
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof PrismException) {
+					throw (PrismException) e.getCause();
+				}
+				throw new PrismException("Error during parallel sampling: " + e.getCause());
+			} catch (InterruptedException e) {
+				throw new PrismException("Parallel sampling was interrupted");
+			}
+		}
+	}
+
+	/**
+	 * Generate a batch of paths for sampling (on a copy of the simulator used by a worker thread),
+	 * using a random number generator with the specified seed.
+	 * The batch ends early if a path with a deadlock or unknown sampler values is found,
+	 * since sampling will stop there anyway.
+	 */
+	private List<SampleOutcome> sampleBatch(State initialState, long maxPathLength, boolean fixdl, int batchSize, int seed) throws PrismException
+	{
+		setRandomNumberGeneratorSeed(seed);
+		List<SampleOutcome> batch = new ArrayList<>(batchSize);
+		for (int k = 0; k < batchSize; k++) {
+			SampleOutcome outcome = new SampleOutcome();
+			samplePath(initialState, maxPathLength, fixdl, outcome);
+			batch.add(outcome);
+			if (!outcome.allKnown) {
+				break;
+			}
+			int n = propertySamplers.size();
+			outcome.values = new Object[n];
+			for (int j = 0; j < n; j++) {
+				outcome.values[j] = propertySamplers.get(j).getCurrentValue();
+			}
+			if (outcome.deadlockState != null) {
+				break;
+			}
+		}
+		return batch;
+	}
+
 	/**
 	 * Halt the sampling algorithm in its tracks (not implemented).
 	 */
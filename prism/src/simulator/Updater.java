@@ -33,7 +33,12 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 
+import parser.EvaluateContext.EvalMode;
 import parser.EvaluateContextState;
+import parser.ExpressionCompiler;
+import parser.ExpressionCompiler.CompiledBoolean;
+import parser.ExpressionCompiler.CompiledDouble;
+import parser.ExpressionCompiler.CompiledUpdate;
 import parser.State;
 import parser.VarList;
 import parser.ast.Command;
@@ -61,6 +66,8 @@ public class Updater<Value> extends PrismComponent
 	// Settings:
 	// Do we check that probabilities sum to 1?
 	protected boolean doProbChecks = true;
+	// Do we compile expressions (where possible)?
+	protected boolean compileExpressions = true;
 	
 	// Info on model being explored
 	protected ModulesFile modulesFile;
@@ -89,6 +96,15 @@ public class Updater<Value> extends PrismComponent
 	protected BitSet enabledModules[];
 	// For real-time models, the guards over clock variables attached to (some) Updates
 	protected Map<Updates,Expression> clockGuards;
+	
+	// Compiled expressions (null if not used):
+	
+	// Element i,j of compiledGuards is the guard of the jth command of module i
+	protected CompiledBoolean compiledGuards[][];
+	// Probabilities/rates for each Updates object (null elements if unspecified, i.e., 1)
+	protected Map<Updates,CompiledDouble[]> compiledProbs;
+	// Compiled version of each Update object
+	protected Map<Update,CompiledUpdate> compiledUpdates;
 
 	public Updater(ModulesFile modulesFile, VarList varList, Evaluator<Value> eval)
 	{
@@ -99,6 +115,7 @@ public class Updater<Value> extends PrismComponent
 	{
 		// Store some settings
 		doProbChecks = parent.getSettings().getBoolean(PrismSettings.PRISM_DO_PROB_CHECKS);
+		compileExpressions = parent.getSettings().getBoolean(PrismSettings.PRISM_COMPILE_EXPRESSIONS);
 		
 		// Get info from model
 		this.modulesFile = modulesFile;
@@ -158,6 +175,41 @@ public class Updater<Value> extends PrismComponent
 			enabledModules[j] = new BitSet(numModules);
 		}
 		clockGuards = new HashMap<Updates, Expression>();
+		
+		// Compile expressions, if required and supported
+		// (floating-point evaluation of non-real-time models only)
+		if (compileExpressions && !modelType.realTime() && eval.evalMode() == EvalMode.FP && !eval.isSymbolic() && eval.one() instanceof Double) {
+			compileExpressions();
+		}
+	}
+
+	/**
+	 * Compile the guards, probabilities/rates and updates of all commands in the model.
+	 */
+	protected void compileExpressions()
+	{
+		ExpressionCompiler compiler = new ExpressionCompiler(modulesFile.getConstantValues(), modulesFile.getNumVars());
+		compiledGuards = new CompiledBoolean[numModules][];
+		compiledProbs = new HashMap<Updates, CompiledDouble[]>();
+		compiledUpdates = new HashMap<Update, CompiledUpdate>();
+		for (int m = 0; m < numModules; m++) {
+			Module module = modulesFile.getModule(m);
+			int n = module.getNumCommands();
+			compiledGuards[m] = new CompiledBoolean[n];
+			for (int i = 0; i < n; i++) {
+				Command command = module.getCommand(i);
+				compiledGuards[m][i] = compiler.compileBoolean(command.getGuard());
+				Updates ups = command.getUpdates();
+				int numUpdates = ups.getNumUpdates();
+				CompiledDouble probs[] = new CompiledDouble[numUpdates];
+				for (int k = 0; k < numUpdates; k++) {
+					Expression p = ups.getProbability(k);
+					probs[k] = p == null ? null : compiler.compileDouble(p);
+					compiledUpdates.put(ups.getUpdate(k), compiler.compileUpdate(ups.getUpdate(k)));
+				}
+				compiledProbs.put(ups, probs);
+			}
+		}
 	}
 
 	/**
@@ -304,6 +356,8 @@ public class Updater<Value> extends PrismComponent
 				if (!Expression.isFalse(clockGuard)) {
 					guardSat = true;
 				}
+			} else if (compiledGuards != null) {
+				guardSat = compiledGuards[m][i].evaluate(state);
 			} else {
 				guardSat = command.getGuard().evaluateBoolean(ec.setState(state));
 			}
@@ -324,11 +378,15 @@ public class Updater<Value> extends PrismComponent
 	 * Evaluate the probability (or rate) of the ith update, in the context of a state.
 	 * If the probability is not specified in the update, it is assumed to be 1.
 	 */
+	@SuppressWarnings("unchecked")
 	protected Value getProbabilityInState(Updates ups, int i, State state) throws PrismLangException
 	{
 		Expression p = ups.getProbability(i);
 		if (p == null) {
 			return eval.one();
+		} else if (compiledProbs != null) {
+			// (compiled only when Value is Double)
+			return (Value) Double.valueOf(compiledProbs.get(ups)[i].evaluate(state));
 		} else {
 			return eval.evaluate(p, state);
 		}
@@ -352,6 +410,7 @@ public class Updater<Value> extends PrismComponent
 		// Create choice and add all info
 		ch = new ChoiceListFlexi<Value>(eval);
 		ch.setModuleOrActionIndex(moduleOrActionIndex);
+		ch.setCompiledUpdates(compiledUpdates);
 		n = ups.getNumUpdates();
 		sum = eval.zero();
 		for (i = 0; i < n; i++) {
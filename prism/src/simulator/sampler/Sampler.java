@@ -93,6 +93,13 @@ public abstract class Sampler
 	 */
 	public abstract void updateStats();
 
+	/**
+	 * Update the statistics for the sampler, for a finished path whose value
+	 * (as returned by {@link #getCurrentValue()}) is {@code value}.
+	 * This is used to merge in paths sampled elsewhere, e.g. by a copy of this sampler in another thread.
+	 */
+	public abstract void updateStats(Object value);
+
 	/**
 	 * Get the current value of the sampler.
 	 */
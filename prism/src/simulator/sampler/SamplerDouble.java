@@ -81,6 +81,20 @@ public abstract class SamplerDouble extends Sampler
 
 	@Override
 	public void updateStats()
+	{
+		addSample(value);
+	}
+
+	@Override
+	public void updateStats(Object value)
+	{
+		addSample((Double) value);
+	}
+
+	/**
+	 * Add the value for a (finished) path to the statistics.
+	 */
+	private void addSample(double value)
 	{
 		if (numSamples == 0)
 			correctionTerm = value;
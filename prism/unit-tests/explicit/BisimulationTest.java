@@ -0,0 +1,193 @@
+package explicit;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import prism.PrismException;
+
+/**
+ * Tests for {@link Bisimulation}.
+ */
+public class BisimulationTest
+{
+	/**
+	 * DTMC: states 0,...,n-1 move to "goal" state n with probability (s mod 100 + 1)/128
+	 * and otherwise to (absorbing) state n+1, so they fall into 100 different blocks.
+	 */
+	private DTMCSimple<Double> createLargeDTMC(int n)
+	{
+		DTMCSimple<Double> dtmc = new DTMCSimple<>(n + 2);
+		for (int s = 0; s < n; s++) {
+			double p = (s % 100 + 1) / 128.0;
+			dtmc.setProbability(s, n, p);
+			dtmc.setProbability(s, n + 1, 1 - p);
+		}
+		dtmc.setProbability(n, n, 1.0);
+		dtmc.setProbability(n + 1, n + 1, 1.0);
+		dtmc.addInitialState(0);
+		return dtmc;
+	}
+
+	/**
+	 * DTMC: 0 -> 1,2,3,4 (uniformly); 1,2 -> 5; 3 -> 6; 4 -> 5 (0.5), 6 (0.5); 5,6 absorbing, "goal" = {5,6}
+	 * So 1,2,3,4 are all bisimilar, as are 5 and 6.
+	 */
+	private DTMCSimple<Double> createDTMC()
+	{
+		DTMCSimple<Double> dtmc = new DTMCSimple<>(7);
+		for (int s = 1; s <= 4; s++) {
+			dtmc.setProbability(0, s, 0.25);
+		}
+		dtmc.setProbability(1, 5, 1.0);
+		dtmc.setProbability(2, 5, 1.0);
+		dtmc.setProbability(3, 6, 1.0);
+		dtmc.setProbability(4, 5, 0.5);
+		dtmc.setProbability(4, 6, 0.5);
+		dtmc.setProbability(5, 5, 1.0);
+		dtmc.setProbability(6, 6, 1.0);
+		dtmc.addInitialState(0);
+		return dtmc;
+	}
+
+	private List<String> names(String... names)
+	{
+		return List.of(names);
+	}
+
+	private List<BitSet> props(BitSet... bss)
+	{
+		List<BitSet> list = new ArrayList<>();
+		for (BitSet bs : bss) {
+			list.add(bs);
+		}
+		return list;
+	}
+
+	private BitSet bits(int... states)
+	{
+		BitSet bs = new BitSet();
+		for (int s : states) {
+			bs.set(s);
+		}
+		return bs;
+	}
+
+	@Test
+	void minimiseDTMC() throws PrismException
+	{
+		Bisimulation<Double> bisim = new Bisimulation<>(null);
+		DTMC<Double> dtmcMin = (DTMC<Double>) bisim.minimise(createDTMC(), names("goal"), props(bits(5, 6)));
+		// Blocks: {0}, {1,2,3,4}, {5,6}
+		assertEquals(3, dtmcMin.getNumStates());
+		assertEquals(1, dtmcMin.getNumInitialStates());
+		int init = dtmcMin.getFirstInitialState();
+		assertEquals(1, dtmcMin.getNumTransitions(init));
+		assertEquals(1, dtmcMin.getLabelStates("goal").cardinality());
+		// Reachability probability is preserved
+		DTMCModelChecker mc = new DTMCModelChecker(null);
+		double soln[] = mc.computeReachProbs(dtmcMin, dtmcMin.getLabelStates("goal")).soln;
+		assertEquals(1.0, soln[init], 1e-8);
+	}
+
+	@Test
+	void minimiseDTMCRoundOff() throws PrismException
+	{
+		// 0 -> 1 (0.1), 2 (0.2), 3 (0.7); 4 -> 5 (0.3), 6 (0.7); others absorbing, "goal" = {1,2,5}
+		// 0 and 4 are bisimilar, even though 0.1 + 0.2 != 0.3 in floating point
+		DTMCSimple<Double> dtmc = new DTMCSimple<>(7);
+		dtmc.setProbability(0, 1, 0.1);
+		dtmc.setProbability(0, 2, 0.2);
+		dtmc.setProbability(0, 3, 0.7);
+		dtmc.setProbability(4, 5, 0.3);
+		dtmc.setProbability(4, 6, 0.7);
+		for (int s : new int[] { 1, 2, 3, 5, 6 }) {
+			dtmc.setProbability(s, s, 1.0);
+		}
+		dtmc.addInitialState(0);
+		dtmc.addInitialState(4);
+		Bisimulation<Double> bisim = new Bisimulation<>(null);
+		DTMC<Double> dtmcMin = (DTMC<Double>) bisim.minimise(dtmc, names("goal"), props(bits(1, 2, 5)));
+		// Blocks: {0,4}, {1,2,5}, {3,6}
+		assertEquals(3, dtmcMin.getNumStates());
+		assertEquals(1, dtmcMin.getNumInitialStates());
+	}
+
+	@Test
+	void minimiseDTMCParallel() throws PrismException
+	{
+		int n = 100000;
+		Bisimulation<Double> bisim = new Bisimulation<>(null);
+		DTMC<Double> dtmcMin = (DTMC<Double>) bisim.minimise(createLargeDTMC(n), names("goal"), props(bits(n)));
+		assertEquals(102, dtmcMin.getNumStates());
+		// Same with multiple threads
+		Bisimulation<Double> bisimPar = new Bisimulation<>(null);
+		bisimPar.setNumThreads(4);
+		DTMC<Double> dtmcMinPar = (DTMC<Double>) bisimPar.minimise(createLargeDTMC(n), names("goal"), props(bits(n)));
+		assertEquals(102, dtmcMinPar.getNumStates());
+		for (int b = 0; b < 102; b++) {
+			assertEquals(dtmcMin.getNumTransitions(b), dtmcMinPar.getNumTransitions(b));
+		}
+		// Without the proposition, all states are bisimilar
+		DTMC<Double> dtmcMinNoProp = (DTMC<Double>) bisimPar.minimise(createLargeDTMC(n), names(), props());
+		assertEquals(1, dtmcMinNoProp.getNumStates());
+	}
+
+	@Test
+	void minimiseCTMC() throws PrismException
+	{
+		// 0 -> 1 (rate 2), 0 -> 2 (rate 3), 1,2 -> 3 (rate 1), "goal" = {3}
+		CTMCSimple<Double> ctmc = new CTMCSimple<>(4);
+		ctmc.setProbability(0, 1, 2.0);
+		ctmc.setProbability(0, 2, 3.0);
+		ctmc.setProbability(1, 3, 1.0);
+		ctmc.setProbability(2, 3, 1.0);
+		ctmc.addInitialState(0);
+		Bisimulation<Double> bisim = new Bisimulation<>(null);
+		CTMC<Double> ctmcMin = (CTMC<Double>) bisim.minimise(ctmc, names("goal"), props(bits(3)));
+		assertEquals(3, ctmcMin.getNumStates());
+		// Rates into a block are summed
+		assertEquals(5.0, ctmcMin.getExitRate(ctmcMin.getFirstInitialState()), 1e-12);
+	}
+
+	@Test
+	void minimiseMDP() throws PrismException
+	{
+		// 0 -a-> 1, 0 -a-> 2, 0 -b-> 3; 1 -a-> 3; 2 -a-> 3; 2 -a-> 2 (x0.5), 3 (x0.5); 3 absorbing
+		MDPSimple<Double> mdp = new MDPSimple<>(4);
+		mdp.addActionLabelledChoice(0, distr(1, 1.0), "a");
+		mdp.addActionLabelledChoice(0, distr(2, 1.0), "a");
+		mdp.addActionLabelledChoice(0, distr(3, 1.0), "b");
+		mdp.addActionLabelledChoice(1, distr(3, 1.0), "a");
+		mdp.addActionLabelledChoice(2, distr(3, 1.0), "a");
+		Distribution<Double> d = distr(2, 0.5);
+		d.add(3, 0.5);
+		mdp.addActionLabelledChoice(2, d, "a");
+		mdp.addActionLabelledChoice(3, distr(3, 1.0), "a");
+		mdp.addInitialState(0);
+		Bisimulation<Double> bisim = new Bisimulation<>(null);
+		// 1 and 2 are not bisimilar (2 has an extra choice)
+		MDP<Double> mdpMin = (MDP<Double>) bisim.minimise(mdp, names("goal"), props(bits(3)));
+		assertEquals(4, mdpMin.getNumStates());
+		// Without the extra choice, they are, and the duplicate choice of 0 is removed
+		MDPSimple<Double> mdp2 = new MDPSimple<>(mdp);
+		mdp2.clearState(2);
+		mdp2.addActionLabelledChoice(2, distr(3, 1.0), "a");
+		mdpMin = (MDP<Double>) bisim.minimise(mdp2, names("goal"), props(bits(3)));
+		assertEquals(3, mdpMin.getNumStates());
+		int init = mdpMin.getFirstInitialState();
+		assertEquals(2, mdpMin.getNumChoices(init));
+		assertEquals("a", mdpMin.getAction(init, 0));
+		assertEquals("b", mdpMin.getAction(init, 1));
+	}
+
+	private Distribution<Double> distr(int s, double p)
+	{
+		Distribution<Double> distr = Distribution.ofDouble();
+		distr.add(s, p);
+		return distr;
+	}
+}
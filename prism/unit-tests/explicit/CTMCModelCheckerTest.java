@@ -0,0 +1,111 @@
+package explicit;
+
+import java.util.BitSet;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import prism.PrismException;
+
+/**
+ * Tests for transient computations in {@link CTMCModelChecker},
+ * for several time points at once.
+ */
+public class CTMCModelCheckerTest
+{
+	/** CTMC: 0 -2-> 1 -1-> 2, 1 -3-> 0, 2 absorbing */
+	private CTMCSimple<Double> createCTMC()
+	{
+		CTMCSimple<Double> ctmc = new CTMCSimple<>(3);
+		ctmc.setProbability(0, 1, 2.0);
+		ctmc.setProbability(1, 2, 1.0);
+		ctmc.setProbability(1, 0, 3.0);
+		ctmc.addInitialState(0);
+		return ctmc;
+	}
+
+	@Test
+	void transientProbsForSeveralTimes() throws PrismException
+	{
+		CTMCSimple<Double> ctmc = createCTMC();
+		CTMCModelChecker mc = new CTMCModelChecker(null);
+		// (without steady-state detection, results are identical to separate computations)
+		mc.setDoSSDetect(false);
+		// Unsorted, including 0 and a duplicate
+		double ts[] = { 1.5, 0.0, 0.25, 4.0, 0.25 };
+		double results[][] = new double[ts.length][];
+		mc.computeTransientProbs(ctmc, ts, new double[] { 1.0, 0.0, 0.0 }, (j, soln) -> {
+			assertNull(results[j]);
+			results[j] = soln;
+		});
+		assertArrayEquals(new double[] { 1.0, 0.0, 0.0 }, results[1]);
+		for (int j = 0; j < ts.length; j++) {
+			if (ts[j] > 0) {
+				double expected[] = mc.computeTransientProbs(ctmc, ts[j], new double[] { 1.0, 0.0, 0.0 }).soln;
+				assertArrayEquals(expected, results[j]);
+			}
+		}
+	}
+
+	@Test
+	void timeBoundedUntilProbsForSeveralTimes() throws PrismException
+	{
+		CTMCSimple<Double> ctmc = createCTMC();
+		CTMCModelChecker mc = new CTMCModelChecker(null);
+		mc.setDoSSDetect(false);
+		BitSet remain = new BitSet();
+		remain.set(0, 3);
+		BitSet target = new BitSet();
+		target.set(2);
+		double ts[] = { 3.0, 0.5, 0.0, 10.0 };
+		ModelCheckerResult res[] = mc.computeTimeBoundedUntilProbs(ctmc, remain, target, ts);
+		assertArrayEquals(new double[] { 0.0, 0.0, 1.0 }, res[2].soln);
+		for (int j = 0; j < ts.length; j++) {
+			if (ts[j] > 0) {
+				assertArrayEquals(mc.computeTimeBoundedUntilProbs(ctmc, remain, target, ts[j]).soln, res[j].soln);
+			}
+		}
+		// Probabilities increase with time
+		assertTrue(res[1].soln[0] < res[0].soln[0]);
+		assertTrue(res[0].soln[0] < res[3].soln[0]);
+	}
+
+	@Test
+	void steadyStateDetection() throws PrismException
+	{
+		CTMCSimple<Double> ctmc = createCTMC();
+		CTMCModelChecker mc = new CTMCModelChecker(null);
+		BitSet remain = new BitSet();
+		remain.set(0, 3);
+		BitSet target = new BitSet();
+		target.set(2);
+		double t = 200.0;
+		mc.setDoSSDetect(false);
+		ModelCheckerResult resFull = mc.computeTimeBoundedUntilProbs(ctmc, remain, target, t);
+		double distFull[] = mc.computeTransientProbs(ctmc, t, new double[] { 1.0, 0.0, 0.0 }).soln;
+		mc.setDoSSDetect(true);
+		ModelCheckerResult resSS = mc.computeTimeBoundedUntilProbs(ctmc, remain, target, t);
+		ModelCheckerResult resSSDist = mc.computeTransientProbs(ctmc, t, new double[] { 1.0, 0.0, 0.0 });
+		// Early termination, within the reported error bound
+		assertTrue(resSS.numIters < resFull.numIters);
+		assertTrue(resSSDist.numIters < resFull.numIters);
+		double errorBound = resSS.accuracy.getErrorBound();
+		assertTrue(errorBound <= mc.getTermCritParam());
+		assertArrayEquals(resFull.soln, resSS.soln, errorBound + 1e-12);
+		assertArrayEquals(distFull, resSSDist.soln, resSSDist.accuracy.getErrorBound() + 1e-12);
+	}
+
+	@Test
+	void uniformisationTail()
+	{
+		double weights[] = { 0.25, 0.5, 0.25 };
+		// Weights 0.1 for i < 2, i.e. w = (0.1, 0.1, 0.25, 0.5, 0.25)
+		CTMCModelChecker.UniformisationTail tail = new CTMCModelChecker.UniformisationTail(2, 4, weights, 0.1);
+		assertEquals(1.1, tail.getRemainingWeight(0), 1e-12);
+		assertEquals(0.1 * 1 + 0.25 * 2 + 0.5 * 3 + 0.25 * 4, tail.getExpectedRemainingSteps(0), 1e-12);
+		assertEquals(0.75, tail.getRemainingWeight(2), 1e-12);
+		assertEquals(0.5 * 1 + 0.25 * 2, tail.getExpectedRemainingSteps(2), 1e-12);
+		assertEquals(0.0, tail.getRemainingWeight(4));
+		assertEquals(0.0, tail.getExpectedRemainingSteps(4));
+	}
+}
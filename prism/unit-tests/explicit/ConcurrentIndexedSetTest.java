@@ -0,0 +1,64 @@
+package explicit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link ConcurrentIndexedSet}.
+ */
+public class ConcurrentIndexedSetTest
+{
+	@Test
+	void concurrentAddsAssignUniqueContiguousIndices() throws InterruptedException
+	{
+		int numThreads = 4, numValues = 10000;
+		ConcurrentIndexedSet<Integer> set = new ConcurrentIndexedSet<>();
+		ConcurrentLinkedQueue<Integer> added = new ConcurrentLinkedQueue<>();
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < numThreads; t++) {
+			// Each thread adds all values (in a different order)
+			int offset = t * 997;
+			threads.add(new Thread(() -> {
+				for (int i = 0; i < numValues; i++) {
+					set.add((i + offset) % numValues, added::add);
+				}
+			}));
+		}
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		// Each value added (and reported as new) exactly once, with indices 0..n-1
+		assertEquals(numValues, set.size());
+		assertEquals(numValues, added.size());
+		boolean seen[] = new boolean[numValues];
+		for (int i : added) {
+			assertFalse(seen[i]);
+			seen[i] = true;
+		}
+		ArrayList<Integer> list = set.toArrayList();
+		for (int i = 0; i < numValues; i++) {
+			assertEquals(i, set.get(list.get(i)));
+		}
+	}
+
+	@Test
+	void sortingPermutationOrdersByValue()
+	{
+		ConcurrentIndexedSet<String> set = new ConcurrentIndexedSet<>();
+		for (String s : new String[] { "c", "a", "d", "b" }) {
+			assertTrue(set.add(s));
+		}
+		assertFalse(set.add("a"));
+		assertEquals(1, set.getIndexOfLastAdd());
+		int permut[] = set.buildSortingPermutation();
+		assertArrayEquals(new int[] { 2, 0, 3, 1 }, permut);
+		assertEquals(List.of("a", "b", "c", "d"), set.toPermutedArrayList(permut));
+	}
+}
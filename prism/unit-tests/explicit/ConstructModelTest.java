@@ -0,0 +1,122 @@
+package explicit;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import parser.ast.ModulesFile;
+import prism.ModelType;
+import prism.Prism;
+import prism.PrismDevNullLog;
+import prism.PrismException;
+import simulator.ModulesFileModelGenerator;
+
+/**
+ * Tests for (parallel) state space exploration in {@link ConstructModel}:
+ * after sorting, the model built with several threads should be identical to the sequential one.
+ */
+public class ConstructModelTest
+{
+	/** Two interleaved counters, with a probabilistic reset, so that there are a few thousand states over many BFS levels */
+	private static final String MODULES = "module m1\n  x : [0..60] init 0;\n  [a] x<60 -> 0.7:(x'=x+1) + 0.3:(x'=max(0,x-2));\n  [b] x=60 -> (x'=0);\nendmodule\n"
+			+ "module m2\n  y : [0..40] init 0;\n  [c] y<40 -> 0.5:(y'=y+1) + 0.5:(y'=y);\n  [d] y=40 -> (y'=0);\nendmodule\n"
+			+ "label \"goal\" = x=60 & y=40;\n";
+
+	private Prism prism;
+
+	@BeforeEach
+	void setUp() throws PrismException
+	{
+		prism = new Prism(new PrismDevNullLog());
+		prism.initialise();
+	}
+
+	@AfterEach
+	void tearDown()
+	{
+		prism.closeDown();
+	}
+
+	@Test
+	void parallelDTMC() throws PrismException
+	{
+		checkParallelConstruction("dtmc\n" + MODULES);
+	}
+
+	@Test
+	void parallelCTMC() throws PrismException
+	{
+		checkParallelConstruction("ctmc\n" + MODULES);
+	}
+
+	@Test
+	void parallelMDP() throws PrismException
+	{
+		checkParallelConstruction("mdp\n" + MODULES);
+	}
+
+	/**
+	 * Build the model with 1 and with 4 threads (both sparse and not) and check the results are identical.
+	 */
+	private void checkParallelConstruction(String modelString) throws PrismException
+	{
+		ModulesFile modulesFile = prism.parseModelString(modelString);
+		ModulesFileModelGenerator<Double> modelGen = ModulesFileModelGenerator.createForDoubles(modulesFile, prism);
+		for (boolean buildSparse : new boolean[] { true, false }) {
+			ConstructModel constructModel = new ConstructModel(prism);
+			constructModel.setBuildSparse(buildSparse);
+			constructModel.setNumThreads(1);
+			Model<Double> model = constructModel.constructModel(modelGen);
+			assertEquals(61 * 41, model.getNumStates());
+			constructModel.setNumThreads(4);
+			Model<Double> modelPar = constructModel.constructModel(modelGen);
+			assertSameModel(model, modelPar);
+			// And again, since scheduling (so the order states are found) may differ between runs
+			assertSameModel(model, constructModel.constructModel(modelGen));
+		}
+	}
+
+	private void assertSameModel(Model<Double> model, Model<Double> modelPar)
+	{
+		assertEquals(model.getClass(), modelPar.getClass());
+		assertEquals(model.getNumStates(), modelPar.getNumStates());
+		assertEquals(model.getNumTransitions(), modelPar.getNumTransitions());
+		assertEquals(model.getStatesList(), modelPar.getStatesList());
+		assertEquals(model.getInitialStates().iterator().next(), modelPar.getInitialStates().iterator().next());
+		assertEquals(model.getNumInitialStates(), modelPar.getNumInitialStates());
+		assertEquals(model.getLabelStates("goal"), modelPar.getLabelStates("goal"));
+		int numStates = model.getNumStates();
+		if (model.getModelType() == ModelType.MDP) {
+			MDP<Double> mdp = (MDP<Double>) model;
+			MDP<Double> mdpPar = (MDP<Double>) modelPar;
+			for (int s = 0; s < numStates; s++) {
+				assertEquals(mdp.getNumChoices(s), mdpPar.getNumChoices(s));
+				for (int i = 0; i < mdp.getNumChoices(s); i++) {
+					assertEquals(mdp.getAction(s, i), mdpPar.getAction(s, i));
+					assertEquals(toMap(mdp.getTransitionsIterator(s, i)), toMap(mdpPar.getTransitionsIterator(s, i)));
+				}
+			}
+		} else {
+			DTMC<Double> dtmc = (DTMC<Double>) model;
+			DTMC<Double> dtmcPar = (DTMC<Double>) modelPar;
+			for (int s = 0; s < numStates; s++) {
+				assertEquals(toMap(dtmc.getTransitionsIterator(s)), toMap(dtmcPar.getTransitionsIterator(s)));
+			}
+		}
+	}
+
+	private Map<Integer, Double> toMap(Iterator<Map.Entry<Integer, Double>> iter)
+	{
+		Map<Integer, Double> map = new TreeMap<>();
+		while (iter.hasNext()) {
+			Map.Entry<Integer, Double> e = iter.next();
+			map.put(e.getKey(), e.getValue());
+		}
+		return map;
+	}
+}
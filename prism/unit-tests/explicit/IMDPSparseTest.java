@@ -0,0 +1,193 @@
+package explicit;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import common.Interval;
+import parser.ast.ModulesFile;
+import prism.Prism;
+import prism.PrismDevNullLog;
+import prism.PrismException;
+import simulator.ModulesFileModelGenerator;
+import strat.MDStrategyArray;
+
+/**
+ * Tests for {@link IMDPSparse} and {@link IDTMCSparse}, compared to {@link IMDPSimple} and {@link IDTMCSimple}.
+ */
+public class IMDPSparseTest
+{
+	/**
+	 * Random (delimited) interval distribution over 1-6 successors from 0,...,n-1.
+	 */
+	private Distribution<Interval<Double>> randomIntervalDistribution(Random random, int n)
+	{
+		Distribution<Interval<Double>> distr = new Distribution<>(prism.Evaluator.forDoubleInterval());
+		int numSuccs = 1 + random.nextInt(6);
+		double weights[] = new double[numSuccs];
+		double sum = 0.0;
+		for (int i = 0; i < numSuccs; i++) {
+			weights[i] = 0.1 + random.nextDouble();
+			sum += weights[i];
+		}
+		for (int i = 0; i < numSuccs; i++) {
+			double p = weights[i] / sum;
+			double lo = numSuccs == 1 ? 1.0 : Math.max(0.01, p - 0.1 * random.nextDouble());
+			double hi = numSuccs == 1 ? 1.0 : Math.min(1.0, p + 0.1 * random.nextDouble());
+			distr.add(random.nextInt(n), new Interval<>(lo, hi));
+		}
+		IntervalUtils.delimit(distr, prism.Evaluator.forDouble());
+		return distr;
+	}
+
+	private IMDPSimple<Double> createRandomIMDP(int n, long seed)
+	{
+		Random random = new Random(seed);
+		IMDPSimple<Double> imdp = new IMDPSimple<>(n);
+		for (int s = 0; s < n; s++) {
+			int numChoices = 1 + random.nextInt(3);
+			for (int k = 0; k < numChoices; k++) {
+				imdp.addActionLabelledChoice(s, randomIntervalDistribution(random, n), "a" + k);
+			}
+		}
+		imdp.addInitialState(0);
+		return imdp;
+	}
+
+	private IDTMCSimple<Double> createRandomIDTMC(int n, long seed)
+	{
+		Random random = new Random(seed);
+		IDTMCSimple<Double> idtmc = new IDTMCSimple<>(n);
+		for (int s = 0; s < n; s++) {
+			Distribution<Interval<Double>> distr = randomIntervalDistribution(random, n);
+			for (var e : distr) {
+				idtmc.setProbability(s, e.getKey(), e.getValue());
+			}
+		}
+		idtmc.addInitialState(0);
+		return idtmc;
+	}
+
+	/**
+	 * Random vector, with values from a small set (so that there are ties),
+	 * or a permutation of the previous one, or the same.
+	 */
+	private double[] randomVector(Random random, double prev[], int n, int iter)
+	{
+		if (prev != null && iter % 3 == 2) {
+			return prev.clone();
+		}
+		double vect[] = new double[n];
+		for (int s = 0; s < n; s++) {
+			vect[s] = random.nextInt(8) / 8.0;
+		}
+		return vect;
+	}
+
+	@Test
+	void mvMultUncIMDP()
+	{
+		int n = 200;
+		IMDPSimple<Double> imdp = createRandomIMDP(n, 1);
+		IMDPSparse imdpSparse = new IMDPSparse(new IMDPSimple<>(imdp));
+		assertEquals(imdp.getNumChoices(7), imdpSparse.getNumChoices(7));
+		assertEquals(imdp.getNumTransitions(7, 0), imdpSparse.getNumTransitions(7, 0));
+		assertEquals(imdp.getNumTransitions(), imdpSparse.getNumTransitions());
+		Random random = new Random(2);
+		double vect[] = null;
+		for (int iter = 0; iter < 30; iter++) {
+			vect = randomVector(random, vect, n, iter);
+			for (boolean min : new boolean[] { true, false }) {
+				for (boolean minUnc : new boolean[] { true, false }) {
+					MinMax minMax = MinMax.blank().setMin(min).setMinUnc(minUnc);
+					double result[] = new double[n];
+					double resultSparse[] = new double[n];
+					int strat[] = new int[n];
+					int stratSparse[] = new int[n];
+					imdp.mvMultUnc(vect, minMax, result, null, false, strat);
+					imdpSparse.mvMultUnc(vect, minMax, resultSparse, null, false, stratSparse);
+					assertArrayEquals(result, resultSparse, 0.0);
+					assertArrayEquals(strat, stratSparse);
+				}
+			}
+		}
+	}
+
+	@Test
+	void mvMultUncIDTMC()
+	{
+		int n = 200;
+		IDTMCSimple<Double> idtmc = createRandomIDTMC(n, 3);
+		IDTMCSparse idtmcSparse = new IDTMCSparse(new IDTMCSimple<>(idtmc));
+		Random random = new Random(4);
+		double vect[] = null;
+		for (int iter = 0; iter < 30; iter++) {
+			vect = randomVector(random, vect, n, iter);
+			for (boolean minUnc : new boolean[] { true, false }) {
+				MinMax minMax = MinMax.blank().setMinUnc(minUnc);
+				double result[] = new double[n];
+				double resultSparse[] = new double[n];
+				idtmc.mvMultUnc(vect, minMax, result, null, false);
+				idtmcSparse.mvMultUnc(vect, minMax, resultSparse, null, false);
+				assertArrayEquals(result, resultSparse, 0.0);
+			}
+		}
+	}
+
+	@Test
+	void constructInducedModel()
+	{
+		int n = 50;
+		IMDPSimple<Double> imdp = createRandomIMDP(n, 5);
+		IMDPSparse imdpSparse = new IMDPSparse(new IMDPSimple<>(imdp));
+		int choices[] = new int[n];
+		for (int s = 0; s < n; s++) {
+			choices[s] = s % 5 == 4 ? -1 : s % imdp.getNumChoices(s);
+		}
+		Model<Double> model = imdpSparse.constructInducedModel(new MDStrategyArray<>(imdpSparse, choices));
+		assertTrue(model instanceof IDTMCSparse);
+		IDTMCSparse idtmc = (IDTMCSparse) model;
+		assertEquals(n, idtmc.getNumStates());
+		assertTrue(idtmc.isInitialState(0));
+		for (int s = 0; s < n; s++) {
+			Map<Integer, String> expected = new TreeMap<>();
+			if (choices[s] >= 0) {
+				imdp.getIntervalTransitionsIterator(s, choices[s]).forEachRemaining(e -> expected.put(e.getKey(), e.getValue().toString()));
+			}
+			Map<Integer, String> actual = new TreeMap<>();
+			idtmc.getIntervalTransitionsIterator(s).forEachRemaining(e -> actual.put(e.getKey(), e.getValue().toString()));
+			assertEquals(expected, actual, "state " + s);
+		}
+	}
+
+	@Test
+	void constructSparse() throws PrismException
+	{
+		Prism prism = new Prism(new PrismDevNullLog());
+		prism.initialise();
+		ModulesFile modulesFile = prism.parseModelString("mdp\nmodule m\n  s : [0..2] init 0;\n  [a] s=0 -> [0.2,0.6]:(s'=1) + [0.4,0.8]:(s'=2);\n  [b] s=0 -> (s'=2);\n  [] s>0 -> true;\nendmodule\n");
+		ConstructModel constructModel = new ConstructModel(prism);
+		Model<Double> model = constructModel.constructModel(ModulesFileModelGenerator.createForDoubles(modulesFile, prism));
+		assertTrue(model instanceof IMDPSparse);
+		IMDP<Double> imdp = (IMDP<Double>) model;
+		assertEquals(3, imdp.getNumStates());
+		assertEquals(2, imdp.getNumChoices(0));
+		assertEquals("a", imdp.getAction(0, 0));
+		BitSet target = new BitSet();
+		target.set(1);
+		UMDPModelChecker mc = new UMDPModelChecker(prism);
+		// Max over strategies and uncertainty: choice a, with [0.2,0.6] for s=1
+		double soln[] = mc.computeReachProbs(imdp, target, MinMax.max().setMinUnc(false)).soln;
+		assertEquals(0.6, soln[0], 1e-8);
+		// Without sparse storage, we get an IMDPSimple and the same result
+		constructModel.setBuildSparse(false);
+		model = constructModel.constructModel(ModulesFileModelGenerator.createForDoubles(modulesFile, prism));
+		assertTrue(model instanceof IMDPSimple);
+		assertEquals(0.6, mc.computeReachProbs((IMDP<Double>) model, target, MinMax.max().setMinUnc(false)).soln[0], 1e-8);
+		prism.closeDown();
+	}
+}
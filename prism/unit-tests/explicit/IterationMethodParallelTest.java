@@ -0,0 +1,221 @@
+package explicit;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import common.IntSet;
+import explicit.ProbModelChecker.LinEqMethod;
+import explicit.ProbModelChecker.MDPSolnMethod;
+import prism.PrismComponent;
+import prism.PrismDevNullLog;
+import prism.PrismException;
+
+/**
+ * Tests for parallel (Jacobi/power) iterations in {@link IterationMethod},
+ * compared to sequential ones, over {@link DTMCSparse} and {@link MDPSparse}.
+ */
+public class IterationMethodParallelTest
+{
+	/** Number of states per layer (enough for each layer to be split into several chunks) */
+	private static final int LAYER_SIZE = 3 * IterationMethod.PARALLEL_CHUNK_SIZE;
+
+	/** Number of layers (so, non-trivial SCCs) */
+	private static final int NUM_LAYERS = 3;
+
+	/**
+	 * MDP with {@code numChoices} choices per state: {@code NUM_LAYERS} layers of states, each
+	 * (typically) a single SCC, with occasional transitions to the next layer, or from the last one
+	 * to the target ({@code n}) or sink ({@code n+1}) states, which are absorbing.
+	 */
+	private MDPSimple<Double> createLayeredMDP(int numChoices, long seed)
+	{
+		Random random = new Random(seed);
+		int n = NUM_LAYERS * LAYER_SIZE;
+		MDPSimple<Double> mdp = new MDPSimple<>(n + 2);
+		for (int s = 0; s < n; s++) {
+			for (int k = 0; k < numChoices; k++) {
+				mdp.addActionLabelledChoice(s, createLayeredDistr(s, random), "a" + k);
+			}
+		}
+		mdp.addActionLabelledChoice(n, distr(n, 1.0), "a0");
+		mdp.addActionLabelledChoice(n + 1, distr(n + 1, 1.0), "a0");
+		mdp.addInitialState(0);
+		return mdp;
+	}
+
+	/** DTMC version of {@link #createLayeredMDP(int, long)} */
+	private DTMCSparse createLayeredDTMC(long seed)
+	{
+		Random random = new Random(seed);
+		int n = NUM_LAYERS * LAYER_SIZE;
+		DTMCSimple<Double> dtmc = new DTMCSimple<>(n + 2);
+		for (int s = 0; s < n; s++) {
+			for (Map.Entry<Integer, Double> e : createLayeredDistr(s, random)) {
+				dtmc.setProbability(s, e.getKey(), e.getValue());
+			}
+		}
+		dtmc.setProbability(n, n, 1.0);
+		dtmc.setProbability(n + 1, n + 1, 1.0);
+		dtmc.addInitialState(0);
+		return new DTMCSparse(dtmc);
+	}
+
+	private Distribution<Double> createLayeredDistr(int s, Random random)
+	{
+		int n = NUM_LAYERS * LAYER_SIZE;
+		int layerStart = s - s % LAYER_SIZE;
+		Distribution<Double> distr = Distribution.ofDouble();
+		for (int i = 0; i < 3; i++) {
+			distr.add(layerStart + random.nextInt(LAYER_SIZE), 0.3);
+		}
+		int next = layerStart + LAYER_SIZE;
+		distr.add(next < n ? next + random.nextInt(LAYER_SIZE) : n + random.nextInt(2), 0.1);
+		return distr;
+	}
+
+	private Distribution<Double> distr(int s, double p)
+	{
+		Distribution<Double> distr = Distribution.ofDouble();
+		distr.add(s, p);
+		return distr;
+	}
+
+	private ProbModelChecker createModelChecker(boolean mdp, int numThreads) throws PrismException
+	{
+		PrismComponent parent = new PrismComponent();
+		parent.setLog(new PrismDevNullLog());
+		ProbModelChecker mc = mdp ? new MDPModelChecker(parent) : new DTMCModelChecker(parent);
+		mc.setNumThreads(numThreads);
+		return mc;
+	}
+
+	/**
+	 * Do iterations, sequentially and in parallel, from the same initial vector,
+	 * and check that the solution vectors and the results of the convergence checks agree at each step.
+	 */
+	private void checkIterations(IterationMethod method, boolean mdp, Model<Double> model, double init[], IntSet states) throws PrismException
+	{
+		IterationMethod.IterationValIter[] iterations = new IterationMethod.IterationValIter[2];
+		for (int t = 0; t < 2; t++) {
+			method.startParallel(createModelChecker(mdp, t == 0 ? 1 : 4));
+			iterations[t] = mdp ? method.forMvMultMinMax((MDP<Double>) model, false, null) : method.forMvMult((DTMC<Double>) model);
+			iterations[t].init(init.clone());
+		}
+		// Alternate between the two (the pool is set per solve, so restart each time)
+		boolean done = false;
+		int iters = 0;
+		while (!done) {
+			method.startParallel(createModelChecker(mdp, 1));
+			done = iterations[0].iterateAndCheckConvergence(states);
+			method.startParallel(createModelChecker(mdp, 4));
+			assertEquals(done, iterations[1].iterateAndCheckConvergence(states), "convergence at iteration " + iters);
+			assertArrayEquals(iterations[0].getSolnVector(), iterations[1].getSolnVector(), 0.0);
+			assertTrue(++iters < 10000);
+		}
+		assertTrue(iters > 1);
+	}
+
+	private IntSet allStates(int n)
+	{
+		BitSet bs = new BitSet();
+		bs.set(0, n);
+		return IntSet.asIntSet(bs);
+	}
+
+	@Test
+	void iterationsDTMC() throws PrismException
+	{
+		DTMCSparse dtmc = createLayeredDTMC(1);
+		int n = dtmc.getNumStates();
+		double init[] = new double[n];
+		init[n - 2] = 1.0;
+		checkIterations(new IterationMethodPower(true, 1e-6), false, dtmc, init, allStates(n));
+		checkIterations(new IterationMethodJacobi(true, 1e-6), false, dtmc, init, allStates(n));
+	}
+
+	@Test
+	void iterationsMDP() throws PrismException
+	{
+		MDPSparse mdp = new MDPSparse(createLayeredMDP(2, 2));
+		int n = mdp.getNumStates();
+		double init[] = new double[n];
+		init[n - 2] = 1.0;
+		checkIterations(new IterationMethodPower(true, 1e-6), true, mdp, init, allStates(n));
+	}
+
+	@Test
+	void convergenceSingleChunk() throws PrismException
+	{
+		// All states are absorbing, except one, which (slowly) moves to state 0;
+		// starting from the fixed point for the others, only the chunk containing that state
+		// fails the convergence check, so the results from all chunks need to be combined
+		int n = 4 * IterationMethod.PARALLEL_CHUNK_SIZE;
+		for (int slow : new int[] { 1, n / 2, n - 1 }) {
+			MDPSimple<Double> mdp = new MDPSimple<>(n);
+			DTMCSimple<Double> dtmc = new DTMCSimple<>(n);
+			for (int s = 0; s < n; s++) {
+				if (s == slow) {
+					Distribution<Double> distr = distr(0, 0.1);
+					distr.add(s, 0.9);
+					mdp.addActionLabelledChoice(s, distr, "a0");
+					dtmc.setProbability(s, 0, 0.1);
+					dtmc.setProbability(s, s, 0.9);
+				} else {
+					mdp.addActionLabelledChoice(s, distr(s, 1.0), "a0");
+					dtmc.setProbability(s, s, 1.0);
+				}
+			}
+			double init[] = new double[n];
+			init[0] = 1.0;
+			checkIterations(new IterationMethodPower(true, 1e-6), true, new MDPSparse(mdp), init, allStates(n));
+			checkIterations(new IterationMethodPower(true, 1e-6), false, new DTMCSparse(dtmc), init, allStates(n));
+			checkIterations(new IterationMethodJacobi(true, 1e-6), false, new DTMCSparse(dtmc), init, allStates(n));
+		}
+	}
+
+	@Test
+	void reachProbsDTMC() throws PrismException
+	{
+		DTMCSparse dtmc = createLayeredDTMC(3);
+		BitSet target = new BitSet();
+		target.set(dtmc.getNumStates() - 2);
+		for (LinEqMethod method : new LinEqMethod[] { LinEqMethod.POWER, LinEqMethod.JACOBI }) {
+			for (boolean topological : new boolean[] { false, true }) {
+				ModelCheckerResult res[] = new ModelCheckerResult[2];
+				for (int t = 0; t < 2; t++) {
+					DTMCModelChecker mc = (DTMCModelChecker) createModelChecker(false, t == 0 ? 1 : 4);
+					mc.setLinEqMethod(method);
+					mc.setDoTopologicalValueIteration(topological);
+					res[t] = mc.computeReachProbs(dtmc, target);
+				}
+				assertEquals(res[0].numIters, res[1].numIters);
+				assertArrayEquals(res[0].soln, res[1].soln, 0.0);
+			}
+		}
+	}
+
+	@Test
+	void reachProbsMDP() throws PrismException
+	{
+		MDPSparse mdp = new MDPSparse(createLayeredMDP(2, 4));
+		BitSet target = new BitSet();
+		target.set(mdp.getNumStates() - 2);
+		for (boolean min : new boolean[] { false, true }) {
+			for (boolean topological : new boolean[] { false, true }) {
+				ModelCheckerResult res[] = new ModelCheckerResult[2];
+				for (int t = 0; t < 2; t++) {
+					MDPModelChecker mc = (MDPModelChecker) createModelChecker(true, t == 0 ? 1 : 4);
+					mc.setMDPSolnMethod(MDPSolnMethod.VALUE_ITERATION);
+					mc.setDoTopologicalValueIteration(topological);
+					res[t] = mc.computeReachProbs(mdp, target, min);
+				}
+				assertEquals(res[0].numIters, res[1].numIters);
+				assertArrayEquals(res[0].soln, res[1].soln, 0.0);
+			}
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package explicit;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Vector;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import acceptance.AcceptanceReach;
+import automata.DA;
+import prism.PrismException;
+
+/**
+ * Tests for product construction in {@link LTLModelChecker}.
+ */
+public class LTLModelCheckerTest
+{
+	/** DTMC: 0 -> 1 -> 2 -> 3 (all with probability 1), 3 absorbing */
+	private DTMCSimple<Double> createDTMC()
+	{
+		DTMCSimple<Double> dtmc = new DTMCSimple<>(4);
+		for (int s = 0; s < 3; s++) {
+			dtmc.setProbability(s, s + 1, 1.0);
+		}
+		dtmc.setProbability(3, 3, 1.0);
+		dtmc.addInitialState(0);
+		return dtmc;
+	}
+
+	/** DFA for F L0: 0 (start) -L0-> 1 (goal), otherwise self-loops */
+	private DA<BitSet, AcceptanceReach> createDFA()
+	{
+		DA<BitSet, AcceptanceReach> da = new DA<>(2);
+		da.setAPList(List.of("L0"));
+		BitSet none = new BitSet();
+		BitSet l0 = new BitSet();
+		l0.set(0);
+		da.addEdge(0, none, 0);
+		da.addEdge(0, l0, 1);
+		da.addEdge(1, none, 1);
+		da.addEdge(1, l0, 1);
+		da.setStartState(0);
+		BitSet goal = new BitSet();
+		goal.set(1);
+		da.setAcceptance(new AcceptanceReach(goal));
+		return da;
+	}
+
+	@Test
+	void productStopAtGoal() throws PrismException
+	{
+		DTMCSimple<Double> dtmc = createDTMC();
+		Vector<BitSet> labelBS = new Vector<>();
+		BitSet l0 = new BitSet();
+		l0.set(1);
+		labelBS.add(l0);
+		BitSet init = new BitSet();
+		init.set(0);
+		LTLModelChecker mcLtl = new LTLModelChecker(null);
+
+		// Full product: (0,0), (1,1), (2,1), (3,1)
+		LTLModelChecker.LTLProduct<DTMC<Double>> product = mcLtl.constructProductModel(createDFA(), (DTMC<Double>) dtmc, labelBS, init);
+		DTMC<Double> prodModel = product.getProductModel();
+		assertEquals(4, prodModel.getNumStates());
+		for (int i = 0; i < 4; i++) {
+			assertEquals(i, product.getModelState(i));
+			assertEquals(i == 0 ? 0 : 1, product.getAutomatonState(i));
+		}
+
+		// Exploration stops at the first goal state, which becomes absorbing
+		product = mcLtl.constructProductModel(createDFA(), (DTMC<Double>) dtmc, labelBS, init, true);
+		prodModel = product.getProductModel();
+		assertEquals(2, prodModel.getNumStates());
+		assertEquals(1, product.getModelState(1));
+		assertTrue(prodModel.isSuccessor(1, 1));
+		assertEquals(1, prodModel.getNumTransitions(1));
+		BitSet goal = ((AcceptanceReach) product.getAcceptance()).getGoalStates();
+		assertEquals(1, goal.cardinality());
+		double soln[] = new DTMCModelChecker(null).computeReachProbs(prodModel, goal).soln;
+		assertEquals(1.0, soln[0], 1e-12);
+	}
+}
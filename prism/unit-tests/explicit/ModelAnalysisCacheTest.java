@@ -0,0 +1,124 @@
+package explicit;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import prism.Prism;
+import prism.PrismDevNullLog;
+import prism.PrismException;
+
+/**
+ * Tests for {@link ModelAnalysisCache}.
+ */
+public class ModelAnalysisCacheTest
+{
+	/** DTMC: 0 (no) <-0.5- 1 <-0.5-> 2 -0.5-> 3 (yes) */
+	private DTMCSimple<Double> createDTMC()
+	{
+		DTMCSimple<Double> dtmc = new DTMCSimple<>(4);
+		dtmc.setProbability(0, 0, 1.0);
+		dtmc.setProbability(1, 0, 0.5);
+		dtmc.setProbability(1, 2, 0.5);
+		dtmc.setProbability(2, 1, 0.5);
+		dtmc.setProbability(2, 3, 0.5);
+		dtmc.setProbability(3, 3, 1.0);
+		dtmc.addInitialState(1);
+		return dtmc;
+	}
+
+	private BitSet bits(int... states)
+	{
+		BitSet bs = new BitSet();
+		for (int s : states) {
+			bs.set(s);
+		}
+		return bs;
+	}
+
+	@Test
+	void storeAndRetrieve()
+	{
+		DTMCSimple<Double> dtmc = createDTMC();
+		ModelAnalysisCache cache = new ModelAnalysisCache(dtmc);
+		BitSet target = bits(3);
+		assertNull(cache.getStates("Prob0", dtmc, null, target));
+
+		BitSet states = bits(0);
+		cache.storeStates("Prob0", dtmc, null, target, states);
+		// Stored/retrieved sets are copies
+		states.set(1);
+		target.set(0);
+		BitSet states2 = cache.getStates("Prob0", dtmc, null, bits(3));
+		assertEquals(bits(0), states2);
+		states2.set(2);
+		assertEquals(bits(0), cache.getStates("Prob0", dtmc, null, bits(3)));
+
+		// Different analyses or models
+		assertNull(cache.getStates("Prob1", dtmc, null, bits(3)));
+		assertNull(cache.getStates("Prob0", dtmc, bits(1, 2), bits(3)));
+		assertNull(cache.getStates("Prob0", createDTMC(), null, bits(3)));
+		cache.storeStates("Prob0", createDTMC(), null, bits(2), bits(0));
+		assertNull(cache.getStates("Prob0", dtmc, null, bits(2)));
+
+		// MECs
+		List<BitSet> mecs = new ArrayList<>(List.of(bits(1, 2)));
+		cache.storeMECs(dtmc, bits(1, 2), mecs);
+		mecs.add(bits(0));
+		List<BitSet> mecs2 = cache.getMECs(dtmc, bits(1, 2));
+		assertEquals(List.of(bits(1, 2)), mecs2);
+		mecs2.add(bits(3));
+		assertEquals(1, cache.getMECs(dtmc, bits(1, 2)).size());
+		assertNull(cache.getMECs(dtmc, null));
+
+		cache.clear();
+		assertNull(cache.getStates("Prob0", dtmc, null, bits(3)));
+		assertNull(cache.getMECs(dtmc, bits(1, 2)));
+	}
+
+	@Test
+	void memoryBound()
+	{
+		DTMCSimple<Double> dtmc = createDTMC();
+		// Each entry here (target, plus result) takes 2 * (32 + 64 / 8) = 80 bytes
+		ModelAnalysisCache cache = new ModelAnalysisCache(dtmc, 200);
+		cache.storeStates("Prob0", dtmc, null, bits(1), bits(0));
+		cache.storeStates("Prob0", dtmc, null, bits(2), bits(0));
+		assertEquals(160, cache.getMemory());
+		// Least recently used result is discarded first
+		assertNotNull(cache.getStates("Prob0", dtmc, null, bits(1)));
+		cache.storeStates("Prob0", dtmc, null, bits(3), bits(0));
+		assertEquals(160, cache.getMemory());
+		assertNotNull(cache.getStates("Prob0", dtmc, null, bits(1)));
+		assertNull(cache.getStates("Prob0", dtmc, null, bits(2)));
+		// Results too large to fit are not stored
+		cache.storeMECs(dtmc, null, List.of(bits(0), bits(1), bits(2), bits(3), bits(0, 1), bits(2, 3)));
+		assertNull(cache.getMECs(dtmc, null));
+		assertEquals(160, cache.getMemory());
+		cache.clear();
+		assertEquals(0, cache.getMemory());
+	}
+
+	@Test
+	void reusedByModelChecker() throws PrismException
+	{
+		DTMCSimple<Double> dtmc = createDTMC();
+		ModelAnalysisCache cache = new ModelAnalysisCache(dtmc);
+		Prism prism = new Prism(new PrismDevNullLog());
+		prism.initialise();
+		DTMCModelChecker mc = new DTMCModelChecker(prism);
+		mc.setModelAnalysisCache(cache);
+		mc.setDoTopologicalValueIteration(true);
+		double[] soln = mc.computeReachProbs(dtmc, bits(3)).soln;
+		assertEquals(bits(0), cache.getStates("Prob0", dtmc, null, bits(3)));
+		assertEquals(bits(3), cache.getStates("Prob1", dtmc, null, bits(3)));
+		assertNotNull(cache.getSCCInfo(dtmc, bits(1, 2)));
+		// Stored results give the same solution
+		double[] soln2 = mc.computeReachProbs(dtmc, bits(3)).soln;
+		assertArrayEquals(soln, soln2, 1e-12);
+		assertEquals(1.0 / 3.0, soln2[1], 1e-5);
+	}
+}
@@ -0,0 +1,73 @@
+package explicit;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import parser.ast.ModulesFile;
+import parser.ast.PropertiesFile;
+import prism.Prism;
+import prism.PrismDevNullLog;
+import prism.PrismException;
+import prism.PrismSettings;
+
+/**
+ * Tests for the fixed-resolution grid approximation in {@link POMDPModelChecker}.
+ */
+public class POMDPModelCheckerTest
+{
+	/**
+	 * POMDP: a hidden value x in 0..9, chosen uniformly, then guessed at (actions a, b),
+	 * so that the belief space for observation s=1 gives a grid large enough to be split across threads.
+	 */
+	private String createModel()
+	{
+		StringBuilder sb = new StringBuilder();
+		sb.append("pomdp\n");
+		sb.append("observables s endobservables\n");
+		sb.append("module m\n");
+		sb.append("  s : [0..3] init 0;\n");
+		sb.append("  x : [0..9] init 0;\n");
+		sb.append("  [start] s=0 -> ");
+		for (int x = 0; x < 10; x++) {
+			sb.append(x > 0 ? " + " : "").append("0.1:(s'=1)&(x'=" + x + ")");
+		}
+		sb.append(";\n");
+		sb.append("  [a] s=1 & x<5 -> 0.5:(s'=2) + 0.3:(x'=mod(x+1,10)) + 0.2:(s'=3);\n");
+		sb.append("  [a] s=1 & x>=5 -> 0.1:(s'=2) + 0.6:(x'=mod(x+3,10)) + 0.3:(s'=3);\n");
+		sb.append("  [b] s=1 & x<5 -> 0.2:(s'=2) + 0.7:(x'=mod(x+7,10)) + 0.1:(s'=3);\n");
+		sb.append("  [b] s=1 & x>=5 -> 0.6:(s'=2) + 0.2:(x'=mod(x+1,10)) + 0.2:(s'=3);\n");
+		sb.append("  [done] s>=2 -> true;\n");
+		sb.append("endmodule\n");
+		sb.append("rewards\n  [a] true : 1;\n  [b] true : 2;\nendrewards\n");
+		return sb.toString();
+	}
+
+	private double[] checkAll(int numThreads) throws PrismException
+	{
+		Prism prism = new Prism(new PrismDevNullLog());
+		prism.setEngine(Prism.EXPLICIT);
+		prism.initialise();
+		prism.getSettings().set(PrismSettings.PRISM_NUM_THREADS, numThreads);
+		prism.getSettings().set(PrismSettings.PRISM_GRID_RESOLUTION, 4);
+		ModulesFile modulesFile = prism.parseModelString(createModel());
+		prism.loadPRISMModel(modulesFile);
+		PropertiesFile propertiesFile = prism.parsePropertiesString("Pmax=? [ F s=2 ]; Pmin=? [ F s=2 ]; Rmin=? [ F s>=2 ]; Rmax=? [ F s>=2 ]");
+		double[] results = new double[propertiesFile.getNumProperties()];
+		for (int i = 0; i < results.length; i++) {
+			results[i] = (Double) prism.modelCheck(propertiesFile, propertiesFile.getPropertyObject(i)).getResult();
+		}
+		prism.closeDown();
+		return results;
+	}
+
+	@Test
+	void parallelGridApproximation() throws PrismException
+	{
+		double[] results = checkAll(1);
+		assertTrue(results[1] <= results[0]);
+		assertTrue(results[0] > 0 && results[0] < 1);
+		assertTrue(results[2] > 1 && results[2] <= results[3]);
+		// Results with multiple threads are identical
+		assertArrayEquals(results, checkAll(4));
+	}
+}
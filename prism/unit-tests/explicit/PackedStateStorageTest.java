@@ -0,0 +1,159 @@
+package explicit;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import parser.EvaluateContext.EvalMode;
+import parser.PackedStateEncoder;
+import parser.PackedStateList;
+import parser.State;
+import parser.VarList;
+import parser.ast.DeclarationBool;
+import parser.ast.DeclarationInt;
+import parser.ast.Expression;
+import prism.PrismException;
+import prism.PrismLangException;
+
+/**
+ * Tests for {@link PackedStateStorage} (and {@link parser.PackedStateEncoder}).
+ */
+public class PackedStateStorageTest
+{
+	/** Variables: x:[-3..40], b:bool, y:[0..2^30] (so that a second word is needed) */
+	private VarList createVarList() throws PrismLangException
+	{
+		VarList varList = new VarList();
+		varList.addVar("x", new DeclarationInt(Expression.Int(-3), Expression.Int(40)), 0);
+		varList.addVar("b", new DeclarationBool(), 0);
+		varList.addVar("y", new DeclarationInt(Expression.Int(0), Expression.Int(1 << 30)), 0);
+		varList.addVar("z", new DeclarationInt(Expression.Int(5), Expression.Int(1 << 30)), 0);
+		return varList;
+	}
+
+	private State state(int x, boolean b, int y, int z)
+	{
+		return new State(4).setValue(0, x).setValue(1, b).setValue(2, y).setValue(3, z);
+	}
+
+	@Test
+	void addAndRetrieveStates() throws PrismLangException
+	{
+		PackedStateStorage storage = PackedStateStorage.create(createVarList(), EvalMode.FP);
+		assertNotNull(storage);
+		List<State> added = new ArrayList<>();
+		for (int i = 0; i < 5000; i++) {
+			State s = state(i % 44 - 3, i % 3 == 0, i * 7919 % (1 << 30), 5 + i);
+			assertTrue(storage.add(s));
+			assertEquals(i, storage.getIndexOfLastAdd());
+			added.add(s);
+		}
+		assertFalse(storage.add(state(-3, true, 0, 5)));
+		assertEquals(0, storage.getIndexOfLastAdd());
+		assertEquals(added.size(), storage.size());
+		for (int i = 0; i < added.size(); i++) {
+			assertEquals(added.get(i), storage.getState(i));
+			assertEquals(i, storage.get(added.get(i)));
+		}
+		assertEquals(added, storage.toList());
+		assertFalse(storage.contains(state(0, false, 1, 6)));
+	}
+
+	@Test
+	void sortingPermutationMatchesStateOrder() throws PrismLangException
+	{
+		PackedStateStorage storage = PackedStateStorage.create(createVarList(), EvalMode.FP);
+		List<State> added = new ArrayList<>();
+		for (int x : new int[] { 40, -3, 0 }) {
+			for (boolean b : new boolean[] { true, false }) {
+				for (int y : new int[] { 1 << 30, 3, 0 }) {
+					State s = state(x, b, y, 7);
+					storage.add(s);
+					added.add(s);
+				}
+			}
+		}
+		List<State> sorted = new ArrayList<>(added);
+		Collections.sort(sorted);
+		assertEquals(sorted, storage.toPermutedList(storage.buildSortingPermutation()));
+	}
+
+	@Test
+	void fullWidthRanges() throws PrismLangException
+	{
+		// The widest ranges allowed by VarList (31 bits), at both extremes of int
+		VarList varList = new VarList();
+		varList.addVar("u", new DeclarationInt(Expression.Int(Integer.MIN_VALUE), Expression.Int(-2)), 0);
+		varList.addVar("w", new DeclarationInt(Expression.Int(1), Expression.Int(Integer.MAX_VALUE)), 0);
+		int values[][] = { { Integer.MIN_VALUE, 1 }, { -2, Integer.MAX_VALUE }, { -3, 2 }, { Integer.MIN_VALUE + 1, Integer.MAX_VALUE - 1 } };
+		for (EvalMode evalMode : EvalMode.values()) {
+			PackedStateEncoder encoder = PackedStateEncoder.create(varList, evalMode);
+			assertNotNull(encoder);
+			long words[] = new long[encoder.getNumWords()];
+			State reused = new State(2);
+			for (int[] vals : values) {
+				encoder.encode(new State(2).setValue(0, vals[0]).setValue(1, vals[1]), words, 0);
+				for (int v = 0; v < 2; v++) {
+					Object expected = evalMode == EvalMode.EXACT ? BigInteger.valueOf(vals[v]) : Integer.valueOf(vals[v]);
+					assertEquals(expected, encoder.decode(words, 0).varValues[v]);
+					assertEquals(expected, encoder.decode(words, 0, reused).varValues[v]);
+				}
+			}
+		}
+	}
+
+	@Test
+	void listDecodesIntoExistingState() throws PrismLangException
+	{
+		PackedStateStorage storage = PackedStateStorage.create(createVarList(), EvalMode.FP);
+		for (int i = 0; i < 100; i++) {
+			storage.add(state(i % 44 - 3, i % 2 == 0, i, 5 + i));
+		}
+		PackedStateList list = (PackedStateList) storage.toList();
+		State reused = new State(4);
+		for (int i = 0; i < list.size(); i++) {
+			State s = list.get(i);
+			assertSame(reused, list.get(i, reused));
+			assertEquals(s, reused);
+			for (int v = 0; v < 4; v++) {
+				assertEquals(s.varValues[v], list.getValue(i, v));
+			}
+		}
+	}
+
+	@Test
+	void rejectsUnboundedOrOutOfRange() throws PrismLangException
+	{
+		PackedStateStorage storage = PackedStateStorage.create(createVarList(), EvalMode.FP);
+		PrismLangException e = assertThrows(PrismLangException.class, () -> storage.addState(state(41, true, 0, 5)));
+		assertTrue(e.getMessage().contains("41") && e.getMessage().contains("variable x"));
+		assertThrows(PrismLangException.class, () -> storage.addState(state(0, true, 0, 4)));
+		assertThrows(IllegalArgumentException.class, () -> storage.add(state(41, true, 0, 5)));
+		assertFalse(storage.contains(state(41, true, 0, 5)));
+		VarList varList = new VarList();
+		varList.addVar("i", new parser.ast.DeclarationIntUnbounded(), 0);
+		assertNull(PackedStateStorage.create(varList, EvalMode.FP));
+	}
+
+	@Test
+	void rejectsTooManyStates() throws PrismException
+	{
+		// Lower the size limit, rather than adding billions of states
+		PackedStateStorage storage = PackedStateStorage.create(createVarList(), EvalMode.FP);
+		storage.maxArraySize = 2000 * storage.numWords + 1;
+		for (int i = 0; i < 2000; i++) {
+			assertTrue(storage.addState(state(0, false, i, 5)));
+		}
+		// Existing states can still be found, but no new ones added
+		assertFalse(storage.addState(state(0, false, 1999, 5)));
+		PrismException e = assertThrows(PrismException.class, () -> storage.addState(state(0, false, 2000, 5)));
+		assertTrue(e.getMessage().contains("Too many states"));
+		assertThrows(IllegalArgumentException.class, () -> storage.add(state(0, false, 2000, 5)));
+		assertEquals(2000, storage.size());
+		assertEquals(state(0, false, 1999, 5), storage.getState(1999));
+	}
+}
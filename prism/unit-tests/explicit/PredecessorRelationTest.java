@@ -0,0 +1,217 @@
+package explicit;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import common.SharedThreadPool;
+import prism.PrismException;
+
+/**
+ * Tests for {@link PredecessorRelation}, and its use in precomputation for MDPs.
+ */
+public class PredecessorRelationTest
+{
+	/**
+	 * MDP: 0 -a-> 1, 0 -b-> 2 (x0.5), 3 (x0.5); 1 -a-> 1; 2 -a-> 3; 2 -b-> 0 (x0.5), 4 (x0.5); 3, 4 absorbing
+	 */
+	private MDPSimple<Double> createMDP()
+	{
+		MDPSimple<Double> mdp = new MDPSimple<>(5);
+		mdp.addActionLabelledChoice(0, distr(1, 1.0), "a");
+		Distribution<Double> d = distr(2, 0.5);
+		d.add(3, 0.5);
+		mdp.addActionLabelledChoice(0, d, "b");
+		mdp.addActionLabelledChoice(1, distr(1, 1.0), "a");
+		mdp.addActionLabelledChoice(2, distr(3, 1.0), "a");
+		d = distr(0, 0.5);
+		d.add(4, 0.5);
+		mdp.addActionLabelledChoice(2, d, "b");
+		mdp.addActionLabelledChoice(3, distr(3, 1.0), "a");
+		mdp.addActionLabelledChoice(4, distr(4, 1.0), "a");
+		mdp.addInitialState(0);
+		return mdp;
+	}
+
+	/**
+	 * Random MDP with n states, each with 0-3 choices of 1-3 (uniformly chosen) successors,
+	 * large enough for backwards searches to be split across threads.
+	 */
+	private MDPSimple<Double> createRandomMDP(int n, long seed)
+	{
+		Random random = new Random(seed);
+		MDPSimple<Double> mdp = new MDPSimple<>(n);
+		for (int s = 0; s < n; s++) {
+			int numChoices = random.nextInt(4);
+			for (int k = 0; k < numChoices; k++) {
+				Distribution<Double> d = Distribution.ofDouble();
+				int numSuccs = 1 + random.nextInt(3);
+				for (int i = 0; i < numSuccs; i++) {
+					d.add(random.nextInt(n), 1.0 / numSuccs);
+				}
+				mdp.addActionLabelledChoice(s, d, "a" + k);
+			}
+		}
+		mdp.addInitialState(0);
+		return mdp;
+	}
+
+	private BitSet randomBits(int n, double p, long seed)
+	{
+		Random random = new Random(seed);
+		BitSet bs = new BitSet();
+		for (int s = 0; s < n; s++) {
+			if (random.nextDouble() < p) {
+				bs.set(s);
+			}
+		}
+		return bs;
+	}
+
+	private Distribution<Double> distr(int s, double p)
+	{
+		Distribution<Double> distr = Distribution.ofDouble();
+		distr.add(s, p);
+		return distr;
+	}
+
+	private BitSet bits(int... states)
+	{
+		BitSet bs = new BitSet();
+		for (int s : states) {
+			bs.set(s);
+		}
+		return bs;
+	}
+
+	private List<Integer> list(Iterable<Integer> it)
+	{
+		List<Integer> list = new ArrayList<>();
+		it.forEach(list::add);
+		return list;
+	}
+
+	@Test
+	void predecessors()
+	{
+		MDPSimple<Double> mdp = createMDP();
+		// Add a duplicate successor (via a second choice)
+		mdp.addActionLabelledChoice(1, distr(1, 1.0), "b");
+		PredecessorRelation pre = new PredecessorRelation(mdp);
+		assertEquals(List.of(2), list(pre.getPre(0)));
+		assertEquals(List.of(0, 1), list(pre.getPre(1)));
+		assertEquals(List.of(0, 2, 3), list(pre.getPre(3)));
+		assertEquals(2, pre.getNumPredecessors(4));
+		assertEquals(4, pre.getPredecessor(4, 1));
+		assertEquals(9, pre.getNumPairs());
+		assertEquals(bits(0, 2, 3), pre.calculatePreStar(null, bits(3), null));
+		assertEquals(bits(2, 3), pre.calculatePreStar(bits(2), bits(3), null));
+		int witness[] = new int[5];
+		assertEquals(bits(0, 2, 4), pre.calculatePreStarWithWitness(null, bits(4), null, witness));
+		assertArrayEquals(new int[] { 2, -1, 4, -1, 4 }, witness);
+	}
+
+	@Test
+	void mdpPrecomputation() throws PrismException
+	{
+		MDPSimple<Double> mdp = createMDP();
+		BitSet target = bits(3);
+		MDPModelChecker mc = new MDPModelChecker(null);
+		for (boolean min : new boolean[] { true, false }) {
+			for (BitSet remain : new BitSet[] { null, bits(0, 1, 2) }) {
+				mc.setPreRel(false);
+				BitSet no = mc.prob0(mdp, remain, target, min, null);
+				BitSet yes = mc.prob1(mdp, remain, target, min, null);
+				mc.setPreRel(true);
+				assertEquals(no, mc.prob0(mdp, remain, target, min, null));
+				assertEquals(yes, mc.prob1(mdp, remain, target, min, null));
+			}
+		}
+		assertEquals(bits(1, 4), mc.prob0(mdp, null, target, false, null));
+		assertEquals(bits(0, 1, 2, 4), mc.prob0(mdp, null, target, true, null));
+		assertEquals(bits(0, 2, 3), mc.prob1(mdp, null, target, false, null));
+		assertEquals(bits(3), mc.prob1(mdp, null, target, true, null));
+		// Predecessor relation is stored with the model
+		assertTrue(mdp.hasStoredPredecessorRelation());
+	}
+
+	@Test
+	void parallelPrecomputation() throws PrismException
+	{
+		int n = 50000;
+		MDPSimple<Double> mdp = createRandomMDP(n, 42);
+		BitSet target = randomBits(n, 0.001, 1);
+		BitSet remain = randomBits(n, 0.9, 2);
+		PredecessorRelation pre = new PredecessorRelation(mdp);
+		// Parallel backwards searches give the same results as the sequential ones
+		for (BitSet absorbing : new BitSet[] { null, target, randomBits(n, 0.1, 3) }) {
+			BitSet preStar = pre.calculatePreStar(remain, target, absorbing);
+			assertEquals(preStar, pre.calculatePreStar(remain, target, absorbing, 4));
+		}
+		assertEquals(pre.calculatePreStar(remain, target, null), pre.calculateBackwardsFixpoint(target, remain, null, 1));
+		MDPModelChecker mc = new MDPModelChecker(null);
+		for (boolean min : new boolean[] { true, false }) {
+			for (BitSet r : new BitSet[] { null, remain }) {
+				mc.setNumThreads(1);
+				BitSet no = mc.prob0(mdp, r, target, min, null);
+				BitSet yes = mc.prob1(mdp, r, target, min, null);
+				mc.setNumThreads(4);
+				assertEquals(no, mc.prob0(mdp, r, target, min, null));
+				assertEquals(yes, mc.prob1(mdp, r, target, min, null));
+				mc.setParPrecomp(false);
+				assertEquals(yes, mc.prob1(mdp, r, target, min, null));
+				mc.setParPrecomp(true);
+			}
+		}
+		// Same for a DTMC (the first choice of each state of the MDP, if any)
+		DTMCSimple<Double> dtmc = new DTMCSimple<>(n);
+		for (int s = 0; s < n; s++) {
+			if (mdp.getNumChoices(s) > 0) {
+				for (var e : mdp.getChoice(s, 0)) {
+					dtmc.addToProbability(s, e.getKey(), e.getValue());
+				}
+			}
+		}
+		DTMCModelChecker dtmcMC = new DTMCModelChecker(null);
+		PredecessorRelation dtmcPre = new PredecessorRelation(dtmc);
+		BitSet no = dtmcMC.prob0(dtmc, remain, target, dtmcPre);
+		BitSet yes = dtmcMC.prob1(dtmc, remain, target, dtmcPre);
+		dtmcMC.setNumThreads(4);
+		assertEquals(no, dtmcMC.prob0(dtmc, remain, target, dtmcPre));
+		assertEquals(yes, dtmcMC.prob1(dtmc, remain, target, dtmcPre));
+		assertFalse(yes.isEmpty());
+	}
+
+	@Test
+	void parallelSearchesUseSharedPool()
+	{
+		int n = 50000;
+		PredecessorRelation pre = new PredecessorRelation(createRandomMDP(n, 7));
+		BitSet target = randomBits(n, 0.001, 1);
+		// All work is done either by the calling thread or the shared pool,
+		// across several searches (so no thread pool is started for each one)
+		Set<Thread> threads = ConcurrentHashMap.newKeySet();
+		for (int i = 0; i < 3; i++) {
+			try (PredecessorRelation.BackwardsSearch search = pre.createBackwardsSearch(4)) {
+				pre.calculateBackwardsFixpoint(target, randomBits(n, 0.9, i), (p, set) -> {
+					threads.add(Thread.currentThread());
+					return true;
+				}, search);
+			}
+		}
+		assertTrue(threads.size() > 1);
+		for (Thread thread : threads) {
+			if (thread != Thread.currentThread()) {
+				assertTrue(thread instanceof ForkJoinWorkerThread);
+				assertSame(SharedThreadPool.get(4), ((ForkJoinWorkerThread) thread).getPool());
+			}
+		}
+	}
+}
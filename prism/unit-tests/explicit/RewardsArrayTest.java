@@ -0,0 +1,117 @@
+package explicit;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import explicit.rewards.ConstructRewards;
+import explicit.rewards.MCRewards;
+import explicit.rewards.Rewards;
+import explicit.rewards.RewardsArray;
+import explicit.rewards.RewardsSimple;
+import parser.ast.ModulesFile;
+import prism.Prism;
+import prism.PrismDevNullLog;
+import prism.PrismException;
+import simulator.ModulesFileModelGenerator;
+
+/**
+ * Tests for {@link RewardsArray} and the (unboxed) reward-based operations of {@link MDPSparse} that use it.
+ */
+public class RewardsArrayTest
+{
+	private MDPSimple<Double> createRandomMDP(int n, long seed)
+	{
+		Random random = new Random(seed);
+		MDPSimple<Double> mdp = new MDPSimple<>(n);
+		for (int s = 0; s < n; s++) {
+			int numChoices = 1 + random.nextInt(3);
+			for (int k = 0; k < numChoices; k++) {
+				Distribution<Double> distr = Distribution.ofDouble();
+				// Include some self-loops, for the Jacobi variants
+				int numSuccs = 1 + random.nextInt(4);
+				for (int i = 0; i < numSuccs; i++) {
+					distr.add(random.nextInt(4) == 0 ? s : random.nextInt(n), 1.0 / numSuccs);
+				}
+				mdp.addActionLabelledChoice(s, distr, "a" + k);
+			}
+		}
+		mdp.addInitialState(0);
+		return mdp;
+	}
+
+	@Test
+	void mvMultRewMDP()
+	{
+		int n = 200;
+		Random random = new Random(2);
+		MDPSparse mdp = new MDPSparse(createRandomMDP(n, 1));
+		RewardsSimple<Double> rewards = new RewardsSimple<>(n);
+		RewardsArray rewardsArray = new RewardsArray(mdp);
+		for (int s = 0; s < n; s++) {
+			double rew = random.nextInt(3) == 0 ? 0.0 : random.nextInt(8) / 4.0;
+			rewards.setStateReward(s, rew);
+			rewardsArray.setStateReward(s, rew);
+			for (int k = 0; k < mdp.getNumChoices(s); k++) {
+				rew = random.nextInt(4) / 2.0;
+				rewards.setTransitionReward(s, k, rew);
+				rewardsArray.addToTransitionReward(s, k, rew);
+			}
+		}
+		assertTrue(rewardsArray.isIndexedFor(mdp));
+		assertTrue(rewardsArray.hasTransitionRewards());
+		for (int iter = 0; iter < 10; iter++) {
+			double vect[] = new double[n];
+			for (int s = 0; s < n; s++) {
+				vect[s] = random.nextInt(16) / 8.0;
+			}
+			for (boolean min : new boolean[] { true, false }) {
+				int strat[] = new int[n];
+				int stratArray[] = new int[n];
+				Arrays.fill(strat, -1);
+				Arrays.fill(stratArray, -1);
+				for (int s = 0; s < n; s++) {
+					double val = mdp.mvMultRewMinMaxSingle(s, vect, rewards, min, strat);
+					assertEquals(val, mdp.mvMultRewMinMaxSingle(s, vect, rewardsArray, min, stratArray), 0.0);
+					assertEquals(strat[s], stratArray[s]);
+					assertEquals(mdp.mvMultRewMinMaxSingleChoices(s, vect, rewards, min, val), mdp.mvMultRewMinMaxSingleChoices(s, vect, rewardsArray, min, val));
+					assertEquals(mdp.mvMultRewJacMinMaxSingle(s, vect, rewards, min, strat), mdp.mvMultRewJacMinMaxSingle(s, vect, rewardsArray, min, stratArray), 0.0);
+					assertEquals(strat[s], stratArray[s]);
+					assertEquals(mdp.mvMultRewSingle(s, 0, vect, (MCRewards<Double>) rewards), mdp.mvMultRewSingle(s, 0, vect, (MCRewards<Double>) rewardsArray), 0.0);
+				}
+			}
+		}
+		// Rewards for a different model are accessed in the usual (boxed) way
+		assertFalse(rewardsArray.isIndexedFor(new MDPSparse(mdp)));
+	}
+
+	@Test
+	void constructRewards() throws PrismException
+	{
+		Prism prism = new Prism(new PrismDevNullLog());
+		prism.initialise();
+		ModulesFile modulesFile = prism.parseModelString("mdp\nmodule m\n  s : [0..3] init 0;\n  [a] s<3 -> 0.5:(s'=s+1) + 0.5:(s'=0);\n  [b] s<3 -> (s'=3);\n  [] s=3 -> true;\nendmodule\n"
+				+ "rewards \"r\"\n  s=1 : 1.5;\n  [a] true : 2;\n  [b] s>0 : s;\nendrewards\n");
+		ConstructModel constructModel = new ConstructModel(prism);
+		ModulesFileModelGenerator<Double> modelGen = ModulesFileModelGenerator.createForDoubles(modulesFile, prism);
+		Model<Double> model = constructModel.constructModel(modelGen);
+		assertTrue(model instanceof MDPSparse);
+		constructModel.setBuildSparse(false);
+		Model<Double> modelSimple = constructModel.constructModel(modelGen);
+		assertTrue(modelSimple instanceof MDPSimple);
+		ConstructRewards constructRewards = new ConstructRewards(prism);
+		Rewards<Double> rewards = constructRewards.buildRewardStructure(model, modelGen, 0);
+		Rewards<Double> rewardsSimple = constructRewards.buildRewardStructure(modelSimple, modelGen, 0);
+		assertTrue(rewards instanceof RewardsArray);
+		NondetModel<Double> mdp = (NondetModel<Double>) model;
+		for (int s = 0; s < model.getNumStates(); s++) {
+			assertEquals(rewardsSimple.getStateReward(s), rewards.getStateReward(s));
+			for (int k = 0; k < mdp.getNumChoices(s); k++) {
+				assertEquals(rewardsSimple.getTransitionReward(s, k), rewards.getTransitionReward(s, k));
+			}
+		}
+		prism.closeDown();
+	}
+}
@@ -0,0 +1,125 @@
+package explicit;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import common.iterable.Reducible;
+import parser.ast.ModulesFile;
+import prism.Prism;
+import prism.PrismDevNullLog;
+import prism.PrismException;
+import simulator.ModulesFileModelGenerator;
+
+/**
+ * Tests for {@link SparseModelBuilder}: building a {@link DTMCSparse}/{@link MDPSparse} directly
+ * during model construction should give the same model as building a {@link DTMCSimple}/{@link MDPSimple}
+ * and then converting it.
+ */
+public class SparseModelBuilderTest
+{
+	/**
+	 * Two modules, with several initial states, overlapping and labelled updates
+	 * (including identical choices, for MDPs), and a deadlock (x=4) that is fixed
+	 */
+	private static final String MODULES = "module m1\n  x : [0..4];\n"
+			+ "  [a] x<4 -> 0.5:(x'=x+1) + 0.5:(x'=0);\n  [a] x<4 -> 0.5:(x'=0) + 0.5:(x'=x+1);\n  [] x<4 -> 0.5:(x'=x+1) + 0.5:(x'=0);\n"
+			+ "  [b] x<2 -> 0.25:(x'=x+2) + 0.25:(x'=x+2) + 0.5:(x'=x);\n  [c] x=3 -> (x'=1);\nendmodule\n"
+			+ "module m2\n  y : [0..2];\n  [b] y<2 -> 0.3:(y'=y+1) + 0.7:(y'=0);\n  [c] true -> (y'=2);\nendmodule\n"
+			+ "init x<2 & y=0 endinit\n"
+			+ "label \"goal\" = x=4;\n";
+
+	private Prism prism;
+
+	@BeforeEach
+	void setUp() throws PrismException
+	{
+		prism = new Prism(new PrismDevNullLog());
+		prism.initialise();
+	}
+
+	@AfterEach
+	void tearDown()
+	{
+		prism.closeDown();
+	}
+
+	@Test
+	void buildDTMC() throws PrismException
+	{
+		for (boolean sortStates : new boolean[] { true, false }) {
+			List<Model<Double>> models = buildSparseAndSimple("dtmc\n" + MODULES, sortStates);
+			assertTrue(models.get(0) instanceof DTMCSparse);
+			DTMCSparse dtmc = (DTMCSparse) models.get(0);
+			DTMCSparse dtmcConverted = new DTMCSparse((DTMCSimple<Double>) models.get(1));
+			assertSameInfo(dtmcConverted, dtmc);
+			for (int s = 0; s < dtmc.getNumStates(); s++) {
+				assertEquals(toList(dtmcConverted.getTransitionsAndActionsIterator(s)), toList(dtmc.getTransitionsAndActionsIterator(s)), "state " + s);
+			}
+		}
+	}
+
+	@Test
+	void buildMDP() throws PrismException
+	{
+		for (boolean sortStates : new boolean[] { true, false }) {
+			List<Model<Double>> models = buildSparseAndSimple("mdp\n" + MODULES, sortStates);
+			assertTrue(models.get(0) instanceof MDPSparse);
+			MDPSparse mdp = (MDPSparse) models.get(0);
+			MDPSparse mdpConverted = new MDPSparse((MDPSimple<Double>) models.get(1), true);
+			assertSameInfo(mdpConverted, mdp);
+			for (int s = 0; s < mdp.getNumStates(); s++) {
+				assertEquals(mdpConverted.getNumChoices(s), mdp.getNumChoices(s), "state " + s);
+				for (int i = 0; i < mdp.getNumChoices(s); i++) {
+					assertEquals(mdpConverted.getAction(s, i), mdp.getAction(s, i));
+					assertEquals(toList(mdpConverted.getTransitionsIterator(s, i)), toList(mdp.getTransitionsIterator(s, i)));
+				}
+			}
+			// Identical choices are only added once
+			assertEquals(3, mdp.getNumChoices(mdp.getFirstInitialState()));
+		}
+	}
+
+	/**
+	 * Build a model, both directly as a sparse model and as a simple one (in that order).
+	 */
+	private List<Model<Double>> buildSparseAndSimple(String modelString, boolean sortStates) throws PrismException
+	{
+		ModulesFile modulesFile = prism.parseModelString(modelString);
+		ModulesFileModelGenerator<Double> modelGen = ModulesFileModelGenerator.createForDoubles(modulesFile, prism);
+		ConstructModel constructModel = new ConstructModel(prism);
+		constructModel.setSortStates(sortStates);
+		Model<Double> sparse = constructModel.constructModel(modelGen);
+		constructModel.setBuildSparse(false);
+		Model<Double> simple = constructModel.constructModel(modelGen);
+		return List.of(sparse, simple);
+	}
+
+	private void assertSameInfo(Model<Double> expected, Model<Double> actual)
+	{
+		assertEquals(expected.getNumStates(), actual.getNumStates());
+		assertEquals(expected.getNumTransitions(), actual.getNumTransitions());
+		assertEquals(expected.getStatesList(), actual.getStatesList());
+		assertEquals(Reducible.extend(expected.getInitialStates()).collect(new ArrayList<>()), Reducible.extend(actual.getInitialStates()).collect(new ArrayList<>()));
+		assertEquals(Reducible.extend(expected.getDeadlockStates()).collect(new ArrayList<>()), Reducible.extend(actual.getDeadlockStates()).collect(new ArrayList<>()));
+		assertEquals(expected.getActions(), actual.getActions());
+		assertEquals(expected.getLabelStates("goal"), actual.getLabelStates("goal"));
+		assertEquals(expected.getVarList().getNumVars(), actual.getVarList().getNumVars());
+	}
+
+	private <T> List<Map.Entry<Integer, T>> toList(Iterator<Map.Entry<Integer, T>> iter)
+	{
+		List<Map.Entry<Integer, T>> list = new ArrayList<>();
+		while (iter.hasNext()) {
+			Map.Entry<Integer, T> e = iter.next();
+			list.add(Map.entry(e.getKey(), e.getValue()));
+		}
+		return list;
+	}
+}
@@ -0,0 +1,177 @@
+package explicit;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.BitSet;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import parser.Values;
+import parser.ast.ModulesFile;
+import parser.ast.PropertiesFile;
+import prism.Prism;
+import prism.PrismException;
+import prism.PrismPrintStreamLog;
+import prism.PrismSettings;
+
+/**
+ * Tests for {@link WarmStart}.
+ */
+public class WarmStartTest
+{
+	/** DTMC: 0 (no) <-0.5- 1 <-0.5-> 2 -0.5-> 3 (yes), so that the solution is (0, 1/3, 2/3, 1) */
+	private DTMCSimple<Double> createDTMC()
+	{
+		DTMCSimple<Double> dtmc = new DTMCSimple<>(4);
+		dtmc.setProbability(0, 0, 1.0);
+		dtmc.setProbability(1, 0, 0.5);
+		dtmc.setProbability(1, 2, 0.5);
+		dtmc.setProbability(2, 1, 0.5);
+		dtmc.setProbability(2, 3, 0.5);
+		dtmc.setProbability(3, 3, 1.0);
+		return dtmc;
+	}
+
+	private BitSet bits(int... states)
+	{
+		BitSet bs = new BitSet();
+		for (int s : states) {
+			bs.set(s);
+		}
+		return bs;
+	}
+
+	@Test
+	void storeAndRetrieve()
+	{
+		DTMCSimple<Double> dtmc = createDTMC();
+		WarmStart warmStart = new WarmStart();
+		BitSet target = bits(3);
+		WarmStart.Key key = new WarmStart.Key("P", dtmc, null, target);
+		assertNull(warmStart.getSolution(key));
+
+		double[] soln = { 0.0, 0.3, 0.6, 1.0 };
+		warmStart.storeSolution(key, soln);
+		// Stored/retrieved vectors are copies
+		soln[1] = 0.5;
+		target.set(0);
+		double[] soln2 = warmStart.getSolution(new WarmStart.Key("P", dtmc, null, bits(3)));
+		assertArrayEquals(new double[] { 0.0, 0.3, 0.6, 1.0 }, soln2);
+		soln2[1] = 0.5;
+		assertEquals(0.3, warmStart.getSolution(new WarmStart.Key("P", dtmc, null, bits(3)))[1]);
+
+		// Different computations
+		assertNull(warmStart.getSolution(new WarmStart.Key("Pmin", dtmc, null, bits(3))));
+		assertNull(warmStart.getSolution(new WarmStart.Key("P", dtmc, bits(1, 2), bits(3))));
+		assertNull(warmStart.getSolution(new WarmStart.Key("P", dtmc, null, bits(2, 3))));
+		assertNull(warmStart.getStrategy(key));
+
+		warmStart.storeStrategy(key, new int[] { 0, 1, 0, 0 });
+		assertArrayEquals(new int[] { 0, 1, 0, 0 }, warmStart.getStrategy(key));
+
+		warmStart.clear();
+		assertNull(warmStart.getSolution(key));
+		assertNull(warmStart.getStrategy(key));
+	}
+
+	@Test
+	void evictLeastRecentlyUsed()
+	{
+		DTMCSimple<Double> dtmc = createDTMC();
+		WarmStart warmStart = new WarmStart();
+		for (int i = 0; i <= WarmStart.MAX_ENTRIES; i++) {
+			warmStart.storeSolution(new WarmStart.Key("P" + i, dtmc, null, bits(3)), new double[4]);
+		}
+		assertNull(warmStart.getSolution(new WarmStart.Key("P0", dtmc, null, bits(3))));
+		assertNotNull(warmStart.getSolution(new WarmStart.Key("P1", dtmc, null, bits(3))));
+		assertNotNull(warmStart.getSolution(new WarmStart.Key("P" + WarmStart.MAX_ENTRIES, dtmc, null, bits(3))));
+	}
+
+	@Test
+	void checkBound()
+	{
+		DTMCSimple<Double> dtmc = createDTMC();
+		BitSet unknown = bits(1, 2);
+		double[] lower = { 0.0, 0.2, 0.5, 1.0 };
+		assertEquals(WarmStart.Bound.LOWER, WarmStart.checkBound(lower, unknown, s -> dtmc.mvMultSingle(s, lower)));
+		double[] upper = { 0.0, 0.5, 0.9, 1.0 };
+		assertEquals(WarmStart.Bound.UPPER, WarmStart.checkBound(upper, unknown, s -> dtmc.mvMultSingle(s, upper)));
+		double[] neither = { 0.0, 0.1, 0.9, 1.0 };
+		assertEquals(WarmStart.Bound.NONE, WarmStart.checkBound(neither, unknown, s -> dtmc.mvMultSingle(s, neither)));
+		double[] outOfRange = { 0.0, 0.2, 1.5, 1.0 };
+		assertEquals(WarmStart.Bound.NONE, WarmStart.checkBound(outOfRange, unknown, s -> dtmc.mvMultSingle(s, outOfRange)));
+		double[] fixpoint = { 0.0, 0.25, 0.5, 1.0 };
+		assertEquals(WarmStart.Bound.FIXPOINT, WarmStart.checkBound(fixpoint, unknown, s -> fixpoint[s]));
+	}
+
+	/**
+	 * Gambler's ruin on 0..N, moving up with probability p (in the MDP, alternatively with probability 1/2)
+	 */
+	private static final String MODULES = "const int N;\nconst double p;\n"
+			+ "module m\n  x : [0..N] init 10;\n  [] x>0 & x<N -> p:(x'=x+1) + 1-p:(x'=x-1);\n  [] x>0 & x<N -> 0.5:(x'=x+1) + 0.5:(x'=x-1);\nendmodule\n";
+
+	/**
+	 * Model check a property of a gambler's ruin model (see {@link #MODULES}) for each of several values of p,
+	 * then for a different property and a different model size (for which previous solutions cannot be used),
+	 * with warm starts switched on or off, returning the results and (in {@code log}) the log output
+	 * for the last two.
+	 */
+	private double[] checkSweep(String modelType, String prop, boolean warm, ByteArrayOutputStream log) throws PrismException
+	{
+		Prism prism = new Prism(new PrismPrintStreamLog(new PrintStream(log)));
+		prism.setEngine(Prism.EXPLICIT);
+		prism.initialise();
+		prism.getSettings().set(PrismSettings.PRISM_WARM_START, warm);
+		// (converge tightly, so that results from different starting points are close)
+		prism.getSettings().set(PrismSettings.PRISM_TERM_CRIT_PARAM, 1e-10);
+		ModulesFile modulesFile = prism.parseModelString(modelType + "\n" + MODULES);
+		prism.loadPRISMModel(modulesFile);
+		PropertiesFile propertiesFile = prism.parsePropertiesString(prop + " [ F x=N ];\n" + prop + " [ F x=0 ]");
+		double ps[] = { 0.45, 0.48, 0.5, 0.52 };
+		double results[] = new double[ps.length + 2];
+		for (int i = 0; i < ps.length + 2; i++) {
+			Values values = new Values();
+			values.addValue("N", i == ps.length + 1 ? 21 : 20);
+			values.addValue("p", ps[Math.min(i, ps.length - 1)]);
+			prism.setPRISMModelConstants(values);
+			int propIndex = i == ps.length ? 1 : 0;
+			if (i == ps.length) {
+				// Previous solutions are used during the sweep over p (if warm starts are on)
+				assertEquals(warm, log.toString().contains("Warm-starting from previous"));
+			}
+			if (i >= ps.length) {
+				log.reset();
+			}
+			results[i] = (Double) prism.modelCheck(propertiesFile, propertiesFile.getPropertyObject(propIndex)).getResult();
+		}
+		prism.closeDown();
+		return results;
+	}
+
+	private void checkWarmMatchesCold(String modelType, String prop) throws PrismException
+	{
+		ByteArrayOutputStream coldLog = new ByteArrayOutputStream();
+		double cold[] = checkSweep(modelType, prop, false, coldLog);
+		ByteArrayOutputStream warmLog = new ByteArrayOutputStream();
+		double warm[] = checkSweep(modelType, prop, true, warmLog);
+		// Results agree (to within the convergence tolerance)
+		assertArrayEquals(cold, warm, 1e-6);
+		assertTrue(cold[0] > 0.0 && cold[0] < cold[3] && cold[3] < 1.0);
+		// Previous solutions were not used for the final two checks (a different target, then model size)
+		assertFalse(warmLog.toString().contains("Warm-starting"), warmLog.toString());
+	}
+
+	@Test
+	void warmStartDTMC() throws PrismException
+	{
+		checkWarmMatchesCold("dtmc", "P=?");
+	}
+
+	@Test
+	void warmStartMDP() throws PrismException
+	{
+		checkWarmMatchesCold("mdp", "Pmax=?");
+		checkWarmMatchesCold("mdp", "Pmin=?");
+	}
+}
@@ -0,0 +1,96 @@
+package io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import explicit.Distribution;
+import explicit.MDPSimple;
+import prism.Evaluator;
+import prism.PrismException;
+import prism.PrismPrintStreamLog;
+
+/**
+ * Tests for {@link ExportBuffer} and the (block-parallel) per-state export of {@link ModelExporter}.
+ */
+public class ExportBufferTest
+{
+	@Test
+	void appendMatchesStrings()
+	{
+		ExportBuffer buf = new ExportBuffer(4);
+		StringBuilder expected = new StringBuilder();
+		long longs[] = { 0, 7, -7, 10, 1234567890123L, Long.MIN_VALUE, Long.MAX_VALUE };
+		for (long l : longs) {
+			buf.append(l).append(' ');
+			expected.append(l).append(' ');
+		}
+		int ints[] = { 0, -1, 99, Integer.MIN_VALUE, Integer.MAX_VALUE };
+		for (int i : ints) {
+			buf.append(i).append(':');
+			expected.append(i).append(':');
+		}
+		buf.append("(x=1,é)").append((Object) null).newline();
+		expected.append("(x=1,é)").append((Object) null).append(System.lineSeparator());
+		assertArrayEquals(expected.toString().getBytes(Charset.defaultCharset()), buf.toByteArray());
+		buf.clear();
+		assertEquals(0, buf.size());
+	}
+
+	@Test
+	void appendValueMatchesEvaluator()
+	{
+		Evaluator<Double> eval = Evaluator.forDouble();
+		double doubles[] = { 0.0, -0.0, 1.0, 0.5, 1.0 / 3.0, 1e-20, 123456789.125, Double.NaN, Double.POSITIVE_INFINITY, 0.5, 1.0 / 3.0 };
+		for (int precision : new int[] { 6, 17, 6 }) {
+			ExportBuffer buf = new ExportBuffer(16);
+			StringBuilder expected = new StringBuilder();
+			for (double d : doubles) {
+				buf.appendValue(d, eval, precision).append(' ');
+				expected.append(eval.toStringExport(d, precision)).append(' ');
+			}
+			assertEquals(expected.toString(), new String(buf.toByteArray()));
+		}
+	}
+
+	@Test
+	void parallelExportMatchesSequential() throws PrismException
+	{
+		// Enough states for several blocks, the last one partial
+		int n = 3 * ModelExporter.EXPORT_BLOCK_SIZE + 5;
+		Random random = new Random(1);
+		MDPSimple<Double> mdp = new MDPSimple<>(n);
+		for (int s = 0; s < n; s++) {
+			int numChoices = 1 + random.nextInt(3);
+			for (int k = 0; k < numChoices; k++) {
+				Distribution<Double> distr = Distribution.ofDouble();
+				int numSuccs = 1 + random.nextInt(3);
+				for (int i = 0; i < numSuccs; i++) {
+					distr.add(random.nextInt(n), 1.0 / numSuccs);
+				}
+				mdp.addActionLabelledChoice(s, distr, k == 0 ? null : "a" + k);
+			}
+		}
+		mdp.addInitialState(0);
+		for (ModelExporter<Double> exporter : List.of(new PrismExplicitExporter<Double>(), new DRNExporter<Double>(), new DotExporter<Double>())) {
+			exporter.setNumThreads(1);
+			String sequential = export(exporter, mdp);
+			exporter.setNumThreads(4);
+			assertEquals(sequential, export(exporter, mdp), exporter.getClass().getSimpleName());
+		}
+	}
+
+	private static String export(ModelExporter<Double> exporter, MDPSimple<Double> mdp) throws PrismException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		PrismPrintStreamLog log = new PrismPrintStreamLog(new PrintStream(bytes));
+		exporter.exportModel(mdp, log);
+		log.flush();
+		return bytes.toString();
+	}
+}
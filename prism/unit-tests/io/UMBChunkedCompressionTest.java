@@ -0,0 +1,185 @@
+package io;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import explicit.DTMC;
+import explicit.DTMCSimple;
+import explicit.ExplicitFiles2Model;
+import explicit.Model;
+import io.github.pmctools.umbj.UMBException;
+import io.github.pmctools.umbj.UMBFormat;
+import io.github.pmctools.umbj.UMBIndex;
+import io.github.pmctools.umbj.UMBWriter;
+import prism.Prism;
+import prism.PrismDevNullLog;
+import prism.PrismException;
+
+/**
+ * Tests for UMB export/import with (parallel) chunked compression.
+ */
+public class UMBChunkedCompressionTest
+{
+	/**
+	 * Random DTMC whose UMB file spans several compression chunks.
+	 */
+	private DTMCSimple<Double> createRandomDTMC(int n, long seed)
+	{
+		Random random = new Random(seed);
+		DTMCSimple<Double> dtmc = new DTMCSimple<>(n);
+		for (int s = 0; s < n; s++) {
+			dtmc.setProbability(s, random.nextInt(n), 0.25);
+			dtmc.setProbability(s, (s + 1) % n, 0.75);
+		}
+		dtmc.addInitialState(0);
+		return dtmc;
+	}
+
+	@Test
+	void chunkedRoundTrip() throws PrismException, IOException
+	{
+		int n = UMBFormat.COMPRESSION_CHUNK_SIZE / 16;
+		DTMCSimple<Double> dtmc = createRandomDTMC(n, 1);
+		Prism prism = new Prism(new PrismDevNullLog());
+		prism.initialise();
+		File umbFile = File.createTempFile("prism-test", ".umb");
+		try {
+			for (ModelExportOptions.CompressionFormat format : ModelExportOptions.CompressionFormat.values()) {
+				UMBExporter<Double> exporter = new UMBExporter<>(new ModelExportOptions().setZipped(true).setCompressionFormat(format));
+				exporter.setNumThreads(4);
+				exporter.exportModel(dtmc, umbFile);
+				// Standard (sequential) decompression reads all chunks
+				if (format == ModelExportOptions.CompressionFormat.GZIP) {
+					try (InputStream in = new GZIPInputStream(new BufferedInputStream(Files.newInputStream(umbFile.toPath())))) {
+						TarArchiveInputStream tarIn = new TarArchiveInputStream(in);
+						long total = 0;
+						TarArchiveEntry entry;
+						while ((entry = tarIn.getNextTarEntry()) != null) {
+							total += entry.getSize();
+						}
+						assertTrue(total > 2 * UMBFormat.COMPRESSION_CHUNK_SIZE);
+					}
+				}
+				// Import (sequentially and in parallel) gives the same model
+				for (int numThreads : new int[] { 1, 4 }) {
+					Model<Double> model = new ExplicitFiles2Model(prism).build(new UMBImporter(umbFile, numThreads));
+					DTMC<Double> imported = (DTMC<Double>) model;
+					assertEquals(n, imported.getNumStates());
+					assertEquals(dtmc.getNumTransitions(), imported.getNumTransitions());
+					for (int s = 0; s < n; s += 97) {
+						assertEquals(transitions(dtmc, s), transitions(imported, s), format + " in state " + s);
+					}
+				}
+			}
+		} finally {
+			Files.deleteIfExists(umbFile.toPath());
+			prism.closeDown();
+		}
+	}
+
+	private static Map<Integer, Double> transitions(DTMC<Double> dtmc, int s)
+	{
+		Map<Integer, Double> map = new TreeMap<>();
+		dtmc.getTransitionsIterator(s).forEachRemaining(e -> map.merge(e.getKey(), e.getValue(), Double::sum));
+		return map;
+	}
+
+	@Test
+	void failedExportReleasesThreads() throws IOException, InterruptedException, UMBException
+	{
+		// Branch targets whose iterator fails part way through, after several chunks are compressed
+		int n = UMBFormat.COMPRESSION_CHUNK_SIZE;
+		UMBWriter umbWriter = new UMBWriter();
+		UMBIndex umbIndex = umbWriter.getUmbIndex();
+		umbIndex.setModelType(UMBIndex.ModelType.DTMC, false);
+		umbIndex.setNumStates(n);
+		umbIndex.setNumInitialStates(1);
+		umbIndex.setNumChoices(n);
+		umbIndex.setNumBranches(n);
+		umbIndex.setNumChoiceActions(0);
+		umbIndex.setNumBranchActions(0);
+		umbWriter.addBranchTargets(new PrimitiveIterator.OfInt()
+		{
+			int s = 0;
+
+			@Override
+			public boolean hasNext()
+			{
+				return s < n;
+			}
+
+			@Override
+			public int nextInt()
+			{
+				if (s == 3 * n / 4) {
+					throw new IllegalStateException("failed");
+				}
+				return s++;
+			}
+		});
+		Set<Thread> threadsBefore = Thread.getAllStackTraces().keySet();
+		File umbFile = File.createTempFile("prism-test", ".umb");
+		try {
+			assertThrows(UMBException.class, () -> umbWriter.export(umbFile, true, UMBFormat.CompressionFormat.GZIP, 4));
+			assertNoNewPoolThreads(threadsBefore);
+		} finally {
+			Files.deleteIfExists(umbFile.toPath());
+		}
+	}
+
+	@Test
+	void failedImportReleasesThreads() throws PrismException, IOException, InterruptedException
+	{
+		DTMCSimple<Double> dtmc = createRandomDTMC(UMBFormat.COMPRESSION_CHUNK_SIZE / 16, 2);
+		Prism prism = new Prism(new PrismDevNullLog());
+		prism.initialise();
+		File umbFile = File.createTempFile("prism-test", ".umb");
+		try {
+			UMBExporter<Double> exporter = new UMBExporter<>(new ModelExportOptions().setZipped(true));
+			exporter.setNumThreads(4);
+			exporter.exportModel(dtmc, umbFile);
+			// Corrupt the compressed data part way through the file (after the index)
+			try (RandomAccessFile raf = new RandomAccessFile(umbFile, "rw")) {
+				long posn = raf.length() / 2;
+				raf.seek(posn);
+				int b = raf.read();
+				raf.seek(posn);
+				raf.write(b ^ 0xff);
+			}
+			Set<Thread> threadsBefore = Thread.getAllStackTraces().keySet();
+			assertThrows(PrismException.class, () -> new ExplicitFiles2Model(prism).build(new UMBImporter(umbFile, 4)));
+			assertNoNewPoolThreads(threadsBefore);
+		} finally {
+			Files.deleteIfExists(umbFile.toPath());
+			prism.closeDown();
+		}
+	}
+
+	/**
+	 * Check that any thread pool threads started since {@code threadsBefore} terminate (shortly).
+	 */
+	private static void assertNoNewPoolThreads(Set<Thread> threadsBefore) throws InterruptedException
+	{
+		for (Thread thread : Thread.getAllStackTraces().keySet()) {
+			if (!threadsBefore.contains(thread) && thread.getName().startsWith("pool-")) {
+				thread.join(5000);
+				assertFalse(thread.isAlive(), thread.getName() + " still running");
+			}
+		}
+	}
+}
@@ -0,0 +1,208 @@
+package io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import explicit.DTMCSimple;
+import explicit.Distribution;
+import explicit.MDPSimple;
+import io.github.pmctools.umbj.UMBException;
+import io.github.pmctools.umbj.UMBIndex;
+import io.github.pmctools.umbj.UMBReader;
+import io.github.pmctools.umbj.UMBWriter;
+import prism.Evaluator;
+import prism.ModelType;
+import prism.PrismException;
+
+/**
+ * Tests for memory-mapped UMB import ({@code UMBReader.map...} and the sparse extraction methods of {@link UMBImporter}),
+ * compared to the standard (streaming) import.
+ */
+public class UMBMappedImportTest
+{
+	private File umbFile;
+
+	@BeforeEach
+	void setUp() throws IOException
+	{
+		umbFile = File.createTempFile("prism-test", ".umb");
+	}
+
+	@AfterEach
+	void tearDown() throws IOException
+	{
+		Files.deleteIfExists(umbFile.toPath());
+	}
+
+	private DTMCSimple<Double> createRandomDTMC(int n, long seed)
+	{
+		Random random = new Random(seed);
+		DTMCSimple<Double> dtmc = new DTMCSimple<>(n);
+		for (int s = 0; s < n; s++) {
+			dtmc.addToProbability(s, random.nextInt(n), 0.25, "a");
+			dtmc.addToProbability(s, (s + 1) % n, 0.75, s % 3 == 0 ? "b" : "c");
+		}
+		dtmc.addInitialState(0);
+		dtmc.addInitialState(n / 2);
+		return dtmc;
+	}
+
+	private MDPSimple<Double> createRandomMDP(int n, long seed)
+	{
+		Random random = new Random(seed);
+		MDPSimple<Double> mdp = new MDPSimple<>(n);
+		for (int s = 0; s < n; s++) {
+			int numChoices = 1 + random.nextInt(3);
+			for (int k = 0; k < numChoices; k++) {
+				Distribution<Double> distr = Distribution.ofDouble();
+				distr.add(random.nextInt(n), 0.5);
+				distr.add((s + k + 1) % n, 0.5);
+				mdp.addActionLabelledChoice(s, distr, "a" + k);
+			}
+		}
+		mdp.addInitialState(0);
+		return mdp;
+	}
+
+	@Test
+	void exportedDTMC() throws PrismException, UMBException
+	{
+		new UMBExporter<Double>(new ModelExportOptions().setZipped(false)).exportModel(createRandomDTMC(500, 1), umbFile);
+		assertTrue(new UMBReader(umbFile).hasBranchActionIndices());
+		checkMCTransitions();
+	}
+
+	@Test
+	void exportedMDP() throws PrismException, UMBException
+	{
+		new UMBExporter<Double>(new ModelExportOptions().setZipped(false)).exportModel(createRandomMDP(500, 2), umbFile);
+		assertTrue(new UMBReader(umbFile).hasChoiceActionIndices());
+		checkMDPTransitions();
+	}
+
+	@Test
+	void compressedNotMapped() throws PrismException
+	{
+		new UMBExporter<Double>(new ModelExportOptions().setZipped(true)).exportModel(createRandomDTMC(50, 3), umbFile);
+		UMBImporter importer = new UMBImporter(umbFile);
+		int n = importer.getNumStates();
+		int nt = importer.getNumTransitions();
+		assertFalse(importer.extractMCTransitionsSparse(new int[n + 1], new int[nt], new double[nt], new Object[nt]));
+	}
+
+	@Test
+	void absentDefaultFiles() throws PrismException, UMBException
+	{
+		// Deterministic MDP (one choice per state, one branch per choice, with probability 1),
+		// with no state choice offsets, choice branch offsets or branch probabilities files
+		int n = 100;
+		writeDeterministicUMB(n, ModelType.MDP);
+		UMBReader reader = new UMBReader(umbFile);
+		assertTrue(reader.isMappable());
+		int stateChoiceOffsets[] = new int[n + 1];
+		int choiceBranchOffsets[] = new int[n + 1];
+		double probabilities[] = new double[n];
+		reader.mapStateChoiceOffsets(stateChoiceOffsets);
+		reader.mapChoiceBranchOffsets(choiceBranchOffsets);
+		reader.mapBranchProbabilities(probabilities);
+		assertArrayEquals(IntStream.rangeClosed(0, n).toArray(), stateChoiceOffsets);
+		assertArrayEquals(IntStream.rangeClosed(0, n).toArray(), choiceBranchOffsets);
+		for (double p : probabilities) {
+			assertEquals(1.0, p);
+		}
+		checkMDPTransitions();
+		// Same for a DTMC
+		writeDeterministicUMB(n, ModelType.DTMC);
+		checkMCTransitions();
+	}
+
+	/**
+	 * Write a UMB file (uncompressed) for a deterministic model (s -> 2s mod n),
+	 * omitting the files whose default values apply (identity offsets and probabilities of 1).
+	 */
+	private void writeDeterministicUMB(int n, ModelType modelType) throws UMBException
+	{
+		UMBWriter umbWriter = new UMBWriter();
+		UMBIndex umbIndex = umbWriter.getUmbIndex();
+		umbIndex.setModelType(modelType == ModelType.MDP ? UMBIndex.ModelType.MDP : UMBIndex.ModelType.DTMC, false);
+		umbIndex.setNumStates(n);
+		umbIndex.setNumInitialStates(1);
+		umbIndex.setNumChoices(n);
+		umbIndex.setNumBranches(n);
+		umbIndex.setNumChoiceActions(0);
+		umbIndex.setNumBranchActions(0);
+		umbWriter.addBranchTargets(IntStream.range(0, n).map(s -> (2 * s) % n).iterator());
+		BitSet init = new BitSet();
+		init.set(0);
+		umbWriter.addInitialStates(init);
+		umbWriter.export(umbFile, false);
+	}
+
+	/**
+	 * Check that DTMC transitions extracted via memory mapping match those from the standard import.
+	 */
+	private void checkMCTransitions() throws PrismException
+	{
+		UMBImporter importer = new UMBImporter(umbFile);
+		int n = importer.getNumStates();
+		int nt = importer.getNumTransitions();
+		List<Object> streamed = new ArrayList<>();
+		importer.extractMCTransitions((s, s2, v, a) -> streamed.add(List.of(s, s2, v, String.valueOf(a))), Evaluator.forDouble());
+		int rows[] = new int[n + 1];
+		int cols[] = new int[nt];
+		double probs[] = new double[nt];
+		Object actions[] = new Object[nt];
+		importer = new UMBImporter(umbFile);
+		assertTrue(importer.extractMCTransitionsSparse(rows, cols, probs, actions));
+		List<Object> mapped = new ArrayList<>();
+		for (int s = 0; s < n; s++) {
+			for (int j = rows[s]; j < rows[s + 1]; j++) {
+				mapped.add(List.of(s, cols[j], probs[j], String.valueOf(actions[j])));
+			}
+		}
+		assertEquals(nt, rows[n]);
+		assertEquals(streamed, mapped);
+	}
+
+	/**
+	 * Check that MDP transitions extracted via memory mapping match those from the standard import.
+	 */
+	private void checkMDPTransitions() throws PrismException
+	{
+		UMBImporter importer = new UMBImporter(umbFile);
+		int n = importer.getNumStates();
+		int nc = importer.getNumChoices();
+		int nt = importer.getNumTransitions();
+		List<Object> streamed = new ArrayList<>();
+		importer.extractMDPTransitions((s, i, s2, v, a) -> streamed.add(List.of(s, i, s2, v, String.valueOf(a))), Evaluator.forDouble());
+		int rowStarts[] = new int[n + 1];
+		int choiceStarts[] = new int[nc + 1];
+		int cols[] = new int[nt];
+		double probs[] = new double[nt];
+		Object actions[] = new Object[nc];
+		importer = new UMBImporter(umbFile);
+		assertTrue(importer.extractMDPTransitionsSparse(rowStarts, choiceStarts, cols, probs, actions));
+		List<Object> mapped = new ArrayList<>();
+		for (int s = 0; s < n; s++) {
+			for (int c = rowStarts[s]; c < rowStarts[s + 1]; c++) {
+				for (int j = choiceStarts[c]; j < choiceStarts[c + 1]; j++) {
+					mapped.add(List.of(s, c - rowStarts[s], cols[j], probs[j], String.valueOf(actions[c])));
+				}
+			}
+		}
+		assertEquals(nc, rowStarts[n]);
+		assertEquals(nt, choiceStarts[nc]);
+		assertEquals(streamed, mapped);
+	}
+}
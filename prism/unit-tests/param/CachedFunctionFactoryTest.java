@@ -0,0 +1,85 @@
+package param;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link CachedFunctionFactory}, including concurrent use.
+ */
+public class CachedFunctionFactoryTest
+{
+	private CachedFunctionFactory createFactory()
+	{
+		String[] names = { "p", "q" };
+		BigRational[] lower = { BigRational.ZERO, BigRational.ZERO };
+		BigRational[] upper = { BigRational.ONE, BigRational.ONE };
+		return new CachedFunctionFactory(new JasFunctionFactory(names, lower, upper));
+	}
+
+	/**
+	 * Compute (p + i/8) * q + p^2 for i = 0,...,7.
+	 */
+	private List<Function> computeFunctions(FunctionFactory factory)
+	{
+		List<Function> fns = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			Function c = factory.fromBigRational(new BigRational(i, 8));
+			Function fn = factory.getVar(0).add(c).multiply(factory.getVar(1)).add(factory.getVar(0).pow(2));
+			fns.add(fn);
+		}
+		return fns;
+	}
+
+	@Test
+	void functionsAreUnique()
+	{
+		CachedFunctionFactory factory = createFactory();
+		List<Function> fns = computeFunctions(factory);
+		List<Function> fns2 = computeFunctions(factory);
+		for (int i = 0; i < fns.size(); i++) {
+			assertSame(fns.get(i), fns2.get(i));
+		}
+		assertNotEquals(fns.get(0), fns.get(1));
+		Point point = new Point(new BigRational[] { BigRational.HALF, BigRational.ONE });
+		// (1/2 + 1/8) * 1 + 1/4 = 7/8
+		assertEquals(new BigRational(7, 8), fns.get(1).evaluate(point));
+		assertEquals("(8*p^2+8*p*q+q)/8", fns.get(1).toString().replace(" ", ""));
+	}
+
+	@Test
+	void concurrentUse() throws Exception
+	{
+		CachedFunctionFactory factory = createFactory();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Callable<List<Function>>> tasks = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				tasks.add(() -> computeFunctions(factory));
+			}
+			List<Future<List<Function>>> futures = executor.invokeAll(tasks);
+			List<Function> fns = futures.get(0).get();
+			// All threads get identical (unique) functions
+			for (Future<List<Function>> future : futures) {
+				List<Function> fns2 = future.get();
+				for (int i = 0; i < fns.size(); i++) {
+					assertSame(fns.get(i), fns2.get(i));
+				}
+			}
+			// And the same ones as sequentially afterwards
+			List<Function> fnsSeq = computeFunctions(factory);
+			for (int i = 0; i < fns.size(); i++) {
+				assertSame(fns.get(i), fnsSeq.get(i));
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
@@ -0,0 +1,203 @@
+package parser;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import parser.ast.Expression;
+import parser.ast.ExpressionBinaryOp;
+import parser.ast.ExpressionFunc;
+import parser.ast.ExpressionITE;
+import parser.ast.ExpressionLabel;
+import parser.ast.ExpressionVar;
+import parser.type.TypeBool;
+import parser.type.TypeDouble;
+import parser.type.TypeInt;
+import prism.PrismLangException;
+
+/**
+ * Tests for {@link ColumnarExpressionEvaluator}: column-wise evaluation should agree with the interpreter.
+ */
+public class ColumnarExpressionEvaluatorTest
+{
+	// Variables: x (int), y (int), d (double), b (bool)
+	private final ExpressionVar x = var("x", TypeInt.getInstance(), 0);
+	private final ExpressionVar y = var("y", TypeInt.getInstance(), 1);
+	private final ExpressionVar d = var("d", TypeDouble.getInstance(), 2);
+	private final ExpressionVar b = var("b", TypeBool.getInstance(), 3);
+
+	private static ExpressionVar var(String name, parser.type.Type type, int index)
+	{
+		ExpressionVar v = new ExpressionVar(name, type);
+		v.setIndex(index);
+		return v;
+	}
+
+	private static Expression func(String name, Expression... args) throws PrismLangException
+	{
+		ExpressionFunc f = new ExpressionFunc(name);
+		for (Expression arg : args) {
+			f.addOperand(arg);
+		}
+		f.typeCheck();
+		return f;
+	}
+
+	private static Expression check(Expression expr) throws PrismLangException
+	{
+		expr.typeCheck();
+		return expr;
+	}
+
+	private static ExpressionLabel label(String name)
+	{
+		ExpressionLabel l = new ExpressionLabel(name);
+		l.setType(TypeBool.getInstance());
+		return l;
+	}
+
+	/**
+	 * States over several chunks (the last one partial), with some awkward values.
+	 */
+	private static List<State> states()
+	{
+		List<State> statesList = new ArrayList<>();
+		for (int i = 0; i < 2 * ColumnarExpressionEvaluator.CHUNK_SIZE + 100; i++) {
+			int x = (i % 37) - 18;
+			int y = (i / 37) % 11 - 5;
+			double d = i % 13 == 0 ? -0.0 : (i % 17) / 4.0 - 2.0;
+			statesList.add(new State(4).setValue(0, x).setValue(1, y).setValue(2, d).setValue(3, i % 3 == 0));
+		}
+		return statesList;
+	}
+
+	private ColumnarExpressionEvaluator createEvaluator(List<State> statesList, BitSet even) throws PrismLangException
+	{
+		Expression def = check(new ExpressionBinaryOp(ExpressionBinaryOp.GT, x, y));
+		return new ColumnarExpressionEvaluator(new StateColumns(statesList), null, new ColumnarExpressionEvaluator.LabelResolver()
+		{
+			@Override
+			public BitSet getLabelStates(String name)
+			{
+				return "even".equals(name) ? even : null;
+			}
+
+			@Override
+			public Expression getLabelDefinition(String name)
+			{
+				return "xgty".equals(name) ? def : null;
+			}
+		});
+	}
+
+	@Test
+	void columnarMatchesInterpreter() throws PrismLangException
+	{
+		List<State> statesList = states();
+		BitSet even = new BitSet();
+		for (int i = 0; i < statesList.size(); i += 2) {
+			even.set(i);
+		}
+		Expression boolExprs[] = {
+				check(Expression.And(b, new ExpressionBinaryOp(ExpressionBinaryOp.GT, x, y))),
+				check(Expression.Implies(Expression.Not(b), new ExpressionBinaryOp(ExpressionBinaryOp.EQ, x, d))),
+				check(Expression.Or(new ExpressionBinaryOp(ExpressionBinaryOp.NE, d, Expression.Double(0.0)), Expression.Iff(b, label("even")))),
+				check(new ExpressionBinaryOp(ExpressionBinaryOp.LE, func("mod", x, Expression.Int(3)), Expression.Int(1))),
+				check(new ExpressionITE(label("xgty"), b, new ExpressionBinaryOp(ExpressionBinaryOp.LT, d, y))),
+				check(new ExpressionBinaryOp(ExpressionBinaryOp.EQ, b, Expression.Not(label("even")))),
+		};
+		Expression intExprs[] = {
+				check(Expression.Plus(Expression.Times(x, y), Expression.Minus(x))),
+				check(new ExpressionITE(b, func("max", x, y, Expression.Int(1)), func("floor", Expression.Divide(x, Expression.Int(2))))),
+				check(func("mod", x, Expression.Int(7))),
+		};
+		Expression doubleExprs[] = {
+				check(Expression.Divide(x, Expression.Plus(d, Expression.Double(1.5)))),
+				check(Expression.Plus(func("min", d, x), func("pow", d, Expression.Int(2)))),
+				check(new ExpressionITE(label("even"), d, Expression.Minus(y))),
+		};
+		ColumnarExpressionEvaluator evaluator = createEvaluator(statesList, even);
+		for (Expression e : boolExprs) {
+			assertTrue(evaluator.isSupported(e), e.toString());
+			BitSet bs = evaluator.evaluateBoolean(e, null, 1);
+			assertEquals(bs, evaluator.evaluateBoolean(e, null, 4), e.toString());
+			for (int s = 0; s < statesList.size(); s++) {
+				EvaluateContext ec = new EvaluateContextState(statesList.get(s));
+				boolean expected = e.toString().contains("\"") ? evaluateWithLabels(e, ec, even.get(s)) : e.evaluateBoolean(ec);
+				assertEquals(expected, bs.get(s), e + " in state " + s);
+			}
+			assertTrue(bs.length() <= statesList.size());
+		}
+		for (Expression e : intExprs) {
+			assertTrue(evaluator.isSupported(e), e.toString());
+			int vals[] = evaluator.evaluateInt(e, null, 1);
+			assertArrayEquals(vals, evaluator.evaluateInt(e, null, 4), e.toString());
+			for (int s = 0; s < statesList.size(); s++) {
+				assertEquals(e.evaluateInt(new EvaluateContextState(statesList.get(s))), vals[s], e + " in state " + s);
+			}
+		}
+		for (Expression e : doubleExprs) {
+			assertTrue(evaluator.isSupported(e), e.toString());
+			double vals[] = evaluator.evaluateDouble(e, null, 1);
+			assertArrayEquals(vals, evaluator.evaluateDouble(e, null, 4), 0.0, e.toString());
+			for (int s = 0; s < statesList.size(); s++) {
+				EvaluateContext ec = new EvaluateContextState(statesList.get(s));
+				double expected = e.toString().contains("even") ? (even.get(s) ? d.evaluateDouble(ec) : -y.evaluateInt(ec)) : e.evaluateDouble(ec);
+				assertEquals(Double.valueOf(expected), Double.valueOf(vals[s]), e + " in state " + s);
+			}
+		}
+	}
+
+	/**
+	 * Evaluate a Boolean expression containing labels with the interpreter,
+	 * after replacing label "even" with its value and "xgty" with its definition.
+	 */
+	private boolean evaluateWithLabels(Expression e, EvaluateContext ec, boolean even) throws PrismLangException
+	{
+		Expression copy = (Expression) e.deepCopy().accept(new parser.visitor.ASTTraverseModify()
+		{
+			@Override
+			public Object visit(ExpressionLabel l) throws PrismLangException
+			{
+				return "even".equals(l.getName()) ? (even ? Expression.True() : Expression.False()) : new ExpressionBinaryOp(ExpressionBinaryOp.GT, x, y);
+			}
+		});
+		return copy.evaluateBoolean(ec);
+	}
+
+	@Test
+	void errorsAndShortCircuiting() throws PrismLangException
+	{
+		List<State> statesList = states();
+		ColumnarExpressionEvaluator evaluator = createEvaluator(statesList, new BitSet());
+		// Integer overflow gives the same error as the interpreter...
+		Expression overflow = check(new ExpressionBinaryOp(ExpressionBinaryOp.GT, Expression.Times(x, Expression.Int(Integer.MAX_VALUE)), Expression.Int(0)));
+		assertTrue(evaluator.isSupported(overflow));
+		PrismLangException expected = assertThrows(PrismLangException.class, () -> {
+			for (State s : statesList) {
+				overflow.evaluateBoolean(new EvaluateContextState(s));
+			}
+		});
+		for (int threads : new int[] { 1, 4 }) {
+			PrismLangException ex = assertThrows(PrismLangException.class, () -> evaluator.evaluateBoolean(overflow, null, threads));
+			assertEquals(expected.getMessage(), ex.getMessage());
+		}
+		// ...but only where the value is needed
+		Expression guarded = check(Expression.And(new ExpressionBinaryOp(ExpressionBinaryOp.LE, func("max", x, Expression.Minus(x)), Expression.Int(1)), overflow));
+		BitSet bs = evaluator.evaluateBoolean(guarded, null, 4);
+		BitSet statesOfInterest = new BitSet();
+		for (int s = 0; s < statesList.size(); s++) {
+			int xVal = (Integer) statesList.get(s).varValues[0];
+			assertEquals(xVal == 1, bs.get(s));
+			if (Math.abs(xVal) <= 1) {
+				statesOfInterest.set(s);
+			}
+		}
+		assertEquals(bs, evaluator.evaluateBoolean(overflow, statesOfInterest, 4));
+		// Unknown labels are not supported
+		assertFalse(evaluator.isSupported(Expression.And(b, label("unknown"))));
+	}
+}
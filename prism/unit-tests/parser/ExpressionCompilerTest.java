@@ -0,0 +1,105 @@
+package parser;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import parser.ast.Expression;
+import parser.ast.ExpressionBinaryOp;
+import parser.ast.ExpressionFunc;
+import parser.ast.ExpressionITE;
+import parser.ast.ExpressionVar;
+import parser.type.TypeBool;
+import parser.type.TypeDouble;
+import parser.type.TypeInt;
+import prism.PrismLangException;
+
+/**
+ * Tests for {@link ExpressionCompiler}: compiled expressions should agree with the interpreter.
+ */
+public class ExpressionCompilerTest
+{
+	// Variables: x (int), y (int), d (double), b (bool)
+	private final ExpressionVar x = var("x", TypeInt.getInstance(), 0);
+	private final ExpressionVar y = var("y", TypeInt.getInstance(), 1);
+	private final ExpressionVar d = var("d", TypeDouble.getInstance(), 2);
+	private final ExpressionVar b = var("b", TypeBool.getInstance(), 3);
+
+	private static ExpressionVar var(String name, parser.type.Type type, int index)
+	{
+		ExpressionVar v = new ExpressionVar(name, type);
+		v.setIndex(index);
+		return v;
+	}
+
+	private static State state(int x, int y, double d, boolean b)
+	{
+		return new State(4).setValue(0, x).setValue(1, y).setValue(2, d).setValue(3, b);
+	}
+
+	private static Expression func(String name, Expression... args) throws PrismLangException
+	{
+		ExpressionFunc f = new ExpressionFunc(name);
+		for (Expression arg : args) {
+			f.addOperand(arg);
+		}
+		f.typeCheck();
+		return f;
+	}
+
+	private static Expression check(Expression expr) throws PrismLangException
+	{
+		expr.typeCheck();
+		return expr;
+	}
+
+	private State[] states()
+	{
+		return new State[] { state(0, 0, 0.0, false), state(3, -7, 0.25, true), state(-4, 2, -0.0, true), state(7, 7, 7.0, false) };
+	}
+
+	@Test
+	void compiledMatchesInterpreter() throws PrismLangException
+	{
+		ExpressionCompiler compiler = new ExpressionCompiler(null, 4);
+		Expression boolExprs[] = {
+				check(Expression.And(b, new ExpressionBinaryOp(ExpressionBinaryOp.GT, x, y))),
+				check(Expression.Implies(Expression.Not(b), new ExpressionBinaryOp(ExpressionBinaryOp.EQ, x, d))),
+				check(new ExpressionBinaryOp(ExpressionBinaryOp.NE, d, Expression.Double(0.0))),
+				check(new ExpressionBinaryOp(ExpressionBinaryOp.LE, func("mod", x, Expression.Int(3)), Expression.Int(1))),
+		};
+		Expression intExprs[] = {
+				check(Expression.Plus(Expression.Times(x, y), Expression.Minus(x))),
+				check(new ExpressionITE(b, func("max", x, y, Expression.Int(1)), func("floor", Expression.Divide(x, Expression.Int(2))))),
+		};
+		Expression doubleExprs[] = {
+				check(Expression.Divide(x, Expression.Plus(d, Expression.Double(1.5)))),
+				check(Expression.Plus(func("min", d, x), func("pow", d, Expression.Int(2)))),
+		};
+		for (State s : states()) {
+			EvaluateContext ec = new EvaluateContextState(s);
+			for (Expression e : boolExprs) {
+				assertEquals(e.evaluateBoolean(ec), compiler.compileBoolean(e).evaluate(s), e.toString());
+			}
+			for (Expression e : intExprs) {
+				assertEquals(e.evaluateInt(ec), compiler.compileInt(e).evaluate(s), e.toString());
+				assertEquals(e.evaluateDouble(ec), compiler.compileDouble(e).evaluate(s), e.toString());
+			}
+			for (Expression e : doubleExprs) {
+				assertEquals(e.evaluateDouble(ec), compiler.compileDouble(e).evaluate(s), e.toString());
+			}
+		}
+	}
+
+	@Test
+	void errorsMatchInterpreter() throws PrismLangException
+	{
+		ExpressionCompiler compiler = new ExpressionCompiler(null, 4);
+		State s = state(Integer.MAX_VALUE, 1, 0.0, true);
+		Expression overflow = check(Expression.Plus(x, y));
+		PrismLangException e1 = assertThrows(PrismLangException.class, () -> overflow.evaluateInt(new EvaluateContextState(s)));
+		PrismLangException e2 = assertThrows(PrismLangException.class, () -> compiler.compileInt(overflow).evaluate(s));
+		assertEquals(e1.getMessage(), e2.getMessage());
+		Expression badMod = func("mod", y, Expression.Int(0));
+		assertThrows(PrismLangException.class, () -> compiler.compileInt(badMod).evaluate(s));
+	}
+}
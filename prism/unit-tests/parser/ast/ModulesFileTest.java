@@ -0,0 +1,51 @@
+package parser.ast;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import prism.Prism;
+import prism.PrismDevNullLog;
+import prism.PrismException;
+
+/**
+ * Tests for {@link ModulesFile}.
+ */
+public class ModulesFileTest
+{
+	private static final String MODEL =
+			"dtmc\n" +
+			"const int N;\n" +
+			"const double p;\n" +
+			"const double q = p / 2;\n" +
+			"const int K;\n" +
+			"const double r;\n" +
+			"const double r2 = 2 * r;\n" +
+			"const int unused;\n" +
+			"formula f = x < N;\n" +
+			"module m\n" +
+			"  x : [0..N] init 0;\n" +
+			"  [] f -> q : (x'=x+1) + (1-q) : (x'=x);\n" +
+			"  [] !f -> true;\n" +
+			"endmodule\n" +
+			"label \"big\" = x >= K;\n" +
+			"rewards \"r\" true : r2; endrewards\n";
+
+	@Test
+	public void testGetModelStructureConstants() throws PrismException
+	{
+		Prism prism = new Prism(new PrismDevNullLog());
+		ModulesFile modulesFile = prism.parseModelString(MODEL);
+		Set<String> consts = modulesFile.getModelStructureConstants();
+		// Constants in variables/commands/labels, including via formulas and other constants
+		assertTrue(consts.contains("N"));
+		assertTrue(consts.contains("q"));
+		assertTrue(consts.contains("p"));
+		assertTrue(consts.contains("K"));
+		// Constants only used in rewards, or not at all
+		assertFalse(consts.contains("r"));
+		assertFalse(consts.contains("r2"));
+		assertFalse(consts.contains("unused"));
+	}
+}
@@ -0,0 +1,107 @@
+package prism;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Tests for {@link PrismServer}.
+ */
+public class PrismServerTest
+{
+	private static final String MODEL =
+			"dtmc\n" +
+			"const int N;\n" +
+			"const double p;\n" +
+			"module m\n" +
+			"  x : [0..N] init 0;\n" +
+			"  [] x < N -> p : (x'=x+1) + (1-p) : (x'=0);\n" +
+			"  [] x = N -> true;\n" +
+			"endmodule\n" +
+			"label \"done\" = x = N;\n";
+
+	@TempDir
+	Path tempDir;
+
+	private PrismServer createServer() throws PrismException
+	{
+		Prism prism = new Prism(new PrismDevNullLog());
+		prism.setEngine(Prism.EXPLICIT);
+		prism.initialise();
+		return new PrismServer(prism, 2);
+	}
+
+	private JsonObject request(PrismServer server, String request)
+	{
+		return server.handleRequest(JsonParser.parseString(request).getAsJsonObject());
+	}
+
+	@Test
+	void checkWithCachedModels() throws PrismException, IOException
+	{
+		File modelFile = tempDir.resolve("model.pm").toFile();
+		Files.write(modelFile.toPath(), MODEL.getBytes());
+		String model = "\"model\":\"" + modelFile.getPath().replace("\\", "\\\\") + "\"";
+		PrismServer server = createServer();
+
+		JsonObject res = request(server, "{\"id\":1," + model + ",\"constants\":\"N=2,p=0.5\",\"properties\":[\"P=? [ F<=2 \\\"done\\\" ]\"]}");
+		assertEquals("ok", res.get("status").getAsString());
+		assertEquals(1, res.get("id").getAsInt());
+		assertFalse(res.get("cached").getAsBoolean());
+		assertEquals(0.25, res.getAsJsonArray("results").get(0).getAsJsonObject().get("value").getAsDouble(), 1e-12);
+
+		// Same model, different property constants: re-used
+		res = request(server, "{" + model + ",\"constants\":\"k=3,p=0.5,N=2\",\"properties\":[\"const int k;\",\"P=? [ F<=k \\\"done\\\" ]\",\"R=? [ F \\\"done\\\" ]\"]}");
+		assertTrue(res.get("cached").getAsBoolean());
+		JsonArray results = res.getAsJsonArray("results");
+		assertEquals(0.375, results.get(0).getAsJsonObject().get("value").getAsDouble(), 1e-12);
+		// Errors are per property
+		assertNotNull(results.get(1).getAsJsonObject().get("error"));
+
+		// Different model constants; then back to the first model (still cached)
+		res = request(server, "{" + model + ",\"constants\":\"N=1,p=0.5\",\"properties\":[\"P=? [ F<=1 \\\"done\\\" ]\"]}");
+		assertFalse(res.get("cached").getAsBoolean());
+		assertEquals(0.5, res.getAsJsonArray("results").get(0).getAsJsonObject().get("value").getAsDouble(), 1e-12);
+		res = request(server, "{" + model + ",\"constants\":\"N=2,p=0.5\",\"properties\":[\"P=? [ F<=2 \\\"done\\\" ]\"]}");
+		assertTrue(res.get("cached").getAsBoolean());
+		assertEquals(0.25, res.getAsJsonArray("results").get(0).getAsJsonObject().get("value").getAsDouble(), 1e-12);
+		// Cache holds 2 models, so this evicts N=1
+		request(server, "{" + model + ",\"constants\":\"N=3,p=0.5\",\"properties\":[]}");
+		assertEquals(2, request(server, "{\"command\":\"status\"}").get("models").getAsInt());
+		res = request(server, "{" + model + ",\"constants\":\"N=1,p=0.5\",\"properties\":[]}");
+		assertFalse(res.get("cached").getAsBoolean());
+
+		// Errors
+		res = request(server, "{\"id\":\"x\",\"model\":\"nonexistent.pm\"}");
+		assertEquals("error", res.get("status").getAsString());
+		assertEquals("x", res.get("id").getAsString());
+		res = request(server, "{" + model + ",\"constants\":\"N=1:3,p=0.5\"}");
+		assertEquals("error", res.get("status").getAsString());
+		server.clear();
+		assertEquals(0, request(server, "{\"command\":\"status\"}").get("models").getAsInt());
+	}
+
+	@Test
+	void serveLines() throws PrismException
+	{
+		PrismServer server = createServer();
+		StringWriter out = new StringWriter();
+		server.serve(new StringReader("{\"id\":1,\"command\":\"status\"}\n\nnot json {\n{\"command\":\"shutdown\"}\n{\"id\":2,\"command\":\"status\"}\n"), out);
+		String[] lines = out.toString().split("\\R");
+		assertEquals(3, lines.length);
+		assertEquals(1, JsonParser.parseString(lines[0]).getAsJsonObject().get("id").getAsInt());
+		assertEquals("error", JsonParser.parseString(lines[1]).getAsJsonObject().get("status").getAsString());
+		assertEquals("ok", JsonParser.parseString(lines[2]).getAsJsonObject().get("status").getAsString());
+	}
+}
@@ -0,0 +1,86 @@
+package pta;
+
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link LocZoneStore} (and flat-array {@link DBM}s).
+ */
+public class LocZoneStoreTest
+{
+	/** PTA with 2 clocks, 2 locations and no transitions */
+	private PTA createPTA()
+	{
+		PTA pta = new PTA(Collections.emptyList());
+		pta.addClock("x");
+		pta.addClock("y");
+		pta.addLocation();
+		pta.addLocation();
+		return pta;
+	}
+
+	/** Zone x <= v (and y unconstrained) */
+	private DBM xLeq(PTA pta, int v)
+	{
+		DBM dbm = DBM.createTrue(pta);
+		dbm.addConstraint(Constraint.buildLeq(1, v));
+		return dbm;
+	}
+
+	@Test
+	void flatDBMOperations()
+	{
+		PTA pta = createPTA();
+		DBM zero = DBM.createZero(pta);
+		DBM dbm = zero.deepCopy();
+		dbm.up();
+		dbm.addConstraint(Constraint.buildLeq(1, 3));
+		assertTrue(dbm.includes(zero));
+		assertFalse(zero.includes(dbm));
+		assertEquals(0, dbm.getClockMin(2));
+		assertEquals(3, dbm.getClockMax(2));
+		// Copies
+		DBM copy = DBM.createTrue(pta);
+		copy.copyFrom(dbm);
+		assertEquals(dbm, copy);
+		assertEquals(dbm.hashCode(), copy.hashCode());
+		// Emptiness
+		dbm.addConstraint(Constraint.buildGt(2, 3));
+		assertTrue(dbm.isEmpty());
+		assertFalse(copy.isEmpty());
+		// Complement of x <= 3 is x > 3
+		NCZone compl = xLeq(pta, 3).createComplement();
+		assertTrue(compl.isSatisfied(Constraint.buildGt(1, 3)));
+		assertFalse(compl.isSatisfied(Constraint.buildLeq(1, 3)));
+	}
+
+	@Test
+	void inclusionChecking()
+	{
+		PTA pta = createPTA();
+		LocZoneStore store = new LocZoneStore();
+		LocZone lz = new LocZone(0, xLeq(pta, 5));
+		assertTrue(store.add(lz));
+		assertEquals(0, store.getIndexOfLastAdd());
+		// Stored state is a copy
+		lz.zone.addConstraint(Constraint.buildLeq(1, 1));
+		assertEquals(xLeq(pta, 5), store.get(0).zone);
+		// Exact duplicate
+		assertFalse(store.add(new LocZone(0, xLeq(pta, 5))));
+		assertEquals(0, store.getIndexOfLastAdd());
+		// Included zone
+		assertFalse(store.add(new LocZone(0, xLeq(pta, 2))));
+		assertEquals(0, store.getIndexOfLastAdd());
+		assertEquals(1, store.getNumSubsumed());
+		// Same zone, different location
+		assertTrue(store.add(new LocZone(1, xLeq(pta, 2))));
+		assertEquals(1, store.getIndexOfLastAdd());
+		// Larger zone is added (the smaller one remains)
+		assertTrue(store.add(new LocZone(1, xLeq(pta, 4))));
+		assertEquals(2, store.getIndexOfLastAdd());
+		assertEquals(3, store.size());
+		assertEquals(3, store.toArrayList().size());
+	}
+}
@@ -0,0 +1,119 @@
+package simulator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import parser.ast.Expression;
+import parser.ast.ModulesFile;
+import parser.ast.PropertiesFile;
+import prism.Prism;
+import prism.PrismDevNullLog;
+import prism.PrismException;
+import prism.PrismSettings;
+import prism.Result;
+import simulator.method.CIiterations;
+import simulator.method.CIwidth;
+import simulator.method.SimulationMethod;
+
+/**
+ * Tests for (parallel) statistical model checking in {@link SimulatorEngine}.
+ */
+public class SimulatorEngineTest
+{
+	/** Random walk on 0..10, from 5, moving up with probability 0.4, absorbing at 0 and 10; reward 1 per step */
+	private static final String MODEL = "dtmc\nmodule walk\n  x : [0..10] init 5;\n  [step] x>0 & x<10 -> 0.4:(x'=x+1) + 0.6:(x'=x-1);\nendmodule\n"
+			+ "rewards \"steps\"\n  [step] true : 1;\nendrewards\n";
+
+	private static final String PROPS = "P=? [ F x=10 ]\nP=? [ F<=8 x=0 ]\nR=? [ F x=0|x=10 ]\n";
+
+	private Prism prism;
+	private ModulesFile modulesFile;
+	private PropertiesFile propertiesFile;
+
+	@BeforeEach
+	void setUp() throws PrismException
+	{
+		prism = new Prism(new PrismDevNullLog());
+		prism.initialise();
+		modulesFile = prism.parseModelString(MODEL);
+		propertiesFile = prism.parsePropertiesString(modulesFile, PROPS);
+	}
+
+	@AfterEach
+	void tearDown()
+	{
+		prism.closeDown();
+	}
+
+	/**
+	 * Check the first {@code numProps} properties by sampling, using {@code numThreads} threads and a fixed seed.
+	 */
+	private Result[] sample(SimulatorEngine engine, int numProps, int numThreads, int seed, SimulationMethod simMethod) throws PrismException
+	{
+		prism.getSettings().set(PrismSettings.PRISM_NUM_THREADS, numThreads);
+		engine.setRandomNumberGeneratorSeed(seed);
+		List<Expression> exprs = new ArrayList<>();
+		for (int i = 0; i < numProps; i++) {
+			exprs.add(propertiesFile.getProperty(i));
+		}
+		Result[] results = engine.modelCheckMultipleProperties(propertiesFile, exprs, null, 10000, simMethod);
+		for (Result res : results) {
+			assertTrue(res.getResult() instanceof Double, "unexpected result " + res.getResult());
+		}
+		return results;
+	}
+
+	private SimulatorEngine createEngine() throws PrismException
+	{
+		SimulatorEngine engine = new SimulatorEngine(prism);
+		ModulesFileModelGenerator<Double> modelGen = ModulesFileModelGenerator.createForDoubles(modulesFile, prism);
+		engine.loadModel(modelGen, modelGen);
+		return engine;
+	}
+
+	private double value(Result res)
+	{
+		return (Double) res.getResult();
+	}
+
+	@Test
+	void parallelSamplingIsDeterministic() throws PrismException
+	{
+		// For a given seed, the paths used do not depend on the number of threads,
+		// and the (shared) thread pool can be reused for subsequent sampling
+		SimulatorEngine engine = createEngine();
+		Result[] res2 = sample(engine, 3, 2, 42, new CIwidth(0.01, 5000));
+		Result[] res4 = sample(engine, 3, 4, 42, new CIwidth(0.01, 5000));
+		Result[] res4Again = sample(engine, 3, 4, 42, new CIwidth(0.01, 5000));
+		for (int i = 0; i < res2.length; i++) {
+			assertEquals(value(res2[i]), value(res4[i]), 0.0);
+			assertEquals(value(res4[i]), value(res4Again[i]), 0.0);
+			assertEquals(res2[i].getAccuracy().getErrorBound(), res4[i].getAccuracy().getErrorBound(), 0.0);
+		}
+	}
+
+	@Test
+	void parallelSamplingMatchesSequential() throws PrismException
+	{
+		// Estimates agree (within the confidence intervals); the number of samples is determined during sampling,
+		// checked after each path, as for sequential sampling, so the intervals have (approximately) the same width
+		SimulatorEngine engine = createEngine();
+		Result[] resSeq = sample(engine, 2, 1, 1, new CIiterations(0.01, 0.02));
+		Result[] resPar = sample(engine, 2, 4, 2, new CIiterations(0.01, 0.02));
+		// Known values for the (gambler's ruin) reachability probability
+		double r = 0.6 / 0.4;
+		double exact = (1 - Math.pow(r, 5)) / (1 - Math.pow(r, 10));
+		for (int i = 0; i < resSeq.length; i++) {
+			double widthSeq = resSeq[i].getAccuracy().getErrorBound();
+			double widthPar = resPar[i].getAccuracy().getErrorBound();
+			assertEquals(widthSeq, widthPar, 0.1 * widthSeq);
+			assertEquals(value(resSeq[i]), value(resPar[i]), widthSeq + widthPar);
+		}
+		assertEquals(exact, value(resPar[0]), resPar[0].getAccuracy().getErrorBound());
+	}
+}